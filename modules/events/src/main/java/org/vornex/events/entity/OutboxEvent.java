@@ -3,6 +3,7 @@ package org.vornex.events.entity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.vornex.persistence.UuidV7;
 
 import java.time.Instant;
 import java.util.UUID;
@@ -15,7 +16,7 @@ import java.util.UUID;
 })
 public class OutboxEvent {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     @Column(name = "id", nullable = false, updatable = false)
     private UUID id;
 
@@ -1,28 +1,53 @@
 package org.vornex.listing;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
+import org.hibernate.annotations.Immutable;
 
 import java.io.IOException;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Map;
 
 /**
- * Конвертер для Map<String,String> <-> JSON.
- * Использует Jackson. В будущем ObjectMapper лучше инжектить.
+ * Конвертер для Map<String,String> <-> JSON (колонка listings.attributes).
+ * <p>
+ * Чтение оптимизировано под массовую загрузку объявлений:
+ * - один заранее созданный JsonFactory/ObjectWriter, без ObjectMapper.readValue(..., Map.class) и raw-типов;
+ * - JSON читается потоково по токенам прямо в компактную иммутабельную Map (Map.ofEntries), без промежуточного LinkedHashMap;
+ * - ключи ("brand", "storage") и короткие значения ("Apple", "256GB") дедуплицируются через ограниченный StringPool,
+ * поэтому миллион объявлений делит одни и те же экземпляры строк.
+ * <p>
+ * Map иммутабельна, поэтому конвертер помечен @Immutable: Hibernate не делает deep copy (повторный parse)
+ * для снапшота dirty-checking. Менять атрибуты можно только заменой Map целиком (setAttributes), как и делает сервис.
  */
 @Converter
+@Immutable
 public class MapToJsonConverter implements AttributeConverter<Map<String, String>, String> {
 
-    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // INTERN_FIELD_NAMES выключен: вместо String.intern() используем свой ограниченный пул
+    private static final JsonFactory FACTORY = JsonFactory.builder()
+            .disable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+            .build();
+    private static final ObjectWriter WRITER = new ObjectMapper(FACTORY).writerFor(Map.class);
+
+    private static final StringPool KEYS = new StringPool(10_000, 64);
+    private static final StringPool VALUES = new StringPool(100_000, 32);
+
+    @SuppressWarnings("unchecked")
+    private static final Map.Entry<String, String>[] NO_ENTRIES = new Map.Entry[0];
 
     @Override
     public String convertToDatabaseColumn(Map<String, String> attribute) {
         if (attribute == null || attribute.isEmpty()) return "{}";
         try {
-            return MAPPER.writeValueAsString(attribute);
+            return WRITER.writeValueAsString(attribute);
         } catch (JsonProcessingException e) {
             throw new IllegalStateException("Failed to convert map to JSON", e);
         }
@@ -30,11 +55,32 @@ public class MapToJsonConverter implements AttributeConverter<Map<String, String
 
     @Override
     public Map<String, String> convertToEntityAttribute(String dbData) {
-        if (dbData == null || dbData.isBlank()) return new HashMap<>();
-        try {
-            //noinspection unchecked
-            return MAPPER.readValue(dbData, Map.class);
-        } catch (IOException e) {
+        if (dbData == null || dbData.isBlank()) return Map.of();
+        try (JsonParser parser = FACTORY.createParser(dbData)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalStateException("Attributes JSON must be an object");
+            }
+            Map.Entry<String, String>[] entries = NO_ENTRIES;
+            int size = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = KEYS.canonical(parser.currentName());
+                JsonToken valueToken = parser.nextToken();
+                String value;
+                if (valueToken == JsonToken.VALUE_NULL) {
+                    continue; // null-значения в Map.ofEntries недопустимы и смысла не несут
+                } else if (valueToken.isScalarValue()) {
+                    value = VALUES.canonical(parser.getText());
+                } else {
+                    throw new IllegalStateException("Attribute '" + key + "' must be a scalar value");
+                }
+                if (size == entries.length) {
+                    entries = Arrays.copyOf(entries, Math.max(8, size * 2));
+                }
+                entries[size++] = new AbstractMap.SimpleImmutableEntry<>(key, value);
+            }
+            return size == 0 ? Map.of() : Map.ofEntries(Arrays.copyOf(entries, size));
+        } catch (IOException | IllegalArgumentException e) {
+            // IllegalArgumentException — дубликаты ключей в Map.ofEntries
             throw new IllegalStateException("Failed to convert JSON to map", e);
         }
     }
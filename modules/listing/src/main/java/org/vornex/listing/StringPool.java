@@ -0,0 +1,35 @@
+package org.vornex.listing;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ограниченный пул строк для дедупликации повторяющихся значений ("brand", "Apple", "256GB").
+ * <p>
+ * В отличие от String.intern() не засоряет JVM string table и не растёт бесконечно:
+ * после maxSize новые строки просто не пулятся (возвращаются как есть).
+ * Длинные строки не пулятся — вероятность повтора у них мала, а память они занимают надолго.
+ */
+final class StringPool {
+
+    private final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final int maxLength;
+
+    StringPool(int maxSize, int maxLength) {
+        this.maxSize = maxSize;
+        this.maxLength = maxLength;
+    }
+
+    String canonical(String s) {
+        if (s == null || s.length() > maxLength) return s;
+        String existing = pool.get(s);
+        if (existing != null) return existing;
+        if (pool.size() >= maxSize) return s;
+        existing = pool.putIfAbsent(s, s);
+        return existing != null ? existing : s;
+    }
+
+    int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,83 @@
+package org.vornex.listing.attribute;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.repository.ListingAttributeIndexRepository;
+import org.vornex.listing.repository.ListingAttributeIndexRepository.RawAttribute;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Пересборка listing_attribute_values по атрибуту после изменения схемы.
+ * <p>
+ * - Только после коммита схемы: при откате пересобирать нечего.
+ * - Значения разбираются атрибутом, скомпилированным из события, а не снапшотом registry.
+ * - Keyset-пачки по id, каждая в своей короткой транзакции, а не одна транзакция на всю категорию.
+ * Старое значение строки заменяется новым внутри пачки, поэтому поиск всё время видит либо старое, либо новое.
+ * Невалидные по новому типу значения из индекса убираются (в jsonb они остаются как есть).
+ */
+@Component
+@Slf4j
+public class AttributeBackfill {
+
+    private static final int BATCH = 1000;
+    private static final UUID MIN_ID = new UUID(0L, 0L); // uuid в PostgreSQL сравнивается как беззнаковые байты
+
+    private final ListingAttributeIndexRepository indexRepository;
+    private final TransactionTemplate tx;
+
+    public AttributeBackfill(ListingAttributeIndexRepository indexRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.indexRepository = indexRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSchemaChanged(AttributeSchemaChangedEvent event) {
+        if (event.type() == null) return; // удаление: индекс чистится в транзакции удаления
+        backfill(event.category(), new CompiledAttribute(event.name(), event.type(), event.unit()));
+    }
+
+    void backfill(String category, CompiledAttribute attribute) {
+        UUID after = MIN_ID;
+        int[] totals = new int[2]; // indexed, skipped
+        while (true) {
+            UUID from = after;
+            UUID last = tx.execute(status -> backfillPage(category, attribute, from, totals));
+            if (last == null) break;
+            after = last;
+        }
+        log.info("Attribute {}.{} backfilled: {} indexed, {} skipped as invalid",
+                category, attribute.name(), totals[0], totals[1]);
+    }
+
+    /**
+     * @return id последнего объявления пачки или null, если пачка пуста
+     */
+    private UUID backfillPage(String category, CompiledAttribute attribute, UUID after, int[] totals) {
+        List<RawAttribute> page = indexRepository.findRawValues(category, attribute.name(), after, BATCH);
+        if (page.isEmpty()) return null;
+        Map<UUID, TypedAttributeValue> valid = new HashMap<>();
+        List<UUID> invalid = new ArrayList<>();
+        for (RawAttribute raw : page) {
+            try {
+                valid.put(raw.listingId(), attribute.parse(raw.value()));
+            } catch (BadRequestException ex) {
+                invalid.add(raw.listingId());
+            }
+        }
+        indexRepository.deleteValues(attribute.name(), invalid);
+        indexRepository.upsertAll(valid);
+        totals[0] += valid.size();
+        totals[1] += invalid.size();
+        return page.get(page.size() - 1).listingId();
+    }
+}
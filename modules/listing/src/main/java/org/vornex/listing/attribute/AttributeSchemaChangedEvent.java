@@ -0,0 +1,12 @@
+package org.vornex.listing.attribute;
+
+import org.vornex.listing.enums.AttributeType;
+
+/**
+ * Схема атрибутов изменилась — снапшот в AttributeSchemaRegistry нужно перечитать после коммита,
+ * а значения атрибута — пересобрать в индексной таблице (AttributeBackfill).
+ *
+ * @param type новый тип атрибута; null — атрибут удалён из схемы
+ */
+public record AttributeSchemaChangedEvent(String category, String name, AttributeType type, String unit) {
+}
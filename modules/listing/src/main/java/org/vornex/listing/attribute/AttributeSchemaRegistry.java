@@ -0,0 +1,91 @@
+package org.vornex.listing.attribute;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vornex.listing.entity.CategoryAttributeSchema;
+import org.vornex.listing.enums.AttributeType;
+import org.vornex.listing.repository.CategoryAttributeSchemaRepository;
+
+import java.util.*;
+
+/**
+ * Иммутабельный снапшот схем атрибутов по категориям.
+ * <p>
+ * - Загружается при старте и перезагружается после коммита изменений схемы (AttributeSchemaChangedEvent),
+ * плюс периодически — чтобы подтянуть изменения с других инстансов.
+ * - Чтения (валидация на create/update, фильтры поиска) идут по volatile-ссылке без блокировок и без БД.
+ */
+@Component
+@Slf4j
+public class AttributeSchemaRegistry {
+
+    private final CategoryAttributeSchemaRepository schemaRepository;
+    private volatile Map<String, Map<String, CompiledAttribute>> schemas = Map.of();
+
+    public AttributeSchemaRegistry(CategoryAttributeSchemaRepository schemaRepository) {
+        this.schemaRepository = schemaRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Раньше остальных слушателей коммита: записи сразу после коммита уже валидируются новой схемой.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSchemaChanged(AttributeSchemaChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.attributes.schema-reload-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    public void reload() {
+        Map<String, Map<String, CompiledAttribute>> next = new HashMap<>();
+        for (CategoryAttributeSchema s : schemaRepository.findAll()) {
+            next.computeIfAbsent(s.getCategory(), c -> new HashMap<>())
+                    .put(s.getName(), new CompiledAttribute(s.getName(), s.getType(), s.getUnit()));
+        }
+        Map<String, Map<String, CompiledAttribute>> frozen = new HashMap<>();
+        next.forEach((category, attrs) -> frozen.put(category, Map.copyOf(attrs)));
+        schemas = Map.copyOf(frozen);
+        log.debug("Attribute schemas reloaded: {} categories", frozen.size());
+    }
+
+    /**
+     * Валидирует атрибуты объявления по схеме категории и возвращает типизированные значения
+     * для индексной таблицы. Атрибуты вне схемы допустимы — они остаются только в jsonb.
+     *
+     * @throws org.vornex.exception.BadRequestException если значение не соответствует типу
+     */
+    public List<TypedAttributeValue> extractTyped(String category, Map<String, String> attributes) {
+        Map<String, CompiledAttribute> schema = schemas.get(category);
+        if (schema == null || attributes == null || attributes.isEmpty()) return List.of();
+        List<TypedAttributeValue> result = new ArrayList<>();
+        for (Map.Entry<String, String> e : attributes.entrySet()) {
+            CompiledAttribute attr = schema.get(e.getKey());
+            if (attr != null) result.add(attr.parse(e.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Тип атрибута в категории (если схема известна).
+     */
+    public Optional<AttributeType> typeOf(String category, String name) {
+        Map<String, CompiledAttribute> schema = schemas.get(category);
+        if (schema == null) return Optional.empty();
+        return Optional.ofNullable(schema.get(name)).map(CompiledAttribute::type);
+    }
+}
@@ -0,0 +1,64 @@
+package org.vornex.listing.attribute;
+
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.enums.AttributeType;
+
+import java.math.BigDecimal;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Атрибут схемы, "скомпилированный" один раз при загрузке схемы:
+ * для NUMBER заранее собран Pattern с учётом единицы измерения, чтобы не строить его на каждый запрос.
+ */
+final class CompiledAttribute {
+
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private final String name;
+    private final AttributeType type;
+    private final String unit;
+    private final Pattern numberPattern;
+
+    CompiledAttribute(String name, AttributeType type, String unit) {
+        this.name = name;
+        this.type = type;
+        this.unit = unit;
+        // "150000", "150 000 km", "1,5" — пробелы-разделители разрядов и запятая как десятичный разделитель
+        String unitPart = (unit == null || unit.isBlank()) ? "" : "(?:\\s*" + Pattern.quote(unit) + ")?";
+        this.numberPattern = type == AttributeType.NUMBER
+                ? Pattern.compile("^\\s*([-+]?\\d[\\d ]*(?:[.,]\\d+)?)" + unitPart + "\\s*$", Pattern.CASE_INSENSITIVE)
+                : null;
+    }
+
+    String name() {
+        return name;
+    }
+
+    AttributeType type() {
+        return type;
+    }
+
+    String unit() {
+        return unit;
+    }
+
+    TypedAttributeValue parse(String raw) {
+        if (raw == null || raw.isBlank()) {
+            throw new BadRequestException("attribute '" + name + "' must not be blank");
+        }
+        if (type == AttributeType.TEXT) {
+            String value = raw.trim();
+            if (value.length() > MAX_TEXT_LENGTH) {
+                throw new BadRequestException("attribute '" + name + "' is too long (max " + MAX_TEXT_LENGTH + ")");
+            }
+            return new TypedAttributeValue(name, null, value);
+        }
+        Matcher m = numberPattern.matcher(raw);
+        if (!m.matches()) {
+            throw new BadRequestException("attribute '" + name + "' must be a number"
+                    + (unit == null ? "" : " (optionally with unit '" + unit + "')"));
+        }
+        return new TypedAttributeValue(name, new BigDecimal(m.group(1).replace(" ", "").replace(',', '.')), null);
+    }
+}
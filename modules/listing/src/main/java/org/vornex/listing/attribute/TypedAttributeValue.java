@@ -0,0 +1,9 @@
+package org.vornex.listing.attribute;
+
+import java.math.BigDecimal;
+
+/**
+ * Значение атрибута, приведённое к типу из схемы категории: заполнено ровно одно из numberValue/textValue.
+ */
+public record TypedAttributeValue(String name, BigDecimal numberValue, String textValue) {
+}
@@ -0,0 +1,113 @@
+package org.vornex.listing.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.util.ListingCacheProperties;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Read-through кеш карточек объявлений (ListingResponseDto) по id.
+ * <p>
+ * - Caffeine (W-TinyLFU): ограничен по размеру, популярные карточки вытесняются последними.
+ * - Каждое значение несёт Listing.version (ListingResponseDto.version) — по нему можно дёшево
+ * проверить актуальность без обращения к БД.
+ * - Инвалидация — по ListingChangedEvent ПОСЛЕ коммита. Если в этот момент ключ грузится через get(),
+ * invalidate дождётся окончания загрузки и удалит значение, поэтому устаревшая карточка не останется в кеше.
+ * - Пакетная загрузка (getAll) с invalidate не атомарна: загрузчик мог прочитать карточку до коммита,
+ * а положить её после инвалидации. Поэтому evict увеличивает поколение ключа (полосы по hash id),
+ * а getAll кладёт загруженное, только если поколение с начала загрузки не изменилось — проверка и put
+ * идут под блокировкой ключа, как и evict.
+ * - Метрики (hit rate, size, load latency) публикуются в MeterRegistry как cache.* с тегом cache=listing.details.
+ */
+@Component
+@Slf4j
+public class ListingCache {
+
+    private static final String CACHE_NAME = "listing.details";
+
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final Cache<UUID, ListingResponseDto> cache;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ListingCache(ListingCacheProperties props, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(props.getMaxSize())
+                .expireAfterWrite(props.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Возвращает карточку из кеша или загружает её loader'ом (одна загрузка на ключ даже при конкурентных запросах).
+     * Исключения loader'а (например NotFoundException) пробрасываются и не кешируются.
+     */
+    public ListingResponseDto get(UUID id, Function<UUID, ListingResponseDto> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Пакетное чтение: попадания берутся из кеша, все промахи грузятся одним вызовом bulkLoader.
+     * Id, которых нет в результате загрузчика (удалены / не существуют), отсутствуют и в ответе и не кешируются.
+     * Карточка, инвалидированная во время загрузки, возвращается вызывающему, но в кеш не попадает.
+     */
+    public Map<UUID, ListingResponseDto> getAll(Collection<UUID> ids,
+                                                Function<Set<? extends UUID>, Map<UUID, ListingResponseDto>> bulkLoader) {
+        Map<UUID, ListingResponseDto> result = new HashMap<>(cache.getAllPresent(ids));
+        Map<UUID, Long> misses = new LinkedHashMap<>(); // id -> поколение до загрузки
+        for (UUID id : ids) {
+            if (!result.containsKey(id)) misses.put(id, generations.get(stripe(id)));
+        }
+        if (misses.isEmpty()) return result;
+
+        bulkLoader.apply(misses.keySet()).forEach((id, card) -> {
+            Long generation = misses.get(id);
+            if (generation == null) return;
+            cache.asMap().compute(id, (k, current) -> current != null ? current
+                    : generations.get(stripe(id)) == generation ? card : null);
+            result.put(id, card);
+        });
+        return result;
+    }
+
+    public Optional<ListingResponseDto> peek(UUID id) {
+        return Optional.ofNullable(cache.getIfPresent(id));
+    }
+
+    public void evict(UUID id) {
+        cache.asMap().compute(id, (k, current) -> {
+            generations.incrementAndGet(stripe(id));
+            return null;
+        });
+    }
+
+    private static int stripe(UUID id) {
+        return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+    }
+
+    /**
+     * fallbackExecution = true — если событие опубликовано вне транзакции, инвалидируем сразу.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        log.debug("Evicting listing {} from cache after {}", event.listingId(), event.type());
+        evict(event.listingId());
+    }
+}
@@ -0,0 +1,97 @@
+package org.vornex.listing.category;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vornex.listing.entity.Category;
+import org.vornex.listing.repository.CategoryRepository;
+
+import java.util.*;
+
+/**
+ * Иммутабельный снапшот дерева категорий.
+ * <p>
+ * - Загружается при старте и перезагружается после коммита изменений каталога (CategoryChangedEvent),
+ * плюс периодически — чтобы подтянуть изменения с других инстансов.
+ * - Валидация категории при создании объявления и разворачивание фильтра поиска в path идут
+ * по volatile-ссылке без блокировок и без БД.
+ */
+@Component
+@Slf4j
+public class CategoryCatalog {
+
+    private static final Comparator<Category> SIBLING_ORDER =
+            Comparator.comparingInt(Category::getPosition).thenComparing(Category::getSlug);
+
+    private final CategoryRepository categoryRepository;
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of());
+
+    public CategoryCatalog(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    private record Snapshot(Map<String, CategoryNode> bySlug, List<CategoryNode> roots) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.categories.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    public void reload() {
+        List<Category> all = categoryRepository.findAll();
+        Map<UUID, List<Category>> byParent = new HashMap<>();
+        for (Category c : all) {
+            byParent.computeIfAbsent(c.getParentId(), p -> new ArrayList<>()).add(c);
+        }
+        Map<String, CategoryNode> bySlug = new HashMap<>();
+        List<CategoryNode> roots = build(byParent, null, null, 0, bySlug);
+        if (bySlug.size() != all.size()) {
+            // parent_id — FK, так что сюда попадаем только при гонке с удалением; узлы подхватит следующий reload
+            log.warn("Category catalog: {} categories are not reachable from roots", all.size() - bySlug.size());
+        }
+        snapshot = new Snapshot(Map.copyOf(bySlug), roots);
+        log.debug("Category catalog reloaded: {} categories", bySlug.size());
+    }
+
+    // Дерево строится снизу вверх: узел создаётся после своих детей, поэтому все списки неизменяемы
+    private List<CategoryNode> build(Map<UUID, List<Category>> byParent, UUID parentId, String parentSlug,
+                                     int depth, Map<String, CategoryNode> bySlug) {
+        List<Category> level = byParent.getOrDefault(parentId, List.of());
+        if (level.isEmpty()) return List.of();
+        List<CategoryNode> nodes = new ArrayList<>(level.size());
+        for (Category c : level.stream().sorted(SIBLING_ORDER).toList()) {
+            List<CategoryNode> children = build(byParent, c.getId(), c.getSlug(), depth + 1, bySlug);
+            CategoryNode node = new CategoryNode(c.getId(), c.getSlug(), c.getName(), parentSlug, c.getPath(),
+                    depth, c.getPosition(), children);
+            bySlug.put(node.slug(), node);
+            nodes.add(node);
+        }
+        return List.copyOf(nodes);
+    }
+
+    public Optional<CategoryNode> find(String slug) {
+        if (slug == null) return Optional.empty();
+        return Optional.ofNullable(snapshot.bySlug().get(slug));
+    }
+
+    /**
+     * Корни дерева (каждый со всем поддеревом), отсортированные по (position, slug).
+     */
+    public List<CategoryNode> roots() {
+        return snapshot.roots();
+    }
+}
@@ -0,0 +1,7 @@
+package org.vornex.listing.category;
+
+/**
+ * Каталог категорий изменился — снапшот в CategoryCatalog нужно перечитать после коммита.
+ */
+public record CategoryChangedEvent(String slug) {
+}
@@ -0,0 +1,26 @@
+package org.vornex.listing.category;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Неизменяемый узел дерева категорий из снапшота CategoryCatalog.
+ *
+ * @param path     материализованный путь "/electronics/phones/"
+ * @param depth    0 — корень
+ * @param children дочерние узлы, отсортированные по (position, slug)
+ */
+public record CategoryNode(
+        UUID id,
+        String slug,
+        String name,
+        String parentSlug,
+        String path,
+        int depth,
+        int position,
+        List<CategoryNode> children
+) {
+    public boolean isLeaf() {
+        return children.isEmpty();
+    }
+}
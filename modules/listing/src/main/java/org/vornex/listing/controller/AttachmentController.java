@@ -9,6 +9,8 @@ import org.vornex.listing.dto.attachmentDto.AttachmentResponseDto;
 import org.vornex.listing.entity.Attachment;
 import org.vornex.listing.service.AttachmentService;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/uploads")
@@ -22,6 +24,12 @@ public class AttachmentController {
         // возвращает временную ссылку для загрузки файла и ключ фронту
     }
 
+    @PostMapping("/presign/batch")
+    public ResponseEntity<List<AttachmentResponseDto>> presignUrls(@RequestBody List<AttachmentRequestDto> attachmentDtos) {
+        return ResponseEntity.ok(attachmentService.presignUrls(attachmentDtos));
+        // ссылки в порядке запроса; записи Attachment вставляются одним batch INSERT
+    }
+
     @PostMapping("/complete")
     public ResponseEntity<AttachmentCompletedResponseDto> complete(@RequestParam("key") String key) {
         return ResponseEntity.ok(attachmentService.completeUpload(key));
@@ -0,0 +1,38 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.vornex.listing.dto.AttributeSchemaDto;
+import org.vornex.listing.service.AttributeSchemaService;
+
+import java.util.List;
+
+/**
+ * Управление схемами типизированных атрибутов категорий (admin).
+ * Права проверяет сервис (SecurityContextUtils.isAdmin()).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/attribute-schemas")
+public class AttributeSchemaController {
+
+    private final AttributeSchemaService attributeSchemaService;
+
+    @GetMapping
+    public ResponseEntity<List<AttributeSchemaDto>> findAll() {
+        return ResponseEntity.ok(attributeSchemaService.findAll());
+    }
+
+    @PutMapping
+    public ResponseEntity<AttributeSchemaDto> upsert(@RequestBody AttributeSchemaDto dto) {
+        return ResponseEntity.ok(attributeSchemaService.upsert(dto));
+    }
+
+    @DeleteMapping("/{category}/{name}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("category") String category, @PathVariable("name") String name) {
+        attributeSchemaService.delete(category, name);
+    }
+}
@@ -0,0 +1,44 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.vornex.listing.dto.CategoryDto;
+import org.vornex.listing.dto.CreateCategoryDto;
+import org.vornex.listing.dto.UpdateCategoryDto;
+import org.vornex.listing.service.CategoryService;
+
+import java.util.List;
+
+/**
+ * Каталог категорий: дерево для всех, изменения — admin (права проверяет сервис).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class CategoryController {
+
+    private final CategoryService categoryService;
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryDto>> tree() {
+        return ResponseEntity.ok(categoryService.tree());
+    }
+
+    @PostMapping("/admin/categories")
+    public ResponseEntity<CategoryDto> create(@RequestBody CreateCategoryDto dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(categoryService.create(dto));
+    }
+
+    @PatchMapping("/admin/categories/{slug}")
+    public ResponseEntity<CategoryDto> update(@PathVariable("slug") String slug, @RequestBody UpdateCategoryDto dto) {
+        return ResponseEntity.ok(categoryService.update(slug, dto));
+    }
+
+    @DeleteMapping("/admin/categories/{slug}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("slug") String slug) {
+        categoryService.delete(slug);
+    }
+}
@@ -0,0 +1,30 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.vornex.listing.dto.ExchangeRatesDto;
+import org.vornex.listing.dto.UpdateExchangeRateDto;
+import org.vornex.listing.service.ExchangeRateService;
+
+/**
+ * Курсы валют к базовой (для цены в базовой валюте в поиске): чтение — всем, изменение — admin.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api")
+public class ExchangeRateController {
+
+    private final ExchangeRateService exchangeRateService;
+
+    @GetMapping("/exchange-rates")
+    public ResponseEntity<ExchangeRatesDto> rates() {
+        return ResponseEntity.ok(exchangeRateService.rates());
+    }
+
+    @PutMapping("/admin/exchange-rates/{currency}")
+    public ResponseEntity<ExchangeRatesDto> update(@PathVariable("currency") String currency,
+                                                   @RequestBody UpdateExchangeRateDto dto) {
+        return ResponseEntity.ok(exchangeRateService.update(currency, dto == null ? null : dto.rateToBase()));
+    }
+}
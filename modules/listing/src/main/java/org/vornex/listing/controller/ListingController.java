@@ -1,22 +1,42 @@
 package org.vornex.listing.controller;
 
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.vornex.exception.BadRequestException;
+import org.vornex.exception.ConflictException;
 import org.vornex.listing.dto.CreateListingDto;
+import org.vornex.listing.dto.LatestListingDto;
+import org.vornex.listing.dto.ListingBatchRequestDto;
+import org.vornex.listing.dto.ListingFilterDto;
+import org.vornex.listing.dto.ListingImportResultDto;
 import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.dto.ListingSearchPageDto;
+import org.vornex.listing.dto.ListingStatsDto;
+import org.vornex.listing.dto.TrendingListingDto;
 import org.vornex.listing.dto.UpdateListingDto;
+import org.vornex.listing.enums.ListingFileFormat;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.service.ListingImportService;
 import org.vornex.listing.service.ListingService;
+import org.vornex.listing.util.ListingETags;
 
+import java.io.InputStream;
 import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -26,11 +46,17 @@ import java.util.UUID;
  * - Контроллер легкий — он валидирует ввод и делегирует работу сервису.
  * - Возвращаемые статусы:
  * - POST /api/listings -> 201 Created + Location header + body с созданным DTO
- * - GET /api/listings/{id} -> 200 OK + body
- * - PATCH /api/listings/{id} -> 200 OK + body (partial update)
- * - POST /api/listings/{id}/publish -> 204 No Content
+ * - GET /api/listings/{id} -> 200 OK + body + ETag (If-None-Match -> 304)
+ * - POST /api/listings/batch -> 200 OK + список DTO в порядке запрошенных id (multi-get)
+ * - GET /api/listings?category=...&attributes[brand]=... -> 200 OK + страница (поиск, hasNext / nextCursor)
+ * - PATCH /api/listings/{id} -> 200 OK + body (partial update; If-Match = ожидаемая версия)
+ * - POST /api/listings/{id}/publish -> 202 Accepted (объявление ушло на модерацию)
  * - DELETE /api/listings/{id} -> 204 No Content
  * - POST /api/listings/{id}/views -> 204 No Content (increment view counter)
+ * - GET /api/listings/{id}/stats -> 200 OK (статистика просмотров для продавца)
+ * - GET /api/listings/trending -> 200 OK (top по просмотрам за последний час)
+ * - GET /api/listings/counts?status=PUBLISHED -> 200 OK (число объявлений по категориям)
+ * - POST /api/listings/import -> 200 OK + отчёт (массовый импорт NDJSON / CSV)
  * <p>
  * Контроллер не выполняет авторизацию напрямую — это делает бизнес-слой (ListingService)
  * через SecurityContextUtils / @PreAuthorize (по выбору). Это упрощает unit-тестирование.
@@ -43,6 +69,7 @@ import java.util.UUID;
 public class ListingController {
 
     private final ListingService listingService;
+    private final ListingImportService importService;
 
     // ---------------- CREATE ----------------
 
@@ -70,19 +97,82 @@ public class ListingController {
         return ResponseEntity.created(location).body(created);
     }
 
+    // ---------------- IMPORT ----------------
+
+    /**
+     * Массовый импорт объявлений-черновиков.
+     * <p>
+     * Тело — сырой поток (не multipart): application/x-ndjson (CreateListingDto на строку)
+     * или text/csv с заголовком. Читается потоково, ошибки по строкам возвращаются в отчёте.
+     *
+     * @param ownerId владелец импортируемых объявлений (только admin, для миграций); по умолчанию — текущий пользователь
+     */
+    @PostMapping(path = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ListingImportResultDto> importListings(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(name = "ownerId", required = false) UUID ownerId,
+            InputStream body
+    ) {
+        ListingFileFormat format = ListingFileFormat.fromContentType(contentType)
+                .orElseThrow(() -> new BadRequestException("Unsupported import format: " + contentType));
+        return ResponseEntity.ok(importService.importListings(body, format, ownerId));
+    }
+
     // ---------------- GET ----------------
 
     /**
      * Получить объявление по id.
      * <p>
-     * Возвращает 200 OK с DTO. Благодаря @Where на entity удалённые записи не вернутся.
+     * Возвращает 200 OK с DTO и строгим ETag (id + version).
+     * Если If-None-Match совпал с текущей версией — 304 без тела: версия берётся из кеша
+     * или одним select version, карточка не читается и не сериализуется.
      *
      * @param id UUID объявления
      */
     @GetMapping(path = "/{id}")
-    public ResponseEntity<ListingResponseDto> getById(@PathVariable("id") UUID id) {
+    public ResponseEntity<ListingResponseDto> getById(
+            @PathVariable("id") UUID id,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) {
+        if (ifNoneMatch != null) {
+            String current = ListingETags.of(id, listingService.getVersion(id));
+            if (ListingETags.noneMatchHits(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).cacheControl(CacheControl.noCache()).build();
+            }
+        }
         ListingResponseDto dto = listingService.getById(id);
-        return ResponseEntity.ok(dto);
+        return withETag(ResponseEntity.ok(), dto).body(dto);
+    }
+
+    /**
+     * Пакетное получение объявлений по id (ленты, избранное) — вместо N вызовов GET /{id}.
+     * Несуществующие id пропускаются; порядок ответа совпадает с порядком в запросе.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ListingResponseDto>> getByIds(@RequestBody ListingBatchRequestDto request) {
+        return ResponseEntity.ok(listingService.getByIds(request.ids()));
+    }
+
+    // ---------------- SEARCH ----------------
+
+    /**
+     * Поиск объявлений.
+     * <p>
+     * Фильтры — query-параметры ListingFilterDto: category, status, ownerId, city, minPrice, maxPrice (в базовой валюте),
+     * attributes[brand]=Apple (равенство), attributesAnyOf[storage]=128GB,256GB (любое из);
+     * sort=NEWEST|POPULAR|PRICE_ASC|PRICE_DESC.
+     * Пагинация: page (первые 1000 результатов) или cursor — nextCursor предыдущей страницы, для любой глубины.
+     *
+     * @return 200 OK со страницей ListingResponseDto (по умолчанию новые сверху) и hasNext / nextCursor
+     */
+    @GetMapping
+    public ResponseEntity<ListingSearchPageDto> search(
+            ListingFilterDto filter,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "20") int size,
+            @RequestParam(name = "cursor", required = false) String cursor
+    ) {
+        return ResponseEntity.ok(listingService.search(filter, page, size, cursor));
     }
 
     // ---------------- PATCH / UPDATE ----------------
@@ -93,6 +183,7 @@ public class ListingController {
      * Правила:
      * - DTO содержит nullable поля; null = не менять.
      * - Сервис выполняет проверку прав (владелец или admin), optimistic version и пр.
+     * - If-Match (ETag из GET) — альтернатива полю version в теле; при устаревшей версии 412 Precondition Failed.
      *
      * @param id  UUID объявления
      * @param dto UpdateListingDto — частичный набор полей для обновления
@@ -101,13 +192,36 @@ public class ListingController {
     @PatchMapping(path = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<ListingResponseDto> updateListing(
             @PathVariable("id") UUID id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody UpdateListingDto dto
     ) {
         // Проверка, что dto не null — @Valid уже сделает это, но дополнительная защита
         if (dto == null) throw new BadRequestException("Request body is required");
 
-        ListingResponseDto updated = listingService.updateListing(id, dto);
-        return ResponseEntity.ok(updated);
+        // If-Match (ETag из GET) заменяет поле version в теле
+        if (ifMatch != null) {
+            Long expected;
+            try {
+                expected = ListingETags.versionFromIfMatch(id, ifMatch).orElse(null);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+            }
+            if (expected != null) {
+                if (dto.getVersion() != null && !dto.getVersion().equals(expected)) {
+                    throw new BadRequestException("If-Match and body version disagree");
+                }
+                dto = dto.toBuilder().version(expected).build();
+            }
+        }
+
+        ListingResponseDto updated;
+        try {
+            updated = listingService.updateListing(id, dto);
+        } catch (ConflictException e) {
+            if (ifMatch == null) throw e;
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, e.getMessage());
+        }
+        return withETag(ResponseEntity.ok(), updated).body(updated);
     }
 
     // ---------------- PUBLISH ----------------
@@ -117,12 +231,12 @@ public class ListingController {
      * <p>
      * Поток:
      * - Сервис проверяет права и инварианты (title, price, category, attachments)
-     * - Смена статуса на PUBLISHED и сохранение
+     * - moderationStatus = PENDING и постановка в очередь модерации; PUBLISHED — после одобрения
      * <p>
-     * Возвращает 204 No Content при успехе.
+     * Возвращает 202 Accepted: публикация принята, но ещё не выполнена.
      */
     @PostMapping(path = "/{id}/publish")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @ResponseStatus(HttpStatus.ACCEPTED)
     public void publish(@PathVariable("id") UUID id) {
         listingService.publish(id);
     }
@@ -151,10 +265,86 @@ public class ListingController {
      * Инкремент счётчика просмотров.
      * <p>
      * Возвращаем 204 No Content — быстрый endpoint для фронта/плеера.
+     * Синхронно в БД не ходит: просмотры копятся в памяти и пишутся пачкой (write-behind),
+     * поэтому для несуществующего id тоже 204 — такие просмотры отбрасываются при flush.
      */
     @PostMapping(path = "/{id}/views")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void incrementViews(@PathVariable("id") UUID id) {
-        listingService.incrementViews(id);
+    public void incrementViews(@PathVariable("id") UUID id, HttpServletRequest request) {
+        listingService.incrementViews(id, clientFingerprint(request));
+    }
+
+    // ---------------- TRENDING ----------------
+
+    /**
+     * "Trending now": top объявлений по просмотрам за последний час (в категории или общий).
+     * Отдаётся из памяти, без запросов к БД.
+     */
+    @GetMapping(path = "/trending")
+    public ResponseEntity<List<TrendingListingDto>> getTrending(
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "limit", defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(listingService.getTrending(category, limit));
+    }
+
+    // ---------------- LATEST ----------------
+
+    /**
+     * "Новые объявления" для главной: последние опубликованные по категории (вместе с подкатегориями) и городу.
+     * Отдаётся из памяти (кольца LatestListings), без запросов к БД.
+     */
+    @GetMapping(path = "/latest")
+    public ResponseEntity<List<LatestListingDto>> getLatest(
+            @RequestParam(name = "category", required = false) String category,
+            @RequestParam(name = "city", required = false) String city,
+            @RequestParam(name = "limit", defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(listingService.getLatest(category, city, limit));
+    }
+
+    // ---------------- COUNTS ----------------
+
+    /**
+     * Число объявлений по категориям (по умолчанию PUBLISHED; другие статусы — только admin).
+     * Отдаётся из памяти (счётчики listing_counters), без count(*) по объявлениям.
+     */
+    @GetMapping(path = "/counts")
+    public ResponseEntity<Map<String, Long>> countByCategory(
+            @RequestParam(name = "status", required = false) ListingStatus status
+    ) {
+        return ResponseEntity.ok(listingService.countByCategory(status));
+    }
+
+    // ---------------- STATS ----------------
+
+    /**
+     * Статистика объявления для продавца: просмотры и приблизительное число уникальных зрителей по дням.
+     *
+     * @param days глубина в днях (включая сегодня)
+     */
+    @GetMapping(path = "/{id}/stats")
+    public ResponseEntity<ListingStatsDto> getStats(@PathVariable("id") UUID id,
+                                                    @RequestParam(name = "days", defaultValue = "30") int days) {
+        return ResponseEntity.ok(listingService.getStats(id, days));
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, ListingResponseDto dto) {
+        // no-cache: клиенты и CDN хранят копию, но каждый раз ревалидируют её по ETag
+        builder.cacheControl(CacheControl.noCache());
+        return dto.version() == null ? builder : builder.eTag(ListingETags.of(dto.id(), dto.version()));
+    }
+
+    /**
+     * Отпечаток клиента для анонимного подсчёта уникальных зрителей: первый X-Forwarded-For (или remoteAddr) + User-Agent.
+     */
+    private String clientFingerprint(HttpServletRequest request) {
+        String ip = request.getHeader("X-Forwarded-For");
+        if (ip == null || ip.isBlank()) {
+            ip = request.getRemoteAddr();
+        } else {
+            ip = ip.split(",")[0].trim();
+        }
+        return ip + "|" + Objects.toString(request.getHeader("User-Agent"), "");
     }
 }
@@ -0,0 +1,50 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.vornex.listing.dto.ListingExportFilterDto;
+import org.vornex.listing.enums.ListingFileFormat;
+import org.vornex.listing.service.ListingExportService;
+import org.vornex.listing.util.AcceptEncoding;
+
+/**
+ * Полная выгрузка объявлений (admin): GET /api/admin/listings/export?format=NDJSON|CSV&status=&category=&ownerId=
+ * <p>
+ * Ответ пишется потоково (StreamingResponseBody). Если Accept-Encoding допускает gzip (с учётом q-значений,
+ * см. AcceptEncoding) — сжимаем на лету и ставим Content-Encoding: gzip.
+ * Права проверяет сервис (SecurityContextUtils.isAdmin()).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/listings/export")
+public class ListingExportController {
+
+    private final ListingExportService exportService;
+
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            ListingExportFilterDto filter,
+            @RequestParam(name = "format", defaultValue = "NDJSON") ListingFileFormat format,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = AcceptEncoding.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = exportService.export(filter, format, gzip);
+
+        String filename = "listings." + format.name().toLowerCase();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+        response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return response.body(body);
+    }
+}
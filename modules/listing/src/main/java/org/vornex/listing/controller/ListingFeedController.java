@@ -0,0 +1,57 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.feed.ListingChangeFeed;
+import org.vornex.listing.util.ListingFeedProperties;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Фид изменений опубликованных объявлений (Server-Sent Events) — вместо поллинга карточек и поиска.
+ * <p>
+ * GET /api/listings/changes?ids=...&category=...
+ * - event "change": data = ListingChangeDto (id, version, status, changedFields...), id = номер события;
+ * - event "reset": часть событий потеряна (долгий разрыв / рестарт) — перечитать карточки;
+ * - переподключение с заголовком Last-Event-ID продолжает с места обрыва (EventSource делает это сам).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/listings/changes")
+public class ListingFeedController {
+
+    private final ListingChangeFeed changeFeed;
+    private final ListingFeedProperties properties;
+
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @RequestParam(name = "ids", required = false) List<UUID> ids,
+            @RequestParam(name = "category", required = false) String category,
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        Set<UUID> listingIds = ids == null ? Set.of() : Set.copyOf(ids);
+        if (listingIds.size() > properties.getMaxListingIds()) {
+            throw new BadRequestException("too many ids (max " + properties.getMaxListingIds() + ")");
+        }
+        return changeFeed.subscribe(listingIds, category == null || category.isBlank() ? null : category.trim(),
+                parseLastEventId(lastEventId));
+    }
+
+    private static Long parseLastEventId(String header) {
+        if (header == null || header.isBlank()) return null;
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return null; // чужой/битый id — как новая подписка
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.vornex.listing.dto.ListingSyncDto;
+import org.vornex.listing.service.ListingSyncService;
+
+/**
+ * Дельта-синхронизация объявлений текущего пользователя для мобильного/офлайн-клиента.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/listings/sync")
+public class ListingSyncController {
+
+    private final ListingSyncService listingSyncService;
+
+    /**
+     * Первый вызов — без token; дальше — syncToken из предыдущего ответа. Пока hasMore — запрашивать сразу.
+     */
+    @GetMapping
+    public ResponseEntity<ListingSyncDto> sync(
+            @RequestParam(name = "token", required = false) String token,
+            @RequestParam(name = "limit", defaultValue = "200") int limit
+    ) {
+        return ResponseEntity.ok(listingSyncService.sync(token, limit));
+    }
+}
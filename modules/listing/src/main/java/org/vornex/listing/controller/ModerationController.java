@@ -0,0 +1,44 @@
+package org.vornex.listing.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.vornex.listing.dto.ModerationDecisionDto;
+import org.vornex.listing.dto.ModerationTaskDto;
+import org.vornex.listing.service.ModerationService;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ручная модерация (admin):
+ * - POST /api/admin/moderation/claim?limit=10 -> 200 OK + все задачи, назначенные текущему модератору
+ * - GET /api/admin/moderation/assigned -> 200 OK + назначенные задачи
+ * - POST /api/admin/moderation/{listingId}/decision -> 204 No Content (APPROVE / REJECT с причиной)
+ * <p>
+ * Права проверяет сервис (SecurityContextUtils.isAdmin()).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/moderation")
+public class ModerationController {
+
+    private final ModerationService moderationService;
+
+    @PostMapping("/claim")
+    public List<ModerationTaskDto> claim(@RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return moderationService.claim(limit);
+    }
+
+    @GetMapping("/assigned")
+    public List<ModerationTaskDto> assigned() {
+        return moderationService.assigned();
+    }
+
+    @PostMapping("/{listingId}/decision")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void decide(@PathVariable("listingId") UUID listingId, @Valid @RequestBody ModerationDecisionDto decision) {
+        moderationService.decide(listingId, decision);
+    }
+}
@@ -0,0 +1,52 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.vornex.listing.dto.CreateSavedSearchDto;
+import org.vornex.listing.dto.SavedSearchAlertDto;
+import org.vornex.listing.dto.SavedSearchDto;
+import org.vornex.listing.service.SavedSearchService;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Сохранённые поиски текущего пользователя и уведомления о новых объявлениях по ним.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/saved-searches")
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    @PostMapping
+    public ResponseEntity<SavedSearchDto> create(@RequestBody CreateSavedSearchDto dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(savedSearchService.create(dto));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SavedSearchDto>> mine() {
+        return ResponseEntity.ok(savedSearchService.mine());
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable("id") UUID id) {
+        savedSearchService.delete(id);
+    }
+
+    /**
+     * Новые объявления по сохранённым поискам, новые первыми; следующая страница — before = alertedAt последнего.
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<List<SavedSearchAlertDto>> alerts(
+            @RequestParam(name = "before", required = false) Instant before,
+            @RequestParam(name = "limit", defaultValue = "20") int limit
+    ) {
+        return ResponseEntity.ok(savedSearchService.alerts(before, limit));
+    }
+}
@@ -0,0 +1,33 @@
+package org.vornex.listing.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.vornex.listing.service.SitemapService;
+
+/**
+ * Sitemap для поисковых роботов — под /public/** (без авторизации).
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/public/sitemaps")
+public class SitemapController {
+
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final SitemapService sitemapService;
+
+    @GetMapping("/index.xml")
+    public ResponseEntity<byte[]> index() {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_XML).body(sitemapService.index());
+    }
+
+    @GetMapping("/listings-{id}.xml.gz")
+    public ResponseEntity<byte[]> shard(@PathVariable("id") int id) {
+        return ResponseEntity.ok().contentType(GZIP).body(sitemapService.shard(id));
+    }
+}
@@ -0,0 +1,192 @@
+package org.vornex.listing.counter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.ListingCountersJdbcRepository;
+import org.vornex.listing.repository.ListingCountersJdbcRepository.CounterRow;
+import org.vornex.listing.util.ListingCounterProperties;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Счётчики объявлений по (category, status) вместо count(*) по listings.
+ * <p>
+ * Запись:
+ * - ListingChangedEvent слушаем синхронно (@EventListener) — ещё внутри транзакции, которая меняет listings.
+ * Дельты копятся на транзакцию и пишутся одним batch'ем в beforeCommit: счётчик коммитится (или откатывается)
+ * вместе с самим изменением, а блокировки горячих строк категорий держатся только на время коммита.
+ * Ключи сортируются — конкурирующие транзакции блокируют строки в одном порядке.
+ * - Изменения мимо событий (каскады, ручной SQL) исправляет периодическая сверка reconcile().
+ * <p>
+ * Чтение: снимок всей таблицы в памяти (O(категорий)), сбрасывается после коммита своих изменений
+ * и перечитывается не реже cacheTtl — так подтягиваются изменения с других инстансов.
+ */
+@Component
+@Slf4j
+public class ListingCounters {
+
+    public record Key(String category, ListingStatus status) {
+    }
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::category).thenComparing(Key::status);
+
+    private record Snapshot(Map<String, Map<ListingStatus, Long>> counts, Instant loadedAt) {
+    }
+
+    private final ListingCountersJdbcRepository repository;
+    private final ListingCounterProperties properties;
+    private final Clock clock;
+    private final TransactionTemplate tx;
+    private final Counter drift;
+    private volatile Snapshot snapshot;
+    private final AtomicLong generation = new AtomicLong(); // invalidate() во время load() не даёт закешировать старое
+
+    public ListingCounters(ListingCountersJdbcRepository repository,
+                           ListingCounterProperties properties,
+                           Clock clock,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.clock = clock;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.drift = meterRegistry.counter("listing.counters.drift");
+    }
+
+    // ------------------- запись -------------------
+
+    @EventListener
+    public void onListingChanged(ListingChangedEvent event) {
+        Map<Key, Long> deltas = deltasOf(event);
+        if (deltas.isEmpty()) return;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            // вне транзакции (не должно случаться для listings) — один upsert атомарен и сам по себе
+            repository.addDeltas(toRows(deltas));
+            invalidate();
+            return;
+        }
+        PendingDeltas pending = (PendingDeltas) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingDeltas();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        for (Map.Entry<Key, Long> e : deltas.entrySet()) {
+            pending.deltas.merge(e.getKey(), e.getValue(), Long::sum);
+        }
+    }
+
+    /**
+     * CREATED: +1 в новую корзину; DELETED: -1 из корзины удалённого объявления;
+     * остальные — перенос previous -> текущая, если status или category сменились.
+     */
+    static Map<Key, Long> deltasOf(ListingChangedEvent event) {
+        if (event.status() == null || event.category() == null) return Map.of(); // attachments и т.п.
+        Key current = new Key(event.category(), event.status());
+        return switch (event.type()) {
+            case CREATED -> Map.of(current, 1L);
+            case DELETED -> Map.of(current, -1L);
+            default -> {
+                if (event.previousStatus() == null || event.previousCategory() == null) yield Map.of();
+                Key previous = new Key(event.previousCategory(), event.previousStatus());
+                yield previous.equals(current) ? Map.of() : Map.of(previous, -1L, current, 1L);
+            }
+        };
+    }
+
+    private static List<CounterRow> toRows(Map<Key, Long> deltas) {
+        List<Key> keys = new ArrayList<>(deltas.keySet());
+        keys.sort(KEY_ORDER);
+        List<CounterRow> rows = new ArrayList<>(keys.size());
+        for (Key key : keys) {
+            long delta = deltas.get(key);
+            if (delta != 0) rows.add(new CounterRow(key.category(), key.status().name(), delta));
+        }
+        return rows;
+    }
+
+    private final class PendingDeltas implements TransactionSynchronization {
+        private final Map<Key, Long> deltas = new HashMap<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            repository.addDeltas(toRows(deltas));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ListingCounters.this);
+            if (status == STATUS_COMMITTED) invalidate();
+        }
+    }
+
+    // ------------------- чтение -------------------
+
+    /**
+     * Число объявлений со статусом status по категориям (категории без объявлений не возвращаются).
+     */
+    public Map<String, Long> countByCategory(ListingStatus status) {
+        Map<String, Long> result = new TreeMap<>();
+        current().counts().forEach((category, byStatus) -> {
+            Long count = byStatus.get(status);
+            if (count != null && count > 0) result.put(category, count);
+        });
+        return result;
+    }
+
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && s.loadedAt().plus(properties.getCacheTtl()).isAfter(clock.instant())) return s;
+        synchronized (this) {
+            s = snapshot;
+            if (s == null || !s.loadedAt().plus(properties.getCacheTtl()).isAfter(clock.instant())) {
+                long loadingGeneration = generation.get();
+                s = load();
+                if (generation.get() == loadingGeneration) snapshot = s;
+            }
+            return s;
+        }
+    }
+
+    private Snapshot load() {
+        Instant loadedAt = clock.instant();
+        Map<String, Map<ListingStatus, Long>> counts = new HashMap<>();
+        for (CounterRow row : repository.findAll()) {
+            counts.computeIfAbsent(row.category(), c -> new EnumMap<>(ListingStatus.class))
+                    .put(ListingStatus.valueOf(row.status()), row.count());
+        }
+        return new Snapshot(counts, loadedAt);
+    }
+
+    // ------------------- сверка -------------------
+
+    @Scheduled(initialDelayString = "${app.listings.counters.reconcile-interval-ms:3600000}",
+            fixedDelayString = "${app.listings.counters.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        Integer corrected = tx.execute(status -> repository.reconcile());
+        if (corrected != null && corrected > 0) {
+            log.warn("Listing counters drifted: {} (category, status) rows corrected", corrected);
+            drift.increment(corrected);
+        }
+        invalidate();
+    }
+}
@@ -0,0 +1,56 @@
+package org.vornex.listing.currency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.vornex.listing.repository.ExchangeRateJdbcRepository;
+import org.vornex.listing.repository.ExchangeRateJdbcRepository.Rate;
+import org.vornex.listing.util.CurrencyProperties;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Массовый пересчёт listings.price_base после смены курса.
+ * <p>
+ * - Курс считается применённым, когда полный проход по объявлениям его валюты начался позже, чем через
+ * settleWindow после изменения курса: до этого другие инстансы могли писать price_base по старому кешу.
+ * - Проход идёт пачками по PK (каждая пачка — своя короткая транзакция) и пишет только расходящиеся строки;
+ * параллельный проход на другом инстансе ничего не испортит — оба пишут значение по текущему курсу из БД.
+ */
+@Component
+@Slf4j
+public class BasePriceRecomputer {
+
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    private final ExchangeRateJdbcRepository repository;
+    private final CurrencyProperties props;
+    private final Clock clock;
+
+    public BasePriceRecomputer(ExchangeRateJdbcRepository repository, CurrencyProperties props, Clock clock) {
+        this.repository = repository;
+        this.props = props;
+        this.clock = clock;
+    }
+
+    @Scheduled(initialDelayString = "${app.listings.currency.recompute-interval-ms:60000}",
+            fixedDelayString = "${app.listings.currency.recompute-interval-ms:60000}")
+    public void recompute() {
+        for (Rate rate : repository.findPendingRecompute(props.getSettleWindow())) {
+            Instant startedAt = clock.instant();
+            try {
+                UUID cursor = MIN_UUID;
+                int batches = 0;
+                while ((cursor = repository.recomputeBatch(rate.currency(), cursor, props.getRecomputeBatchSize())) != null) {
+                    batches++;
+                }
+                repository.markApplied(rate.currency(), rate.updatedAt(), startedAt);
+                log.debug("Base prices recomputed for {} ({} batches)", rate.currency(), batches);
+            } catch (RuntimeException e) {
+                log.warn("Base price recompute failed for {}, will retry on next run: {}", rate.currency(), e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.vornex.listing.currency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vornex.listing.Money;
+import org.vornex.listing.repository.ExchangeRateJdbcRepository;
+import org.vornex.listing.repository.ExchangeRateJdbcRepository.Rate;
+import org.vornex.listing.util.CurrencyProperties;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Кеш курсов exchange_rates: цена в базовой валюте считается при записи объявления без обращения к БД.
+ * <p>
+ * - Иммутабельный снапшот по volatile-ссылке; перечитывается при старте, после коммита изменения курса
+ * (ExchangeRatesChangedEvent) и периодически — чтобы подтянуть изменения с других инстансов.
+ * - Объявления, записанные по устаревшему снапшоту, исправляет BasePriceRecomputer в пределах settleWindow.
+ * - Округление — как в SQL пересчёта (round(amount * rate, 2), HALF_UP), чтобы пересчёт не "исправлял"
+ * значения, записанные приложением.
+ */
+@Component
+@Slf4j
+public class ExchangeRates {
+
+    private final ExchangeRateJdbcRepository repository;
+    private final String baseCurrency;
+    private volatile Map<String, BigDecimal> rates = Map.of();
+
+    public ExchangeRates(ExchangeRateJdbcRepository repository, CurrencyProperties props) {
+        this.repository = repository;
+        this.baseCurrency = props.getBase();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        repository.ensureBase(baseCurrency);
+        reload();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRatesChanged(ExchangeRatesChangedEvent event) {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.currency.reload-interval-ms:300000}")
+    public void scheduledReload() {
+        reload();
+    }
+
+    public void reload() {
+        Map<String, BigDecimal> loaded = new HashMap<>();
+        for (Rate rate : repository.findAll()) {
+            loaded.put(rate.currency(), rate.rateToBase());
+        }
+        loaded.put(baseCurrency, BigDecimal.ONE);
+        rates = Map.copyOf(loaded);
+        log.debug("Exchange rates reloaded: {} currencies", loaded.size());
+    }
+
+    public String baseCurrency() {
+        return baseCurrency;
+    }
+
+    public Map<String, BigDecimal> rates() {
+        return rates;
+    }
+
+    /**
+     * Цена в базовой валюте или null, если курса валюты нет.
+     */
+    public BigDecimal toBase(Money price) {
+        if (price == null || price.getAmount() == null || price.getCurrency() == null) return null;
+        BigDecimal rate = rates.get(price.getCurrency());
+        return rate == null ? null : price.getAmount().multiply(rate).setScale(2, RoundingMode.HALF_UP);
+    }
+}
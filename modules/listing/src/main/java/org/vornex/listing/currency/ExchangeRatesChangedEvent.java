@@ -0,0 +1,7 @@
+package org.vornex.listing.currency;
+
+/**
+ * Курс валюты изменён — после коммита ExchangeRates перечитывает кеш.
+ */
+public record ExchangeRatesChangedEvent(String currency) {
+}
@@ -0,0 +1,10 @@
+package org.vornex.listing.dto;
+
+import org.vornex.listing.enums.AttributeType;
+
+public record AttributeSchemaDto(
+        String category,
+        String name,
+        AttributeType type,
+        String unit
+) {}
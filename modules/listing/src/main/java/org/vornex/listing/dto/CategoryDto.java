@@ -0,0 +1,14 @@
+package org.vornex.listing.dto;
+
+import java.util.List;
+
+/**
+ * Узел дерева категорий для клиента (GET /api/categories) — со всем поддеревом.
+ */
+public record CategoryDto(
+        String slug,
+        String name,
+        String path,
+        int position,
+        List<CategoryDto> children
+) {}
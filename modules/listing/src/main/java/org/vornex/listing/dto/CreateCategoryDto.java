@@ -0,0 +1,11 @@
+package org.vornex.listing.dto;
+
+/**
+ * Создание категории (admin). parentSlug == null — корневая категория.
+ */
+public record CreateCategoryDto(
+        String slug,
+        String name,
+        String parentSlug,
+        Integer position
+) {}
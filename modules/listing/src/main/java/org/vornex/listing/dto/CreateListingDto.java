@@ -22,6 +22,7 @@ public record CreateListingDto(
         String description,
         Money price,
         String category,
+        String city,
         ItemCondition itemCondition,
         Map<String, String> attributes,
         List<Long> attachmentIds // предварительно загруженные attachment ids, опционально
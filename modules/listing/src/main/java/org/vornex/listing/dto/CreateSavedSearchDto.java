@@ -0,0 +1,16 @@
+package org.vornex.listing.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Сохранённый поиск: все заданные условия должны выполниться.
+ * query — слова, каждое из которых должно встретиться в заголовке объявления;
+ * category — вместе с подкатегориями; minPrice/maxPrice — в базовой валюте, как в поиске.
+ */
+public record CreateSavedSearchDto(
+        String query,
+        String category,
+        String city,
+        BigDecimal minPrice,
+        BigDecimal maxPrice
+) {}
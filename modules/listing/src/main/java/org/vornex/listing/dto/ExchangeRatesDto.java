@@ -0,0 +1,12 @@
+package org.vornex.listing.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Курсы к базовой валюте: цена в базовой = amount * rates[currency].
+ */
+public record ExchangeRatesDto(
+        String base,
+        Map<String, BigDecimal> rates
+) {}
@@ -0,0 +1,24 @@
+package org.vornex.listing.dto;
+
+import org.vornex.listing.Money;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Краткая карточка для фида "новые объявления" на главной (LatestListings).
+ *
+ * @param coverUrl первая картинка объявления или null
+ * @param version  version объявления на момент снимка — устаревшие карточки отсекаются по ней
+ */
+public record LatestListingDto(
+        UUID id,
+        String title,
+        Money price,
+        String category,
+        String categoryPath,
+        String city,
+        String coverUrl,
+        Instant publishedAt,
+        Long version
+) {}
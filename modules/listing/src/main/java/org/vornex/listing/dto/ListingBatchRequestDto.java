@@ -0,0 +1,11 @@
+package org.vornex.listing.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Тело POST /api/listings/batch — id объявлений (до 100), ответ в том же порядке.
+ */
+public record ListingBatchRequestDto(
+        List<UUID> ids
+) {}
@@ -0,0 +1,24 @@
+package org.vornex.listing.dto;
+
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Компактное событие фида изменений (data SSE-события "change"; id события — порядковый номер в фиде).
+ * Клиент по нему решает, перезапрашивать ли карточку (version больше закешированной, status, changedFields).
+ * categoryPath — материализованный путь категории ("/electronics/phones/"), null — категории нет в каталоге.
+ */
+public record ListingChangeDto(
+        UUID listingId,
+        ListingChangeType type,
+        Long version,
+        ListingStatus status,
+        String category,
+        String categoryPath,
+        Set<String> changedFields,
+        Instant at
+) {}
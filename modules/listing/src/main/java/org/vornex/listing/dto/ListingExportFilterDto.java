@@ -0,0 +1,14 @@
+package org.vornex.listing.dto;
+
+import org.vornex.listing.enums.ListingStatus;
+
+import java.util.UUID;
+
+/**
+ * Фильтры экспорта объявлений (query-параметры). null = без фильтра.
+ */
+public record ListingExportFilterDto(
+        ListingStatus status,
+        String category,
+        UUID ownerId
+) {}
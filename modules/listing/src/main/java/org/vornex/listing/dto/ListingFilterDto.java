@@ -0,0 +1,61 @@
+package org.vornex.listing.dto;
+
+import lombok.Data;
+import org.vornex.listing.enums.ListingSort;
+import org.vornex.listing.enums.ListingStatus;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Фильтр поиска объявлений (query-параметры GET /api/listings).
+ * <p>
+ * Атрибуты:
+ * - attributes[brand]=Apple&attributes[storage]=256GB — равенство всех пар (attributes @> {...}, GIN-индекс);
+ * - attributesAnyOf[storage]=128GB,256GB — значение атрибута из списка (OR из @>, тоже по индексу);
+ * - attributeMin[mileage]=0&attributeMax[mileage]=100000 — диапазон по числовому атрибуту схемы категории
+ * (таблица listing_attribute_values, B-tree (attr, num_value)).
+ * <p>
+ * category разворачивается в префикс материализованного пути (category_path like '/electronics/%').
+ * <p>
+ * sort=POPULAR — по затухающей популярности (индекс (status, popularity_score desc, id desc)).
+ * <p>
+ * minPrice/maxPrice и sort=PRICE_ASC/PRICE_DESC — в базовой валюте (listings.price_base, индекс (status, price_base, id)).
+ */
+@Data
+public class ListingFilterDto {
+    private String category;            // категория каталога — вместе со всеми подкатегориями
+    private String categoryPath;        // заполняет сервис из CategoryCatalog; от клиента игнорируется
+    private ListingStatus status;       // по умолчанию PUBLISHED; другие статусы — только свои объявления/админ
+    private UUID ownerId;
+    private String city;
+    private BigDecimal minPrice;        // в базовой валюте (app.listings.currency.base)
+    private BigDecimal maxPrice;
+    private Map<String, String> attributes = new HashMap<>();
+    private Map<String, String> attributesAnyOf = new HashMap<>();
+    private Map<String, BigDecimal> attributeMin = new HashMap<>();
+    private Map<String, BigDecimal> attributeMax = new HashMap<>();
+    private ListingSort sort = ListingSort.NEWEST;
+
+    /**
+     * Копия для сервиса: эффективные status / ownerId / categoryPath не должны протекать в объект вызывающего.
+     */
+    public ListingFilterDto copy() {
+        ListingFilterDto copy = new ListingFilterDto();
+        copy.setCategory(category);
+        copy.setCategoryPath(categoryPath);
+        copy.setStatus(status);
+        copy.setOwnerId(ownerId);
+        copy.setCity(city);
+        copy.setMinPrice(minPrice);
+        copy.setMaxPrice(maxPrice);
+        copy.setAttributes(attributes == null ? new HashMap<>() : new HashMap<>(attributes));
+        copy.setAttributesAnyOf(attributesAnyOf == null ? new HashMap<>() : new HashMap<>(attributesAnyOf));
+        copy.setAttributeMin(attributeMin == null ? new HashMap<>() : new HashMap<>(attributeMin));
+        copy.setAttributeMax(attributeMax == null ? new HashMap<>() : new HashMap<>(attributeMax));
+        copy.setSort(sort);
+        return copy;
+    }
+}
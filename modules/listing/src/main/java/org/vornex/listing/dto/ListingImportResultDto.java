@@ -0,0 +1,19 @@
+package org.vornex.listing.dto;
+
+import java.util.List;
+
+/**
+ * Отчёт массового импорта.
+ * errors ограничен app.listings.import.max-errors; errorsTruncated = true, если ошибок было больше.
+ * row — номер строки данных (1-based, без учёта CSV-заголовка).
+ */
+public record ListingImportResultDto(
+        long totalRows,
+        long imported,
+        long failed,
+        List<RowError> errors,
+        boolean errorsTruncated
+) {
+    public record RowError(long row, String message) {
+    }
+}
@@ -17,6 +17,7 @@ public record ListingResponseDto(
         String description,
         Money price,
         String category,
+        String city,
         ItemCondition itemCondition,
         ListingStatus status,
         ModerationStatus moderationStatus,
@@ -25,5 +26,6 @@ public record ListingResponseDto(
         Instant updatedAt,
         Instant publishedAt,
         long viewsCount,
-        List<AttachmentDto> attachments
+        List<AttachmentDto> attachments,
+        Long version // optimistic version — клиент передаёт её обратно в PATCH
 ) {}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package org.vornex.listing.dto;
+
+import java.util.List;
+
+/**
+ * Страница поиска объявлений — без общего числа результатов (count(*) по всем совпадениям на каждый запрос
+ * обходил бы весь результат вместо одной страницы по индексу; число по категориям — GET /api/listings/counts).
+ *
+ * @param content    карточки страницы
+ * @param hasNext    есть следующая страница
+ * @param nextCursor передать параметром cursor за следующей страницей (keyset, без OFFSET); null — страниц больше нет
+ */
+public record ListingSearchPageDto(
+        List<ListingResponseDto> content,
+        boolean hasNext,
+        String nextCursor
+) {}
@@ -0,0 +1,19 @@
+package org.vornex.listing.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Статистика объявления для продавца.
+ * uniqueViewers — приблизительная оценка (HyperLogLog, ошибка ~1.6%) за весь запрошенный период.
+ */
+public record ListingStatsDto(
+        UUID listingId,
+        long viewsCount,
+        long uniqueViewers,
+        List<DailyViewers> daily
+) {
+    public record DailyViewers(LocalDate day, long uniqueViewers) {
+    }
+}
@@ -0,0 +1,22 @@
+package org.vornex.listing.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Ответ дельта-синхронизации объявлений продавца.
+ *
+ * @param reset     токен слишком старый (надгробия уже удалены) — клиент очищает локальные данные,
+ *                  в ответе синхронизация с нуля
+ * @param changed   созданные и изменённые объявления (клиент заменяет по id, повторы отсекает по version)
+ * @param deleted   id удалённых объявлений
+ * @param syncToken передать в следующий запрос
+ * @param hasMore   есть следующая страница — запросить сразу с syncToken
+ */
+public record ListingSyncDto(
+        boolean reset,
+        List<ListingResponseDto> changed,
+        List<UUID> deleted,
+        String syncToken,
+        boolean hasMore
+) {}
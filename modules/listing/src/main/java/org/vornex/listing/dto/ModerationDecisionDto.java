@@ -0,0 +1,13 @@
+package org.vornex.listing.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.vornex.listing.enums.ModerationDecision;
+
+/**
+ * Решение модератора по назначенной ему задаче. reason обязателен для REJECT — его увидит продавец.
+ */
+public record ModerationDecisionDto(
+        @NotNull ModerationDecision decision,
+        @Size(max = 1000) String reason
+) {}
@@ -0,0 +1,17 @@
+package org.vornex.listing.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Задача ручной модерации, назначенная модератору до leaseUntil.
+ */
+public record ModerationTaskDto(
+        UUID listingId,
+        String title,
+        String category,
+        UUID ownerId,
+        Instant enqueuedAt,
+        String escalationReason,
+        Instant leaseUntil
+) {}
@@ -0,0 +1,20 @@
+package org.vornex.listing.dto;
+
+import org.vornex.listing.Money;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Уведомление "по сохранённому поиску появилось новое объявление".
+ *
+ * @param alertedAt время сопоставления — курсор для следующей страницы (before)
+ */
+public record SavedSearchAlertDto(
+        UUID savedSearchId,
+        UUID listingId,
+        String title,
+        Money price,
+        String city,
+        Instant alertedAt
+) {}
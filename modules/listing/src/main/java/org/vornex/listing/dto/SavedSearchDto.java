@@ -0,0 +1,15 @@
+package org.vornex.listing.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record SavedSearchDto(
+        UUID id,
+        String query,
+        String category,
+        String city,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        Instant createdAt
+) {}
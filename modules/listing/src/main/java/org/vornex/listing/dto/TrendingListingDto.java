@@ -0,0 +1,11 @@
+package org.vornex.listing.dto;
+
+import java.util.UUID;
+
+/**
+ * Элемент фида "trending now": views — оценка сверху числа просмотров за окно (Space-Saving).
+ */
+public record TrendingListingDto(
+        UUID listingId,
+        long views
+) {}
@@ -0,0 +1,10 @@
+package org.vornex.listing.dto;
+
+/**
+ * Изменение категории (admin): только отображаемые поля, null — не менять.
+ * slug и место в дереве неизменяемы — от них зависит category_path объявлений.
+ */
+public record UpdateCategoryDto(
+        String name,
+        Integer position
+) {}
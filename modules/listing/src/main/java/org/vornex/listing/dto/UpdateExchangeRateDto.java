@@ -0,0 +1,7 @@
+package org.vornex.listing.dto;
+
+import java.math.BigDecimal;
+
+public record UpdateExchangeRateDto(
+        BigDecimal rateToBase
+) {}
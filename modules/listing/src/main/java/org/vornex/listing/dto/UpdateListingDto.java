@@ -16,12 +16,13 @@ import java.util.Map;
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class UpdateListingDto {
     private String title;
     private String description;
     private Money price;
     private String category;
+    private String city;               // пустая строка — сбросить город
     private ItemCondition itemCondition;
     private Map<String, String> attributes;
     private List<Long> attachmentIds;
@@ -0,0 +1,179 @@
+package org.vornex.listing.duplicate;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Корзины LSH без боксинга: ключ банда -> слоты объявлений (int), открытая адресация с линейным пробированием.
+ * <p>
+ * Почти все корзины — из одного объявления, поэтому значение ячейки:
+ * >= 0 — единственный слот; -1 - i — корзина из нескольких слотов в lists[i] (первые listSizes[i] элементов).
+ * Ячейка — 12 байт (long + int), без объектов на корзину.
+ * <p>
+ * Не потокобезопасен: синхронизация — на стороне NearDuplicateIndex.
+ */
+final class BandTable {
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final int DELETED = Integer.MIN_VALUE + 1;
+    private static final int INITIAL_CAPACITY = 1 << 10;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] values = filled(INITIAL_CAPACITY);
+    private int size; // занятые ячейки
+    private int used; // занятые + DELETED (пробирование идёт через них)
+
+    private int[][] lists = new int[16][];
+    private int[] listSizes = new int[16];
+    private int[] freeLists = new int[16];
+    private int freeListCount;
+    private int listCount;
+
+    void add(long key, int slot) {
+        int cell = find(key);
+        if (cell >= 0) {
+            int value = values[cell];
+            if (value >= 0) {
+                if (value == slot) return;
+                values[cell] = -1 - newList(value, slot);
+            } else {
+                appendToList(-1 - value, slot);
+            }
+            return;
+        }
+        if ((used + 1) * 10 > keys.length * 6) {
+            rehash();
+        }
+        cell = insertionCell(key);
+        if (values[cell] == FREE) used++;
+        keys[cell] = key;
+        values[cell] = slot;
+        size++;
+    }
+
+    void remove(long key, int slot) {
+        int cell = find(key);
+        if (cell < 0) return;
+        int value = values[cell];
+        if (value >= 0) {
+            if (value != slot) return;
+            values[cell] = DELETED;
+            size--;
+            return;
+        }
+        int list = -1 - value;
+        int[] slots = lists[list];
+        int n = listSizes[list];
+        for (int i = 0; i < n; i++) {
+            if (slots[i] != slot) continue;
+            slots[i] = slots[--n];
+            listSizes[list] = n;
+            break;
+        }
+        if (n == 1) { // снова одиночная корзина
+            values[cell] = slots[0];
+            releaseList(list);
+        }
+    }
+
+    /**
+     * Обходит слоты корзины, пока consumer возвращает true.
+     */
+    void forEach(long key, IntPredicate consumer) {
+        int cell = find(key);
+        if (cell < 0) return;
+        int value = values[cell];
+        if (value >= 0) {
+            consumer.test(value);
+            return;
+        }
+        int list = -1 - value;
+        int[] slots = lists[list];
+        for (int i = 0, n = listSizes[list]; i < n; i++) {
+            if (!consumer.test(slots[i])) return;
+        }
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        for (int cell = hash(key) & mask; ; cell = (cell + 1) & mask) {
+            int value = values[cell];
+            if (value == FREE) return -1;
+            if (value != DELETED && keys[cell] == key) return cell;
+        }
+    }
+
+    // вызывается, только если ключа в таблице нет
+    private int insertionCell(long key) {
+        int mask = keys.length - 1;
+        int cell = hash(key) & mask;
+        while (values[cell] != FREE && values[cell] != DELETED) cell = (cell + 1) & mask;
+        return cell;
+    }
+
+    // при заполнении >= 30% живыми — вдвое больше, иначе только вычистить DELETED
+    private void rehash() {
+        int capacity = size * 10 >= keys.length * 3 ? keys.length << 1 : keys.length;
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = filled(capacity);
+        used = size;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == FREE || oldValues[i] == DELETED) continue;
+            int cell = insertionCell(oldKeys[i]);
+            keys[cell] = oldKeys[i];
+            values[cell] = oldValues[i];
+        }
+    }
+
+    private int newList(int first, int second) {
+        int list;
+        if (freeListCount > 0) {
+            list = freeLists[--freeListCount];
+        } else {
+            if (listCount == lists.length) {
+                lists = Arrays.copyOf(lists, listCount << 1);
+                listSizes = Arrays.copyOf(listSizes, listCount << 1);
+            }
+            list = listCount++;
+        }
+        int[] slots = lists[list] == null ? new int[4] : lists[list];
+        slots[0] = first;
+        slots[1] = second;
+        lists[list] = slots;
+        listSizes[list] = 2;
+        return list;
+    }
+
+    private void appendToList(int list, int slot) {
+        int[] slots = lists[list];
+        int n = listSizes[list];
+        for (int i = 0; i < n; i++) {
+            if (slots[i] == slot) return;
+        }
+        if (n == slots.length) {
+            slots = Arrays.copyOf(slots, n << 1);
+            lists[list] = slots;
+        }
+        slots[n] = slot;
+        listSizes[list] = n + 1;
+    }
+
+    private void releaseList(int list) {
+        listSizes[list] = 0;
+        if (lists[list].length > 4) lists[list] = null; // горячую корзину не держим после опустошения
+        if (freeListCount == freeLists.length) freeLists = Arrays.copyOf(freeLists, freeListCount << 1);
+        freeLists[freeListCount++] = list;
+    }
+
+    private static int hash(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private static int[] filled(int capacity) {
+        int[] values = new int[capacity];
+        Arrays.fill(values, FREE);
+        return values;
+    }
+}
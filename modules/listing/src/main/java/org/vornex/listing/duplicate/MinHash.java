@@ -0,0 +1,114 @@
+package org.vornex.listing.duplicate;
+
+import java.util.Arrays;
+
+/**
+ * MinHash-сигнатуры текста объявления и ключи LSH-бандов.
+ * <p>
+ * - Текст (title + description) нормализуется: нижний регистр, всё кроме букв/цифр — пробел, пробелы схлопнуты.
+ * - Шинглы — символьные k-граммы: замена пары слов в заголовке меняет лишь несколько шинглов из десятков.
+ * - Сигнатура: для каждой из NUM_HASHES хеш-функций минимум по шинглам (старшие 32 бита 64-битного хеша).
+ * Доля совпавших позиций двух сигнатур — оценка Jaccard множеств шинглов.
+ * - LSH: сигнатура режется на BANDS бандов по ROWS строк; пары с Jaccard s совпадают хотя бы в одном банде
+ * с вероятностью 1 - (1 - s^ROWS)^BANDS: ~0.99 при s = 0.8, ~0.05 при s = 0.3.
+ * <p>
+ * Сиды фиксированы: сигнатуры хранятся в БД и должны совпадать между инстансами и перезапусками.
+ */
+public final class MinHash {
+
+    public static final int NUM_HASHES = 64;
+    public static final int BANDS = 16;
+    public static final int ROWS = NUM_HASHES / BANDS;
+
+    private static final long[] SEEDS = new long[NUM_HASHES];
+
+    static {
+        long state = 0x5DEECE66DL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            SEEDS[i] = mix64(state);
+        }
+    }
+
+    private MinHash() {
+    }
+
+    public static int[] signature(String title, String description, int shingleSize) {
+        String text = normalize((title == null ? "" : title) + " " + (description == null ? "" : description));
+        long[] mins = new long[NUM_HASHES];
+        Arrays.fill(mins, Long.MAX_VALUE);
+        if (text.length() <= shingleSize) {
+            update(mins, fnv1a(text, 0, text.length()));
+        } else {
+            for (int i = 0; i + shingleSize <= text.length(); i++) {
+                update(mins, fnv1a(text, i, i + shingleSize));
+            }
+        }
+        int[] signature = new int[NUM_HASHES];
+        for (int i = 0; i < NUM_HASHES; i++) signature[i] = (int) (mins[i] >>> 32);
+        return signature;
+    }
+
+    /**
+     * Ключ банда: номер банда входит в хеш, поэтому все банды живут в одной таблице индекса.
+     */
+    public static long bandKey(int[] signature, int band) {
+        long h = SEEDS[band];
+        for (int r = 0; r < ROWS; r++) {
+            h = mix64(h ^ (signature[band * ROWS + r] & 0xFFFFFFFFL));
+        }
+        return h;
+    }
+
+    /**
+     * Оценка Jaccard: доля совпавших позиций.
+     */
+    public static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) same++;
+        }
+        return (double) same / NUM_HASHES;
+    }
+
+    static String normalize(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean space = true; // без ведущего пробела
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int len = sb.length();
+        if (len > 0 && sb.charAt(len - 1) == ' ') sb.setLength(len - 1);
+        return sb.toString();
+    }
+
+    private static void update(long[] mins, long shingle) {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            long h = mix64(shingle ^ SEEDS[i]);
+            if (h < mins[i]) mins[i] = h;
+        }
+    }
+
+    private static long fnv1a(String s, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // финализатор SplitMix64
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
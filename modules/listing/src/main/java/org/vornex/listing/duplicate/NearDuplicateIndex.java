@@ -0,0 +1,223 @@
+package org.vornex.listing.duplicate;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.ListingSignatureJdbcRepository;
+import org.vornex.listing.repository.ListingSignatureJdbcRepository.StoredSignature;
+import org.vornex.listing.util.NearDuplicateProperties;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * LSH-индекс MinHash-сигнатур объявлений в памяти — поиск почти-дублей без перебора всех объявлений.
+ * <p>
+ * - Индексируются только live-объявления (опубликованные и ждущие модерации) — с ними и сравниваем;
+ * черновики и отклонённые не занимают память и не съедают лимит maxCandidates.
+ * - bands (BandTable): ключ банда (MinHash.bandKey) -> слоты объявлений; кандидаты — объединение BANDS корзин,
+ * затем точнее по оценке Jaccard из полных сигнатур. Стоимость запроса — BANDS хеш-поисков и до maxCandidates
+ * сравнений по 64 int'а, не зависит от числа объявлений.
+ * - Источник истины — listing_signatures + статус в listings: сигнатура пишется в транзакции создания/правки,
+ * смена статуса сдвигает её updated_at (touch); в память — после коммита, с перечитыванием статуса.
+ * Изменения с других инстансов догружаются по updated_at (poll), удалённые объявления убираются
+ * по событию DELETED или при проверке кандидатов (NearDuplicateCheck).
+ * - Память: ~0.8 КБ на объявление — сигнатура 272 байта, 16 ячеек BandTable по 12 байт при заполнении
+ * 30-60% (~0.4 КБ), UUID и запись в slots.
+ */
+@Component
+@Slf4j
+public class NearDuplicateIndex {
+
+    public record Candidate(UUID listingId, double similarity) {
+    }
+
+    private final ListingSignatureJdbcRepository repository;
+    private final NearDuplicateProperties props;
+
+    // слот — номер объявления в массивах ниже; освобождённые слоты переиспользуются
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private final BandTable bands = new BandTable();
+    private UUID[] ids = new UUID[1024];
+    private int[][] signatures = new int[1024][];
+    private int[] freeSlots = new int[64];
+    private int freeSlotCount;
+    private int nextSlot;
+
+    private Instant watermark; // guarded by this: max updated_at из уже прочитанных строк БД
+
+    public NearDuplicateIndex(ListingSignatureJdbcRepository repository, NearDuplicateProperties props) {
+        this.repository = repository;
+        this.props = props;
+    }
+
+    public int[] signatureOf(String title, String description) {
+        return MinHash.signature(title, description, props.getShingleSize());
+    }
+
+    public void register(UUID listingId, String title, String description) {
+        register(Map.of(listingId, signatureOf(title, description)));
+    }
+
+    /**
+     * Сохраняет сигнатуры в транзакции вызывающего кода; в индекс в памяти попадают после коммита
+     * и только live-объявления.
+     */
+    public void register(Map<UUID, int[]> batch) {
+        if (batch.isEmpty()) return;
+        repository.upsertAll(batch);
+        refreshAfterCommit(batch.keySet());
+    }
+
+    /**
+     * Похожие объявления (оценка Jaccard >= similarityThreshold), от самых похожих; self исключается.
+     */
+    public List<Candidate> candidates(UUID self, int[] signature) {
+        Set<Integer> seen = new HashSet<>();
+        List<Candidate> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Integer selfSlot = slots.get(self);
+            for (int band = 0; band < MinHash.BANDS && seen.size() < props.getMaxCandidates(); band++) {
+                bands.forEach(MinHash.bandKey(signature, band), slot -> {
+                    if (selfSlot != null && slot == selfSlot) return true;
+                    if (!seen.add(slot)) return true;
+                    double similarity = MinHash.similarity(signature, signatures[slot]);
+                    if (similarity >= props.getSimilarityThreshold()) result.add(new Candidate(ids[slot], similarity));
+                    return seen.size() < props.getMaxCandidates();
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingDouble(Candidate::similarity).reversed());
+        return result;
+    }
+
+    public void remove(UUID listingId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(listingId);
+            if (slot == null) return;
+            removeBands(slot, signatures[slot]);
+            ids[slot] = null;
+            signatures[slot] = null;
+            if (freeSlotCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeSlotCount << 1);
+            freeSlots[freeSlotCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * В транзакции смены статуса: сдвигает updated_at сигнатуры, чтобы poll других инстансов её перечитал.
+     */
+    @EventListener
+    public void onListingChanging(ListingChangedEvent event) {
+        if (changesLiveness(event)) repository.touch(event.listingId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.type() == ListingChangeType.DELETED) remove(event.listingId());
+        else if (changesLiveness(event)) refresh(List.of(event.listingId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        poll();
+        lock.readLock().lock();
+        try {
+            log.info("Near-duplicate index loaded: {} live listings", slots.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.listings.duplicates.poll-interval-ms:10000}",
+            fixedDelayString = "${app.listings.duplicates.poll-interval-ms:10000}")
+    public synchronized void poll() {
+        Instant since = watermark == null ? null : watermark.minus(props.getPollOverlap());
+        Instant[] max = {watermark};
+        repository.forEachUpdatedSince(since, stored -> {
+            apply(stored);
+            if (max[0] == null || stored.updatedAt().isAfter(max[0])) max[0] = stored.updatedAt();
+        });
+        watermark = max[0];
+    }
+
+    private static boolean changesLiveness(ListingChangedEvent event) {
+        return event.type() != ListingChangeType.DELETED
+                && (event.changedFields().contains("status") || event.changedFields().contains("moderationStatus"));
+    }
+
+    private void refreshAfterCommit(Collection<UUID> listingIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            refresh(listingIds);
+            return;
+        }
+        List<UUID> committed = List.copyOf(listingIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh(committed);
+            }
+        });
+    }
+
+    // перечитывает сигнатуры вместе со статусом: live — в индекс, остальные (и удалённые) — из индекса
+    private void refresh(Collection<UUID> listingIds) {
+        Set<UUID> missing = new HashSet<>(listingIds);
+        for (StoredSignature stored : repository.findAllById(listingIds)) {
+            missing.remove(stored.listingId());
+            apply(stored);
+        }
+        missing.forEach(this::remove);
+    }
+
+    private void apply(StoredSignature stored) {
+        if (stored.live()) put(stored.listingId(), stored.signature());
+        else remove(stored.listingId());
+    }
+
+    private void put(UUID listingId, int[] signature) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(listingId);
+            if (slot != null) {
+                if (Arrays.equals(signatures[slot], signature)) return;
+                removeBands(slot, signatures[slot]);
+            } else {
+                slot = allocateSlot();
+                slots.put(listingId, slot);
+                ids[slot] = listingId;
+            }
+            signatures[slot] = signature;
+            for (int band = 0; band < MinHash.BANDS; band++) bands.add(MinHash.bandKey(signature, band), slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) return freeSlots[--freeSlotCount];
+        if (nextSlot == ids.length) {
+            ids = Arrays.copyOf(ids, nextSlot << 1);
+            signatures = Arrays.copyOf(signatures, nextSlot << 1);
+        }
+        return nextSlot++;
+    }
+
+    private void removeBands(int slot, int[] signature) {
+        for (int band = 0; band < MinHash.BANDS; band++) bands.remove(MinHash.bandKey(signature, band), slot);
+    }
+}
@@ -15,8 +15,13 @@ import static jakarta.persistence.FetchType.LAZY;
 @Setter
 public class Attachment {
 
+    /**
+     * id из последовательности с pooled-оптимизатором: один nextval на 50 вложений.
+     * IDENTITY здесь не подходит — Hibernate не может батчить INSERT, id которых знает только БД.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "attachments_seq")
+    @SequenceGenerator(name = "attachments_seq", sequenceName = "attachments_seq", allocationSize = 50)
     private Long id;
 
     // порядок изображений
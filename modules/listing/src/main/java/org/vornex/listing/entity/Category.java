@@ -0,0 +1,46 @@
+package org.vornex.listing.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.vornex.persistence.UuidV7;
+
+import java.util.UUID;
+
+/**
+ * Узел каталога категорий.
+ * <p>
+ * path — материализованный путь из slug'ов от корня: "/electronics/phones/".
+ * Всё поддерево выбирается одним префиксным предикатом (listings.category_path like '/electronics/%'),
+ * без рекурсивных запросов. slug и path неизменяемы после создания — иначе пришлось бы переписывать
+ * category_path у всех объявлений поддерева.
+ */
+@Entity
+@Table(name = "categories")
+@Getter
+@Setter
+@NoArgsConstructor
+public class Category {
+
+    @Id
+    @UuidV7
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "slug", nullable = false, unique = true, updatable = false)
+    private String slug;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "parent_id", updatable = false)
+    private UUID parentId;
+
+    @Column(name = "path", nullable = false, unique = true, length = 1024, updatable = false)
+    private String path;
+
+    // порядок среди соседей в дереве
+    @Column(name = "position", nullable = false)
+    private int position;
+}
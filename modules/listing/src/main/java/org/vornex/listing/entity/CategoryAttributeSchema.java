@@ -0,0 +1,42 @@
+package org.vornex.listing.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.vornex.listing.enums.AttributeType;
+
+import java.util.UUID;
+
+/**
+ * Описание типизированного атрибута категории (например cars.mileage: NUMBER, "km").
+ * По схеме значения из Listing.attributes валидируются и попадают в listing_attribute_values
+ * для range-фильтров по B-tree индексам.
+ */
+@Entity
+@Table(name = "category_attribute_schemas",
+        uniqueConstraints = @UniqueConstraint(name = "uq_category_attribute", columnNames = {"category", "name"}))
+@Getter
+@Setter
+@NoArgsConstructor
+public class CategoryAttributeSchema {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id", updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "category", nullable = false)
+    private String category;
+
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 16)
+    private AttributeType type;
+
+    // единица измерения (km, m2, year) — допускается суффиксом в значении: "150000 km"
+    @Column(name = "unit", length = 16)
+    private String unit;
+}
@@ -6,14 +6,17 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnTransformer;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.vornex.listing.MapToJsonConverter;
+import org.vornex.persistence.UuidV7;
 import org.vornex.listing.Money;
 import org.vornex.listing.enums.ItemCondition;
 import org.vornex.listing.enums.ListingStatus;
 import org.vornex.listing.enums.ModerationStatus;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.*;
 
@@ -50,7 +53,7 @@ public class Listing {
      * UUID хорошо подходит для модульного монолита / микросервисной архитектуры.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID) //обычно генерирует до persist
+    @UuidV7 // time-ordered: новые ключи ложатся в правый край PK-индекса
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
@@ -76,12 +79,25 @@ public class Listing {
     private Money price;
 
     /**
-     * Категория (может быть FK к таблице категорий). Здесь просто id категории.
-     * Если нужна полноценная иерархия — сделаем отдельную сущность Category.
+     * Цена в базовой валюте (ExchangeRates) — для фильтров и сортировки по цене между валютами.
+     * null — курса валюты нет. После смены курса пересчитывается массово (BasePriceRecomputer).
+     */
+    @Column(name = "price_base", precision = 19, scale = 2)
+    private BigDecimal priceBase;
+
+    /**
+     * Категория — slug листового узла каталога (Category). Валидируется по CategoryCatalog.
      */
     @Column(name = "category", nullable = false)
     private String category;
 
+    /**
+     * Материализованный путь категории ("/electronics/phones/") — копия Category.path на момент записи.
+     * Поиск по ветке каталога: category_path like '/electronics/%' (индекс varchar_pattern_ops).
+     */
+    @Column(name = "category_path", nullable = false, length = 1024)
+    private String categoryPath;
+
     /**
      * Состояние товара (enum): новый, б/у и т.д.
      */
@@ -145,11 +161,13 @@ public class Listing {
 
     /**
      * Дополнительные атрибуты (характеристики) — гибкая JSON структура.
-     * Сохраняем Map<String, String> через конвертер в JSON.
-     * Для PostgreSQL можно заменить на jsonb с помощью специализированного типа.
+     * Сохраняем Map<String, String> через конвертер в JSON, колонка — jsonb
+     * с GIN (jsonb_path_ops) индексом idx_listing_attributes_gin: фильтры вида attributes @> '{"brand":"Apple"}' идут по индексу.
+     * Конвертер отдаёт строку, поэтому при записи явно приводим параметр к jsonb.
      */
     @Convert(converter = MapToJsonConverter.class)
-    @Column(name = "attributes", columnDefinition = "text")
+    @ColumnTransformer(write = "cast(? as jsonb)")
+    @Column(name = "attributes", columnDefinition = "jsonb")
     @Builder.Default
     private Map<String, String> attributes = new HashMap<>();
 
@@ -0,0 +1,6 @@
+package org.vornex.listing.enums;
+
+public enum AttributeType {
+    NUMBER,
+    TEXT
+}
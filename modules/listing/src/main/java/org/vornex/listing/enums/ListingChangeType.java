@@ -0,0 +1,9 @@
+package org.vornex.listing.enums;
+
+public enum ListingChangeType {
+    CREATED,
+    UPDATED,
+    PUBLISHED,
+    DELETED,
+    ATTACHMENTS_CHANGED
+}
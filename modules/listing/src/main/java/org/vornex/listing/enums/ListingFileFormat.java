@@ -0,0 +1,32 @@
+package org.vornex.listing.enums;
+
+import org.springframework.http.MediaType;
+
+import java.util.Optional;
+
+/**
+ * Файловые форматы массового импорта и экспорта объявлений (определяются по Content-Type / параметру format).
+ */
+public enum ListingFileFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final MediaType mediaType;
+
+    ListingFileFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public String mediaType() {
+        return mediaType.toString();
+    }
+
+    public static Optional<ListingFileFormat> fromContentType(String contentType) {
+        if (contentType == null || contentType.isBlank()) return Optional.empty();
+        MediaType type = MediaType.parseMediaType(contentType);
+        for (ListingFileFormat f : values()) {
+            if (f.mediaType.isCompatibleWith(type)) return Optional.of(f);
+        }
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,11 @@
+package org.vornex.listing.enums;
+
+/**
+ * Порядок выдачи поиска объявлений.
+ */
+public enum ListingSort {
+    NEWEST,     // created_at desc
+    POPULAR,    // popularity_score desc — затухающая популярность (PopularityScore)
+    PRICE_ASC,  // price_base — цена в базовой валюте (ExchangeRates); объявления без курса не попадают
+    PRICE_DESC
+}
@@ -5,9 +5,12 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.vornex.listing.entity.Attachment;
+import org.vornex.listing.enums.ListingChangeType;
 import org.vornex.listing.repository.AttachmentRepository;
+import org.vornex.listing.repository.ListingRepository;
 
 @Service
 @RequiredArgsConstructor
@@ -15,6 +18,8 @@ public class AttachmentDeletionService {
     private static final Logger log = LoggerFactory.getLogger(AttachmentDeletionService.class);
 
     private final AttachmentRepository attachmentRepository;
+    private final ListingRepository listingRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Транзакционно удаляет attachment по id, если он существует.
@@ -27,6 +32,10 @@ public class AttachmentDeletionService {
         Attachment attachment = attachmentRepository.findById(attachmentId)
                 .orElseThrow(() -> new IllegalStateException("Attachment not found: " + attachmentId));
         attachmentRepository.delete(attachment);
+        if (attachment.getListing() != null) {
+            listingRepository.incrementVersion(attachment.getListing().getId()); // карточка изменилась -> новый ETag
+            eventPublisher.publishEvent(new ListingChangedEvent(attachment.getListing().getId(), ListingChangeType.ATTACHMENTS_CHANGED));
+        }
         log.info("Attachment {} deleted from DB", attachmentId);
     }
 }
@@ -0,0 +1,51 @@
+package org.vornex.listing.event;
+
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * In-process событие об изменении объявления.
+ * <p>
+ * Публикуется сервисами через ApplicationEventPublisher внутри транзакции записи.
+ * Слушатели (кеш, фиды и т.д.) подписываются через @TransactionalEventListener,
+ * чтобы реагировать только на закоммиченные изменения.
+ * <p>
+ * version / status / category / changedFields — состояние после изменения; заполнены, когда публикующий
+ * код держит сущность (сервис объявлений). Для событий со стороны attachments известны только id и type.
+ * Для DELETED status / category — состояние удалённого объявления.
+ * <p>
+ * previousStatus / previousCategory — состояние до изменения (счётчики по категориям переносят объявление
+ * из одной корзины в другую); null, если неизвестно или объявления раньше не было.
+ */
+public record ListingChangedEvent(
+        UUID listingId,
+        ListingChangeType type,
+        Long version,
+        ListingStatus status,
+        String category,
+        Set<String> changedFields,
+        ListingStatus previousStatus,
+        String previousCategory
+) {
+
+    public ListingChangedEvent(UUID listingId, ListingChangeType type) {
+        this(listingId, type, null, null, null, Set.of(), null, null);
+    }
+
+    /**
+     * Событие без смены status / category.
+     */
+    public static ListingChangedEvent of(Listing listing, ListingChangeType type, Set<String> changedFields) {
+        return of(listing, type, changedFields, listing.getStatus(), listing.getCategory());
+    }
+
+    public static ListingChangedEvent of(Listing listing, ListingChangeType type, Set<String> changedFields,
+                                         ListingStatus previousStatus, String previousCategory) {
+        return new ListingChangedEvent(listing.getId(), type, listing.getVersion(), listing.getStatus(),
+                listing.getCategory(), Set.copyOf(changedFields), previousStatus, previousCategory);
+    }
+}
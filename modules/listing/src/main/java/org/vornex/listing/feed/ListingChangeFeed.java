@@ -0,0 +1,155 @@
+package org.vornex.listing.feed;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.category.CategoryNode;
+import org.vornex.listing.dto.ListingChangeDto;
+import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.ListingReadRepository;
+import org.vornex.listing.util.ListingFeedProperties;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Фид изменений объявлений поверх SSE.
+ * <p>
+ * - Питается ListingChangedEvent после коммита (тот же write path, что и кеш) и пишет в ListingChangeLog.
+ * - В фид попадают только изменения опубликованных объявлений: status = PUBLISHED после события
+ * (в т.ч. удаление опубликованного) или до него (снятие с публикации: SOLD / ARCHIVED и т.п.) —
+ * черновики чужим клиентам не видны. У событий со стороны attachments известны только id и type:
+ * status / version / category дочитываются из БД (ListingReadRepository).
+ * - Фильтр category — ветка каталога: подписка на "electronics" получает и "phones" (префикс categoryPath).
+ * - Каждый подписчик обслуживается своим виртуальным потоком: ждёт новых событий в журнале,
+ * фильтрует (ids / category) и пишет в SseEmitter. Медленный клиент тормозит только свой поток,
+ * запись в журнал от него не зависит; отставший больше, чем на bufferSize, получает событие reset.
+ * - Last-Event-ID: продолжаем с события после него, если оно ещё в буфере. Событие reset несёт курсор
+ * до пропущенной пачки, чтобы переподключение после reset не потеряло её.
+ */
+@Component
+@Slf4j
+public class ListingChangeFeed {
+
+    private static final int READ_BATCH = 256;
+
+    private final ListingFeedProperties properties;
+    private final Clock clock;
+    private final CategoryCatalog categoryCatalog;
+    private final ListingReadRepository readRepository;
+    private final ListingChangeLog changeLog;
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final ThreadFactory threads = Thread.ofVirtual().name("listing-feed-", 0).factory();
+
+    public ListingChangeFeed(ListingFeedProperties properties, Clock clock, CategoryCatalog categoryCatalog,
+                             ListingReadRepository readRepository, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.clock = clock;
+        this.categoryCatalog = categoryCatalog;
+        this.readRepository = readRepository;
+        // номера событий от времени старта: Last-Event-ID прошлого запуска окажется "до буфера" -> reset
+        this.changeLog = new ListingChangeLog(properties.getBufferSize(), clock.millis() * 1000);
+        Gauge.builder("listing.feed.subscribers", subscribers, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        Long version = event.version();
+        ListingStatus status = event.status();
+        String category = event.category();
+        if (status == null) { // событие со стороны attachments
+            Optional<ListingResponseDto> card = readRepository.findById(event.listingId());
+            if (card.isEmpty()) return;
+            version = card.get().version();
+            status = card.get().status();
+            category = card.get().category();
+        }
+        if (status != ListingStatus.PUBLISHED && event.previousStatus() != ListingStatus.PUBLISHED) return;
+        changeLog.append(new ListingChangeDto(event.listingId(), event.type(), version, status,
+                category, categoryPath(category), event.changedFields(), clock.instant()));
+    }
+
+    /**
+     * Открывает подписку.
+     *
+     * @param listingIds  только эти объявления (пусто — все)
+     * @param category    только эта категория с подкатегориями (null — все)
+     * @param lastEventId Last-Event-ID переподключения (null — только новые события)
+     */
+    public SseEmitter subscribe(Set<UUID> listingIds, String category, Long lastEventId) {
+        if (subscribers.incrementAndGet() > properties.getMaxSubscribers()) {
+            subscribers.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many feed subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getEmitterTimeout().toMillis());
+        long cursor = lastEventId != null ? lastEventId : changeLog.lastSeq();
+        String categoryPath = categoryPath(category);
+        Thread worker = threads.newThread(() -> stream(emitter, listingIds, category, categoryPath, cursor));
+        Runnable stop = worker::interrupt;
+        emitter.onCompletion(stop);
+        emitter.onTimeout(stop);
+        emitter.onError(e -> stop.run());
+        worker.start();
+        return emitter;
+    }
+
+    private void stream(SseEmitter emitter, Set<UUID> listingIds, String category, String categoryPath,
+                        long startCursor) {
+        long cursor = startCursor;
+        long heartbeatNanos = properties.getHeartbeatInterval().toNanos();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                ListingChangeLog.Slice slice = changeLog.readAfter(cursor, READ_BATCH);
+                if (slice.gap()) {
+                    // часть событий потеряна — клиент должен перечитать интересующие карточки;
+                    // id — курсор до пачки: события пачки ещё не отданы
+                    emitter.send(SseEmitter.event().id(Long.toString(cursor)).name("reset").data(""));
+                }
+                for (ListingChangeLog.Entry entry : slice.entries()) {
+                    if (matches(entry.change(), listingIds, category, categoryPath)) {
+                        emitter.send(SseEmitter.event().id(Long.toString(entry.seq())).name("change").data(entry.change()));
+                    }
+                }
+                cursor = slice.lastSeq();
+                if (slice.entries().size() < READ_BATCH && !changeLog.awaitAfter(cursor, heartbeatNanos)) {
+                    emitter.send(SseEmitter.event().comment("ping")); // держит соединение и выявляет отвалившихся
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // клиент отключился / emitter уже завершён
+            log.debug("Feed subscriber disconnected: {}", e.getMessage());
+        } finally {
+            subscribers.decrementAndGet();
+            emitter.complete();
+        }
+    }
+
+    private String categoryPath(String category) {
+        return categoryCatalog.find(category).map(CategoryNode::path).orElse(null);
+    }
+
+    /**
+     * categoryPath подписки null — категории нет в каталоге, сравниваем slug как есть.
+     */
+    private static boolean matches(ListingChangeDto change, Set<UUID> listingIds, String category, String categoryPath) {
+        if (!listingIds.isEmpty() && !listingIds.contains(change.listingId())) return false;
+        if (category == null) return true;
+        if (categoryPath != null && change.categoryPath() != null) return change.categoryPath().startsWith(categoryPath);
+        return category.equals(change.category());
+    }
+}
@@ -0,0 +1,113 @@
+package org.vornex.listing.feed;
+
+import org.vornex.listing.dto.ListingChangeDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Ограниченный кольцевой журнал событий фида с монотонными номерами.
+ * <p>
+ * - Писатель один логически (слушатель после коммита), читателей — тысячи подписчиков,
+ * каждый со своим курсором (номер последнего отданного события).
+ * - Если подписчик отстал больше, чем на capacity, — readAfter сообщает о разрыве (gap),
+ * клиент должен перезапросить данные целиком.
+ * - ReentrantLock, а не synchronized: ожидающие виртуальные потоки не пиннят carrier-потоки.
+ * - Номера начинаются с startSeq (у фида — от времени старта), поэтому Last-Event-ID
+ * от прошлого запуска процесса распознаётся как разрыв, а не как "будущее" событие.
+ */
+public class ListingChangeLog {
+
+    public record Entry(long seq, ListingChangeDto change) {
+    }
+
+    /**
+     * @param gap     часть событий после запрошенного курсора уже вытеснена (или курсор из другого запуска)
+     * @param lastSeq курсор после чтения
+     */
+    public record Slice(List<Entry> entries, boolean gap, long lastSeq) {
+    }
+
+    private final Entry[] ring;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private final long startSeq;
+    private long nextSeq;
+
+    public ListingChangeLog(int capacity, long startSeq) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.ring = new Entry[capacity];
+        this.startSeq = startSeq;
+        this.nextSeq = startSeq;
+    }
+
+    public long append(ListingChangeDto change) {
+        lock.lock();
+        try {
+            long seq = nextSeq++;
+            ring[(int) (seq % ring.length)] = new Entry(seq, change);
+            appended.signalAll();
+            return seq;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Номер последнего записанного события (startSeq - 1, если событий не было).
+     */
+    public long lastSeq() {
+        lock.lock();
+        try {
+            return nextSeq - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * События с номером > afterSeq, не больше max.
+     */
+    public Slice readAfter(long afterSeq, int max) {
+        lock.lock();
+        try {
+            long last = nextSeq - 1;
+            long oldest = Math.max(startSeq, nextSeq - ring.length);
+            if (afterSeq > last) {
+                return new Slice(List.of(), true, last); // курсор не из этого журнала (прошлый запуск и т.п.)
+            }
+            boolean gap = afterSeq < oldest - 1;
+            long from = gap ? oldest : afterSeq + 1;
+            int count = (int) Math.min(max, last - from + 1);
+            List<Entry> entries = new ArrayList<>(count);
+            for (long seq = from; seq < from + count; seq++) {
+                entries.add(ring[(int) (seq % ring.length)]);
+            }
+            long cursor = entries.isEmpty() ? last : entries.get(entries.size() - 1).seq();
+            return new Slice(entries, gap, cursor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Ждёт появления событий после afterSeq не дольше timeoutNanos.
+     *
+     * @return true, если новые события есть
+     */
+    public boolean awaitAfter(long afterSeq, long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (nextSeq - 1 <= afterSeq) {
+                if (remaining <= 0) return false;
+                remaining = appended.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.vornex.listing.latest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vornex.listing.dto.LatestListingDto;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.LatestListingsJdbcRepository;
+import org.vornex.listing.util.LatestListingsProperties;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * "Новые объявления" на главной: кольца последних опубликованных карточек на каждую пару (категория, город).
+ * <p>
+ * - Категория — любой узел пути каталога (электроника включает телефоны), город — без учёта регистра;
+ * плюс корзины "все категории" / "все города" (ALL).
+ * - Чтение — из памяти, без запросов к БД: кольцо + проверка version по карте live.
+ * - Публикация кладёт карточку во все её кольца; правка опубликованного объявления обновляет карточку на месте;
+ * удаление / снятие с публикации убирает id из live — старые карточки в кольцах просто перестают проходить фильтр.
+ * - При старте и периодически кольца пересобираются из БД целиком (публикации с других инстансов,
+ * смена категории/города, очистка live от вытесненных id).
+ */
+@Component
+@Slf4j
+public class LatestListings {
+
+    public static final String ALL = "*";
+
+    private final LatestListingsJdbcRepository repository;
+    private final LatestListingsProperties props;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile State state;
+    private List<Consumer<State>> replay; // guarded by writeLock; не null, пока идёт пересборка
+
+    public LatestListings(LatestListingsJdbcRepository repository, LatestListingsProperties props) {
+        this.repository = repository;
+        this.props = props;
+        this.state = new State(props.getCapacity());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.latest.rebuild-interval-ms:300000}",
+            initialDelayString = "${app.listings.latest.rebuild-interval-ms:300000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Собирает новое состояние из БД и подменяет текущее. Изменения, пришедшие во время запроса,
+     * применяются и к старому состоянию (его продолжают читать), и повторно к новому перед подменой.
+     */
+    public synchronized void rebuild() {
+        withWriteLock(() -> replay = new ArrayList<>());
+        State next = new State(props.getCapacity());
+        try {
+            repository.findLatestPerBucket(props.getCapacity()).forEach(next::publish);
+        } catch (RuntimeException e) {
+            withWriteLock(() -> replay = null);
+            throw e;
+        }
+        withWriteLock(() -> {
+            replay.forEach(op -> op.accept(next));
+            replay = null;
+            state = next;
+        });
+        log.debug("Latest listings rebuilt: {} rings, {} listings", next.rings.size(), next.live.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        UUID id = event.listingId();
+        if (event.type() == ListingChangeType.DELETED) {
+            apply(s -> s.remove(id));
+        } else if (event.type() == ListingChangeType.PUBLISHED && event.status() == ListingStatus.PUBLISHED) {
+            Optional<LatestListingDto> summary = repository.findPublished(id);
+            apply(s -> summary.ifPresentOrElse(s::publish, () -> s.remove(id)));
+        } else if (state.live.containsKey(id)) {
+            // правка, смена картинок, снятие с публикации: в фиде только то, что сейчас PUBLISHED
+            Optional<LatestListingDto> summary = repository.findPublished(id);
+            apply(s -> summary.ifPresentOrElse(s::refresh, () -> s.remove(id)));
+        }
+    }
+
+    /**
+     * @param category slug любого узла каталога или null — все категории
+     * @param city     город (без учёта регистра) или null — все города
+     */
+    public List<LatestListingDto> latest(String category, String city, int limit) {
+        State s = state;
+        LatestRing ring = s.rings.get(key(category == null ? ALL : category, city == null ? ALL : normalizeCity(city)));
+        if (ring == null || limit <= 0) return List.of();
+        return ring.newest(limit, e -> Objects.equals(s.live.get(e.id()), e.version()));
+    }
+
+    private void apply(Consumer<State> op) {
+        withWriteLock(() -> {
+            op.accept(state);
+            if (replay != null) replay.add(op);
+        });
+    }
+
+    private void withWriteLock(Runnable action) {
+        writeLock.lock();
+        try {
+            action.run();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static String key(String category, String city) {
+        return category + '|' + city;
+    }
+
+    private static String normalizeCity(String city) {
+        return city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Кольца и актуальные version. Меняется только под writeLock.
+     */
+    private static final class State {
+        private final int capacity;
+        private final Map<String, LatestRing> rings = new ConcurrentHashMap<>();
+        private final Map<UUID, Long> live = new ConcurrentHashMap<>();
+
+        State(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void publish(LatestListingDto summary) {
+            for (String key : keys(summary)) {
+                rings.computeIfAbsent(key, k -> new LatestRing(capacity)).push(summary);
+            }
+            live.put(summary.id(), summary.version());
+        }
+
+        // новая карточка на месте старой; при смене категории/города старые кольца её больше не покажут
+        // (version не совпадёт), а в новые она попадёт при следующей пересборке
+        void refresh(LatestListingDto summary) {
+            for (String key : keys(summary)) {
+                LatestRing ring = rings.get(key);
+                if (ring != null) ring.replace(summary.id(), summary);
+            }
+            live.put(summary.id(), summary.version());
+        }
+
+        void remove(UUID id) {
+            live.remove(id);
+        }
+
+        // все узлы пути каталога x (город, все города)
+        private static List<String> keys(LatestListingDto summary) {
+            List<String> categories = new ArrayList<>();
+            categories.add(ALL);
+            if (summary.categoryPath() != null) {
+                for (String segment : summary.categoryPath().split("/")) {
+                    if (!segment.isEmpty()) categories.add(segment);
+                }
+            } else if (summary.category() != null) {
+                categories.add(summary.category());
+            }
+            List<String> cities = summary.city() == null || summary.city().isBlank()
+                    ? List.of(ALL)
+                    : List.of(ALL, normalizeCity(summary.city()));
+            List<String> keys = new ArrayList<>(categories.size() * cities.size());
+            for (String category : categories) {
+                for (String city : cities) keys.add(key(category, city));
+            }
+            return keys;
+        }
+    }
+}
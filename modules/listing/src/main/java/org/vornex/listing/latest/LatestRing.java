@@ -0,0 +1,55 @@
+package org.vornex.listing.latest;
+
+import org.vornex.listing.dto.LatestListingDto;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Predicate;
+
+/**
+ * Кольцевой буфер последних карточек одной корзины (категория, город).
+ * <p>
+ * Пишет один поток за раз (под write-lock LatestListings), читают без блокировок.
+ * Если запись обгоняет чтение, читатель может встретить свежую карточку на месте уже пройденной —
+ * дубликаты отсекаются по id, порядок "от новых к старым" при этом сохраняется с точностью до гонки.
+ */
+final class LatestRing {
+
+    private final AtomicReferenceArray<LatestListingDto> slots;
+    private volatile long pushed; // всего записей за жизнь кольца; голова — pushed % capacity
+
+    LatestRing(int capacity) {
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    void push(LatestListingDto entry) {
+        long n = pushed;
+        slots.set((int) (n % slots.length()), entry);
+        pushed = n + 1;
+    }
+
+    /**
+     * Обновляет карточку на месте (правка опубликованного объявления не должна поднимать его в фиде).
+     */
+    void replace(UUID id, LatestListingDto fresh) {
+        for (int i = 0; i < slots.length(); i++) {
+            LatestListingDto e = slots.get(i);
+            if (e != null && e.id().equals(id)) slots.set(i, fresh);
+        }
+    }
+
+    /**
+     * До limit карточек от новых к старым, прошедших фильтр live (актуальная version).
+     */
+    List<LatestListingDto> newest(int limit, Predicate<LatestListingDto> live) {
+        long n = pushed;
+        int capacity = slots.length();
+        List<LatestListingDto> result = new ArrayList<>(Math.min(limit, capacity));
+        Set<UUID> seen = new HashSet<>();
+        for (long i = n - 1; i >= 0 && i >= n - capacity && result.size() < limit; i--) {
+            LatestListingDto e = slots.get((int) (i % capacity));
+            if (e != null && live.test(e) && seen.add(e.id())) result.add(e);
+        }
+        return result;
+    }
+}
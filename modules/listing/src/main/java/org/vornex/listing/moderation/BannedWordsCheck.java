@@ -0,0 +1,50 @@
+package org.vornex.listing.moderation;
+
+import org.springframework.stereotype.Component;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.util.ModerationProperties;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Запрещённые слова (app.listings.moderation.banned-words) в заголовке или описании — отклоняем без модератора.
+ * Сравнение по целым словам без учёта регистра: "оружие" не ловит "безоружие".
+ */
+@Component
+public class BannedWordsCheck implements ModerationCheck {
+
+    private static final Pattern WORD_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Set<String> bannedWords;
+
+    public BannedWordsCheck(ModerationProperties properties) {
+        this.bannedWords = properties.getBannedWords().stream()
+                .map(w -> w.trim().toLowerCase(Locale.ROOT))
+                .filter(w -> !w.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    public String name() {
+        return "banned-words";
+    }
+
+    @Override
+    public CheckResult check(Listing listing) {
+        if (bannedWords.isEmpty()) return CheckResult.pass();
+        String found = firstBanned(listing.getTitle());
+        if (found == null) found = firstBanned(listing.getDescription());
+        return found == null ? CheckResult.pass() : CheckResult.reject("Запрещённое слово: " + found);
+    }
+
+    private String firstBanned(String text) {
+        if (text == null) return null;
+        for (String word : WORD_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (bannedWords.contains(word)) return word;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,28 @@
+package org.vornex.listing.moderation;
+
+/**
+ * Результат одной автоматической проверки.
+ * PASS — замечаний нет, REJECT — отклонить сразу, ESCALATE — решение за модератором.
+ */
+public record CheckResult(Verdict verdict, String reason) {
+
+    public enum Verdict {
+        PASS,
+        ESCALATE,
+        REJECT
+    }
+
+    private static final CheckResult PASS = new CheckResult(Verdict.PASS, null);
+
+    public static CheckResult pass() {
+        return PASS;
+    }
+
+    public static CheckResult escalate(String reason) {
+        return new CheckResult(Verdict.ESCALATE, reason);
+    }
+
+    public static CheckResult reject(String reason) {
+        return new CheckResult(Verdict.REJECT, reason);
+    }
+}
@@ -0,0 +1,29 @@
+package org.vornex.listing.moderation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.repository.ListingRepository;
+
+/**
+ * У продавца уже есть опубликованное объявление с тем же заголовком в той же категории — вероятный дубль.
+ */
+@Component
+@RequiredArgsConstructor
+public class DuplicateListingCheck implements ModerationCheck {
+
+    private final ListingRepository listingRepository;
+
+    @Override
+    public String name() {
+        return "duplicate";
+    }
+
+    @Override
+    public CheckResult check(Listing listing) {
+        boolean duplicate = listingRepository.existsByOwnerIdAndCategoryAndStatusAndTitleIgnoreCaseAndIdNot(
+                listing.getOwnerId(), listing.getCategory(), ListingStatus.PUBLISHED, listing.getTitle(), listing.getId());
+        return duplicate ? CheckResult.escalate("Похоже на дубль опубликованного объявления") : CheckResult.pass();
+    }
+}
@@ -0,0 +1,15 @@
+package org.vornex.listing.moderation;
+
+import org.vornex.listing.entity.Listing;
+
+/**
+ * Автоматическая проверка объявления перед публикацией.
+ * Все бины-реализации подхватывает ModerationService; проверки выполняются внутри транзакции,
+ * удерживающей строку очереди, — поэтому должны быть быстрыми и без внешних сетевых вызовов.
+ */
+public interface ModerationCheck {
+
+    String name();
+
+    CheckResult check(Listing listing);
+}
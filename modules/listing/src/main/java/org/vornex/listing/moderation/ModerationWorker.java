@@ -0,0 +1,69 @@
+package org.vornex.listing.moderation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.vornex.listing.service.ModerationService;
+import org.vornex.listing.util.ModerationProperties;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пул автопроверок модерации.
+ * <p>
+ * По расписанию занимает свободные слоты (не больше workers) и в каждом разбирает очередь пачками,
+ * пока пачки приходят полными. Параллельные воркеры — свои и других инстансов — не конфликтуют:
+ * задачи делит SKIP LOCKED в ModerationQueueRepository.
+ */
+@Component
+@Slf4j
+public class ModerationWorker {
+
+    private final ModerationService moderationService;
+    private final int batchSize;
+    private final Semaphore slots;
+    private final ExecutorService executor;
+    private volatile boolean stopping;
+
+    public ModerationWorker(ModerationService moderationService, ModerationProperties properties) {
+        this.moderationService = moderationService;
+        this.batchSize = properties.getBatchSize();
+        this.slots = new Semaphore(properties.getWorkers());
+        this.executor = Executors.newFixedThreadPool(properties.getWorkers(),
+                Thread.ofPlatform().name("moderation-", 0).daemon().factory());
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.moderation.poll-interval-ms:2000}")
+    public void poll() {
+        while (!stopping && slots.tryAcquire()) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        try {
+            int taken;
+            do {
+                taken = moderationService.processAutoBatch();
+            } while (taken == batchSize && !stopping);
+        } catch (RuntimeException e) {
+            log.warn("Moderation batch failed, will retry on next poll: {}", e.getMessage(), e);
+        } finally {
+            slots.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Moderation workers did not finish in time, in-flight batches will be rolled back");
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.vornex.listing.moderation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.vornex.listing.duplicate.NearDuplicateIndex;
+import org.vornex.listing.duplicate.NearDuplicateIndex.Candidate;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.repository.ListingSignatureJdbcRepository;
+import org.vornex.listing.repository.ListingSignatureJdbcRepository.CandidateState;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Почти-дубль: текст (title + description) похож на опубликованное или ждущее модерации объявление —
+ * того же продавца или чужое (перезаливы с изменённым заголовком). Кандидаты — из LSH-индекса в памяти
+ * (NearDuplicateIndex), из БД читается только состояние найденных кандидатов.
+ */
+@Component
+@RequiredArgsConstructor
+public class NearDuplicateCheck implements ModerationCheck {
+
+    private static final int MAX_REPORTED = 3;
+
+    private final NearDuplicateIndex index;
+    private final ListingSignatureJdbcRepository signatureRepository;
+
+    @Override
+    public String name() {
+        return "near-duplicate";
+    }
+
+    @Override
+    public CheckResult check(Listing listing) {
+        List<Candidate> candidates = index.candidates(listing.getId(),
+                index.signatureOf(listing.getTitle(), listing.getDescription()));
+        if (candidates.isEmpty()) return CheckResult.pass();
+
+        Map<UUID, CandidateState> states = signatureRepository
+                .findCandidateStates(candidates.stream().map(Candidate::listingId).toList()).stream()
+                .collect(Collectors.toMap(CandidateState::listingId, Function.identity()));
+
+        List<String> matches = new ArrayList<>();
+        for (Candidate c : candidates) {
+            CandidateState state = states.get(c.listingId());
+            if (state == null || !state.live()) {
+                index.remove(c.listingId()); // удалено или снято с публикации (возможно, на другом инстансе)
+                continue;
+            }
+            if (matches.size() >= MAX_REPORTED) continue;
+            boolean sameOwner = Objects.equals(state.ownerId(), listing.getOwnerId());
+            matches.add(c.listingId() + " (" + Math.round(c.similarity() * 100) + "%"
+                    + (sameOwner ? ", тот же продавец" : "") + ")");
+        }
+        return matches.isEmpty()
+                ? CheckResult.pass()
+                : CheckResult.escalate("Похоже на объявления: " + String.join(", ", matches));
+    }
+}
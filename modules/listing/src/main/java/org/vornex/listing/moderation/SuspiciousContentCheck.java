@@ -0,0 +1,34 @@
+package org.vornex.listing.moderation;
+
+import org.springframework.stereotype.Component;
+import org.vornex.listing.entity.Listing;
+
+import java.util.regex.Pattern;
+
+/**
+ * Ссылки и телефоны в тексте — типичный признак увода сделки с площадки. Сами по себе не повод отклонять,
+ * поэтому отдаём модератору.
+ */
+@Component
+public class SuspiciousContentCheck implements ModerationCheck {
+
+    private static final Pattern LINK = Pattern.compile(
+            "(?i)\\b(?:https?://|www\\.|t\\.me/|wa\\.me/)\\S+");
+    // 10+ цифр подряд с разделителями (пробел, дефис, скобки) — похоже на номер телефона
+    private static final Pattern PHONE = Pattern.compile("(?:\\+?\\d[\\s\\-()]*){10,}");
+
+    @Override
+    public String name() {
+        return "suspicious-content";
+    }
+
+    @Override
+    public CheckResult check(Listing listing) {
+        for (String text : new String[]{listing.getTitle(), listing.getDescription()}) {
+            if (text == null) continue;
+            if (LINK.matcher(text).find()) return CheckResult.escalate("Ссылка в тексте объявления");
+            if (PHONE.matcher(text).find()) return CheckResult.escalate("Телефон в тексте объявления");
+        }
+        return CheckResult.pass();
+    }
+}
@@ -0,0 +1,85 @@
+package org.vornex.listing.popularity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.ListingPopularityJdbcRepository;
+import org.vornex.listing.util.PopularityProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Поддержание listings.popularity_score (модель — PopularityScore).
+ * <p>
+ * - Публикация: стартовый score после коммита (свежесть + уже набранное избранное) и ценовой буст.
+ * - Просмотры: вклад — прирост уникальных зрителей за день (HLL), пишет UniqueViewerTracker при слиянии скетчей.
+ * - Избранное: отдельного потока событий у модуля пользователей нет, поэтому прирост по таблице favorites
+ * подхватывается периодически: только объявления с новыми строками favorites с прошлого прохода
+ * (первый проход после старта — полный, догоняет пропущенное, пока инстанс не работал).
+ * - Ценовой буст: медианы по (категория, валюта) кешируются в listing_price_medians и пересчитываются
+ * раз в priceMedianRefreshInterval (вместе с бустом всех опубликованных); между ними буст одного объявления
+ * обновляется по событию публикации / смены цены или категории.
+ * Все шаги идемпотентны и пересчитывают условие под блокировкой строки — параллельный запуск на нескольких
+ * инстансах ничего не задвоит.
+ */
+@Component
+@Slf4j
+public class ListingPopularity {
+
+    // запас на транзакции, закоммитившие строки favorites с added_at до начала прошлого прохода
+    private static final Duration FAVORITES_OVERLAP = Duration.ofMinutes(1);
+
+    private final ListingPopularityJdbcRepository repository;
+    private final PopularityProperties props;
+    private final Clock clock;
+    private Instant favoritesCheckedAt; // под synchronized maintain()
+    private Instant mediansRefreshedAt;
+
+    public ListingPopularity(ListingPopularityJdbcRepository repository, PopularityProperties props, Clock clock) {
+        this.repository = repository;
+        this.props = props;
+        this.clock = clock;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.status() != ListingStatus.PUBLISHED) return;
+        if (event.type() == ListingChangeType.PUBLISHED) {
+            repository.initialize(event.listingId());
+            repository.refreshPriceBoost(event.listingId());
+        } else if (event.changedFields().contains("price") || event.changedFields().contains("category")) {
+            repository.refreshPriceBoost(event.listingId());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.listings.popularity.maintenance-interval-ms:300000}",
+            fixedDelayString = "${app.listings.popularity.maintenance-interval-ms:300000}")
+    public synchronized void maintain() {
+        Instant started = clock.instant();
+        int initialized = 0;
+        int step;
+        do {
+            step = repository.initializeMissing(props.getInitBatchSize());
+            initialized += step;
+        } while (step == props.getInitBatchSize());
+        // Favorite.addedAt — LocalDateTime от @CreatedDate, т.е. в зоне JVM
+        int favorites = repository.addNewFavorites(favoritesCheckedAt == null ? null
+                : LocalDateTime.ofInstant(favoritesCheckedAt.minus(FAVORITES_OVERLAP), ZoneId.systemDefault()));
+        favoritesCheckedAt = started;
+        int boosts = 0;
+        if (mediansRefreshedAt == null || !started.isBefore(mediansRefreshedAt.plus(props.getPriceMedianRefreshInterval()))) {
+            repository.refreshPriceMedians();
+            boosts = repository.refreshPriceBoosts();
+            mediansRefreshedAt = started;
+        }
+        log.debug("Popularity maintenance: {} initialized, {} favorites updates, {} price boosts", initialized, favorites, boosts);
+    }
+}
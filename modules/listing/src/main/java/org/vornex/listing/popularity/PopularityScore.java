@@ -0,0 +1,61 @@
+package org.vornex.listing.popularity;
+
+import org.springframework.stereotype.Component;
+import org.vornex.listing.util.PopularityProperties;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Популярность с экспоненциальным затуханием, хранимая в лог-шкале относительно фиксированной эпохи (forward decay).
+ * <p>
+ * Событие с весом w в момент t вносит w * e^(λ(t - EPOCH)); в listings.popularity_score лежит ln суммы вкладов
+ * плюс ценовой буст. Текущее значение — score - λ(now - EPOCH): сдвиг одинаков для всех объявлений,
+ * поэтому порядок по сохранённому score и есть порядок по затухшей популярности — ни пересчёта со временем,
+ * ни вычислений на строку в запросе, только ORDER BY по индексу.
+ * <p>
+ * Новый вклад прибавляется как logaddexp(score, ln(w) + λ(t - EPOCH)) — одна арифметика в UPDATE.
+ * λ(t - EPOCH) растёт примерно на 0.23 в сутки при half-life 3 дня: double хватает на столетия, а exp в лоб
+ * не вычисляется нигде (в SQL — функция logaddexp из changeset'а).
+ */
+@Component
+public class PopularityScore {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final PopularityProperties props;
+    private final Clock clock;
+
+    public PopularityScore(PopularityProperties props, Clock clock) {
+        this.props = props;
+        this.clock = clock;
+    }
+
+    /**
+     * λ на секунду: ln 2 / half-life.
+     */
+    public double lambda() {
+        return Math.log(2) / props.getHalfLife().toSeconds();
+    }
+
+    /**
+     * Лог-вклад события с весом weight в момент at: ln(weight) + λ(at - EPOCH).
+     */
+    public double logContribution(double weight, Instant at) {
+        return Math.log(weight) + lambda() * (at.getEpochSecond() - EPOCH.getEpochSecond());
+    }
+
+    /**
+     * Смещение для пачки просмотров, записанной сейчас: вклад delta просмотров = ln(delta) + viewOffset().
+     */
+    public double viewOffset() {
+        return logContribution(props.getViewWeight(), clock.instant());
+    }
+
+    /**
+     * Смещение для новых добавлений в избранное: вклад n добавлений = ln(n) + favoriteOffset().
+     */
+    public double favoriteOffset() {
+        return logContribution(props.getFavoriteWeight(), clock.instant());
+    }
+}
@@ -0,0 +1,14 @@
+package org.vornex.listing.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.vornex.listing.entity.CategoryAttributeSchema;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CategoryAttributeSchemaRepository extends JpaRepository<CategoryAttributeSchema, UUID> {
+    Optional<CategoryAttributeSchema> findByCategoryAndName(String category, String name);
+
+    List<CategoryAttributeSchema> findAllByOrderByCategoryAscNameAsc();
+}
@@ -0,0 +1,15 @@
+package org.vornex.listing.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.vornex.listing.entity.Category;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface CategoryRepository extends JpaRepository<Category, UUID> {
+    Optional<Category> findBySlug(String slug);
+
+    boolean existsBySlug(String slug);
+
+    boolean existsByParentId(UUID parentId);
+}
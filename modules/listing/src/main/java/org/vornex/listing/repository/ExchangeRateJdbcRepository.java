@@ -0,0 +1,89 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * exchange_rates и пересчёт listings.price_base по ним.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ExchangeRateJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Rate(String currency, BigDecimal rateToBase, Instant updatedAt) {
+    }
+
+    public List<Rate> findAll() {
+        return jdbcTemplate.query("select currency, rate_to_base, updated_at from exchange_rates order by currency",
+                (rs, i) -> new Rate(rs.getString("currency"), rs.getBigDecimal("rate_to_base"),
+                        rs.getTimestamp("updated_at").toInstant()));
+    }
+
+    /**
+     * @return false, если курс не изменился (updated_at не трогаем — пересчёт не нужен)
+     */
+    public boolean upsert(String currency, BigDecimal rateToBase) {
+        return jdbcTemplate.update(
+                "insert into exchange_rates (currency, rate_to_base, updated_at) values (?, ?, now()) " +
+                        "on conflict (currency) do update set rate_to_base = excluded.rate_to_base, updated_at = now() " +
+                        "where exchange_rates.rate_to_base <> excluded.rate_to_base",
+                currency, rateToBase) > 0;
+    }
+
+    /**
+     * Базовая валюта всегда есть в таблице с курсом 1 — её объявления пересчитываются тем же механизмом.
+     */
+    public void ensureBase(String currency) {
+        jdbcTemplate.update("insert into exchange_rates (currency, rate_to_base, updated_at) values (?, 1, now()) " +
+                "on conflict (currency) do nothing", currency);
+    }
+
+    /**
+     * Курсы, по которым price_base ещё не сверен: новые или такие, что последний проход начался раньше,
+     * чем через settleWindow после изменения курса.
+     */
+    public List<Rate> findPendingRecompute(Duration settleWindow) {
+        return jdbcTemplate.query(
+                "select currency, rate_to_base, updated_at from exchange_rates " +
+                        "where applied_at is null or applied_at < updated_at + make_interval(secs => ?)",
+                (rs, i) -> new Rate(rs.getString("currency"), rs.getBigDecimal("rate_to_base"),
+                        rs.getTimestamp("updated_at").toInstant()),
+                (double) settleWindow.toSeconds());
+    }
+
+    /**
+     * Сверяет price_base у следующей пачки объявлений валюты (keyset по idx_listing_price_currency_id, после afterId).
+     * Пишутся только расходящиеся строки; курс берётся из БД в том же запросе — сменившийся за время
+     * прохода курс не будет перезаписан старым.
+     *
+     * @return id последнего просмотренного объявления или null, если объявления валюты закончились
+     */
+    public UUID recomputeBatch(String currency, UUID afterId, int limit) {
+        return jdbcTemplate.queryForObject(
+                "with batch as (select id from listings where price_currency = ? and id > ? order by id limit ?), " +
+                        "fixed as (update listings l set price_base = round(l.price_amount * r.rate_to_base, 2) " +
+                        "from batch b, exchange_rates r where l.id = b.id and r.currency = l.price_currency " +
+                        "and l.price_base is distinct from round(l.price_amount * r.rate_to_base, 2)) " +
+                        "select (select id from batch order by id desc limit 1)",
+                UUID.class, currency, afterId, limit);
+    }
+
+    /**
+     * @param passStartedAt начало прохода: записи, сделанные во время прохода по уже пройденным id, он не видел
+     */
+    public void markApplied(String currency, Instant updatedAt, Instant passStartedAt) {
+        // только если курс не сменился во время пересчёта — иначе следующий проход пересчитает снова
+        jdbcTemplate.update("update exchange_rates set applied_at = ? where currency = ? and updated_at = ?",
+                Timestamp.from(passStartedAt), currency, Timestamp.from(updatedAt));
+    }
+}
@@ -0,0 +1,95 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.Money;
+import org.vornex.listing.dto.LatestListingDto;
+import org.vornex.listing.service.StorageService;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Чтения для фида "новые объявления" (LatestListings): краткие карточки опубликованных объявлений.
+ */
+@Repository
+@RequiredArgsConstructor
+public class LatestListingsJdbcRepository {
+
+    // первая картинка по position — как в карточке (ListingReadRepository)
+    private static final String COVER_SQL =
+            "(select a.storage_key from attachments a where a.listing_id = t.id " +
+                    "order by a.position nulls last, a.id limit 1) as cover_key";
+
+    private static final String SUMMARY_SQL =
+            "select t.id, t.title, t.price_amount, t.price_currency, t.category, t.category_path, t.city, " +
+                    "t.published_at, t.version, " + COVER_SQL + " " +
+                    "from listings t where t.id = :id and t.status = 'PUBLISHED'";
+
+    /*
+     * Top-N на самую мелкую корзину (категория-лист, город как есть). Top-N любой более крупной корзины
+     * (ветка каталога, город без учёта регистра, "все города") — подмножество объединения этих,
+     * поэтому прогрева по ним достаточно для всех колец.
+     *
+     * По частичному индексу idx_listing_latest_bucket: рекурсивный skip scan перебирает корзины
+     * (по одному index probe на корзину), lateral берёт первые perBucket строк корзины.
+     * Стоимость — корзины x perBucket, а не сортировка всех опубликованных. Null-город — корзина ''.
+     */
+    private static final String LATEST_PER_BUCKET_SQL =
+            "with recursive buckets(category, city) as ( " +
+                    "  (select l.category, coalesce(l.city, '') from listings l where l.status = 'PUBLISHED' " +
+                    "   order by l.category, coalesce(l.city, '') limit 1) " +
+                    "  union all " +
+                    "  select n.category, n.city from buckets b cross join lateral ( " +
+                    "    select l.category, coalesce(l.city, '') as city from listings l " +
+                    "    where l.status = 'PUBLISHED' and (l.category, coalesce(l.city, '')) > (b.category, b.city) " +
+                    "    order by l.category, coalesce(l.city, '') limit 1) n " +
+                    ") " +
+                    "select t.id, t.title, t.price_amount, t.price_currency, t.category, t.category_path, t.city, " +
+                    "t.published_at, t.version, " + COVER_SQL + " " +
+                    "from buckets b cross join lateral ( " +
+                    "  select l.id, l.title, l.price_amount, l.price_currency, l.category, l.category_path, " +
+                    "         l.city, l.published_at, l.version " +
+                    "  from listings l " +
+                    "  where l.status = 'PUBLISHED' and l.category = b.category and coalesce(l.city, '') = b.city " +
+                    "  order by l.published_at desc nulls last, l.id desc limit :perBucket) t " +
+                    "order by t.published_at nulls first, t.id";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final StorageService storageService;
+
+    public Optional<LatestListingDto> findPublished(UUID id) {
+        List<LatestListingDto> found = jdbc.query(SUMMARY_SQL, Map.of("id", id), this::map);
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    /**
+     * Последние perBucket опубликованных объявлений каждой пары (категория, город), от старых к новым.
+     */
+    public List<LatestListingDto> findLatestPerBucket(int perBucket) {
+        return jdbc.query(LATEST_PER_BUCKET_SQL, Map.of("perBucket", perBucket), this::map);
+    }
+
+    private LatestListingDto map(ResultSet rs, int rowNum) throws SQLException {
+        BigDecimal amount = rs.getBigDecimal("price_amount");
+        String coverKey = rs.getString("cover_key");
+        Timestamp publishedAt = rs.getTimestamp("published_at");
+        return new LatestListingDto(
+                rs.getObject("id", UUID.class),
+                rs.getString("title"),
+                amount == null ? null : new Money(amount, rs.getString("price_currency")),
+                rs.getString("category"),
+                rs.getString("category_path"),
+                rs.getString("city"),
+                coverKey == null ? null : storageService.publicUrl(coverKey),
+                publishedAt == null ? null : publishedAt.toInstant(),
+                rs.getObject("version", Long.class));
+    }
+}
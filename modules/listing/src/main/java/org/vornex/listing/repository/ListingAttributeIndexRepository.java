@@ -0,0 +1,82 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.attribute.TypedAttributeValue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Индексная таблица типизированных атрибутов listing_attribute_values(listing_id, attr, num_value, text_value).
+ * B-tree индексы (attr, num_value) и (attr, text_value) дают range-фильтры, которые jsonb/GIN не умеет.
+ * Источник истины — Listing.attributes; таблица поддерживается сервисом при create/update.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingAttributeIndexRepository {
+
+    private static final String UPSERT_SQL =
+            "insert into listing_attribute_values(listing_id, attr, num_value, text_value) values (?, ?, ?, ?) " +
+                    "on conflict (listing_id, attr) do update set num_value = excluded.num_value, text_value = excluded.text_value";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record RawAttribute(UUID listingId, String value) {
+    }
+
+    public void replace(UUID listingId, List<TypedAttributeValue> values) {
+        jdbcTemplate.update("delete from listing_attribute_values where listing_id = ?", listingId);
+        if (values.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, values.stream()
+                .map(v -> new Object[]{listingId, v.name(), v.numberValue(), v.textValue()})
+                .toList());
+    }
+
+    public void upsertAll(Map<UUID, TypedAttributeValue> values) {
+        if (values.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, values.entrySet().stream()
+                .map(e -> new Object[]{e.getKey(), e.getValue().name(), e.getValue().numberValue(), e.getValue().textValue()})
+                .toList());
+    }
+
+    /**
+     * Вставка значений для пачки новых объявлений (импорт) одним JDBC batch.
+     */
+    public void insertAll(Map<UUID, List<TypedAttributeValue>> values) {
+        List<Object[]> args = new ArrayList<>();
+        values.forEach((listingId, attrs) -> attrs.forEach(v ->
+                args.add(new Object[]{listingId, v.name(), v.numberValue(), v.textValue()})));
+        if (args.isEmpty()) return;
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+
+    public void deleteValues(String attr, Collection<UUID> listingIds) {
+        if (listingIds.isEmpty()) return;
+        jdbcTemplate.batchUpdate("delete from listing_attribute_values where listing_id = ? and attr = ?",
+                listingIds.stream().map(id -> new Object[]{id, attr}).toList());
+    }
+
+    public int deleteAttribute(String category, String attr) {
+        return jdbcTemplate.update(
+                "delete from listing_attribute_values v using listings l " +
+                        "where v.listing_id = l.id and l.category = ? and v.attr = ?",
+                category, attr);
+    }
+
+    /**
+     * Keyset-страница сырых значений атрибута из jsonb — для backfill при изменении атрибута в схеме (AttributeBackfill).
+     */
+    public List<RawAttribute> findRawValues(String category, String attr, UUID afterId, int limit) {
+        return jdbcTemplate.query(
+                "select l.id, l.attributes ->> ? as value from listings l " +
+                        "where l.category = ? and l.attributes ->> ? is not null and l.id > ? " +
+                        "order by l.id limit ?",
+                (rs, i) -> new RawAttribute(rs.getObject("id", UUID.class), rs.getString("value")),
+                attr, category, attr, afterId, limit);
+    }
+}
@@ -0,0 +1,66 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Таблица listing_counters — число объявлений в каждой паре (category, status).
+ * Обновляется дельтами в транзакции, которая меняет listings; периодически сверяется с реальным count(*).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingCountersJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record CounterRow(String category, String status, long count) {
+    }
+
+    /**
+     * Прибавляет дельты (count в CounterRow — дельта). Вызывающий код передаёт строки в стабильном порядке:
+     * транзакции берут блокировки строк счётчиков в одном порядке и не ловят deadlock.
+     */
+    public void addDeltas(List<CounterRow> deltas) {
+        if (deltas.isEmpty()) return;
+        jdbcTemplate.batchUpdate(
+                "insert into listing_counters (category, status, listing_count) values (?, ?, ?) " +
+                        "on conflict (category, status) do update " +
+                        "set listing_count = listing_counters.listing_count + excluded.listing_count",
+                deltas, deltas.size(),
+                (ps, row) -> {
+                    ps.setString(1, row.category());
+                    ps.setString(2, row.status());
+                    ps.setLong(3, row.count());
+                });
+    }
+
+    public List<CounterRow> findAll() {
+        return jdbcTemplate.query(
+                "select category, status, listing_count from listing_counters where listing_count <> 0",
+                (rs, i) -> new CounterRow(rs.getString("category"), rs.getString("status"), rs.getLong("listing_count")));
+    }
+
+    /**
+     * Переписывает счётчики реальными count(*). Только внутри транзакции.
+     * <p>
+     * EXCLUSIVE-блокировка таблицы счётчиков (чтения не блокирует) дожидается транзакций, уже применивших дельты,
+     * и задерживает новые до конца сверки — поэтому count(*) видит ровно те объявления, чьи дельты уже учтены.
+     *
+     * @return сколько строк счётчиков пришлось исправить (дрейф)
+     */
+    public int reconcile() {
+        jdbcTemplate.execute("lock table listing_counters in exclusive mode");
+        int upserted = jdbcTemplate.update(
+                "insert into listing_counters (category, status, listing_count) " +
+                        "select category, status, count(*) from listings group by category, status " +
+                        "on conflict (category, status) do update set listing_count = excluded.listing_count " +
+                        "where listing_counters.listing_count <> excluded.listing_count");
+        int zeroed = jdbcTemplate.update(
+                "update listing_counters c set listing_count = 0 where c.listing_count <> 0 " +
+                        "and not exists (select 1 from listings l where l.category = c.category and l.status = c.status)");
+        return upserted + zeroed;
+    }
+}
@@ -0,0 +1,63 @@
+package org.vornex.listing.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.dto.ListingExportFilterDto;
+import org.vornex.listing.util.ListingExportProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковое чтение объявлений для экспорта.
+ * <p>
+ * Свой JdbcTemplate с fetchSize: PostgreSQL-драйвер читает результат серверным курсором порциями
+ * по fetchSize строк — но только внутри транзакции (autocommit = false), иначе он выгрузит всё в память.
+ * Поэтому вызывать только в транзакции (см. ListingExportServiceImpl).
+ * Строки отдаются в RowCallbackHandler по одной, без сущностей и persistence context.
+ * Сортировка по PK — план идёт по индексу без сортировки всей выборки.
+ */
+@Repository
+public class ListingExportJdbcRepository {
+
+    public static final List<String> COLUMNS = List.of(
+            "id", "title", "description", "price_amount", "price_currency", "category", "item_condition",
+            "status", "moderation_status", "owner_id", "city", "attributes", "views_count",
+            "created_at", "updated_at", "published_at");
+
+    private static final String SELECT_SQL =
+            "select id, title, description, price_amount, price_currency, category, item_condition, " +
+                    "status, moderation_status, owner_id, city, attributes::text as attributes, views_count, " +
+                    "created_at, updated_at, published_at from listings";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ListingExportJdbcRepository(DataSource dataSource, ListingExportProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+    }
+
+    public void streamAll(ListingExportFilterDto filter, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder(SELECT_SQL);
+        List<Object> args = new ArrayList<>(3);
+        String where = " where ";
+        if (filter.status() != null) {
+            sql.append(where).append("status = ?");
+            args.add(filter.status().name());
+            where = " and ";
+        }
+        if (filter.category() != null) {
+            sql.append(where).append("category = ?");
+            args.add(filter.category());
+            where = " and ";
+        }
+        if (filter.ownerId() != null) {
+            sql.append(where).append("owner_id = ?");
+            args.add(filter.ownerId());
+        }
+        sql.append(" order by id");
+        jdbcTemplate.query(sql.toString(), handler, args.toArray());
+    }
+}
@@ -0,0 +1,78 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.MapToJsonConverter;
+import org.vornex.listing.Money;
+import org.vornex.listing.enums.ItemCondition;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.enums.ModerationStatus;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Пакетная вставка объявлений для массового импорта.
+ * <p>
+ * Минуя JPA: без persistence context (память не растёт с размером файла), без select'ов и по одному
+ * JDBC batch на пачку строк (с reWriteBatchedInserts драйвер склеивает его в multi-row INSERT).
+ * Значения по умолчанию (status, moderation_status, version) — те же, что у Listing при persist.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingImportJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "insert into listings (id, title, description, price_amount, price_currency, price_base, category, category_path, city, item_condition, " +
+                    "status, moderation_status, owner_id, attributes, views_count, created_at, updated_at, version) " +
+                    "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, cast(? as jsonb), 0, ?, ?, 0)";
+
+    private static final MapToJsonConverter JSON = new MapToJsonConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record NewListing(
+            UUID id,
+            String title,
+            String description,
+            Money price,
+            BigDecimal priceBase,
+            String category,
+            String categoryPath,
+            String city,
+            ItemCondition itemCondition,
+            UUID ownerId,
+            Map<String, String> attributes,
+            Instant createdAt
+    ) {
+    }
+
+    public void insertAll(List<NewListing> listings) {
+        if (listings.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, listings.stream()
+                .map(l -> new Object[]{
+                        l.id(),
+                        l.title(),
+                        l.description(),
+                        l.price() == null ? null : l.price().getAmount(),
+                        l.price() == null ? null : l.price().getCurrency(),
+                        l.priceBase(),
+                        l.category(),
+                        l.categoryPath(),
+                        l.city(),
+                        l.itemCondition().name(),
+                        ListingStatus.DRAFT.name(),
+                        ModerationStatus.NOT_REQUIRED.name(),
+                        l.ownerId(),
+                        JSON.convertToDatabaseColumn(l.attributes()),
+                        Timestamp.from(l.createdAt()),
+                        Timestamp.from(l.createdAt())
+                })
+                .toList());
+    }
+}
@@ -0,0 +1,158 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.popularity.PopularityScore;
+import org.vornex.listing.util.PopularityProperties;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Запись listings.popularity_score (см. PopularityScore) — нативным SQL, без JPA:
+ * колонки score не отображены в Listing, поэтому не трогают @Version и не перетираются сохранением сущности.
+ * Вклад просмотров — по приросту уникальных зрителей (addUniqueViewers из UniqueViewerTracker).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingPopularityJdbcRepository {
+
+    /*
+     * Стартовый score: публикация и уже набранное избранное — как вклад в момент публикации.
+     * Сырой views_count не учитывается: просмотры идут в score только уникальными зрителями.
+     * %s — отбор объявлений.
+     */
+    private static final String INIT_SQL =
+            "update listings l set " +
+                    "popularity_score = ln(:publishWeight + :favoriteWeight * s.favorites) " +
+                    "  + :lambda * (extract(epoch from coalesce(l.published_at, l.created_at, now())) - :epoch) " +
+                    "  + l.price_boost, " +
+                    "favorites_scored = s.favorites " +
+                    "from (select l2.id, (select count(*) from favorites f where f.listing_id = l2.id)::int as favorites " +
+                    "      from listings l2 where l2.status = 'PUBLISHED' and %s) s " +
+                    "where l.id = s.id";
+
+    /*
+     * Только прирост сверх уже учтённого максимума: снять и снова поставить "избранное" score не накручивает.
+     * %s — отбор объявлений, у которых избранное могло измениться (count считается только по ним).
+     */
+    private static final String FAVORITES_SQL =
+            "update listings l set " +
+                    "popularity_score = logaddexp(l.popularity_score, ln(f.favorites - l.favorites_scored) + :offset + l.price_boost), " +
+                    "favorites_scored = f.favorites " +
+                    "from (select listing_id, count(*)::int as favorites from favorites where %s group by listing_id) f " +
+                    "where l.id = f.listing_id and f.favorites > l.favorites_scored " +
+                    "and l.status = 'PUBLISHED' and l.popularity_score is not null";
+
+    private static final String REFRESH_MEDIANS_SQL =
+            "insert into listing_price_medians (category, price_currency, median, refreshed_at) " +
+                    "select category, price_currency, percentile_cont(0.5) within group (order by price_amount), now() " +
+                    "from listings where status = 'PUBLISHED' and price_amount > 0 " +
+                    "group by category, price_currency " +
+                    "on conflict (category, price_currency) do update " +
+                    "set median = excluded.median, refreshed_at = excluded.refreshed_at";
+
+    // буст цены: ±priceWeight по ln(медиана категории / цена); медиана — из listing_price_medians. %s — отбор
+    private static final String PRICE_BOOST_SQL =
+            "update listings l set " +
+                    "popularity_score = l.popularity_score - l.price_boost + b.boost, " +
+                    "price_boost = b.boost " +
+                    "from (select l2.id, :priceWeight * greatest(-1, least(1, ln(m.median / l2.price_amount::float8))) as boost " +
+                    "      from listings l2 " +
+                    "      join listing_price_medians m on m.category = l2.category and m.price_currency = l2.price_currency " +
+                    "      where l2.status = 'PUBLISHED' and l2.price_amount > 0 and %s) b " +
+                    "where l.id = b.id and l.popularity_score is not null and abs(l.price_boost - b.boost) > 1e-9";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final PopularityProperties props;
+    private final PopularityScore popularityScore;
+
+    /**
+     * Стартовый score при публикации (и повторной публикации — свежесть отсчитывается заново).
+     */
+    public int initialize(UUID listingId) {
+        return jdbc.update(INIT_SQL.formatted("l2.id = :id"), initParams().addValue("id", listingId));
+    }
+
+    /**
+     * Опубликованные без score (объявления до появления колонки) — пачкой.
+     */
+    public int initializeMissing(int limit) {
+        return jdbc.update(INIT_SQL.formatted("l2.popularity_score is null order by l2.id limit :limit"),
+                initParams().addValue("limit", limit));
+    }
+
+    /**
+     * Вклад новых уникальных зрителей (прирост оценки HLL за день) в текущий момент.
+     * Вызывается в транзакции слияния скетчей — под теми же блокировками строк listing_daily_viewers.
+     */
+    public int addUniqueViewers(Map<UUID, Long> newViewers) {
+        if (newViewers.isEmpty()) return 0;
+
+        StringBuilder sql = new StringBuilder(
+                "update listings l set popularity_score = " +
+                        "logaddexp(l.popularity_score, ln(v.viewers) + cast(? as double precision) + l.price_boost) " +
+                        "from (values ");
+        List<Object> args = new ArrayList<>(newViewers.size() * 2 + 1);
+        args.add(popularityScore.viewOffset());
+        boolean first = true;
+        for (Map.Entry<UUID, Long> e : newViewers.entrySet()) {
+            if (!first) sql.append(',');
+            sql.append("(cast(? as uuid), cast(? as bigint))");
+            args.add(e.getKey());
+            args.add(e.getValue());
+            first = false;
+        }
+        sql.append(") as v(id, viewers) where l.id = v.id and l.status = 'PUBLISHED' and l.popularity_score is not null");
+
+        return jdbc.getJdbcTemplate().update(sql.toString(), args.toArray());
+    }
+
+    /**
+     * Учитывает новые добавления в избранное (таблица favorites) вкладом в текущий момент.
+     *
+     * @param since пересчитать только объявления, добавленные в избранное с этого момента; null — все
+     */
+    public int addNewFavorites(LocalDateTime since) {
+        MapSqlParameterSource params = new MapSqlParameterSource("offset", popularityScore.favoriteOffset());
+        if (since == null) return jdbc.update(FAVORITES_SQL.formatted("true"), params);
+        return jdbc.update(FAVORITES_SQL.formatted(
+                        "listing_id in (select listing_id from favorites where added_at >= :since)"),
+                params.addValue("since", since));
+    }
+
+    /**
+     * Медианы цен по (категория, валюта) — единственный полный проход по опубликованным, поэтому редкий.
+     */
+    public int refreshPriceMedians() {
+        return jdbc.update(REFRESH_MEDIANS_SQL, new MapSqlParameterSource());
+    }
+
+    /**
+     * Буст всех опубликованных по текущим медианам — после refreshPriceMedians.
+     */
+    public int refreshPriceBoosts() {
+        return jdbc.update(PRICE_BOOST_SQL.formatted("true"), new MapSqlParameterSource("priceWeight", props.getPriceWeight()));
+    }
+
+    /**
+     * Буст одного объявления (публикация, смена цены или категории) по уже посчитанным медианам.
+     */
+    public int refreshPriceBoost(UUID listingId) {
+        return jdbc.update(PRICE_BOOST_SQL.formatted("l2.id = :id"),
+                new MapSqlParameterSource("priceWeight", props.getPriceWeight()).addValue("id", listingId));
+    }
+
+    private MapSqlParameterSource initParams() {
+        return new MapSqlParameterSource()
+                .addValue("publishWeight", props.getPublishWeight())
+                .addValue("favoriteWeight", props.getFavoriteWeight())
+                .addValue("lambda", popularityScore.lambda())
+                .addValue("epoch", PopularityScore.EPOCH.getEpochSecond());
+    }
+}
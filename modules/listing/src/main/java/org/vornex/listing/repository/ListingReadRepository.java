@@ -0,0 +1,109 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.Money;
+import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.dto.attachmentDto.AttachmentDto;
+import org.vornex.listing.enums.ItemCondition;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.enums.ModerationStatus;
+import org.vornex.listing.service.StorageService;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Read-модель карточек объявлений: ResultSet -> ListingResponseDto напрямую, минуя сущности.
+ * <p>
+ * Для чтения Listing-сущность избыточна: снапшот для dirty-checking, прокси/коллекция attachments,
+ * разбор jsonb-атрибутов конвертером — а ListingResponseDto атрибутов даже не содержит.
+ * Здесь два плоских запроса (объявления + их attachments по listing_id), без fetch join'а,
+ * который размножает строки объявления на каждое вложение.
+ * <p>
+ * Используется для карточки, multi-get и страниц поиска (в т.ч. объявлений продавца в профиле).
+ * Запись по-прежнему идёт через JPA (ListingRepository).
+ * Время и аллокации на страницу против fetch join сущностей — ListingReadBenchmarkTest (opt-in, нужен Docker).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingReadRepository {
+
+    private static final String LISTING_SQL =
+            "select id, title, description, price_amount, price_currency, category, city, item_condition, status, " +
+                    "moderation_status, owner_id, created_at, updated_at, published_at, views_count, version " +
+                    "from listings where id in (:ids)";
+
+    private static final String ATTACHMENTS_SQL =
+            "select id, listing_id, storage_key from attachments where listing_id in (:ids) " +
+                    "order by listing_id, position nulls last, id";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final StorageService storageService; // publicUrl — чистая сборка строки, без сетевых вызовов
+
+    public Optional<ListingResponseDto> findById(UUID id) {
+        List<ListingResponseDto> found = findAllById(List.of(id));
+        return found.isEmpty() ? Optional.empty() : Optional.of(found.get(0));
+    }
+
+    /**
+     * Только version — для условных запросов (ETag) без чтения и маппинга карточки.
+     */
+    public Optional<Long> findVersion(UUID id) {
+        List<Long> versions = jdbc.queryForList("select version from listings where id = :id", Map.of("id", id), Long.class);
+        return versions.isEmpty() ? Optional.empty() : Optional.ofNullable(versions.get(0));
+    }
+
+    /**
+     * Объявления по id (порядок не гарантирован). Несуществующие id просто отсутствуют в результате.
+     */
+    public List<ListingResponseDto> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<String, Object> params = Map.of("ids", ids);
+
+        Map<UUID, List<AttachmentDto>> attachments = new HashMap<>();
+        jdbc.query(ATTACHMENTS_SQL, params, rs -> {
+            attachments.computeIfAbsent(rs.getObject("listing_id", UUID.class), k -> new ArrayList<>(4))
+                    .add(new AttachmentDto(rs.getLong("id"), rs.getString("storage_key"),
+                            storageService.publicUrl(rs.getString("storage_key"))));
+        });
+
+        return jdbc.query(LISTING_SQL, params, (rs, i) -> mapListing(rs, attachments));
+    }
+
+    private static ListingResponseDto mapListing(ResultSet rs, Map<UUID, List<AttachmentDto>> attachments) throws SQLException {
+        UUID id = rs.getObject("id", UUID.class);
+        BigDecimal amount = rs.getBigDecimal("price_amount");
+        return new ListingResponseDto(
+                id,
+                rs.getString("title"),
+                rs.getString("description"),
+                amount == null ? null : new Money(amount, rs.getString("price_currency")),
+                rs.getString("category"),
+                rs.getString("city"),
+                enumOrNull(ItemCondition.class, rs.getString("item_condition")),
+                enumOrNull(ListingStatus.class, rs.getString("status")),
+                enumOrNull(ModerationStatus.class, rs.getString("moderation_status")),
+                rs.getObject("owner_id", UUID.class),
+                instant(rs.getTimestamp("created_at")),
+                instant(rs.getTimestamp("updated_at")),
+                instant(rs.getTimestamp("published_at")),
+                rs.getLong("views_count"),
+                List.copyOf(attachments.getOrDefault(id, List.of())),
+                rs.getObject("version", Long.class)
+        );
+    }
+
+    private static <E extends Enum<E>> E enumOrNull(Class<E> type, String value) {
+        return value == null ? null : Enum.valueOf(type, value);
+    }
+
+    private static Instant instant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+}
@@ -7,18 +7,27 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingStatus;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface ListingRepository extends JpaRepository<Listing, UUID> {
 
-    // Atomic increment of views without loading entity (better under high concurrency).
-    @Modifying
-    @Query("update Listing l set l.viewsCount = l.viewsCount + 1 where l.id = :id")
-    int incrementViews(@Param("id") UUID id);
-
     // Метод чтобы получить listing с attachments (fetch join) при необходимости
     @Query("select l from Listing l left join fetch l.attachments a where l.id = :id")
-    Optional<Listing> findByIdWithAttachments(@Param("id") UUID id); 
+    Optional<Listing> findByIdWithAttachments(@Param("id") UUID id);
+
+    // Набор attachments меняется со стороны Attachment (owning side) — версию карточки поднимаем явно (ETag).
+    // Bulk update минует @UpdateTimestamp, поэтому updated_at ставим сами: по нему идут sync и sitemap.
+    @Modifying
+    @Query("update Listing l set l.version = l.version + 1, l.updatedAt = CURRENT_TIMESTAMP where l.id = :id")
+    int incrementVersion(@Param("id") UUID id);
+
+    // Удаление категории каталога: на неё не должно ссылаться ни одно объявление
+    boolean existsByCategory(String category);
+
+    // Автомодерация: у продавца уже есть такое же опубликованное объявление (DuplicateListingCheck)
+    boolean existsByOwnerIdAndCategoryAndStatusAndTitleIgnoreCaseAndIdNot(
+            UUID ownerId, String category, ListingStatus status, String title, UUID id);
 }
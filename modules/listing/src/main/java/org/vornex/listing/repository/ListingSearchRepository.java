@@ -0,0 +1,241 @@
+package org.vornex.listing.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.dto.ListingFilterDto;
+import org.vornex.listing.enums.ListingSort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Поиск объявлений нативным SQL.
+ * <p>
+ * Зачем не JPA Specification: фильтр по атрибутам должен рендериться именно как оператор
+ * attributes @> cast(:json as jsonb) — только так PostgreSQL использует GIN (jsonb_path_ops) индекс.
+ * Функция jsonb_contains(...) из Criteria API индекс не задействует.
+ * <p>
+ * Возвращает только id страницы (дёшево, index-only где возможно); сами объявления грузятся отдельно пачкой.
+ * Без count(*): читается size + 1 строка — есть ли следующая страница. Дальние страницы — keyset по курсору
+ * (значение сортировки + id последней строки), а не OFFSET: каждая страница — диапазон по индексу сортировки.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingSearchRepository {
+
+    private static final String CURSOR_VERSION = "v1";
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param nextCursor курсор следующей страницы; null — страниц больше нет
+     */
+    public record SearchResult(List<UUID> ids, boolean hasNext, String nextCursor) {
+    }
+
+    /**
+     * Позиция в выдаче: значение колонки сортировки (null у объявлений без popularity_score) и id последней строки.
+     */
+    private record Cursor(ListingSort sort, Object value, UUID id) {
+    }
+
+    /**
+     * @param cursor nextCursor предыдущей страницы; null — страница page по OFFSET
+     */
+    public SearchResult search(ListingFilterDto filter, int page, int size, String cursor) {
+        ListingSort sort = filter.getSort() == null ? ListingSort.NEWEST : filter.getSort();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        String where = buildWhere(filter, params);
+        String paging = " limit :limit";
+        if (cursor != null) {
+            where += " and " + after(decode(cursor, sort), params);
+        } else if (page > 0) {
+            paging += " offset :offset";
+            params.addValue("offset", (long) page * size);
+        }
+        params.addValue("limit", size + 1);
+
+        List<Cursor> rows = jdbc.query(
+                "select l.id, " + sortColumn(sort) + " as sort_value from listings l" + where + orderBy(sort) + paging,
+                params, (rs, i) -> new Cursor(sort, sortValue(sort, rs), rs.getObject("id", UUID.class)));
+        boolean hasNext = rows.size() > size;
+        if (hasNext) rows = rows.subList(0, size);
+        List<UUID> ids = rows.stream().map(Cursor::id).toList();
+        return new SearchResult(ids, hasNext, hasNext ? encode(rows.get(rows.size() - 1)) : null);
+    }
+
+    private String buildWhere(ListingFilterDto f, MapSqlParameterSource params) {
+        List<String> conditions = new ArrayList<>();
+
+        conditions.add("l.status = :status");
+        params.addValue("status", f.getStatus().name());
+
+        if (f.getCategoryPath() != null) {
+            // префикс пути — одно поддерево каталога по индексу idx_listing_category_path
+            conditions.add("l.category_path like :categoryPath");
+            params.addValue("categoryPath", escapeLike(f.getCategoryPath()) + "%");
+        } else if (f.getCategory() != null) {
+            conditions.add("l.category = :category");
+            params.addValue("category", f.getCategory());
+        }
+        if (f.getOwnerId() != null) {
+            conditions.add("l.owner_id = :ownerId");
+            params.addValue("ownerId", f.getOwnerId());
+        }
+        if (f.getCity() != null) {
+            conditions.add("l.city = :city");
+            params.addValue("city", f.getCity());
+        }
+        if (f.getSort() == ListingSort.PRICE_ASC || f.getSort() == ListingSort.PRICE_DESC) {
+            // без курса валюты цену не с чем сравнить; заодно порядок идёт по idx_listing_price_base в обе стороны
+            conditions.add("l.price_base is not null");
+        }
+        if (f.getMinPrice() != null) {
+            conditions.add("l.price_base >= :minPrice");
+            params.addValue("minPrice", f.getMinPrice());
+        }
+        if (f.getMaxPrice() != null) {
+            conditions.add("l.price_base <= :maxPrice");
+            params.addValue("maxPrice", f.getMaxPrice());
+        }
+
+        // Равенство: все пары одним документом — один @> на запрос
+        if (!f.getAttributes().isEmpty()) {
+            conditions.add("l.attributes @> cast(:attrs as jsonb)");
+            params.addValue("attrs", toJson(f.getAttributes()));
+        }
+
+        // "Любое из": (attributes @> {k:v1} or attributes @> {k:v2}) — BitmapOr по тому же индексу
+        int i = 0;
+        for (Map.Entry<String, String> e : f.getAttributesAnyOf().entrySet()) {
+            StringJoiner any = new StringJoiner(" or ", "(", ")");
+            int j = 0;
+            for (String value : e.getValue().split(",")) {
+                String v = value.trim();
+                if (v.isEmpty()) continue;
+                String name = "any_" + i + "_" + j++;
+                any.add("l.attributes @> cast(:" + name + " as jsonb)");
+                params.addValue(name, toJson(Map.of(e.getKey(), v)));
+            }
+            if (j > 0) conditions.add(any.toString());
+            i++;
+        }
+
+        // Диапазоны по типизированным атрибутам — semi-join в индексную таблицу
+        Set<String> rangeAttrs = new TreeSet<>(f.getAttributeMin().keySet());
+        rangeAttrs.addAll(f.getAttributeMax().keySet());
+        int r = 0;
+        for (String attr : rangeAttrs) {
+            StringBuilder sub = new StringBuilder("l.id in (select v.listing_id from listing_attribute_values v where v.attr = :ra_" + r);
+            params.addValue("ra_" + r, attr);
+            if (f.getAttributeMin().get(attr) != null) {
+                sub.append(" and v.num_value >= :rmin_").append(r);
+                params.addValue("rmin_" + r, f.getAttributeMin().get(attr));
+            }
+            if (f.getAttributeMax().get(attr) != null) {
+                sub.append(" and v.num_value <= :rmax_").append(r);
+                params.addValue("rmax_" + r, f.getAttributeMax().get(attr));
+            }
+            conditions.add(sub.append(')').toString());
+            r++;
+        }
+
+        return " where " + String.join(" and ", conditions);
+    }
+
+    private static String orderBy(ListingSort sort) {
+        // popularity_score хранится уже "приведённым" к общей эпохе — порядок по колонке без вычислений на строку
+        return switch (sort) {
+            case POPULAR -> " order by l.popularity_score desc nulls last, l.id desc";
+            case PRICE_ASC -> " order by l.price_base, l.id";
+            case PRICE_DESC -> " order by l.price_base desc, l.id desc";
+            case NEWEST -> " order by l.created_at desc, l.id desc";
+        };
+    }
+
+    private static String sortColumn(ListingSort sort) {
+        return switch (sort) {
+            case POPULAR -> "l.popularity_score";
+            case PRICE_ASC, PRICE_DESC -> "l.price_base";
+            case NEWEST -> "l.created_at";
+        };
+    }
+
+    // строго после позиции курсора в порядке orderBy; сравнение строк — диапазон по тому же индексу
+    private static String after(Cursor cursor, MapSqlParameterSource params) {
+        params.addValue("afterId", cursor.id());
+        params.addValue("afterValue", cursor.value() instanceof Instant ts ? Timestamp.from(ts) : cursor.value());
+        return switch (cursor.sort()) {
+            case NEWEST -> "(l.created_at, l.id) < (:afterValue, :afterId)";
+            case PRICE_ASC -> "(l.price_base, l.id) > (:afterValue, :afterId)";
+            case PRICE_DESC -> "(l.price_base, l.id) < (:afterValue, :afterId)";
+            // nulls last: после объявления со score — меньшие score и все без score; после null — только null
+            case POPULAR -> cursor.value() == null
+                    ? "(l.popularity_score is null and l.id < :afterId)"
+                    : "((l.popularity_score, l.id) < (:afterValue, :afterId) or l.popularity_score is null)";
+        };
+    }
+
+    private static Object sortValue(ListingSort sort, ResultSet rs) throws SQLException {
+        return switch (sort) {
+            case POPULAR -> rs.getObject("sort_value", Double.class);
+            case PRICE_ASC, PRICE_DESC -> rs.getBigDecimal("sort_value");
+            case NEWEST -> rs.getTimestamp("sort_value").toInstant();
+        };
+    }
+
+    // для клиента курсор непрозрачен: base64url("v1|<sort>|<значение>|<id>"), пустое значение — null
+    private static String encode(Cursor cursor) {
+        String value = switch (cursor.value()) {
+            case null -> "";
+            case Instant ts -> Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, ts));
+            case BigDecimal price -> price.toPlainString();
+            default -> cursor.value().toString();
+        };
+        String raw = CURSOR_VERSION + "|" + cursor.sort() + "|" + value + "|" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String cursor, ListingSort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (parts.length != 4 || !CURSOR_VERSION.equals(parts[0]) || !sort.name().equals(parts[1])) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            String v = parts[2];
+            Object value = switch (sort) {
+                case POPULAR -> v.isEmpty() ? null : Double.valueOf(v);
+                case PRICE_ASC, PRICE_DESC -> new BigDecimal(v);
+                case NEWEST -> Instant.EPOCH.plus(Long.parseLong(v), ChronoUnit.MICROS);
+            };
+            return new Cursor(sort, value, UUID.fromString(parts[3]));
+        } catch (IllegalArgumentException e) { // в т.ч. NumberFormatException
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private String toJson(Map<String, String> map) {
+        try {
+            return objectMapper.writeValueAsString(map);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize attribute filter", e);
+        }
+    }
+
+    // slug'и старых категорий могли содержать '_' / '%' — в LIKE они должны быть литералами
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,118 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.duplicate.MinHash;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * listing_signatures: MinHash-сигнатуры объявлений (источник для LSH-индекса в памяти, NearDuplicateIndex).
+ * Сигнатура хранится как bytea из NUM_HASHES int'ов big-endian.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingSignatureJdbcRepository {
+
+    private static final String UPSERT_SQL =
+            "insert into listing_signatures (listing_id, signature, updated_at) values (:id, :signature, now()) " +
+                    "on conflict (listing_id) do update set signature = excluded.signature, updated_at = excluded.updated_at";
+
+    // опубликован или ждёт модерации — только такие объявления держит индекс и с ними сравниваем
+    private static final String LIVE = "(l.status = 'PUBLISHED' or l.moderation_status = 'PENDING')";
+
+    private static final String SELECT_SQL = "select s.listing_id, s.signature, s.updated_at, " + LIVE + " as live " +
+            "from listing_signatures s join listings l on l.id = s.listing_id";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    /**
+     * Сигнатура и состояние объявления: live = false — убрать из индекса.
+     */
+    public record StoredSignature(UUID listingId, int[] signature, Instant updatedAt, boolean live) {
+    }
+
+    /**
+     * Кандидат в дубли из БД: live — опубликован или ждёт модерации (с ним и сравниваем).
+     */
+    public record CandidateState(UUID listingId, UUID ownerId, boolean live) {
+    }
+
+    public void upsertAll(Map<UUID, int[]> signatures) {
+        if (signatures.isEmpty()) return;
+        SqlParameterSource[] batch = signatures.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("id", e.getKey())
+                        .addValue("signature", toBytes(e.getValue())))
+                .toArray(SqlParameterSource[]::new);
+        jdbc.batchUpdate(UPSERT_SQL, batch);
+    }
+
+    /**
+     * Сигнатуры, изменённые после since, по возрастанию updated_at. since = null — первичная загрузка:
+     * только live, черновики и отклонённые в память не читаем.
+     */
+    public void forEachUpdatedSince(Instant since, Consumer<StoredSignature> consumer) {
+        String sql = SELECT_SQL + (since == null ? " where " + LIVE : " where s.updated_at > :since") +
+                " order by s.updated_at";
+        MapSqlParameterSource params = new MapSqlParameterSource();
+        if (since != null) params.addValue("since", Timestamp.from(since));
+        jdbc.query(sql, params, rs -> {
+            consumer.accept(map(rs));
+        });
+    }
+
+    /**
+     * Сигнатуры объявлений с их текущим состоянием; id без сигнатуры (или удалённых) в результате нет.
+     */
+    public List<StoredSignature> findAllById(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        return jdbc.query(SELECT_SQL + " where s.listing_id in (:ids)", Map.of("ids", ids), (rs, i) -> map(rs));
+    }
+
+    /**
+     * Сдвигает updated_at сигнатуры в транзакции смены статуса — другие инстансы перечитают её poll'ом
+     * и добавят объявление в индекс или уберут из него.
+     */
+    public void touch(UUID listingId) {
+        jdbc.update("update listing_signatures set updated_at = now() where listing_id = :id", Map.of("id", listingId));
+    }
+
+    /**
+     * Состояние кандидатов; id, которых нет в результате, удалены.
+     */
+    public List<CandidateState> findCandidateStates(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        return jdbc.query("select l.id, l.owner_id, " + LIVE + " as live from listings l where l.id in (:ids)",
+                Map.of("ids", ids),
+                (rs, i) -> new CandidateState(rs.getObject("id", UUID.class), rs.getObject("owner_id", UUID.class),
+                        rs.getBoolean("live")));
+    }
+
+    private static StoredSignature map(ResultSet rs) throws SQLException {
+        return new StoredSignature(rs.getObject("listing_id", UUID.class), fromBytes(rs.getBytes("signature")),
+                rs.getTimestamp("updated_at").toInstant(), rs.getBoolean("live"));
+    }
+
+    private static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        for (int v : signature) buffer.putInt(v);
+        return buffer.array();
+    }
+
+    private static int[] fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int[] signature = new int[MinHash.NUM_HASHES];
+        for (int i = 0; i < signature.length; i++) signature[i] = buffer.getInt();
+        return signature;
+    }
+}
@@ -0,0 +1,56 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Дельта-синхронизация объявлений продавца: изменения из listings и удаления из listing_tombstones
+ * одним потоком в порядке (ts, id). Обе ветки — диапазон по своему индексу (owner_id, ts, id).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingSyncJdbcRepository {
+
+    private static final String CHANGES_SQL =
+            "select id, ts, deleted from (" +
+                    "(select id, updated_at as ts, false as deleted from listings " +
+                    " where owner_id = ? and (updated_at, id) > (?, ?) order by updated_at, id limit ?) " +
+                    "union all " +
+                    "(select listing_id, deleted_at, true from listing_tombstones " +
+                    " where owner_id = ? and (deleted_at, listing_id) > (?, ?) order by deleted_at, listing_id limit ?)" +
+                    ") c order by ts, id limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record SyncEntry(UUID id, Instant ts, boolean deleted) {
+    }
+
+    /**
+     * До limit изменений/удалений объявлений владельца строго после позиции (afterTs, afterId).
+     */
+    public List<SyncEntry> findChanges(UUID ownerId, Instant afterTs, UUID afterId, int limit) {
+        Timestamp ts = Timestamp.from(afterTs);
+        return jdbcTemplate.query(CHANGES_SQL,
+                (rs, i) -> new SyncEntry(
+                        rs.getObject("id", UUID.class),
+                        rs.getTimestamp("ts").toInstant(),
+                        rs.getBoolean("deleted")),
+                ownerId, ts, afterId, limit, ownerId, ts, afterId, limit, limit);
+    }
+
+    public void insertTombstone(UUID listingId, UUID ownerId, Long version, Instant deletedAt) {
+        jdbcTemplate.update("insert into listing_tombstones (listing_id, owner_id, version, deleted_at) values (?, ?, ?, ?) " +
+                        "on conflict (listing_id) do nothing",
+                listingId, ownerId, version, Timestamp.from(deletedAt));
+    }
+
+    public int deleteTombstonesBefore(Instant threshold) {
+        return jdbcTemplate.update("delete from listing_tombstones where deleted_at < ?", Timestamp.from(threshold));
+    }
+}
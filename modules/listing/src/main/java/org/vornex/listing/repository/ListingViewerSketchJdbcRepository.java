@@ -0,0 +1,74 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Хранилище HLL-скетчей уникальных зрителей: listing_daily_viewers(listing_id, day, sketch bytea).
+ * Мерж скетчей делается в Java (в PostgreSQL нет встроенного HLL), поэтому строки берутся под FOR UPDATE.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingViewerSketchJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record SketchKey(UUID listingId, LocalDate day) {
+    }
+
+    /**
+     * Создаёт отсутствующие строки (пустыми скетчами), чтобы затем их можно было заблокировать FOR UPDATE —
+     * иначе два инстанса могут одновременно вставить одну и ту же строку и один мерж потеряется.
+     */
+    public void insertMissing(Collection<SketchKey> keys, byte[] emptySketch) {
+        jdbcTemplate.batchUpdate(
+                "insert into listing_daily_viewers(listing_id, day, sketch) values (?, ?, ?) " +
+                        "on conflict (listing_id, day) do nothing",
+                keys.stream().map(k -> new Object[]{k.listingId(), Date.valueOf(k.day()), emptySketch}).toList());
+    }
+
+    public Map<SketchKey, byte[]> findForUpdate(Collection<SketchKey> keys) {
+        if (keys.isEmpty()) return Map.of();
+        StringJoiner tuples = new StringJoiner(",");
+        List<Object> args = new ArrayList<>(keys.size() * 2);
+        for (SketchKey k : keys) {
+            tuples.add("(cast(? as uuid), cast(? as date))");
+            args.add(k.listingId());
+            args.add(Date.valueOf(k.day()));
+        }
+        Map<SketchKey, byte[]> result = new HashMap<>();
+        jdbcTemplate.query(
+                "select listing_id, day, sketch from listing_daily_viewers " +
+                        "where (listing_id, day) in (" + tuples + ") order by listing_id, day for update",
+                rs -> {
+                    result.put(new SketchKey(rs.getObject("listing_id", UUID.class), rs.getDate("day").toLocalDate()),
+                            rs.getBytes("sketch"));
+                },
+                args.toArray());
+        return result;
+    }
+
+    public void updateAll(Map<SketchKey, byte[]> sketches) {
+        jdbcTemplate.batchUpdate(
+                "update listing_daily_viewers set sketch = ? where listing_id = ? and day = ?",
+                sketches.entrySet().stream()
+                        .map(e -> new Object[]{e.getValue(), e.getKey().listingId(), Date.valueOf(e.getKey().day())})
+                        .toList());
+    }
+
+    public Map<LocalDate, byte[]> findByListing(UUID listingId, LocalDate from, LocalDate to) {
+        Map<LocalDate, byte[]> result = new TreeMap<>();
+        jdbcTemplate.query(
+                "select day, sketch from listing_daily_viewers where listing_id = ? and day between ? and ?",
+                rs -> {
+                    result.put(rs.getDate("day").toLocalDate(), rs.getBytes("sketch"));
+                },
+                listingId, Date.valueOf(from), Date.valueOf(to));
+        return result;
+    }
+}
@@ -0,0 +1,47 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Пакетная запись счётчиков просмотров одним UPDATE ... FROM (VALUES ...).
+ * JPA здесь не нужен: сущности не загружаем, @Version не трогаем.
+ * В popularity_score сырые просмотры не идут (их легко накрутить обновлением страницы) —
+ * вклад считается по уникальным зрителям, см. UniqueViewerTracker.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ListingViewsJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Прибавляет дельты к views_count. Несуществующие id просто не совпадут в join'е.
+     *
+     * @return кол-во обновлённых строк
+     */
+    public int addViews(Map<UUID, Long> deltas) {
+        if (deltas.isEmpty()) return 0;
+
+        StringBuilder sql = new StringBuilder(
+                "update listings l set views_count = coalesce(l.views_count, 0) + v.delta from (values ");
+        List<Object> args = new ArrayList<>(deltas.size() * 2);
+        boolean first = true;
+        for (Map.Entry<UUID, Long> e : deltas.entrySet()) {
+            if (!first) sql.append(',');
+            sql.append("(cast(? as uuid), cast(? as bigint))");
+            args.add(e.getKey());
+            args.add(e.getValue());
+            first = false;
+        }
+        sql.append(") as v(id, delta) where l.id = v.id");
+
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
@@ -0,0 +1,129 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Очередь модерации moderation_queue — одна строка на объявление, ожидающее решения.
+ * <p>
+ * stage = AUTO — ждёт автоматических проверок, MANUAL — ждёт модератора.
+ * Разбор очереди конкурентный (потоки и инстансы) через SELECT ... FOR UPDATE SKIP LOCKED:
+ * каждый воркер получает свои строки без ожидания чужих блокировок и без двойной обработки.
+ * Все методы — только внутри транзакции вызывающего кода (блокировки живут до её конца).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ModerationQueueRepository {
+
+    public static final String STAGE_AUTO = "AUTO";
+    public static final String STAGE_MANUAL = "MANUAL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record AutoTask(UUID listingId, int attempts) {
+    }
+
+    public record ManualTask(UUID listingId, String title, String category, UUID ownerId, Instant enqueuedAt,
+                             String escalationReason, Instant leaseUntil) {
+    }
+
+    public record TaskLock(String stage, UUID assigneeId, Instant leaseUntil) {
+    }
+
+    /**
+     * Ставит объявление в очередь (повторная публикация сбрасывает прежнее состояние задачи).
+     */
+    public void enqueue(UUID listingId, Instant now) {
+        jdbcTemplate.update(
+                "insert into moderation_queue(listing_id, stage, enqueued_at, available_at, attempts) values (?, ?, ?, ?, 0) " +
+                        "on conflict (listing_id) do update set stage = excluded.stage, enqueued_at = excluded.enqueued_at, " +
+                        "available_at = excluded.available_at, attempts = 0, escalation_reason = null, " +
+                        "assignee_id = null, lease_until = null",
+                listingId, STAGE_AUTO, Timestamp.from(now), Timestamp.from(now));
+    }
+
+    /**
+     * Берёт пачку AUTO-задач в аренду: available_at сдвигается на leaseUntil, поэтому после коммита claim'а
+     * их не возьмёт другой воркер, а если этот упадёт — задачи вернутся в очередь сами.
+     */
+    public List<AutoTask> claimAuto(Instant now, Instant leaseUntil, int limit) {
+        return jdbcTemplate.query(
+                "update moderation_queue set available_at = ? where listing_id in (" +
+                        "select listing_id from moderation_queue where stage = ? and available_at <= ? " +
+                        "order by enqueued_at limit ? for update skip locked) returning listing_id, attempts",
+                (rs, i) -> new AutoTask(rs.getObject("listing_id", UUID.class), rs.getInt("attempts")),
+                Timestamp.from(leaseUntil), STAGE_AUTO, Timestamp.from(now), limit);
+    }
+
+    public void retryLater(UUID listingId, Instant availableAt) {
+        jdbcTemplate.update("update moderation_queue set attempts = attempts + 1, available_at = ? where listing_id = ?",
+                Timestamp.from(availableAt), listingId);
+    }
+
+    public void escalate(UUID listingId, String reason) {
+        jdbcTemplate.update("update moderation_queue set stage = ?, escalation_reason = ? where listing_id = ?",
+                STAGE_MANUAL, reason, listingId);
+    }
+
+    public void remove(UUID listingId) {
+        jdbcTemplate.update("delete from moderation_queue where listing_id = ?", listingId);
+    }
+
+    public int countActiveAssignments(UUID moderatorId, Instant now) {
+        Integer count = jdbcTemplate.queryForObject(
+                "select count(*) from moderation_queue where stage = ? and assignee_id = ? and lease_until > ?",
+                Integer.class, STAGE_MANUAL, moderatorId, Timestamp.from(now));
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Назначает модератору до limit самых старых свободных задач (или задач с истёкшей арендой).
+     * Подзапрос с SKIP LOCKED — одновременные claim'ы разных модераторов не получают одни и те же задачи.
+     */
+    public List<UUID> assign(UUID moderatorId, Instant now, Instant leaseUntil, int limit) {
+        return jdbcTemplate.queryForList(
+                "update moderation_queue set assignee_id = ?, lease_until = ? where listing_id in (" +
+                        "select listing_id from moderation_queue where stage = ? " +
+                        "and (assignee_id is null or lease_until <= ?) " +
+                        "order by enqueued_at limit ? for update skip locked) returning listing_id",
+                UUID.class, moderatorId, Timestamp.from(leaseUntil), STAGE_MANUAL, Timestamp.from(now), limit);
+    }
+
+    public List<ManualTask> findAssigned(UUID moderatorId, Instant now) {
+        return jdbcTemplate.query(
+                "select q.listing_id, l.title, l.category, l.owner_id, q.enqueued_at, q.escalation_reason, q.lease_until " +
+                        "from moderation_queue q join listings l on l.id = q.listing_id " +
+                        "where q.stage = ? and q.assignee_id = ? and q.lease_until > ? order by q.enqueued_at",
+                (rs, i) -> new ManualTask(
+                        rs.getObject("listing_id", UUID.class),
+                        rs.getString("title"),
+                        rs.getString("category"),
+                        rs.getObject("owner_id", UUID.class),
+                        rs.getTimestamp("enqueued_at").toInstant(),
+                        rs.getString("escalation_reason"),
+                        rs.getTimestamp("lease_until").toInstant()),
+                STAGE_MANUAL, moderatorId, Timestamp.from(now));
+    }
+
+    /**
+     * Блокирует задачу для решения модератора (ждёт, если её сейчас обрабатывает другой поток).
+     */
+    public Optional<TaskLock> lock(UUID listingId) {
+        List<TaskLock> found = jdbcTemplate.query(
+                "select stage, assignee_id, lease_until from moderation_queue where listing_id = ? for update",
+                (rs, i) -> {
+                    Timestamp lease = rs.getTimestamp("lease_until");
+                    return new TaskLock(rs.getString("stage"), rs.getObject("assignee_id", UUID.class),
+                            lease == null ? null : lease.toInstant());
+                },
+                listingId);
+        return found.stream().findFirst();
+    }
+}
@@ -0,0 +1,160 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.Money;
+import org.vornex.listing.dto.SavedSearchAlertDto;
+import org.vornex.listing.dto.SavedSearchDto;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.savedsearch.SearchTerms;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * saved_searches и saved_search_alerts.
+ * <p>
+ * Сопоставление — обратный поиск: по объявлению выбираются запросы, которым оно может подойти.
+ * Запрос лежит в индексе (anchor_term, category_path, city_key), где "" означает "любое значение";
+ * объявление даёт для каждой колонки короткий список допустимых значений (слова заголовка + "",
+ * путь категории с предками + "", город + ""), и PostgreSQL проходит индекс по их комбинациям.
+ * Остальные условия (все слова, цена) проверяются только на этих кандидатах.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SavedSearchJdbcRepository {
+
+    private static final String MATCH_SQL =
+            "insert into saved_search_alerts (saved_search_id, listing_id, owner_id, created_at) " +
+                    "select s.id, :listingId, s.owner_id, :now from saved_searches s " +
+                    "where s.anchor_term = any(cast(:anchors as varchar[])) " +
+                    "and s.category_path = any(cast(:paths as varchar[])) " +
+                    "and s.city_key = any(cast(:cities as varchar[])) " +
+                    "and s.terms <@ cast(:terms as text[]) " +
+                    "and (s.min_price is null or s.min_price <= :price) " +
+                    "and (s.max_price is null or s.max_price >= :price) " +
+                    "and s.owner_id <> :ownerId " +
+                    "on conflict do nothing";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public record NewSavedSearch(UUID id, UUID ownerId, String query, String category, String categoryPath,
+                                 String city, BigDecimal minPrice, BigDecimal maxPrice, Set<String> terms,
+                                 Instant createdAt) {
+    }
+
+    /**
+     * Опубликованное объявление в том виде, в каком оно сопоставляется с запросами.
+     * Границы цены сохранённого поиска — в базовой валюте, поэтому сравниваются с price_base.
+     */
+    public record MatchedListing(UUID id, UUID ownerId, String title, String categoryPath, String city,
+                                 BigDecimal priceBase, ListingStatus status) {
+    }
+
+    public void insert(NewSavedSearch s) {
+        jdbc.update("insert into saved_searches (id, owner_id, query, category, category_path, city, city_key, " +
+                        "min_price, max_price, terms, anchor_term, created_at) values (:id, :ownerId, :query, :category, " +
+                        ":categoryPath, :city, :cityKey, :minPrice, :maxPrice, cast(:terms as text[]), :anchor, :createdAt)",
+                new MapSqlParameterSource()
+                        .addValue("id", s.id())
+                        .addValue("ownerId", s.ownerId())
+                        .addValue("query", s.query())
+                        .addValue("category", s.category())
+                        .addValue("categoryPath", s.categoryPath() == null ? "" : s.categoryPath())
+                        .addValue("city", s.city())
+                        .addValue("cityKey", SearchTerms.cityKey(s.city()))
+                        .addValue("minPrice", s.minPrice())
+                        .addValue("maxPrice", s.maxPrice())
+                        .addValue("terms", s.terms().toArray(String[]::new))
+                        .addValue("anchor", SearchTerms.anchor(s.terms()))
+                        .addValue("createdAt", Timestamp.from(s.createdAt())));
+    }
+
+    public int countByOwner(UUID ownerId) {
+        Integer count = jdbc.queryForObject("select count(*) from saved_searches where owner_id = :ownerId",
+                Map.of("ownerId", ownerId), Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    public List<SavedSearchDto> findByOwner(UUID ownerId) {
+        return jdbc.query("select id, query, category, city, min_price, max_price, created_at from saved_searches " +
+                        "where owner_id = :ownerId order by created_at desc",
+                Map.of("ownerId", ownerId),
+                (rs, i) -> new SavedSearchDto(
+                        rs.getObject("id", UUID.class),
+                        rs.getString("query"),
+                        rs.getString("category"),
+                        rs.getString("city"),
+                        rs.getBigDecimal("min_price"),
+                        rs.getBigDecimal("max_price"),
+                        rs.getTimestamp("created_at").toInstant()));
+    }
+
+    public Optional<UUID> findOwnerId(UUID id) {
+        return jdbc.queryForList("select owner_id from saved_searches where id = :id", Map.of("id", id), UUID.class)
+                .stream().findFirst();
+    }
+
+    public void delete(UUID id) {
+        jdbc.update("delete from saved_searches where id = :id", Map.of("id", id));
+    }
+
+    /**
+     * Создаёт уведомления всем подходящим сохранённым поискам (кроме поисков автора объявления).
+     *
+     * @return число новых уведомлений
+     */
+    public int match(MatchedListing listing, Instant now) {
+        Set<String> titleTerms = SearchTerms.tokenize(listing.title());
+        List<String> anchors = new ArrayList<>(titleTerms);
+        anchors.add("");
+        List<String> paths = SearchTerms.categoryAncestors(listing.categoryPath());
+        paths.add("");
+        String cityKey = SearchTerms.cityKey(listing.city());
+        String[] cities = cityKey.isEmpty() ? new String[]{""} : new String[]{cityKey, ""};
+
+        return jdbc.update(MATCH_SQL, new MapSqlParameterSource()
+                .addValue("listingId", listing.id())
+                .addValue("ownerId", listing.ownerId())
+                .addValue("now", Timestamp.from(now))
+                .addValue("anchors", anchors.toArray(String[]::new))
+                .addValue("paths", paths.toArray(String[]::new))
+                .addValue("cities", cities)
+                .addValue("terms", titleTerms.toArray(String[]::new))
+                .addValue("price", listing.priceBase()));
+    }
+
+    /**
+     * Уведомления пользователя, новые первыми; показываются только ещё опубликованные объявления.
+     */
+    public List<SavedSearchAlertDto> findAlerts(UUID ownerId, Instant before, int limit) {
+        return jdbc.query("select a.saved_search_id, a.listing_id, a.created_at, l.title, l.price_amount, " +
+                        "l.price_currency, l.city from saved_search_alerts a join listings l on l.id = a.listing_id " +
+                        "where a.owner_id = :ownerId and a.created_at < :before and l.status = :published " +
+                        "order by a.created_at desc limit :limit",
+                new MapSqlParameterSource()
+                        .addValue("ownerId", ownerId)
+                        .addValue("before", Timestamp.from(before))
+                        .addValue("published", ListingStatus.PUBLISHED.name())
+                        .addValue("limit", limit),
+                ALERT_MAPPER);
+    }
+
+    public int deleteAlertsBefore(Instant threshold) {
+        return jdbc.update("delete from saved_search_alerts where created_at < :threshold",
+                Map.of("threshold", Timestamp.from(threshold)));
+    }
+
+    private static final RowMapper<SavedSearchAlertDto> ALERT_MAPPER = (rs, i) -> new SavedSearchAlertDto(
+            rs.getObject("saved_search_id", UUID.class),
+            rs.getObject("listing_id", UUID.class),
+            rs.getString("title"),
+            new Money(rs.getBigDecimal("price_amount"), rs.getString("price_currency")),
+            rs.getString("city"),
+            rs.getTimestamp("created_at").toInstant());
+}
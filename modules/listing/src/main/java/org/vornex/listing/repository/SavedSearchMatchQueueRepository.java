@@ -0,0 +1,55 @@
+package org.vornex.listing.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.repository.SavedSearchJdbcRepository.MatchedListing;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Очередь saved_search_match_queue — опубликованные объявления, ещё не сопоставленные с сохранёнными поисками.
+ * Строка ставится в транзакции публикации, разбирается фоново через SKIP LOCKED (как moderation_queue):
+ * потоки и инстансы делят пачки без ожидания и без двойной обработки.
+ * Методы — только внутри транзакции вызывающего кода.
+ */
+@Repository
+@RequiredArgsConstructor
+public class SavedSearchMatchQueueRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void enqueue(UUID listingId, Instant now) {
+        jdbcTemplate.update("insert into saved_search_match_queue (listing_id, enqueued_at) values (?, ?) " +
+                "on conflict (listing_id) do nothing", listingId, Timestamp.from(now));
+    }
+
+    /**
+     * Забирает до limit самых старых задач вместе с данными объявлений.
+     */
+    public List<MatchedListing> claim(int limit) {
+        return jdbcTemplate.query(
+                "select l.id, l.owner_id, l.title, l.category_path, l.city, l.price_base, l.status " +
+                        "from saved_search_match_queue q join listings l on l.id = q.listing_id " +
+                        "order by q.enqueued_at limit ? for update of q skip locked",
+                (rs, i) -> new MatchedListing(
+                        rs.getObject("id", UUID.class),
+                        rs.getObject("owner_id", UUID.class),
+                        rs.getString("title"),
+                        rs.getString("category_path"),
+                        rs.getString("city"),
+                        rs.getBigDecimal("price_base"),
+                        ListingStatus.valueOf(rs.getString("status"))),
+                limit);
+    }
+
+    public void removeAll(Collection<UUID> listingIds) {
+        jdbcTemplate.batchUpdate("delete from saved_search_match_queue where listing_id = ?",
+                listingIds.stream().map(id -> new Object[]{id}).toList());
+    }
+}
@@ -0,0 +1,187 @@
+package org.vornex.listing.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.vornex.listing.util.SitemapProperties;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * sitemap_shards и обход опубликованных объявлений по диапазонам id.
+ * Диапазон шарда — (lower, upper]; null на месте границы — "без ограничения".
+ * Обход по PK-порядку через idx_listing_status_id (index-only: updated_at лежит в листьях индекса).
+ * Методы — внутри транзакции вызывающего кода (advisory lock и серверный курсор живут до её конца).
+ */
+@Repository
+public class SitemapJdbcRepository {
+
+    // произвольная константа: один генератор на кластер
+    private static final long LOCK_KEY = 0x5173_6d61_7000L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SitemapJdbcRepository(DataSource dataSource, SitemapProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(properties.getFetchSize());
+    }
+
+    public record Shard(int id, UUID upperId, int urlCount, Instant maxUpdatedAt, Instant generatedAt) {
+    }
+
+    public record ShardStats(int urlCount, Instant maxUpdatedAt) {
+    }
+
+    public record IndexEntry(int id, Instant generatedAt) {
+    }
+
+    public boolean tryLock() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY));
+    }
+
+    /**
+     * Шарды в порядке диапазонов id.
+     */
+    public List<Shard> findShards() {
+        return jdbcTemplate.query(
+                "select id, upper_id, url_count, max_updated_at, generated_at from sitemap_shards " +
+                        "order by upper_id nulls last",
+                (rs, i) -> new Shard(
+                        rs.getInt("id"),
+                        rs.getObject("upper_id", UUID.class),
+                        rs.getInt("url_count"),
+                        toInstant(rs.getTimestamp("max_updated_at")),
+                        toInstant(rs.getTimestamp("generated_at"))));
+    }
+
+    public Optional<Shard> findShard(int shardId) {
+        return jdbcTemplate.query(
+                "select id, upper_id, url_count, max_updated_at, generated_at from sitemap_shards where id = ?",
+                (rs, i) -> new Shard(
+                        rs.getInt("id"),
+                        rs.getObject("upper_id", UUID.class),
+                        rs.getInt("url_count"),
+                        toInstant(rs.getTimestamp("max_updated_at")),
+                        toInstant(rs.getTimestamp("generated_at"))),
+                shardId).stream().findFirst();
+    }
+
+    /**
+     * Нижняя граница диапазона шарда — upper_id предыдущего; null — шард первый.
+     */
+    public UUID lowerBound(UUID upperId) {
+        List<UUID> lower = upperId == null
+                ? jdbcTemplate.queryForList("select upper_id from sitemap_shards where upper_id is not null " +
+                "order by upper_id desc limit 1", UUID.class)
+                : jdbcTemplate.queryForList("select upper_id from sitemap_shards where upper_id < ? " +
+                "order by upper_id desc limit 1", UUID.class, upperId);
+        return lower.isEmpty() ? null : lower.get(0);
+    }
+
+    public List<Integer> findShardIds() {
+        return jdbcTemplate.queryForList("select id from sitemap_shards order by upper_id nulls last", Integer.class);
+    }
+
+    /**
+     * Шарды, которые стоит сверить: ещё не сгенерированные и те, в чьи диапазоны попали объявления,
+     * изменённые (idx_listing_updated_at) или удалённые (listing_tombstones) после since.
+     * Снятые с публикации тоже меняют updated_at, так что остальные шарды сверять незачем.
+     */
+    public List<Integer> findShardsChangedSince(Instant since) {
+        Timestamp ts = Timestamp.from(since);
+        return jdbcTemplate.queryForList(
+                "select id from sitemap_shards where generated_at is null " +
+                        "union " +
+                        "select (select s.id from sitemap_shards s where s.upper_id is null or s.upper_id >= c.id " +
+                        "        order by s.upper_id nulls last limit 1) " +
+                        "from (select id from listings where updated_at > ? " +
+                        "      union select listing_id from listing_tombstones where deleted_at > ?) c",
+                Integer.class, ts, ts);
+    }
+
+    public Shard insertShard(UUID upperId) {
+        Integer id = jdbcTemplate.queryForObject("insert into sitemap_shards (upper_id) values (?) returning id",
+                Integer.class, upperId);
+        return new Shard(id, upperId, 0, null, null);
+    }
+
+    public void updateUpper(int shardId, UUID upperId) {
+        jdbcTemplate.update("update sitemap_shards set upper_id = ? where id = ?", upperId, shardId);
+    }
+
+    public ShardStats stats(UUID lower, UUID upper) {
+        List<Object> args = new ArrayList<>(2);
+        String sql = "select count(*) as url_count, max(updated_at) as max_updated_at from listings" + range(lower, upper, args);
+        return jdbcTemplate.queryForObject(sql,
+                (rs, i) -> new ShardStats(rs.getInt("url_count"), toInstant(rs.getTimestamp("max_updated_at"))),
+                args.toArray());
+    }
+
+    /**
+     * id опубликованного объявления на позиции position (с 1) внутри диапазона.
+     */
+    public UUID idAt(UUID lower, UUID upper, int position) {
+        List<Object> args = new ArrayList<>(3);
+        String sql = "select id from listings" + range(lower, upper, args) + " order by id offset ? limit 1";
+        args.add(position - 1);
+        return jdbcTemplate.queryForObject(sql, UUID.class, args.toArray());
+    }
+
+    /**
+     * Опубликованные объявления диапазона в порядке id (колонки id, updated_at), не больше limit.
+     */
+    public void streamUrls(UUID lower, UUID upper, int limit, RowCallbackHandler handler) {
+        List<Object> args = new ArrayList<>(3);
+        String sql = "select id, updated_at from listings" + range(lower, upper, args) + " order by id limit ?";
+        args.add(limit);
+        jdbcTemplate.query(sql, handler, args.toArray());
+    }
+
+    public void saveContent(int shardId, byte[] content, int urlCount, Instant maxUpdatedAt, Instant generatedAt) {
+        jdbcTemplate.update("update sitemap_shards set content = ?, url_count = ?, max_updated_at = ?, generated_at = ? " +
+                        "where id = ?",
+                content, urlCount, maxUpdatedAt == null ? null : Timestamp.from(maxUpdatedAt),
+                Timestamp.from(generatedAt), shardId);
+    }
+
+    /**
+     * Непустые сгенерированные шарды для sitemap index.
+     */
+    public List<IndexEntry> findIndexEntries() {
+        return jdbcTemplate.query(
+                "select id, generated_at from sitemap_shards where url_count > 0 and content is not null " +
+                        "order by upper_id nulls last",
+                (rs, i) -> new IndexEntry(rs.getInt("id"), rs.getTimestamp("generated_at").toInstant()));
+    }
+
+    public Optional<byte[]> findContent(int shardId) {
+        return jdbcTemplate.query("select content from sitemap_shards where id = ? and url_count > 0",
+                        (rs, i) -> rs.getBytes("content"), shardId)
+                .stream().filter(Objects::nonNull).findFirst();
+    }
+
+    // без "or ? is null": у каждой комбинации границ свой план с диапазоном по индексу
+    private static String range(UUID lower, UUID upper, List<Object> args) {
+        StringBuilder where = new StringBuilder(" where status = 'PUBLISHED'");
+        if (lower != null) {
+            where.append(" and id > ?");
+            args.add(lower);
+        }
+        if (upper != null) {
+            where.append(" and id <= ?");
+            args.add(upper);
+        }
+        return where.toString();
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+}
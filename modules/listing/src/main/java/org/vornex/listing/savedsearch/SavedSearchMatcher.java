@@ -0,0 +1,96 @@
+package org.vornex.listing.savedsearch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.SavedSearchJdbcRepository;
+import org.vornex.listing.repository.SavedSearchJdbcRepository.MatchedListing;
+import org.vornex.listing.repository.SavedSearchMatchQueueRepository;
+import org.vornex.listing.util.SavedSearchProperties;
+
+import java.time.Clock;
+import java.util.List;
+
+/**
+ * Уведомления по сохранённым поискам о новых объявлениях.
+ * <p>
+ * - Публикация только ставит объявление в saved_search_match_queue — в той же транзакции (BEFORE_COMMIT),
+ * так что опубликованное объявление не потеряется, а путь публикации не ждёт сопоставления.
+ * - Фоновый разбор пачками через SKIP LOCKED; на объявление — один INSERT ... SELECT по индексу
+ * сохранённых поисков (см. SavedSearchJdbcRepository), уведомления не проходят через приложение.
+ * - Сбой пачки откатывает её целиком: задачи остаются в очереди до следующего poll, повтор не задвоит
+ * уведомления (PK (saved_search_id, listing_id)).
+ */
+@Component
+@Slf4j
+public class SavedSearchMatcher {
+
+    private final SavedSearchMatchQueueRepository queueRepository;
+    private final SavedSearchJdbcRepository savedSearchRepository;
+    private final SavedSearchProperties props;
+    private final Clock clock;
+    private final TransactionTemplate tx;
+
+    public SavedSearchMatcher(SavedSearchMatchQueueRepository queueRepository,
+                              SavedSearchJdbcRepository savedSearchRepository,
+                              SavedSearchProperties props,
+                              Clock clock,
+                              PlatformTransactionManager transactionManager) {
+        this.queueRepository = queueRepository;
+        this.savedSearchRepository = savedSearchRepository;
+        this.props = props;
+        this.clock = clock;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.type() == ListingChangeType.PUBLISHED && event.status() == ListingStatus.PUBLISHED) {
+            queueRepository.enqueue(event.listingId(), clock.instant());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.saved-searches.poll-interval-ms:2000}")
+    public void poll() {
+        try {
+            int taken;
+            do {
+                taken = matchBatch();
+            } while (taken == props.getBatchSize());
+        } catch (RuntimeException e) {
+            log.warn("Saved search matching failed, will retry on next poll: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return сколько задач забрано из очереди
+     */
+    public int matchBatch() {
+        Integer taken = tx.execute(status -> {
+            List<MatchedListing> listings = queueRepository.claim(props.getBatchSize());
+            int alerts = 0;
+            for (MatchedListing listing : listings) {
+                // сняли с публикации, пока ждали в очереди, — уведомлять не о чем
+                if (listing.status() == ListingStatus.PUBLISHED) alerts += savedSearchRepository.match(listing, clock.instant());
+            }
+            queueRepository.removeAll(listings.stream().map(MatchedListing::id).toList());
+            if (!listings.isEmpty()) log.debug("Matched {} listings against saved searches: {} alerts", listings.size(), alerts);
+            return listings.size();
+        });
+        return taken == null ? 0 : taken;
+    }
+
+    @Scheduled(initialDelayString = "${app.listings.saved-searches.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${app.listings.saved-searches.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        int deleted = savedSearchRepository.deleteAlertsBefore(clock.instant().minus(props.getAlertTtl()));
+        if (deleted > 0) log.debug("Deleted {} expired saved search alerts", deleted);
+    }
+}
@@ -0,0 +1,52 @@
+package org.vornex.listing.savedsearch;
+
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Нормализация слов для сопоставления сохранённых поисков с объявлениями.
+ * Одна и та же функция применяется к запросу при сохранении и к заголовку объявления при публикации,
+ * поэтому слова сравниваются на равенство: нижний регистр, ё -> е, разбиение по всему, кроме букв и цифр.
+ */
+public final class SearchTerms {
+
+    private static final Pattern WORD_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTerms() {
+    }
+
+    public static Set<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        if (text == null) return terms;
+        for (String word : WORD_SPLIT.split(text.toLowerCase(Locale.ROOT).replace('ё', 'е'))) {
+            if (!word.isEmpty()) terms.add(word);
+        }
+        return terms;
+    }
+
+    /**
+     * Слово, по которому запрос попадает в индекс: самое длинное (длинные слова реже встречаются,
+     * значит, объявление проверяется против меньшего числа запросов). "" — запрос без слов.
+     */
+    public static String anchor(Collection<String> terms) {
+        return terms.stream()
+                .max(Comparator.comparingInt(String::length).thenComparing(Comparator.reverseOrder()))
+                .orElse("");
+    }
+
+    /**
+     * Материализованный путь категории и все его предки: "/a/b/" -> ["/a/", "/a/b/"].
+     */
+    public static List<String> categoryAncestors(String path) {
+        List<String> result = new ArrayList<>();
+        if (path == null) return result;
+        for (int i = path.indexOf('/', 1); i > 0; i = path.indexOf('/', i + 1)) {
+            result.add(path.substring(0, i + 1));
+        }
+        return result;
+    }
+
+    public static String cityKey(String city) {
+        return city == null ? "" : city.trim().toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+}
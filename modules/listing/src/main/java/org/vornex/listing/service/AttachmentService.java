@@ -5,9 +5,13 @@ import org.vornex.listing.dto.attachmentDto.AttachmentRequestDto;
 import org.vornex.listing.dto.attachmentDto.AttachmentResponseDto;
 import org.vornex.listing.entity.Attachment;
 
+import java.util.List;
+
 public interface AttachmentService {
     AttachmentResponseDto presignUrl(AttachmentRequestDto attachmentDto);
 
+    List<AttachmentResponseDto> presignUrls(List<AttachmentRequestDto> attachmentDtos);
+
     AttachmentCompletedResponseDto completeUpload(String key);
 
     void delete(Attachment attachment);
@@ -0,0 +1,11 @@
+package org.vornex.listing.service;
+
+import org.vornex.listing.dto.AttributeSchemaDto;
+
+import java.util.List;
+
+public interface AttributeSchemaService {
+    List<AttributeSchemaDto> findAll();
+    AttributeSchemaDto upsert(AttributeSchemaDto dto);
+    void delete(String category, String name);
+}
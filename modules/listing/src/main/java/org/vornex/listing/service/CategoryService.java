@@ -0,0 +1,14 @@
+package org.vornex.listing.service;
+
+import org.vornex.listing.dto.CategoryDto;
+import org.vornex.listing.dto.CreateCategoryDto;
+import org.vornex.listing.dto.UpdateCategoryDto;
+
+import java.util.List;
+
+public interface CategoryService {
+    List<CategoryDto> tree();
+    CategoryDto create(CreateCategoryDto dto);
+    CategoryDto update(String slug, UpdateCategoryDto dto);
+    void delete(String slug);
+}
@@ -0,0 +1,10 @@
+package org.vornex.listing.service;
+
+import org.vornex.listing.dto.ExchangeRatesDto;
+
+import java.math.BigDecimal;
+
+public interface ExchangeRateService {
+    ExchangeRatesDto rates();
+    ExchangeRatesDto update(String currency, BigDecimal rateToBase);
+}
@@ -0,0 +1,12 @@
+package org.vornex.listing.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.vornex.listing.dto.ListingExportFilterDto;
+import org.vornex.listing.enums.ListingFileFormat;
+
+public interface ListingExportService {
+    /**
+     * Проверяет права (синхронно, в потоке запроса) и возвращает тело ответа, которое пишет выгрузку потоково.
+     */
+    StreamingResponseBody export(ListingExportFilterDto filter, ListingFileFormat format, boolean gzip);
+}
@@ -0,0 +1,11 @@
+package org.vornex.listing.service;
+
+import org.vornex.listing.dto.ListingImportResultDto;
+import org.vornex.listing.enums.ListingFileFormat;
+
+import java.io.InputStream;
+import java.util.UUID;
+
+public interface ListingImportService {
+    ListingImportResultDto importListings(InputStream body, ListingFileFormat format, UUID ownerId);
+}
@@ -1,18 +1,32 @@
 package org.vornex.listing.service;
 
-import org.springframework.data.domain.Page;
 import org.vornex.listing.dto.CreateListingDto;
 import org.vornex.listing.dto.ListingDto;
+import org.vornex.listing.dto.ListingFilterDto;
+import org.vornex.listing.dto.LatestListingDto;
 import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.dto.ListingSearchPageDto;
+import org.vornex.listing.dto.ListingStatsDto;
+import org.vornex.listing.dto.TrendingListingDto;
 import org.vornex.listing.dto.UpdateListingDto;
+import org.vornex.listing.enums.ListingStatus;
 
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface ListingService {
     ListingResponseDto createListing(CreateListingDto dto);
     ListingResponseDto getById(UUID id);
+    List<ListingResponseDto> getByIds(List<UUID> ids);
+    long getVersion(UUID id);
+    ListingSearchPageDto search(ListingFilterDto filter, int page, int size, String cursor);
     ListingResponseDto updateListing(UUID id, UpdateListingDto dto);
     void publish(UUID id);
     void deleteListing(UUID id);
-    void incrementViews(UUID id);
+    void incrementViews(UUID id, String clientFingerprint);
+    ListingStatsDto getStats(UUID id, int days);
+    List<TrendingListingDto> getTrending(String category, int limit);
+    List<LatestListingDto> getLatest(String category, String city, int limit);
+    Map<String, Long> countByCategory(ListingStatus status);
 }
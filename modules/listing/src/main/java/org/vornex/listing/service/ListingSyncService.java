@@ -0,0 +1,7 @@
+package org.vornex.listing.service;
+
+import org.vornex.listing.dto.ListingSyncDto;
+
+public interface ListingSyncService {
+    ListingSyncDto sync(String token, int limit);
+}
@@ -0,0 +1,26 @@
+package org.vornex.listing.service;
+
+import org.vornex.listing.dto.ModerationDecisionDto;
+import org.vornex.listing.dto.ModerationTaskDto;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface ModerationService {
+
+    /**
+     * Ставит объявление в очередь модерации. Вызывается внутри транзакции публикации.
+     */
+    void enqueue(UUID listingId);
+
+    /**
+     * Забирает (SKIP LOCKED) и обрабатывает одну пачку автопроверок. Возвращает число взятых задач.
+     */
+    int processAutoBatch();
+
+    List<ModerationTaskDto> claim(int limit);
+
+    List<ModerationTaskDto> assigned();
+
+    void decide(UUID listingId, ModerationDecisionDto decision);
+}
@@ -0,0 +1,16 @@
+package org.vornex.listing.service;
+
+import org.vornex.listing.dto.CreateSavedSearchDto;
+import org.vornex.listing.dto.SavedSearchAlertDto;
+import org.vornex.listing.dto.SavedSearchDto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface SavedSearchService {
+    SavedSearchDto create(CreateSavedSearchDto dto);
+    List<SavedSearchDto> mine();
+    void delete(UUID id);
+    List<SavedSearchAlertDto> alerts(Instant before, int limit);
+}
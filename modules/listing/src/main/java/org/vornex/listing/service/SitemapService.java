@@ -0,0 +1,6 @@
+package org.vornex.listing.service;
+
+public interface SitemapService {
+    byte[] index();
+    byte[] shard(int shardId);
+}
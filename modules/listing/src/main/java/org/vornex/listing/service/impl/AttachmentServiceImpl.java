@@ -5,6 +5,7 @@ import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.vornex.events.entity.OutboxEvent;
@@ -16,7 +17,10 @@ import org.vornex.listing.dto.attachmentDto.AttachmentRequestDto;
 import org.vornex.listing.dto.attachmentDto.AttachmentResponseDto;
 import org.vornex.listing.entity.Attachment;
 import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.event.ListingChangedEvent;
 import org.vornex.listing.repository.AttachmentRepository;
+import org.vornex.listing.repository.ListingRepository;
 import org.vornex.listing.service.AttachmentService;
 import org.vornex.listing.service.StorageService;
 import org.vornex.listing.util.AttachmentProperties;
@@ -26,6 +30,7 @@ import java.awt.image.BufferedImage;
 import java.io.InputStream;
 import java.time.Instant;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -39,10 +44,13 @@ public class AttachmentServiceImpl implements AttachmentService {
     private final OutboxEventRepository outboxEventRepository;   // общая таблица outbox (shared module)
     private final ObjectMapper objectMapper;                     // для сериализации payload в JSON
     private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;     // ATTACHMENTS_CHANGED -> инвалидация кеша карточки
+    private final ListingRepository listingRepository;          // version / updated_at карточки при смене набора attachments
 
     private static final String AGGREGATE_TYPE = "attachment";
     private static final String EVENT_TYPE_DELETE = "ATTACHMENT_DELETE_REQUESTED";
     private static final int DEFAULT_MAX_ATTEMPTS = 10;
+    private static final int MAX_PRESIGN_BATCH = 10; // столько же, сколько фото в объявлении
 
     /**
      * Выдаёт presigned PUT URL и создаёт "черновую" запись Attachment в БД.
@@ -62,24 +70,56 @@ public class AttachmentServiceImpl implements AttachmentService {
     public AttachmentResponseDto presignUrl(AttachmentRequestDto request) {
         validateRequestForPresign(request);
 
-        String ext = extensionFromFilename(request.fileName())
-                .orElseGet(() -> guessExtFromContentType(request.contentType())); // для ключа attachments/{uuid}{ext} ext = fileName если нет то расширение.
-        String key = buildStorageKey(ext);
-
         // Сохраняем запись до загрузки. Это позволяет:
         // - отследить "брошенные" загрузки и удалить мусор
         // - вернуть ключ клиенту, чтобы он позже подтвердил загрузку (complete)
+        Attachment attachment = newPendingAttachment(request);
+        attachmentRepository.save(attachment);
+        publishAttachmentsChanged(attachment);
+
+        return presign(attachment);
+    }
+
+    /**
+     * Пакетный presign (до MAX_PRESIGN_BATCH файлов, например все фото объявления разом).
+     * Записи сохраняются одним saveAll: id берутся из pooled-последовательности, поэтому Hibernate
+     * отправляет один batch INSERT вместо round trip'а на каждое вложение.
+     */
+    @Transactional
+    public List<AttachmentResponseDto> presignUrls(List<AttachmentRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) throw new BadRequestException("requests are required");
+        if (requests.size() > MAX_PRESIGN_BATCH) {
+            throw new BadRequestException("Max " + MAX_PRESIGN_BATCH + " files per presign batch");
+        }
+        requests.forEach(this::validateRequestForPresign);
+
+        List<Attachment> attachments = requests.stream().map(this::newPendingAttachment).toList();
+        attachmentRepository.saveAll(attachments);
+        attachments.stream()
+                .filter(a -> a.getListing() != null && a.getListing().getId() != null)
+                .map(a -> a.getListing().getId())
+                .distinct()
+                .forEach(this::attachmentsChanged);
+
+        return attachments.stream().map(this::presign).toList();
+    }
+
+    private Attachment newPendingAttachment(AttachmentRequestDto request) {
+        String ext = extensionFromFilename(request.fileName())
+                .orElseGet(() -> guessExtFromContentType(request.contentType())); // для ключа attachments/{uuid}{ext} ext = fileName если нет то расширение.
+
         Attachment attachment = new Attachment(); // спец. не указываем size т.к. если будет сравнивать ожидаемый и реальный много лишних удалений будет. Основная валидация уже есть в validateRequestForPresign
-        attachment.setStorageKey(key);
+        attachment.setStorageKey(buildStorageKey(ext));
         attachment.setListing(entityManager.getReference(Listing.class, request.listingId()));
         attachment.setContentType(request.contentType());
         attachment.setProcessed(false);
         attachment.setUploadedAt(null);
-        attachmentRepository.save(attachment);
-
-        StorageService.PresignResult presign = storage.presignPut(key, request.contentType(), props.getPresignTtl());
+        return attachment;
+    }
 
-        return new AttachmentResponseDto(presign.url(), key, presign.expiresAt());
+    private AttachmentResponseDto presign(Attachment attachment) {
+        StorageService.PresignResult presign = storage.presignPut(attachment.getStorageKey(), attachment.getContentType(), props.getPresignTtl());
+        return new AttachmentResponseDto(presign.url(), attachment.getStorageKey(), presign.expiresAt());
     }
 
     /**
@@ -148,6 +188,7 @@ public class AttachmentServiceImpl implements AttachmentService {
         attachment.setProcessed(true);
         attachment.setUploadedAt(Instant.now());
         attachmentRepository.save(attachment);
+        publishAttachmentsChanged(attachment);
 
         String publicUrl = storage.publicUrl(key);
         return new AttachmentCompletedResponseDto(attachment.getId(), publicUrl);
@@ -202,6 +243,11 @@ public class AttachmentServiceImpl implements AttachmentService {
                 Instant.now() // nextAttemptAt = сейчас => обработка может начаться немедленно
         );
         outboxEventRepository.save(ev);
+        // строка удаляется позже (AttachmentDeletionService) — там и растёт версия карточки; здесь только событие:
+        // deleteListing вызывает delete() рядом с удалением самого объявления по его @Version
+        if (attachment.getListing() != null && attachment.getListing().getId() != null) {
+            eventPublisher.publishEvent(new ListingChangedEvent(attachment.getListing().getId(), ListingChangeType.ATTACHMENTS_CHANGED));
+        }
     }
 
 
@@ -268,6 +314,24 @@ public class AttachmentServiceImpl implements AttachmentService {
             attachmentRepository.delete(attachment);
         } catch (Exception ignored) {
         }
+        publishAttachmentsChanged(attachment);
+    }
+
+    /**
+     * Attachment — owning side, Listing.version при его изменении не растёт,
+     * поэтому о смене набора картинок сообщаем явно (кеш карточки и т.п.).
+     * getListing().getId() на lazy-прокси не инициализирует его.
+     */
+    private void publishAttachmentsChanged(Attachment attachment) {
+        if (attachment.getListing() == null || attachment.getListing().getId() == null) return;
+        attachmentsChanged(attachment.getListing().getId());
+    }
+
+    // карточка отдаёт все строки attachments (и необработанные): новая версия -> новый ETag,
+    // updated_at -> изменение видят дельта-синхронизация и sitemap
+    private void attachmentsChanged(UUID listingId) {
+        listingRepository.incrementVersion(listingId);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, ListingChangeType.ATTACHMENTS_CHANGED));
     }
 
     /**
@@ -0,0 +1,80 @@
+package org.vornex.listing.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.BadRequestException;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.exception.NotFoundException;
+import org.vornex.listing.attribute.AttributeSchemaChangedEvent;
+import org.vornex.listing.dto.AttributeSchemaDto;
+import org.vornex.listing.entity.CategoryAttributeSchema;
+import org.vornex.listing.repository.CategoryAttributeSchemaRepository;
+import org.vornex.listing.repository.ListingAttributeIndexRepository;
+import org.vornex.listing.service.AttributeSchemaService;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class AttributeSchemaServiceImpl implements AttributeSchemaService {
+
+    private final CategoryAttributeSchemaRepository schemaRepository;
+    private final ListingAttributeIndexRepository indexRepository;
+    private final SecurityContextUtils securityUtils;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AttributeSchemaDto> findAll() {
+        return schemaRepository.findAllByOrderByCategoryAscNameAsc().stream()
+                .map(s -> new AttributeSchemaDto(s.getCategory(), s.getName(), s.getType(), s.getUnit()))
+                .toList();
+    }
+
+    /**
+     * Создание/изменение атрибута схемы (только admin).
+     * Снапшот registry и индексная таблица обновляются только после коммита (AttributeSchemaChangedEvent):
+     * registry перечитывает схему, AttributeBackfill пересобирает значения атрибута keyset-пачками.
+     */
+    @Override
+    @Transactional
+    public AttributeSchemaDto upsert(AttributeSchemaDto dto) {
+        requireAdmin();
+        if (dto == null || dto.category() == null || dto.category().isBlank()
+                || dto.name() == null || dto.name().isBlank() || dto.type() == null) {
+            throw new BadRequestException("category, name and type are required");
+        }
+        if (dto.name().length() > 64) throw new BadRequestException("attribute name is too long (max 64)");
+
+        String category = dto.category().trim();
+        String name = dto.name().trim();
+        CategoryAttributeSchema schema = schemaRepository.findByCategoryAndName(category, name)
+                .orElseGet(CategoryAttributeSchema::new);
+        schema.setCategory(category);
+        schema.setName(name);
+        schema.setType(dto.type());
+        schema.setUnit(dto.unit() == null || dto.unit().isBlank() ? null : dto.unit().trim());
+        schemaRepository.saveAndFlush(schema);
+
+        eventPublisher.publishEvent(new AttributeSchemaChangedEvent(category, name, schema.getType(), schema.getUnit()));
+        return new AttributeSchemaDto(category, name, schema.getType(), schema.getUnit());
+    }
+
+    @Override
+    @Transactional
+    public void delete(String category, String name) {
+        requireAdmin();
+        CategoryAttributeSchema schema = schemaRepository.findByCategoryAndName(category, name)
+                .orElseThrow(() -> new NotFoundException("Attribute schema not found: " + category + "." + name));
+        schemaRepository.delete(schema);
+        indexRepository.deleteAttribute(category, name);
+        eventPublisher.publishEvent(new AttributeSchemaChangedEvent(category, name, null, null));
+    }
+
+    private void requireAdmin() {
+        if (!securityUtils.isAdmin()) throw new ForbiddenException("Admin role required");
+    }
+}
@@ -0,0 +1,151 @@
+package org.vornex.listing.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.BadRequestException;
+import org.vornex.exception.ConflictException;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.exception.NotFoundException;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.category.CategoryChangedEvent;
+import org.vornex.listing.category.CategoryNode;
+import org.vornex.listing.dto.CategoryDto;
+import org.vornex.listing.dto.CreateCategoryDto;
+import org.vornex.listing.dto.UpdateCategoryDto;
+import org.vornex.listing.entity.Category;
+import org.vornex.listing.repository.CategoryRepository;
+import org.vornex.listing.repository.ListingRepository;
+import org.vornex.listing.service.CategoryService;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+public class CategoryServiceImpl implements CategoryService {
+
+    private static final Pattern SLUG = Pattern.compile("^[a-z0-9]+(?:-[a-z0-9]+)*$");
+    private static final int MAX_SLUG_LENGTH = 64;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int MAX_DEPTH = 5;
+
+    private final CategoryRepository categoryRepository;
+    private final ListingRepository listingRepository;
+    private final CategoryCatalog catalog;
+    private final SecurityContextUtils securityUtils;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Дерево целиком из снапшота — без БД.
+     */
+    @Override
+    public List<CategoryDto> tree() {
+        return catalog.roots().stream().map(CategoryServiceImpl::toDto).toList();
+    }
+
+    /**
+     * Новая категория (только admin). path = path родителя + slug + "/".
+     * Лист, в котором уже есть объявления, можно превратить в ветку — его объявления остаются на прежнем path
+     * и видны в поиске по ветке, но новые объявления туда не попадут (валидатор требует лист).
+     */
+    @Override
+    @Transactional
+    public CategoryDto create(CreateCategoryDto dto) {
+        requireAdmin();
+        if (dto == null || dto.slug() == null || dto.name() == null || dto.name().isBlank()) {
+            throw new BadRequestException("slug and name are required");
+        }
+        String slug = dto.slug().trim();
+        if (slug.length() > MAX_SLUG_LENGTH || !SLUG.matcher(slug).matches()) {
+            throw new BadRequestException("slug must match " + SLUG.pattern() + " (max " + MAX_SLUG_LENGTH + ")");
+        }
+        String name = requireName(dto.name());
+        if (categoryRepository.existsBySlug(slug)) {
+            throw new ConflictException("Category already exists: " + slug);
+        }
+
+        Category category = new Category();
+        category.setSlug(slug);
+        category.setName(name);
+        category.setPosition(dto.position() == null ? 0 : dto.position());
+        if (dto.parentSlug() == null || dto.parentSlug().isBlank()) {
+            category.setPath("/" + slug + "/");
+        } else {
+            // родителя читаем из БД, а не из снапшота: он мог появиться на другом инстансе до reload
+            Category parent = categoryRepository.findBySlug(dto.parentSlug().trim())
+                    .orElseThrow(() -> new NotFoundException("Parent category not found: " + dto.parentSlug()));
+            if (depthOf(parent.getPath()) >= MAX_DEPTH) {
+                throw new BadRequestException("category tree is limited to " + MAX_DEPTH + " levels");
+            }
+            category.setParentId(parent.getId());
+            category.setPath(parent.getPath() + slug + "/");
+        }
+        categoryRepository.save(category);
+
+        eventPublisher.publishEvent(new CategoryChangedEvent(slug));
+        return new CategoryDto(slug, category.getName(), category.getPath(), category.getPosition(), List.of());
+    }
+
+    @Override
+    @Transactional
+    public CategoryDto update(String slug, UpdateCategoryDto dto) {
+        requireAdmin();
+        if (dto == null) throw new BadRequestException("update body is required");
+        Category category = findRequired(slug);
+        if (dto.name() != null) category.setName(requireName(dto.name()));
+        if (dto.position() != null) category.setPosition(dto.position());
+
+        eventPublisher.publishEvent(new CategoryChangedEvent(slug));
+        List<CategoryDto> children = catalog.find(slug)
+                .map(node -> node.children().stream().map(CategoryServiceImpl::toDto).toList())
+                .orElse(List.of());
+        return new CategoryDto(slug, category.getName(), category.getPath(), category.getPosition(), children);
+    }
+
+    /**
+     * Удаляется только пустой лист: без подкатегорий и без объявлений (включая удалённые — у них тоже есть category_path).
+     */
+    @Override
+    @Transactional
+    public void delete(String slug) {
+        requireAdmin();
+        Category category = findRequired(slug);
+        if (categoryRepository.existsByParentId(category.getId())) {
+            throw new ConflictException("Category has subcategories: " + slug);
+        }
+        if (listingRepository.existsByCategory(slug)) {
+            throw new ConflictException("Category has listings: " + slug);
+        }
+        categoryRepository.delete(category);
+        eventPublisher.publishEvent(new CategoryChangedEvent(slug));
+    }
+
+    private Category findRequired(String slug) {
+        return categoryRepository.findBySlug(slug)
+                .orElseThrow(() -> new NotFoundException("Category not found: " + slug));
+    }
+
+    private static String requireName(String name) {
+        if (name.isBlank()) throw new BadRequestException("name cannot be blank");
+        String trimmed = name.trim();
+        if (trimmed.length() > MAX_NAME_LENGTH) throw new BadRequestException("name is too long (max " + MAX_NAME_LENGTH + ")");
+        return trimmed;
+    }
+
+    // "/a/b/" -> 2
+    private static int depthOf(String path) {
+        return (int) path.chars().filter(c -> c == '/').count() - 1;
+    }
+
+    private static CategoryDto toDto(CategoryNode node) {
+        return new CategoryDto(node.slug(), node.name(), node.path(), node.position(),
+                node.children().stream().map(CategoryServiceImpl::toDto).toList());
+    }
+
+    private void requireAdmin() {
+        if (!securityUtils.isAdmin()) throw new ForbiddenException("Admin role required");
+    }
+}
@@ -0,0 +1,62 @@
+package org.vornex.listing.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.BadRequestException;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.listing.currency.ExchangeRates;
+import org.vornex.listing.currency.ExchangeRatesChangedEvent;
+import org.vornex.listing.dto.ExchangeRatesDto;
+import org.vornex.listing.repository.ExchangeRateJdbcRepository;
+import org.vornex.listing.service.ExchangeRateService;
+
+import java.math.BigDecimal;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+@Service
+@RequiredArgsConstructor
+public class ExchangeRateServiceImpl implements ExchangeRateService {
+
+    private static final Pattern CURRENCY = Pattern.compile("^[A-Z]{3}$");
+
+    private final ExchangeRateJdbcRepository repository;
+    private final ExchangeRates exchangeRates;
+    private final SecurityContextUtils securityUtils;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Курсы из кеша — без БД.
+     */
+    @Override
+    public ExchangeRatesDto rates() {
+        return new ExchangeRatesDto(exchangeRates.baseCurrency(), new TreeMap<>(exchangeRates.rates()));
+    }
+
+    /**
+     * Новый курс валюты (только admin). price_base объявлений этой валюты пересчитает BasePriceRecomputer.
+     */
+    @Override
+    @Transactional
+    public ExchangeRatesDto update(String currency, BigDecimal rateToBase) {
+        if (!securityUtils.isAdmin()) throw new ForbiddenException("Admin role required");
+        if (currency == null || !CURRENCY.matcher(currency).matches()) {
+            throw new BadRequestException("currency must be a 3-letter ISO code");
+        }
+        if (currency.equals(exchangeRates.baseCurrency())) {
+            throw new BadRequestException("Base currency rate is always 1");
+        }
+        if (rateToBase == null || rateToBase.signum() <= 0) {
+            throw new BadRequestException("rateToBase must be positive");
+        }
+        if (repository.upsert(currency, rateToBase)) {
+            eventPublisher.publishEvent(new ExchangeRatesChangedEvent(currency));
+        }
+        TreeMap<String, BigDecimal> rates = new TreeMap<>(exchangeRates.rates());
+        rates.put(currency, rateToBase);
+        return new ExchangeRatesDto(exchangeRates.baseCurrency(), rates);
+    }
+}
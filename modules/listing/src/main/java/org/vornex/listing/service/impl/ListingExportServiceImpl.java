@@ -0,0 +1,171 @@
+package org.vornex.listing.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.listing.dto.ListingExportFilterDto;
+import org.vornex.listing.enums.ListingFileFormat;
+import org.vornex.listing.repository.ListingExportJdbcRepository;
+import org.vornex.listing.service.ListingExportService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Экспорт объявлений (admin, партнёрские фиды, бэкапы) с плоским профилем памяти.
+ * <p>
+ * ResultSet (серверный курсор, fetchSize) -> RowWriter -> (gzip) -> ответ, строка за строкой:
+ * ни сущностей, ни списков, в памяти только текущая порция курсора и буферы потоков.
+ * Курсор живёт в read-only транзакции на всё время выгрузки.
+ */
+@Service
+@Slf4j
+public class ListingExportServiceImpl implements ListingExportService {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ListingExportJdbcRepository exportRepository;
+    private final SecurityContextUtils securityUtils;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final CsvSchema csvSchema;
+    private final TransactionTemplate readOnlyTx;
+
+    public ListingExportServiceImpl(ListingExportJdbcRepository exportRepository,
+                                    SecurityContextUtils securityUtils,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.exportRepository = exportRepository;
+        this.securityUtils = securityUtils;
+        this.objectMapper = objectMapper;
+        CsvSchema.Builder schema = CsvSchema.builder().setUseHeader(true);
+        ListingExportJdbcRepository.COLUMNS.forEach(schema::addColumn);
+        this.csvSchema = schema.build();
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    @Override
+    public StreamingResponseBody export(ListingExportFilterDto filter, ListingFileFormat format, boolean gzip) {
+        Objects.requireNonNull(filter, "filter required");
+        Objects.requireNonNull(format, "format required");
+        if (!securityUtils.isAdmin()) {
+            throw new ForbiddenException("Only admin can export listings");
+        }
+        UUID requestedBy = securityUtils.getCurrentUserIdRequired();
+
+        // тело выполняется позже, в async-потоке MVC: SecurityContext там уже нет, поэтому права проверены выше
+        return out -> {
+            long started = System.nanoTime();
+            OutputStream target = gzip ? new GZIPOutputStream(out, GZIP_BUFFER_SIZE) : out;
+            long rows = writeTo(target, filter, format);
+            if (target instanceof GZIPOutputStream gz) gz.finish();
+            target.flush();
+            log.info("Listings export by {} ({}, {}): {} rows in {} ms",
+                    requestedBy, format, filter, rows, (System.nanoTime() - started) / 1_000_000);
+        };
+    }
+
+    private long writeTo(OutputStream out, ListingExportFilterDto filter, ListingFileFormat format) throws IOException {
+        try (JsonGenerator gen = createGenerator(out, format)) {
+            RowWriter writer = format == ListingFileFormat.CSV ? this::writeCsvRow : this::writeJsonRow;
+            long[] rows = {0};
+            try {
+                readOnlyTx.executeWithoutResult(status -> exportRepository.streamAll(filter, rs -> {
+                    try {
+                        writer.write(gen, rs);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e); // клиент оборвал соединение — курсор закрывается откатом
+                    }
+                    rows[0]++;
+                }));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return rows[0];
+        }
+    }
+
+    private JsonGenerator createGenerator(OutputStream out, ListingFileFormat format) throws IOException {
+        JsonGenerator gen;
+        if (format == ListingFileFormat.CSV) {
+            gen = csvMapper.getFactory().createGenerator(out);
+            gen.setSchema(csvSchema);
+        } else {
+            gen = objectMapper.getFactory().createGenerator(out);
+            gen.setRootValueSeparator(null); // разделитель строк пишем сами — '\n' после каждого объекта
+        }
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // поток ответа закрывает контейнер
+        return gen;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(JsonGenerator gen, ResultSet rs) throws SQLException, IOException;
+    }
+
+    private void writeJsonRow(JsonGenerator gen, ResultSet rs) throws SQLException, IOException {
+        gen.writeStartObject();
+        gen.writeStringField("id", rs.getString("id"));
+        gen.writeStringField("title", rs.getString("title"));
+        gen.writeStringField("description", rs.getString("description"));
+        gen.writeFieldName("price");
+        BigDecimal amount = rs.getBigDecimal("price_amount");
+        if (amount == null) {
+            gen.writeNull();
+        } else {
+            gen.writeStartObject();
+            gen.writeNumberField("amount", amount);
+            gen.writeStringField("currency", rs.getString("price_currency"));
+            gen.writeEndObject();
+        }
+        gen.writeStringField("category", rs.getString("category"));
+        gen.writeStringField("itemCondition", rs.getString("item_condition"));
+        gen.writeStringField("status", rs.getString("status"));
+        gen.writeStringField("moderationStatus", rs.getString("moderation_status"));
+        gen.writeStringField("ownerId", rs.getString("owner_id"));
+        gen.writeStringField("city", rs.getString("city"));
+        gen.writeFieldName("attributes");
+        String attributes = rs.getString("attributes");
+        if (attributes == null) gen.writeNull();
+        else gen.writeRawValue(attributes); // jsonb::text — уже валидный JSON, повторно не парсим
+        gen.writeNumberField("viewsCount", rs.getLong("views_count"));
+        gen.writeStringField("createdAt", isoOrNull(rs.getTimestamp("created_at")));
+        gen.writeStringField("updatedAt", isoOrNull(rs.getTimestamp("updated_at")));
+        gen.writeStringField("publishedAt", isoOrNull(rs.getTimestamp("published_at")));
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+    }
+
+    private void writeCsvRow(JsonGenerator gen, ResultSet rs) throws SQLException, IOException {
+        gen.writeStartArray();
+        for (String column : ListingExportJdbcRepository.COLUMNS) {
+            Object value = rs.getObject(column);
+            if (value == null) gen.writeNull();
+            else if (value instanceof Timestamp ts) gen.writeString(ts.toInstant().toString());
+            else if (value instanceof BigDecimal d) gen.writeString(d.toPlainString());
+            else gen.writeString(value.toString());
+        }
+        gen.writeEndArray();
+    }
+
+    private static String isoOrNull(Timestamp ts) {
+        return ts == null ? null : ts.toInstant().toString();
+    }
+}
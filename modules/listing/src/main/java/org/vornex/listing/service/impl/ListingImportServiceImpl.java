@@ -0,0 +1,426 @@
+package org.vornex.listing.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.BadRequestException;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.listing.Money;
+import org.vornex.listing.attribute.TypedAttributeValue;
+import org.vornex.listing.currency.ExchangeRates;
+import org.vornex.listing.duplicate.NearDuplicateIndex;
+import org.vornex.listing.dto.CreateListingDto;
+import org.vornex.listing.dto.ListingImportResultDto;
+import org.vornex.listing.enums.ListingFileFormat;
+import org.vornex.listing.enums.ItemCondition;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.ListingAttributeIndexRepository;
+import org.vornex.listing.repository.ListingImportJdbcRepository;
+import org.vornex.listing.repository.ListingImportJdbcRepository.NewListing;
+import org.vornex.listing.service.ListingImportService;
+import org.vornex.listing.util.ListingImportProperties;
+import org.vornex.listing.validation.ListingValidator;
+import org.vornex.listing.validation.ValidatedListing;
+import org.vornex.persistence.UuidV7Generator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.*;
+
+/**
+ * Потоковый массовый импорт объявлений (NDJSON / CSV).
+ * <p>
+ * - Тело запроса читается построчно, в памяти только текущая пачка (batchSize строк) — размер файла не важен.
+ * - Каждая строка проходит те же проверки, что и createListing (ListingValidator); невалидные строки
+ * попадают в отчёт и не останавливают импорт.
+ * - Пачка пишется JDBC batch'ем в своей транзакции. Если пачка упала на ограничении БД — повторяем её
+ * построчно, чтобы отклонить только виновные строки.
+ * - Импортированные объявления — черновики текущего пользователя (admin может указать ownerId), без attachments.
+ */
+@Service
+@Slf4j
+public class ListingImportServiceImpl implements ListingImportService {
+
+    private static final String ATTRIBUTE_COLUMN_PREFIX = "attr.";
+
+    private final ListingImportJdbcRepository importRepository;
+    private final ListingAttributeIndexRepository attributeIndexRepository;
+    private final NearDuplicateIndex nearDuplicates;
+    private final ExchangeRates exchangeRates;
+    private final ListingValidator validator;
+    private final SecurityContextUtils securityUtils;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ListingImportProperties properties;
+    private final Clock clock;
+    private final ObjectReader ndjsonReader;
+    private final TransactionTemplate tx;
+
+    public ListingImportServiceImpl(ListingImportJdbcRepository importRepository,
+                                    ListingAttributeIndexRepository attributeIndexRepository,
+                                    NearDuplicateIndex nearDuplicates,
+                                    ExchangeRates exchangeRates,
+                                    ListingValidator validator,
+                                    SecurityContextUtils securityUtils,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ListingImportProperties properties,
+                                    Clock clock,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager) {
+        this.importRepository = importRepository;
+        this.attributeIndexRepository = attributeIndexRepository;
+        this.nearDuplicates = nearDuplicates;
+        this.exchangeRates = exchangeRates;
+        this.validator = validator;
+        this.securityUtils = securityUtils;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.clock = clock;
+        this.ndjsonReader = objectMapper.readerFor(CreateListingDto.class);
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public ListingImportResultDto importListings(InputStream body, ListingFileFormat format, UUID ownerId) {
+        Objects.requireNonNull(body, "body required");
+        Objects.requireNonNull(format, "format required");
+        UUID currentUser = securityUtils.getCurrentUserIdRequired();
+        UUID owner = resolveOwner(ownerId, currentUser);
+
+        ImportReport report = new ImportReport(properties.getMaxErrors());
+        List<PendingRow> batch = new ArrayList<>(properties.getBatchSize());
+
+        try (RowReader rows = format == ListingFileFormat.CSV ? new CsvRowReader(body) : new NdjsonRowReader(body)) {
+            while (true) {
+                CreateListingDto dto;
+                try {
+                    dto = rows.next();
+                } catch (BadRequestException e) {
+                    report.fail(rows.rowNumber(), e.getMessage());
+                    continue;
+                }
+                if (dto == null) break;
+
+                try {
+                    batch.add(toPendingRow(rows.rowNumber(), dto, owner));
+                } catch (BadRequestException e) {
+                    report.fail(rows.rowNumber(), e.getMessage());
+                    continue;
+                }
+                if (batch.size() >= properties.getBatchSize()) {
+                    flush(batch, report);
+                }
+            }
+        } catch (MalformedStreamException e) {
+            // CSV без восстановления после синтаксической ошибки: уже записанные пачки остаются
+            report.fail(e.row, e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import body", e);
+        } finally {
+            flush(batch, report);
+        }
+
+        log.info("Listing import by {} for owner {}: {} rows, {} imported, {} failed",
+                currentUser, owner, report.imported + report.failed, report.imported, report.failed);
+        return report.toDto();
+    }
+
+    private UUID resolveOwner(UUID requestedOwner, UUID currentUser) {
+        if (requestedOwner == null || requestedOwner.equals(currentUser)) return currentUser;
+        if (!securityUtils.isAdmin()) {
+            throw new ForbiddenException("Not allowed to import listings for another user");
+        }
+        return requestedOwner; // миграции: admin импортирует от имени продавца
+    }
+
+    private PendingRow toPendingRow(long row, CreateListingDto dto, UUID ownerId) {
+        if (dto.attachmentIds() != null && !dto.attachmentIds().isEmpty()) {
+            throw new BadRequestException("attachments are not supported by import");
+        }
+        ValidatedListing validated = validator.validateCreate(dto);
+        NewListing listing = new NewListing(
+                UuidV7Generator.next(),
+                dto.title().trim(),
+                dto.description() == null ? null : dto.description().trim(),
+                dto.price(),
+                exchangeRates.toBase(dto.price()),
+                validated.category().slug(),
+                validated.category().path(),
+                validator.normalizeCity(dto.city()),
+                Optional.ofNullable(dto.itemCondition()).orElse(ItemCondition.USED),
+                ownerId,
+                Optional.ofNullable(dto.attributes()).orElse(Map.of()),
+                clock.instant());
+        return new PendingRow(row, listing, validated.typedAttributes());
+    }
+
+    private void flush(List<PendingRow> batch, ImportReport report) {
+        if (batch.isEmpty()) return;
+        try {
+            insert(batch);
+            report.imported += batch.size();
+        } catch (DataAccessException e) {
+            log.debug("Import batch failed, retrying row by row: {}", e.getMostSpecificCause().getMessage());
+            for (PendingRow row : batch) {
+                try {
+                    insert(List.of(row));
+                    report.imported++;
+                } catch (DataAccessException rowError) {
+                    report.fail(row.row(), "rejected by database: " + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private void insert(List<PendingRow> rows) {
+        tx.executeWithoutResult(status -> {
+            importRepository.insertAll(rows.stream().map(PendingRow::listing).toList());
+            Map<UUID, List<TypedAttributeValue>> typed = new HashMap<>();
+            for (PendingRow r : rows) {
+                if (!r.typedAttributes().isEmpty()) typed.put(r.listing().id(), r.typedAttributes());
+            }
+            attributeIndexRepository.insertAll(typed);
+            Map<UUID, int[]> signatures = new HashMap<>();
+            for (PendingRow r : rows) {
+                signatures.put(r.listing().id(), nearDuplicates.signatureOf(r.listing().title(), r.listing().description()));
+            }
+            nearDuplicates.register(signatures);
+            // CREATED уходит подписчикам после коммита пачки
+            rows.forEach(r -> eventPublisher.publishEvent(new ListingChangedEvent(r.listing().id(),
+                    ListingChangeType.CREATED, 0L, ListingStatus.DRAFT, r.listing().category(), Set.of(), null, null)));
+        });
+    }
+
+    private record PendingRow(long row, NewListing listing, List<TypedAttributeValue> typedAttributes) {
+    }
+
+    // ------------------- readers -------------------
+
+    /**
+     * Источник строк импорта. next() возвращает null в конце потока и бросает BadRequestException
+     * для строки, которую не удалось разобрать (импорт продолжается со следующей).
+     */
+    private interface RowReader extends Closeable {
+        CreateListingDto next() throws IOException;
+
+        long rowNumber();
+    }
+
+    /**
+     * NDJSON: один JSON-объект CreateListingDto на строку. Строки независимы, поэтому битая строка
+     * не мешает разбору следующих. Пустые строки пропускаются.
+     * <p>
+     * Строка читается не длиннее maxRowChars: у слишком длинной остаток пропускается до перевода строки
+     * без накопления в памяти, а сама она становится ошибкой строки — память импорта не зависит от входа.
+     */
+    private final class NdjsonRowReader implements RowReader {
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private final int maxRowChars = properties.getMaxRowChars();
+        private int pos;
+        private int limit;
+        private boolean tooLong;
+        private long row;
+
+        NdjsonRowReader(InputStream in) {
+            this.reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public CreateListingDto next() throws IOException {
+            String line;
+            do {
+                line = readLine();
+                if (line == null) return null;
+            } while (!tooLong && line.isBlank());
+            row++;
+            if (tooLong) throw new BadRequestException("row is too long (max " + maxRowChars + " characters)");
+            CreateListingDto dto;
+            try {
+                dto = ndjsonReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                throw new BadRequestException("malformed JSON: " + e.getOriginalMessage());
+            }
+            if (dto == null) throw new BadRequestException("row must be a JSON object");
+            return dto;
+        }
+
+        /**
+         * Следующая строка без '\n' / '\r\n'; null — конец потока. Для слишком длинной строки
+         * возвращает "" и выставляет tooLong.
+         */
+        private String readLine() throws IOException {
+            StringBuilder line = null;
+            tooLong = false;
+            while (true) {
+                if (pos == limit) {
+                    int read = reader.read(buffer, 0, buffer.length);
+                    pos = 0;
+                    limit = Math.max(read, 0);
+                    if (read <= 0) break; // конец потока: отдаём недочитанную последнюю строку
+                }
+                int start = pos;
+                while (pos < limit && buffer[pos] != '\n') pos++;
+                if (line == null) line = new StringBuilder();
+                if (!tooLong && line.length() + (pos - start) <= maxRowChars) {
+                    line.append(buffer, start, pos - start);
+                } else if (!tooLong) {
+                    tooLong = true;
+                    line.setLength(0);
+                }
+                if (pos < limit) {
+                    pos++; // '\n'
+                    break;
+                }
+            }
+            if (line == null) return null;
+            int length = line.length();
+            if (length > 0 && line.charAt(length - 1) == '\r') line.setLength(length - 1);
+            return line.toString();
+        }
+
+        @Override
+        public long rowNumber() {
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /**
+     * CSV с заголовком. Колонки: title, description, price_amount, price_currency, category, city, item_condition;
+     * колонки вида attr.brand становятся атрибутами (пустые значения пропускаются).
+     */
+    private static final class CsvRowReader implements RowReader {
+        private static final CsvMapper CSV = new CsvMapper();
+
+        private final MappingIterator<Map<String, String>> it;
+        private long row;
+
+        CsvRowReader(InputStream in) throws IOException {
+            this.it = CSV.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(in);
+        }
+
+        @Override
+        public CreateListingDto next() throws IOException {
+            Map<String, String> values;
+            try {
+                if (!it.hasNextValue()) return null;
+                row++;
+                values = it.nextValue();
+            } catch (JsonProcessingException e) {
+                throw new MalformedStreamException(row, "malformed CSV, import stopped: " + e.getOriginalMessage());
+            }
+            return toDto(values);
+        }
+
+        private CreateListingDto toDto(Map<String, String> values) {
+            Map<String, String> attributes = new HashMap<>();
+            values.forEach((column, value) -> {
+                if (column.startsWith(ATTRIBUTE_COLUMN_PREFIX) && value != null && !value.isBlank()) {
+                    attributes.put(column.substring(ATTRIBUTE_COLUMN_PREFIX.length()), value.trim());
+                }
+            });
+            return new CreateListingDto(
+                    values.get("title"),
+                    blankToNull(values.get("description")),
+                    parsePrice(values.get("price_amount"), values.get("price_currency")),
+                    values.get("category"),
+                    blankToNull(values.get("city")),
+                    parseCondition(values.get("item_condition")),
+                    attributes,
+                    null);
+        }
+
+        private static Money parsePrice(String amount, String currency) {
+            if (amount == null || amount.isBlank()) return null;
+            try {
+                return new Money(new BigDecimal(amount.trim()), blankToNull(currency));
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("invalid price_amount: " + amount);
+            }
+        }
+
+        private static ItemCondition parseCondition(String value) {
+            if (value == null || value.isBlank()) return null;
+            try {
+                return ItemCondition.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("invalid item_condition: " + value);
+            }
+        }
+
+        private static String blankToNull(String s) {
+            return s == null || s.isBlank() ? null : s.trim();
+        }
+
+        @Override
+        public long rowNumber() {
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            it.close();
+        }
+    }
+
+    /**
+     * Синтаксическая ошибка, после которой поток не разобрать дальше.
+     */
+    private static final class MalformedStreamException extends IOException {
+        private final long row;
+
+        MalformedStreamException(long row, String message) {
+            super(message);
+            this.row = row;
+        }
+    }
+
+    /**
+     * Накопитель отчёта: счётчики + первые maxErrors ошибок.
+     */
+    private static final class ImportReport {
+        private final int maxErrors;
+        private final List<ListingImportResultDto.RowError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        ImportReport(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < maxErrors) errors.add(new ListingImportResultDto.RowError(row, message));
+        }
+
+        ListingImportResultDto toDto() {
+            return new ListingImportResultDto(imported + failed, imported, failed, List.copyOf(errors), failed > errors.size());
+        }
+    }
+}
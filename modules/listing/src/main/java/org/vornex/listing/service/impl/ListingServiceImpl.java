@@ -2,6 +2,7 @@ package org.vornex.listing.service.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.vornex.authapi.SecurityContextUtils;
@@ -9,21 +10,51 @@ import org.vornex.exception.BadRequestException;
 import org.vornex.exception.ConflictException;
 import org.vornex.exception.ForbiddenException;
 import org.vornex.exception.NotFoundException;
+import org.vornex.listing.Money;
+import org.vornex.listing.attribute.AttributeSchemaRegistry;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.category.CategoryNode;
+import org.vornex.listing.currency.ExchangeRates;
+import org.vornex.listing.duplicate.NearDuplicateIndex;
+import org.vornex.listing.cache.ListingCache;
+import org.vornex.listing.counter.ListingCounters;
 import org.vornex.listing.dto.CreateListingDto;
+import org.vornex.listing.dto.LatestListingDto;
+import org.vornex.listing.dto.ListingFilterDto;
 import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.dto.ListingSearchPageDto;
+import org.vornex.listing.dto.ListingStatsDto;
+import org.vornex.listing.dto.TrendingListingDto;
 import org.vornex.listing.dto.UpdateListingDto;
 import org.vornex.listing.entity.Attachment;
 import org.vornex.listing.entity.Listing;
 import org.vornex.listing.enums.ItemCondition;
+import org.vornex.listing.enums.ListingChangeType;
 import org.vornex.listing.enums.ListingStatus;
 import org.vornex.listing.enums.ModerationStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.latest.LatestListings;
 import org.vornex.listing.mapper.ListingMapper;
+import org.vornex.listing.enums.AttributeType;
 import org.vornex.listing.repository.AttachmentRepository;
+import org.vornex.listing.repository.ListingAttributeIndexRepository;
+import org.vornex.listing.repository.ListingReadRepository;
 import org.vornex.listing.repository.ListingRepository;
+import org.vornex.listing.repository.ListingSearchRepository;
+import org.vornex.listing.repository.ListingSyncJdbcRepository;
 import org.vornex.listing.service.AttachmentService;
 import org.vornex.listing.service.ListingService;
-
-import java.time.Instant;
+import org.vornex.listing.service.ModerationService;
+import org.vornex.listing.util.LatestListingsProperties;
+import org.vornex.listing.util.ListingViewProperties;
+import org.vornex.listing.validation.ListingValidator;
+import org.vornex.listing.validation.ValidatedListing;
+import org.vornex.listing.view.ListingViewCounter;
+import org.vornex.listing.view.TrendingTracker;
+import org.vornex.listing.view.UniqueViewerTracker;
+
+import java.time.Clock;
+import java.time.LocalDate;
 import java.util.*;
 
 @Service
@@ -32,14 +63,36 @@ import java.util.*;
 public class ListingServiceImpl implements ListingService {
 
     private final ListingRepository listingRepository;
+    private final ListingSearchRepository searchRepository;
+    private final ListingReadRepository readRepository;       // DTO-проекции для чтения, без сущностей
+    private final ListingAttributeIndexRepository attributeIndexRepository;
+    private final AttributeSchemaRegistry attributeSchemas;
+    private final ListingValidator validator;
+    private final CategoryCatalog categoryCatalog;           // категория фильтра -> поддерево (path)
     private final AttachmentRepository attachmentRepository;
     private final AttachmentService attachmentService; // для удаления attachment'ов (outbox)
+    private final ModerationService moderationService;  // publish -> очередь модерации
     private final SecurityContextUtils securityUtils;         // getCurrentUserId(), isAdmin()
     private final ListingMapper mapper;
+    private final ListingCache listingCache;
+    private final ApplicationEventPublisher eventPublisher; // ListingChangedEvent -> кеш и другие подписчики
+    private final ListingViewCounter viewCounter;
+    private final UniqueViewerTracker uniqueViewerTracker;
+    private final TrendingTracker trendingTracker;
+    private final ListingViewProperties viewProperties;
+    private final ListingCounters listingCounters;      // счётчики по (category, status)
+    private final LatestListings latestListings;        // фид "новые объявления" на главной
+    private final LatestListingsProperties latestProperties;
+    private final NearDuplicateIndex nearDuplicates;     // MinHash-сигнатуры для поиска почти-дублей
+    private final ExchangeRates exchangeRates;          // цена в базовой валюте (price_base) при записи
+    private final ListingSyncJdbcRepository syncRepository; // надгробия удалённых для дельта-синхронизации
+    private final Clock clock;
 
     // Константы / конвенции
-    private static final int MIN_TITLE_LENGTH = 3;
-    private static final int MAX_TITLE_LENGTH = 120;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_OFFSET = 1_000; // дальше OFFSET читает и выбрасывает слишком много строк — keyset
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final int MAX_ATTRIBUTE_FILTERS = 20;
 
     // ------------------- createListing -------------------
 
@@ -50,7 +103,7 @@ public class ListingServiceImpl implements ListingService {
      * - ownerId берём из SecurityUtils (игнорируем owner из DTO).
      * - status = DRAFT, moderationStatus = NOT_REQUIRED.
      * - Привязываем уже загруженные attachments (если переданы) к объявлению.
-     * - Валидируем простые инварианты (title, price->amount >= 0, category not blank).
+     * - Валидируем простые инварианты (title, price->amount >= 0, category — лист каталога).
      * <p>
      * Возвращает готовый ListingResponseDto.
      */
@@ -62,35 +115,36 @@ public class ListingServiceImpl implements ListingService {
         // Owner должен быть аутентифицирован — получаем UUID или бросаем UnauthorizedException
         UUID ownerId = securityUtils.getCurrentUserIdRequired();
 
-        // Basic validation (KISS)
-        validateTitle(dto.title());
-        if (dto.category() == null || dto.category().isBlank()) {
-            throw new BadRequestException("category is required");
-        }
-        if (dto.price() != null && dto.price().getAmount().signum() < 0) {
-            throw new BadRequestException("price must be >= 0");
-        }
+        // Basic validation (KISS) — общие правила с массовым импортом
+        ValidatedListing validated = validator.validateCreate(dto);
+        Map<String, String> attributes = Optional.ofNullable(dto.attributes()).orElse(Map.of());
 
         Listing listing = Listing.builder()
                 .title(dto.title().trim())
                 .description(trimOrNull(dto.description()))
                 .price(dto.price())
-                .category(dto.category().trim())
+                .priceBase(exchangeRates.toBase(dto.price()))
+                .category(validated.category().slug())
+                .categoryPath(validated.category().path())
+                .city(validator.normalizeCity(dto.city()))
                 .itemCondition(Optional.ofNullable(dto.itemCondition()).orElse(ItemCondition.USED))
                 .status(ListingStatus.DRAFT)
                 .moderationStatus(ModerationStatus.NOT_REQUIRED)
                 .ownerId(ownerId)
-                .attributes(Optional.ofNullable(dto.attributes()).orElse(Map.of()))
+                .attributes(attributes)
                 .build();
 
         // Persist listing first to have id for attachments FK
         listing = listingRepository.save(listing);
+        attributeIndexRepository.replace(listing.getId(), validated.typedAttributes());
+        nearDuplicates.register(listing.getId(), listing.getTitle(), listing.getDescription());
 
         // Attach attachments if provided
         if (dto.attachmentIds() != null && !dto.attachmentIds().isEmpty()) {
             attachAttachmentsToListing(dto.attachmentIds(), listing);
         }
 
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing, ListingChangeType.CREATED, Set.of()));
         return mapper.toDto(listing); //public Url там есть
     }
 
@@ -98,15 +152,116 @@ public class ListingServiceImpl implements ListingService {
 
     /**
      * Получение объявления по id.
-     * Используем fetch attachments методом findByIdWithAttachments чтобы избежать N+1 при маппинге.
-     * Благодаря @Where на сущности Listing возвращаются только не-deleted.
+     * На промахе кеша карточка читается DTO-проекцией (ListingReadRepository): два плоских запроса, без сущностей.
+     * <p>
+     * Read-through через ListingCache: при попадании в кеш не открываем транзакцию и не берём соединение.
+     * Поэтому метод без @Transactional — соединение берётся только на промахе.
      */
     @Override
-    @Transactional(readOnly = true)
     public ListingResponseDto getById(UUID id) {
-        Listing listing = listingRepository.findByIdWithAttachments(id)
+        return listingCache.get(id, this::loadById);
+    }
+
+    private ListingResponseDto loadById(UUID id) {
+        return readRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Listing not found: " + id));
+    }
+
+    /**
+     * Текущая версия карточки для условных запросов: из кеша, иначе одним select version — без маппинга.
+     */
+    @Override
+    public long getVersion(UUID id) {
+        return listingCache.peek(id)
+                .map(ListingResponseDto::version)
+                .or(() -> readRepository.findVersion(id))
                 .orElseThrow(() -> new NotFoundException("Listing not found: " + id));
-        return mapper.toDto(listing);
+    }
+
+    // ------------------- search -------------------
+
+    /**
+     * Поиск объявлений по фильтру.
+     * <p>
+     * Правила:
+     * - Без status ищем только PUBLISHED.
+     * - Остальные статусы (черновики и т.д.) — только свои объявления (ownerId = текущий пользователь) или admin.
+     * - Фильтры по атрибутам идут в jsonb @> (GIN-индекс), см. ListingSearchRepository.
+     * <p>
+     * - Без общего числа: size + 1 строка говорит, есть ли следующая страница. page — OFFSET для первых
+     * MAX_OFFSET строк; дальше — только cursor (keyset из nextCursor предыдущей страницы).
+     * <p>
+     * Запросы на страницу: id по индексу сортировки, затем карточки из кеша / DTO-проекцией (ListingReadRepository).
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ListingSearchPageDto search(ListingFilterDto requested, int page, int size, String cursor) {
+        Objects.requireNonNull(requested, "filter required");
+        if (page < 0) throw new BadRequestException("page must be >= 0");
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new BadRequestException("size must be between 1 and " + MAX_PAGE_SIZE);
+        if (cursor != null && page > 0) throw new BadRequestException("page and cursor are mutually exclusive");
+        if ((long) page * size > MAX_OFFSET) {
+            throw new BadRequestException("page is too deep, continue with cursor from the previous page");
+        }
+        ListingFilterDto filter = requested.copy(); // фильтр вызывающего не меняем
+        validateAttributeFilters(filter);
+        resolveCategoryPath(filter);
+
+        if (filter.getStatus() == null) {
+            filter.setStatus(ListingStatus.PUBLISHED);
+        } else if (filter.getStatus() != ListingStatus.PUBLISHED && !securityUtils.isAdmin()) {
+            UUID currentUser = securityUtils.getCurrentUserIdRequired();
+            if (filter.getOwnerId() != null && !filter.getOwnerId().equals(currentUser)) {
+                throw new ForbiddenException("Not allowed to search other users' non-published listings");
+            }
+            filter.setOwnerId(currentUser);
+        }
+
+        ListingSearchRepository.SearchResult result = searchRepository.search(filter, page, size, cursor);
+        return new ListingSearchPageDto(loadInOrder(result.ids()), result.hasNext(), result.nextCursor());
+    }
+
+    /**
+     * Возвращает объявления в порядке ids (IN не сохраняет порядок).
+     * Попадания берутся из ListingCache, промахи грузятся пачкой через ListingReadRepository и кладутся в кеш.
+     */
+    private List<ListingResponseDto> loadInOrder(Collection<UUID> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<UUID, ListingResponseDto> byId = listingCache.getAll(ids, this::loadAllById);
+        List<ListingResponseDto> result = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ListingResponseDto dto = byId.get(id);
+            if (dto != null) result.add(dto); // могли удалить между запросами — пропускаем
+        }
+        return result;
+    }
+
+    private Map<UUID, ListingResponseDto> loadAllById(Set<? extends UUID> ids) {
+        Map<UUID, ListingResponseDto> result = new HashMap<>(ids.size() * 2);
+        for (ListingResponseDto dto : readRepository.findAllById(new ArrayList<>(ids))) {
+            result.put(dto.id(), dto);
+        }
+        return result;
+    }
+
+    // ------------------- getByIds (multi-get) -------------------
+
+    /**
+     * Пакетное получение объявлений (ленты, избранное, корзина) вместо N вызовов getById.
+     * <p>
+     * - Дубликаты id схлопываются, порядок — как в запросе (по первому вхождению).
+     * - Несуществующие / удалённые id пропускаются без ошибки.
+     * - Видимость та же, что у getById; кешированные карточки в БД не запрашиваются.
+     */
+    @Override
+    public List<ListingResponseDto> getByIds(List<UUID> ids) {
+        if (ids == null || ids.isEmpty()) throw new BadRequestException("ids are required");
+        Set<UUID> distinct = new LinkedHashSet<>(ids);
+        if (distinct.contains(null)) throw new BadRequestException("ids must not contain null");
+        if (distinct.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("too many ids (max " + MAX_BATCH_SIZE + ")");
+        }
+        return loadInOrder(distinct);
     }
 
     // ------------------- updateListing (PATCH semantics) -------------------
@@ -119,6 +274,9 @@ public class ListingServiceImpl implements ListingService {
      * - Если DTO содержит version — проверяем optimistic version и кидаем ConflictException при несоответствии.
      * - Поля, равные null в DTO — не меняются.
      * - Для attachmentIds: если переданы — заменяем текущие attachments этим списком.
+     * - Смена title / description / attachments у опубликованного или ожидающего модерации объявления
+     * отправляет его на модерацию заново (как publish): PUBLISHED снимается до одобрения, иначе
+     * правкой после одобрения можно было бы обойти проверки.
      */
     @Override
     @Transactional
@@ -138,36 +296,83 @@ public class ListingServiceImpl implements ListingService {
             throw new ConflictException("Version conflict: entity was modified");
         }
 
-        // Apply patch: only non-null fields
+        // Apply patch: only non-null fields; changed — реально изменившиеся поля (для фида изменений)
+        Set<String> changed = new LinkedHashSet<>();
+        String previousCategory = listing.getCategory(); // счётчики по категориям
+        ListingStatus previousStatus = listing.getStatus();
         if (dto.getTitle() != null) {
-            validateTitle(dto.getTitle());
-            listing.setTitle(dto.getTitle().trim());
+            validator.validateTitle(dto.getTitle());
+            listing.setTitle(track(changed, "title", listing.getTitle(), dto.getTitle().trim()));
         }
         if (dto.getDescription() != null) {
-            listing.setDescription(trimOrNull(dto.getDescription()));
+            listing.setDescription(track(changed, "description", listing.getDescription(), trimOrNull(dto.getDescription())));
         }
         if (dto.getPrice() != null) {
-            if (dto.getPrice().getAmount().signum() < 0)
-                throw new BadRequestException("price must be >= 0");
+            validator.validatePrice(dto.getPrice());
+            if (!samePrice(listing.getPrice(), dto.getPrice())) changed.add("price");
             listing.setPrice(dto.getPrice());
+            listing.setPriceBase(exchangeRates.toBase(dto.getPrice()));
+        }
+        if (dto.getCategory() != null && !dto.getCategory().trim().equals(listing.getCategory())) {
+            CategoryNode category = validator.validateCategory(dto.getCategory());
+            listing.setCategory(track(changed, "category", listing.getCategory(), category.slug()));
+            listing.setCategoryPath(category.path());
+        }
+        if (dto.getCity() != null) {
+            listing.setCity(track(changed, "city", listing.getCity(), validator.normalizeCity(dto.getCity())));
         }
-        if (dto.getCategory() != null) {
-            if (dto.getCategory().isBlank())
-                throw new BadRequestException("category cannot be blank");
-            listing.setCategory(dto.getCategory().trim());
+        if (dto.getItemCondition() != null) {
+            listing.setItemCondition(track(changed, "itemCondition", listing.getItemCondition(), dto.getItemCondition()));
+        }
+        if (dto.getAttributes() != null) {
+            listing.setAttributes(track(changed, "attributes", listing.getAttributes(), dto.getAttributes()));
+        }
+        if (dto.getAttributes() != null || dto.getCategory() != null) {
+            // схема зависит от категории — пересобираем типизированные значения при смене любого из двух
+            attributeIndexRepository.replace(listing.getId(),
+                    validator.validateAttributes(listing.getCategory(), listing.getAttributes()));
+        }
+
+        if (changed.contains("title") || changed.contains("description")) {
+            nearDuplicates.register(listing.getId(), listing.getTitle(), listing.getDescription());
         }
-        if (dto.getItemCondition() != null) listing.setItemCondition(dto.getItemCondition());
-        if (dto.getAttributes() != null) listing.setAttributes(dto.getAttributes());
 
         // Attachments: replace if provided
         if (dto.getAttachmentIds() != null) {
             replaceAttachments(dto.getAttachmentIds(), listing);
+            changed.add("attachments");
+            // коллекция inverse (mappedBy) — сама по себе version не поднимет; грязное поле гарантирует инкремент (ETag)
+            listing.setUpdatedAt(clock.instant());
         }
 
-        listing = listingRepository.save(listing);
+        boolean remoderate = requiresModeration(listing, changed);
+        if (remoderate) {
+            if (listing.getStatus() == ListingStatus.PUBLISHED) {
+                listing.setStatus(ListingStatus.DRAFT);
+                changed.add("status");
+            }
+            listing.setModerationStatus(ModerationStatus.PENDING);
+            listing.setModerationRejectionReason(null);
+            changed.add("moderationStatus");
+        }
+
+        // saveAndFlush — чтобы в ответ ушли актуальные version/updatedAt (их проставляет flush)
+        listing = listingRepository.saveAndFlush(listing);
+        if (remoderate) {
+            moderationService.enqueue(listing.getId()); // сбрасывает и уже стоящую задачу — проверяется новое содержимое
+        }
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing, ListingChangeType.UPDATED, changed,
+                previousStatus, previousCategory));
         return mapper.toDto(listing);
     }
 
+    private static boolean requiresModeration(Listing listing, Set<String> changed) {
+        boolean visibleOrQueued = listing.getStatus() == ListingStatus.PUBLISHED
+                || listing.getModerationStatus() == ModerationStatus.PENDING;
+        return visibleOrQueued
+                && (changed.contains("title") || changed.contains("description") || changed.contains("attachments"));
+    }
+
     // ------------------- publish -------------------
 
     /**
@@ -177,7 +382,9 @@ public class ListingServiceImpl implements ListingService {
      * - Только владелец или admin.
      * - Обязательные поля: title, price (если бизнес требует), category.
      * - Опционально: require >=1 processed attachment.
-     * - Смена статуса на PUBLISHED и установка publishedAt.
+     * - moderationStatus = PENDING и задача в очередь модерации (ModerationService); статус остаётся DRAFT,
+     * PUBLISHED ставит модерация после одобрения. Здесь только один INSERT — время ответа не зависит от очереди.
+     * - Повторный вызов для уже опубликованного или ожидающего модерации объявления ничего не делает.
      */
     @Override
     @Transactional
@@ -190,6 +397,10 @@ public class ListingServiceImpl implements ListingService {
             throw new ForbiddenException("Not allowed to publish listing");
         }
 
+        if (listing.getStatus() == ListingStatus.PUBLISHED || listing.getModerationStatus() == ModerationStatus.PENDING) {
+            return;
+        }
+
         // Mandatory checks
         if (listing.getTitle() == null || listing.getTitle().isBlank())
             throw new BadRequestException("title is required");
@@ -204,12 +415,12 @@ public class ListingServiceImpl implements ListingService {
             throw new BadRequestException("At least one uploaded image is required to publish");
         }
 
-        // Update status
-        listing.setStatus(ListingStatus.PUBLISHED);
-        listing.setPublishedAt(Instant.now());
-        listingRepository.save(listing);
-
-        // Note: moderation workflow could be triggered here (async).
+        // На модерацию: PUBLISHED выставит ModerationService после автопроверок / решения модератора
+        listing.setModerationStatus(ModerationStatus.PENDING);
+        listing.setModerationRejectionReason(null);
+        listing = listingRepository.saveAndFlush(listing); // flush — в событие уходит итоговая version
+        moderationService.enqueue(listing.getId());
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing, ListingChangeType.UPDATED, Set.of("moderationStatus")));
     }
 
     // ------------------- deleteListing -------------------
@@ -246,24 +457,121 @@ public class ListingServiceImpl implements ListingService {
             }
         }
 
+        // удаление физическое: надгробие в той же транзакции, чтобы клиенты синхронизации узнали об удалении
+        syncRepository.insertTombstone(listing.getId(), listing.getOwnerId(), listing.getVersion(), clock.instant());
         listingRepository.delete(listing);
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing, ListingChangeType.DELETED, Set.of()));
         log.info("Listing {} deleted by user {}", listing.getId(), currentUser);
     }
 
     // ------------------- incrementViews -------------------
 
     /**
-     * Инкремент просмотров оптимизированно (atomic DB update).
-     * Мы не загружаем entity в память; используем UPDATE ... = ... + 1.
+     * Инкремент просмотров без синхронного похода в БД.
+     * Просмотры копятся в ListingViewCounter и пишутся пачкой по расписанию (write-behind),
+     * поэтому горячие объявления не упираются в row lock. Несуществующие id отсеются при flush'е.
+     * <p>
+     * Параллельно зритель учитывается в HLL-скетче уникальных зрителей за день:
+     * для аутентифицированных — по userId, иначе по отпечатку клиента (ip + user-agent) из контроллера.
+     * И в поток trending — только опубликованные: карточку берём из кеша (страница объявления грузится
+     * до пинга просмотра), без неё или не в PUBLISHED просмотр в trending не идёт — несуществующие id
+     * и черновики не попадают в фид, а в БД на каждый просмотр не ходим.
      */
     @Override
-    @Transactional
-    public void incrementViews(UUID id) {
-        int updated = listingRepository.incrementViews(id);
-        if (updated == 0) {
-            // listing not found — throw NotFound to be explicit
-            throw new NotFoundException("Listing not found: " + id);
+    public void incrementViews(UUID id, String clientFingerprint) {
+        viewCounter.record(id);
+        String viewerKey = securityUtils.getCurrentUserId()
+                .map(userId -> "u:" + userId)
+                .orElseGet(() -> "c:" + clientFingerprint);
+        uniqueViewerTracker.record(id, viewerKey);
+        listingCache.peek(id)
+                .filter(card -> card.status() == ListingStatus.PUBLISHED)
+                .ifPresent(card -> trendingTracker.record(id, card.category()));
+    }
+
+    // ------------------- getTrending -------------------
+
+    /**
+     * Top-K объявлений по просмотрам за скользящее окно: счётчики из памяти, статус — по карточкам из кеша.
+     *
+     * @param category категория или null — общий фид
+     */
+    @Override
+    public List<TrendingListingDto> getTrending(String category, int limit) {
+        if (limit < 1 || limit > viewProperties.getTrendingMaxLimit()) {
+            throw new BadRequestException("limit must be between 1 and " + viewProperties.getTrendingMaxLimit());
+        }
+        String key = (category == null || category.isBlank()) ? null : category.trim();
+        // с запасом: снятые с публикации / удалённые за окно отсеиваем по текущей карточке
+        List<Map.Entry<UUID, Long>> top = trendingTracker.top(key, limit * 2);
+        Map<UUID, ListingResponseDto> cards = listingCache.getAll(top.stream().map(Map.Entry::getKey).toList(),
+                this::loadAllById);
+        return top.stream()
+                .filter(e -> cards.containsKey(e.getKey()) && cards.get(e.getKey()).status() == ListingStatus.PUBLISHED)
+                .limit(limit)
+                .map(e -> new TrendingListingDto(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    // ------------------- getLatest -------------------
+
+    /**
+     * Новые опубликованные объявления по категории (со всеми подкатегориями) и городу — из колец в памяти,
+     * без запросов к БД.
+     *
+     * @param category slug категории каталога или null — все категории
+     * @param city     город или null — все города
+     */
+    @Override
+    public List<LatestListingDto> getLatest(String category, String city, int limit) {
+        if (limit < 1 || limit > latestProperties.getCapacity()) {
+            throw new BadRequestException("limit must be between 1 and " + latestProperties.getCapacity());
+        }
+        String categoryKey = (category == null || category.isBlank()) ? null : category.trim();
+        String cityKey = (city == null || city.isBlank()) ? null : city.trim();
+        return latestListings.latest(categoryKey, cityKey, limit);
+    }
+
+    // ------------------- countByCategory -------------------
+
+    /**
+     * Число объявлений по категориям (меню категорий, админ-дашборды) — из ListingCounters, без count(*).
+     * Не-admin видит только PUBLISHED, как и в поиске.
+     */
+    @Override
+    public Map<String, Long> countByCategory(ListingStatus status) {
+        ListingStatus effective = status == null ? ListingStatus.PUBLISHED : status;
+        if (effective != ListingStatus.PUBLISHED && !securityUtils.isAdmin()) {
+            throw new ForbiddenException("Only published counts are public");
         }
+        return listingCounters.countByCategory(effective);
+    }
+
+    // ------------------- getStats -------------------
+
+    /**
+     * Статистика объявления для продавца (owner/admin): просмотры и уникальные зрители за последние N дней.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ListingStatsDto getStats(UUID id, int days) {
+        if (days < 1 || days > viewProperties.getStatsMaxDays()) {
+            throw new BadRequestException("days must be between 1 and " + viewProperties.getStatsMaxDays());
+        }
+        Listing listing = listingRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Listing not found: " + id));
+
+        UUID currentUser = securityUtils.getCurrentUserIdRequired();
+        if (isForbiddenToEdit(listing, currentUser)) {
+            throw new ForbiddenException("Not allowed to view listing statistics");
+        }
+
+        LocalDate to = LocalDate.now(clock);
+        UniqueViewerTracker.UniqueViewers viewers = uniqueViewerTracker.estimate(id, to.minusDays(days - 1L), to);
+        List<ListingStatsDto.DailyViewers> daily = viewers.daily().entrySet().stream()
+                .map(e -> new ListingStatsDto.DailyViewers(e.getKey(), e.getValue()))
+                .toList();
+        return new ListingStatsDto(id, Optional.ofNullable(listing.getViewsCount()).orElse(0L), viewers.total(), daily);
     }
 
 
@@ -329,12 +637,48 @@ public class ListingServiceImpl implements ListingService {
         return !securityUtils.isAdmin() && !Objects.equals(listing.getOwnerId(), userId);
     }
 
-    private void validateTitle(String title) {
-        if (title == null || title.isBlank()) throw new BadRequestException("title is required");
-        int len = title.trim().length();
-        if (len < MIN_TITLE_LENGTH || len > MAX_TITLE_LENGTH) {
-            throw new BadRequestException("title length must be between " + MIN_TITLE_LENGTH + " and " + MAX_TITLE_LENGTH);
+    private void validateAttributeFilters(ListingFilterDto filter) {
+        int count = filter.getAttributes().size() + filter.getAttributesAnyOf().size()
+                + filter.getAttributeMin().size() + filter.getAttributeMax().size();
+        if (count > MAX_ATTRIBUTE_FILTERS) {
+            throw new BadRequestException("too many attribute filters (max " + MAX_ATTRIBUTE_FILTERS + ")");
         }
+        for (String key : filter.getAttributes().keySet()) validator.validateAttributeKey(key);
+        for (String key : filter.getAttributesAnyOf().keySet()) validator.validateAttributeKey(key);
+
+        Set<String> rangeKeys = new HashSet<>(filter.getAttributeMin().keySet());
+        rangeKeys.addAll(filter.getAttributeMax().keySet());
+        for (String key : rangeKeys) {
+            validator.validateAttributeKey(key);
+            // если категория задана — range только по числовым атрибутам её схемы
+            if (filter.getCategory() != null && attributeSchemas.typeOf(filter.getCategory(), key)
+                    .filter(t -> t == AttributeType.NUMBER).isEmpty()) {
+                throw new BadRequestException("attribute '" + key + "' is not a numeric attribute of category " + filter.getCategory());
+            }
+        }
+    }
+
+    /**
+     * Фильтр по категории каталога охватывает всё её поддерево: category=electronics находит и phones, и laptops.
+     * Категории вне каталога (старые данные) ищутся точным совпадением.
+     */
+    private void resolveCategoryPath(ListingFilterDto filter) {
+        filter.setCategoryPath(null); // path выставляет только сервис
+        if (filter.getCategory() == null) return;
+        categoryCatalog.find(filter.getCategory().trim())
+                .ifPresent(node -> filter.setCategoryPath(node.path()));
+    }
+
+    private static <T> T track(Set<String> changed, String field, T oldValue, T newValue) {
+        if (!Objects.equals(oldValue, newValue)) changed.add(field);
+        return newValue;
+    }
+
+    private static boolean samePrice(Money a, Money b) {
+        if (a == null || b == null) return a == b;
+        boolean sameAmount = a.getAmount() == null ? b.getAmount() == null
+                : b.getAmount() != null && a.getAmount().compareTo(b.getAmount()) == 0;
+        return sameAmount && Objects.equals(a.getCurrency(), b.getCurrency());
     }
 
     private String trimOrNull(String s) {
@@ -0,0 +1,98 @@
+package org.vornex.listing.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.dto.ListingSyncDto;
+import org.vornex.listing.repository.ListingReadRepository;
+import org.vornex.listing.repository.ListingSyncJdbcRepository;
+import org.vornex.listing.repository.ListingSyncJdbcRepository.SyncEntry;
+import org.vornex.listing.service.ListingSyncService;
+import org.vornex.listing.sync.SyncToken;
+import org.vornex.listing.util.ListingSyncProperties;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ListingSyncServiceImpl implements ListingSyncService {
+
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final ListingSyncJdbcRepository syncRepository;
+    private final ListingReadRepository readRepository;
+    private final SecurityContextUtils securityUtils;
+    private final ListingSyncProperties props;
+    private final Clock clock;
+
+    /**
+     * Изменения объявлений текущего пользователя после токена: изменённые карточки и id удалённых.
+     * <p>
+     * Без токена — с начала. Токен-продолжение (hasMore) читает строго после позиции; итоговый токен —
+     * водяной знак на момент начала синхронизации (первой страницы), следующая перечитывает ещё overlap до него
+     * (клиент сверяет по version). Не "сейчас" последней страницы: строки транзакций, закоммиченных во время
+     * листания с updated_at позади курсора, иначе потерялись бы, если листание дольше overlap.
+     * Водяной знак старше tombstoneTtl означает, что часть надгробий уже удалена: отвечаем reset
+     * и синхронизацией с нуля.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ListingSyncDto sync(String token, int limit) {
+        UUID ownerId = securityUtils.getCurrentUserIdRequired();
+        if (limit < 1 || limit > props.getMaxLimit()) {
+            throw new BadRequestException("limit must be between 1 and " + props.getMaxLimit());
+        }
+        Instant now = clock.instant();
+
+        SyncToken from = token == null || token.isBlank() ? null : SyncToken.decode(token);
+        boolean reset = from != null && !from.exact() && from.ts().isBefore(now.minus(props.getTombstoneTtl()));
+        if (reset) from = null;
+
+        Instant afterTs = Instant.EPOCH;
+        UUID afterId = MIN_ID;
+        Instant started = now;
+        if (from != null && from.exact()) {
+            afterTs = from.ts();
+            afterId = from.id();
+            started = from.started();
+        } else if (from != null) {
+            afterTs = from.ts().minus(props.getOverlap());
+        }
+
+        List<SyncEntry> entries = syncRepository.findChanges(ownerId, afterTs, afterId, limit + 1);
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) entries = entries.subList(0, limit);
+
+        List<UUID> changedIds = new ArrayList<>();
+        List<UUID> deleted = new ArrayList<>();
+        for (SyncEntry e : entries) {
+            (e.deleted() ? deleted : changedIds).add(e.id());
+        }
+        // удалённое между запросами просто выпадет здесь и придёт надгробием в следующей синхронизации
+        Map<UUID, ListingResponseDto> byId = readRepository.findAllById(changedIds).stream()
+                .collect(Collectors.toMap(ListingResponseDto::id, Function.identity()));
+        List<ListingResponseDto> changed = changedIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        SyncToken next;
+        if (hasMore) {
+            SyncEntry last = entries.get(entries.size() - 1);
+            next = new SyncToken(last.ts(), last.id(), true, started);
+        } else {
+            // начало синхронизации, а не ts последнего изменения: иначе токен редко меняющегося продавца
+            // устаревал бы до reset
+            next = SyncToken.watermark(started);
+        }
+        return new ListingSyncDto(reset, changed, deleted, next.encode(), hasMore);
+    }
+}
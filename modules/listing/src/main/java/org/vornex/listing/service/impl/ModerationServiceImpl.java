@@ -0,0 +1,281 @@
+package org.vornex.listing.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.BadRequestException;
+import org.vornex.exception.ConflictException;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.exception.NotFoundException;
+import org.vornex.listing.dto.ModerationDecisionDto;
+import org.vornex.listing.dto.ModerationTaskDto;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.enums.ModerationDecision;
+import org.vornex.listing.enums.ModerationStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.moderation.CheckResult;
+import org.vornex.listing.moderation.ModerationCheck;
+import org.vornex.listing.repository.ListingRepository;
+import org.vornex.listing.repository.ModerationQueueRepository;
+import org.vornex.listing.repository.ModerationQueueRepository.AutoTask;
+import org.vornex.listing.repository.ModerationQueueRepository.ManualTask;
+import org.vornex.listing.repository.ModerationQueueRepository.TaskLock;
+import org.vornex.listing.service.ModerationService;
+import org.vornex.listing.util.ModerationProperties;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Модерация объявлений через очередь moderation_queue.
+ * <p>
+ * - publish только ставит задачу (один INSERT) — задержка для продавца не зависит от размера очереди.
+ * - Автопроверки (ModerationCheck) разбирает ModerationWorker: пачка берётся SELECT ... FOR UPDATE SKIP LOCKED
+ * с арендой (available_at + autoLease), каждая задача проверяется и закрывается в своей транзакции.
+ * Потоки и инстансы не мешают друг другу, а при падении воркера задачи достаются следующему после аренды.
+ * - Итог: PASS — публикуем (APPROVED), REJECT — отклоняем с причиной, ESCALATE — задача уходит модераторам.
+ * Исключение в проверке — повтор с backoff, после maxAttempts — тоже к модератору.
+ * - Модераторы (admin) берут задачи пачками claim(limit): самые старые, свободные или с истёкшей арендой;
+ * не больше maxAssignedPerModerator на человека, чтобы один модератор не выгреб очередь.
+ */
+@Service
+@Slf4j
+public class ModerationServiceImpl implements ModerationService {
+
+    private static final int MAX_CLAIM = 50;
+
+    private final ModerationQueueRepository queueRepository;
+    private final ListingRepository listingRepository;
+    private final List<ModerationCheck> checks;
+    private final SecurityContextUtils securityUtils;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ModerationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final TransactionTemplate tx;
+
+    public ModerationServiceImpl(ModerationQueueRepository queueRepository,
+                                 ListingRepository listingRepository,
+                                 List<ModerationCheck> checks,
+                                 SecurityContextUtils securityUtils,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ModerationProperties properties,
+                                 MeterRegistry meterRegistry,
+                                 Clock clock,
+                                 PlatformTransactionManager transactionManager) {
+        this.queueRepository = queueRepository;
+        this.listingRepository = listingRepository;
+        this.checks = List.copyOf(checks);
+        this.securityUtils = securityUtils;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void enqueue(UUID listingId) {
+        queueRepository.enqueue(listingId, clock.instant());
+    }
+
+    // ------------------- автопроверки -------------------
+
+    /**
+     * Одна пачка автопроверок: claim пачки — короткой транзакцией с арендой (available_at сдвигается
+     * на autoLease), затем каждая задача — в своей транзакции. Конфликт версии или ошибка БД
+     * откатывает только свою задачу: она вернётся в очередь после аренды, остальные решения пачки сохраняются.
+     */
+    @Override
+    public int processAutoBatch() {
+        Instant now = clock.instant();
+        List<AutoTask> tasks = tx.execute(status ->
+                queueRepository.claimAuto(now, now.plus(properties.getAutoLease()), properties.getBatchSize()));
+        if (tasks == null || tasks.isEmpty()) return 0;
+
+        for (AutoTask task : tasks) {
+            try {
+                tx.executeWithoutResult(status -> processAuto(task));
+            } catch (RuntimeException e) {
+                log.warn("Moderation task for listing {} failed, retry after lease: {}", task.listingId(), e.getMessage());
+                meterRegistry.counter("listing.moderation.task.failures").increment();
+            }
+        }
+        return tasks.size();
+    }
+
+    private void processAuto(AutoTask task) {
+        // задачу могли пересоздать правкой объявления или уже решить — работаем только со своей AUTO-задачей
+        Optional<TaskLock> lock = queueRepository.lock(task.listingId());
+        if (lock.isEmpty() || !ModerationQueueRepository.STAGE_AUTO.equals(lock.get().stage())) return;
+
+        Listing listing = listingRepository.findById(task.listingId()).orElse(null);
+        if (listing == null || listing.getModerationStatus() != ModerationStatus.PENDING) {
+            queueRepository.remove(task.listingId()); // уже решено или удалено — задача устарела
+            return;
+        }
+        processAuto(task, listing, clock.instant());
+    }
+
+    private void processAuto(AutoTask task, Listing listing, Instant now) {
+        CheckResult result;
+        try {
+            result = runChecks(listing);
+        } catch (RuntimeException e) {
+            int attempts = task.attempts() + 1;
+            log.warn("Moderation checks failed for listing {} (attempt {}): {}", listing.getId(), attempts, e.getMessage(), e);
+            if (attempts >= properties.getMaxAttempts()) {
+                queueRepository.escalate(listing.getId(), "Автопроверки не выполнены: " + e.getMessage());
+            } else {
+                queueRepository.retryLater(listing.getId(), now.plus(properties.getRetryBackoff().multipliedBy(attempts)));
+            }
+            return;
+        }
+
+        switch (result.verdict()) {
+            case PASS -> {
+                approve(listing, now);
+                queueRepository.remove(listing.getId());
+                countDecision("auto", ModerationDecision.APPROVE.name());
+            }
+            case REJECT -> {
+                reject(listing, result.reason());
+                queueRepository.remove(listing.getId());
+                countDecision("auto", ModerationDecision.REJECT.name());
+            }
+            case ESCALATE -> {
+                queueRepository.escalate(listing.getId(), result.reason());
+                countDecision("auto", "ESCALATE");
+            }
+        }
+    }
+
+    /**
+     * Все проверки по порядку; REJECT сразу прерывает, ESCALATE копит причины (модератору полезны все).
+     */
+    private CheckResult runChecks(Listing listing) {
+        List<String> escalations = new ArrayList<>();
+        for (ModerationCheck check : checks) {
+            CheckResult result = check.check(listing);
+            switch (result.verdict()) {
+                case REJECT -> {
+                    return result;
+                }
+                case ESCALATE -> escalations.add(check.name() + ": " + result.reason());
+                case PASS -> {
+                }
+            }
+        }
+        return escalations.isEmpty() ? CheckResult.pass() : CheckResult.escalate(String.join("; ", escalations));
+    }
+
+    // ------------------- ручная модерация -------------------
+
+    @Override
+    public List<ModerationTaskDto> claim(int limit) {
+        UUID moderatorId = requireModerator();
+        if (limit < 1 || limit > MAX_CLAIM) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_CLAIM);
+        }
+        return tx.execute(status -> {
+            Instant now = clock.instant();
+            int free = properties.getMaxAssignedPerModerator() - queueRepository.countActiveAssignments(moderatorId, now);
+            int take = Math.min(limit, free);
+            if (take > 0) {
+                queueRepository.assign(moderatorId, now, now.plus(properties.getReviewLease()), take);
+            }
+            return toDtos(queueRepository.findAssigned(moderatorId, now));
+        });
+    }
+
+    @Override
+    public List<ModerationTaskDto> assigned() {
+        UUID moderatorId = requireModerator();
+        return toDtos(queueRepository.findAssigned(moderatorId, clock.instant()));
+    }
+
+    /**
+     * Решение по задаче, назначенной текущему модератору. Строка очереди блокируется (FOR UPDATE),
+     * поэтому решение и истечение аренды с переназначением другому не пересекаются.
+     */
+    @Override
+    public void decide(UUID listingId, ModerationDecisionDto dto) {
+        UUID moderatorId = requireModerator();
+        if (dto == null || dto.decision() == null) throw new BadRequestException("decision is required");
+        String reason = dto.reason() == null ? null : dto.reason().trim();
+        if (dto.decision() == ModerationDecision.REJECT && (reason == null || reason.isEmpty())) {
+            throw new BadRequestException("reason is required to reject");
+        }
+
+        tx.executeWithoutResult(status -> {
+            Instant now = clock.instant();
+            TaskLock task = queueRepository.lock(listingId)
+                    .orElseThrow(() -> new NotFoundException("Moderation task not found: " + listingId));
+            boolean ownedByMe = ModerationQueueRepository.STAGE_MANUAL.equals(task.stage())
+                    && moderatorId.equals(task.assigneeId())
+                    && task.leaseUntil() != null && task.leaseUntil().isAfter(now);
+            if (!ownedByMe) {
+                throw new ConflictException("Moderation task is not assigned to you, claim it first: " + listingId);
+            }
+
+            Listing listing = listingRepository.findById(listingId)
+                    .orElseThrow(() -> new NotFoundException("Listing not found: " + listingId));
+            if (dto.decision() == ModerationDecision.APPROVE) {
+                approve(listing, now);
+            } else {
+                reject(listing, reason);
+            }
+            queueRepository.remove(listingId);
+            countDecision("manual", dto.decision().name());
+        });
+    }
+
+    // ------------------- helpers -------------------
+
+    private void approve(Listing listing, Instant now) {
+        ListingStatus previousStatus = listing.getStatus();
+        listing.setStatus(ListingStatus.PUBLISHED);
+        // только первая публикация: повторное одобрение после правки не поднимает объявление в NEWEST,
+        // ленте новых и уведомлениях — иначе правка была бы бесплатным "поднятием"
+        if (listing.getPublishedAt() == null) listing.setPublishedAt(now);
+        listing.setModerationStatus(ModerationStatus.APPROVED);
+        listing.setModerationRejectionReason(null);
+        listing = listingRepository.saveAndFlush(listing); // flush — в событие уходит итоговая version
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing, ListingChangeType.PUBLISHED, Set.of("status", "moderationStatus"),
+                previousStatus, listing.getCategory()));
+    }
+
+    private void reject(Listing listing, String reason) {
+        listing.setModerationStatus(ModerationStatus.REJECTED);
+        listing.setModerationRejectionReason(reason);
+        listing = listingRepository.saveAndFlush(listing);
+        eventPublisher.publishEvent(ListingChangedEvent.of(listing, ListingChangeType.UPDATED,
+                Set.of("moderationStatus", "moderationRejectionReason")));
+    }
+
+    private void countDecision(String source, String decision) {
+        meterRegistry.counter("listing.moderation.decisions", "source", source, "decision", decision).increment();
+    }
+
+    private UUID requireModerator() {
+        UUID userId = securityUtils.getCurrentUserIdRequired();
+        if (!securityUtils.isAdmin()) {
+            throw new ForbiddenException("Moderation is allowed for admins only");
+        }
+        return userId;
+    }
+
+    private static List<ModerationTaskDto> toDtos(List<ManualTask> tasks) {
+        return tasks.stream()
+                .map(t -> new ModerationTaskDto(t.listingId(), t.title(), t.category(), t.ownerId(),
+                        t.enqueuedAt(), t.escalationReason(), t.leaseUntil()))
+                .toList();
+    }
+}
@@ -0,0 +1,131 @@
+package org.vornex.listing.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.BadRequestException;
+import org.vornex.exception.ConflictException;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.exception.NotFoundException;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.category.CategoryNode;
+import org.vornex.listing.dto.CreateSavedSearchDto;
+import org.vornex.listing.dto.SavedSearchAlertDto;
+import org.vornex.listing.dto.SavedSearchDto;
+import org.vornex.listing.repository.SavedSearchJdbcRepository;
+import org.vornex.listing.repository.SavedSearchJdbcRepository.NewSavedSearch;
+import org.vornex.listing.savedsearch.SearchTerms;
+import org.vornex.listing.service.SavedSearchService;
+import org.vornex.listing.util.SavedSearchProperties;
+import org.vornex.listing.validation.ListingValidator;
+import org.vornex.persistence.UuidV7Generator;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    private static final int MAX_QUERY_LENGTH = 255;
+    private static final int MAX_TERM_LENGTH = 100;
+    private static final int MAX_ALERTS_LIMIT = 100;
+
+    private final SavedSearchJdbcRepository repository;
+    private final CategoryCatalog categoryCatalog;
+    private final ListingValidator validator;
+    private final SecurityContextUtils securityUtils;
+    private final SavedSearchProperties props;
+    private final Clock clock;
+
+    /**
+     * Новый сохранённый поиск текущего пользователя. Нужны слова запроса или категория:
+     * поиск "всё подряд" уведомлял бы о каждом объявлении.
+     */
+    @Override
+    @Transactional
+    public SavedSearchDto create(CreateSavedSearchDto dto) {
+        UUID ownerId = securityUtils.getCurrentUserIdRequired();
+        if (dto == null) throw new BadRequestException("body required");
+
+        String query = dto.query() == null || dto.query().isBlank() ? null : dto.query().trim();
+        if (query != null && query.length() > MAX_QUERY_LENGTH) {
+            throw new BadRequestException("query is too long (max " + MAX_QUERY_LENGTH + ")");
+        }
+        Set<String> terms = SearchTerms.tokenize(query);
+        if (terms.size() > props.getMaxTerms()) {
+            throw new BadRequestException("too many words in query (max " + props.getMaxTerms() + ")");
+        }
+        if (terms.stream().anyMatch(t -> t.length() > MAX_TERM_LENGTH)) {
+            throw new BadRequestException("query word is too long (max " + MAX_TERM_LENGTH + ")");
+        }
+
+        CategoryNode category = null;
+        if (dto.category() != null) {
+            category = categoryCatalog.find(dto.category())
+                    .orElseThrow(() -> new BadRequestException("Unknown category: " + dto.category()));
+        }
+        if (terms.isEmpty() && category == null) {
+            throw new BadRequestException("query or category is required");
+        }
+        validatePrice(dto.minPrice(), dto.maxPrice());
+
+        if (repository.countByOwner(ownerId) >= props.getMaxPerUser()) {
+            throw new ConflictException("Saved searches limit reached (" + props.getMaxPerUser() + ")");
+        }
+
+        NewSavedSearch saved = new NewSavedSearch(UuidV7Generator.next(), ownerId, query,
+                category == null ? null : category.slug(), category == null ? null : category.path(),
+                validator.normalizeCity(dto.city()), dto.minPrice(), dto.maxPrice(), terms, clock.instant());
+        repository.insert(saved);
+        return new SavedSearchDto(saved.id(), saved.query(), saved.category(), saved.city(),
+                saved.minPrice(), saved.maxPrice(), saved.createdAt());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SavedSearchDto> mine() {
+        return repository.findByOwner(securityUtils.getCurrentUserIdRequired());
+    }
+
+    /**
+     * Удаляет поиск (владелец или admin) вместе с его уведомлениями (on delete cascade).
+     */
+    @Override
+    @Transactional
+    public void delete(UUID id) {
+        UUID ownerId = repository.findOwnerId(id)
+                .orElseThrow(() -> new NotFoundException("Saved search not found: " + id));
+        if (!ownerId.equals(securityUtils.getCurrentUserIdRequired()) && !securityUtils.isAdmin()) {
+            throw new ForbiddenException("Not your saved search");
+        }
+        repository.delete(id);
+    }
+
+    /**
+     * Уведомления текущего пользователя, новые первыми; before — alertedAt последнего из предыдущей страницы.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<SavedSearchAlertDto> alerts(Instant before, int limit) {
+        if (limit < 1 || limit > MAX_ALERTS_LIMIT) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_ALERTS_LIMIT);
+        }
+        return repository.findAlerts(securityUtils.getCurrentUserIdRequired(),
+                before == null ? clock.instant().plusSeconds(1) : before, limit);
+    }
+
+    private static void validatePrice(BigDecimal min, BigDecimal max) {
+        if ((min != null && min.signum() < 0) || (max != null && max.signum() < 0)) {
+            throw new BadRequestException("price must be non-negative");
+        }
+        if (min != null && max != null && min.compareTo(max) > 0) {
+            throw new BadRequestException("minPrice must not exceed maxPrice");
+        }
+    }
+}
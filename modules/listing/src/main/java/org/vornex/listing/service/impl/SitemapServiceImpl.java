@@ -0,0 +1,49 @@
+package org.vornex.listing.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.vornex.exception.NotFoundException;
+import org.vornex.listing.repository.SitemapJdbcRepository;
+import org.vornex.listing.repository.SitemapJdbcRepository.IndexEntry;
+import org.vornex.listing.sitemap.SitemapWriter;
+import org.vornex.listing.service.SitemapService;
+import org.vornex.listing.util.SitemapProperties;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Отдача sitemap: шарды — готовые gzip-файлы из sitemap_shards (генерирует SitemapGenerator),
+ * index собирается на запрос из списка шардов (сотни строк).
+ */
+@Service
+@RequiredArgsConstructor
+public class SitemapServiceImpl implements SitemapService {
+
+    private final SitemapJdbcRepository repository;
+    private final SitemapProperties props;
+
+    @Override
+    public byte[] index() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SitemapWriter writer = SitemapWriter.index(out)) {
+            for (IndexEntry entry : repository.findIndexEntries()) {
+                writer.entry(props.getSiteUrl() + props.getFilesPath() + fileName(entry.id()), entry.generatedAt());
+            }
+            writer.finish();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to write sitemap index", e);
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] shard(int shardId) {
+        return repository.findContent(shardId)
+                .orElseThrow(() -> new NotFoundException("Sitemap not found: " + shardId));
+    }
+
+    private static String fileName(int shardId) {
+        return "listings-" + shardId + ".xml.gz";
+    }
+}
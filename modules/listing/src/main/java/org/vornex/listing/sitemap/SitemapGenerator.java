@@ -0,0 +1,166 @@
+package org.vornex.listing.sitemap;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vornex.listing.repository.SitemapJdbcRepository;
+import org.vornex.listing.repository.SitemapJdbcRepository.Shard;
+import org.vornex.listing.repository.SitemapJdbcRepository.ShardStats;
+import org.vornex.listing.util.SitemapProperties;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Инкрементальная генерация sitemap-шардов по опубликованным объявлениям.
+ * <p>
+ * - Шард — диапазон id. Новое объявление может попасть в любой шард: старые id — UUIDv4, разбросаны
+ * по всему пространству; UUIDv7 ложатся в узкую полосу текущего времени, не обязательно в последний шард.
+ * - Проход сверяет только шарды, в чьи диапазоны попали изменённые или удалённые с прошлого прохода объявления
+ * (по idx_listing_updated_at и listing_tombstones); раз в fullCheckInterval и после старта — все шарды.
+ * Сверка — (count, max(updated_at)) диапазона против сохранённых при генерации, index-only scan
+ * по idx_listing_status_id; перегенерируются только разошедшиеся шарды. Переполненный шард (> maxUrlsPerFile)
+ * делится по splitTargetUrls-му id.
+ * - Файл шарда пишется потоково: курсор -> StAX -> gzip; в памяти только сжатый результат (~1 МБ на 50k URL),
+ * он же сохраняется в sitemap_shards.content — файлы одинаково отдаёт любой инстанс.
+ * - Транзакция — на шард: короткие транзакции не держат снимок и курсор весь проход. Каждая берёт advisory lock
+ * и перечитывает шард с границами; занято — проход останавливается, остаток сверит следующий.
+ */
+@Component
+@Slf4j
+public class SitemapGenerator {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    // запас на транзакции, закоммитившие updated_at / deleted_at до начала прошлого прохода
+    private static final Duration CHANGES_OVERLAP = Duration.ofMinutes(1);
+
+    private final SitemapJdbcRepository repository;
+    private final SitemapProperties props;
+    private final Clock clock;
+    private final TransactionTemplate tx;
+    private Instant checkedAt;     // под synchronized run(): начало последнего завершённого прохода
+    private Instant fullCheckedAt; // начало последнего полного прохода
+
+    public SitemapGenerator(SitemapJdbcRepository repository, SitemapProperties props, Clock clock,
+                            PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.props = props;
+        this.clock = clock;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.listings.sitemap.interval-ms:3600000}",
+            fixedDelayString = "${app.listings.sitemap.interval-ms:3600000}")
+    public void scheduledRun() {
+        try {
+            run();
+        } catch (RuntimeException e) {
+            log.warn("Sitemap generation failed, will retry on next run: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return число перегенерированных шардов (-1 — проход уже идёт на другом инстансе)
+     */
+    public synchronized int run() {
+        long started = System.nanoTime();
+        Instant passStarted = clock.instant();
+        boolean full = checkedAt == null
+                || !passStarted.isBefore(fullCheckedAt.plus(props.getFullCheckInterval()));
+        Deque<Integer> queue = tx.execute(status -> {
+            if (!repository.tryLock()) return null;
+            List<Integer> shards = repository.findShardIds();
+            if (shards.isEmpty()) shards = List.of(repository.insertShard(null).id());
+            return new ArrayDeque<>(full ? shards : repository.findShardsChangedSince(checkedAt.minus(CHANGES_OVERLAP)));
+        });
+        if (queue == null) return -1;
+
+        int checked = 0;
+        int regenerated = 0;
+        while (!queue.isEmpty()) {
+            int shardId = queue.poll();
+            Boolean done = tx.execute(status -> repository.tryLock() ? process(shardId, queue) : null);
+            if (done == null) {
+                log.info("Sitemap: run interrupted by another instance after {} shards", checked);
+                return regenerated;
+            }
+            checked++;
+            if (done) regenerated++;
+        }
+        checkedAt = passStarted;
+        if (full) fullCheckedAt = passStarted;
+        log.info("Sitemap: {} of {} checked shards regenerated ({} pass) in {} ms",
+                regenerated, checked, full ? "full" : "incremental", (System.nanoTime() - started) / 1_000_000);
+        return regenerated;
+    }
+
+    // шард и его нижняя граница перечитываются: между транзакциями их мог поменять проход на другом инстансе
+    private boolean process(int shardId, Deque<Integer> queue) {
+        Shard shard = repository.findShard(shardId).orElse(null);
+        if (shard == null) return false;
+        UUID lower = repository.lowerBound(shard.upperId());
+        ShardStats stats = repository.stats(lower, shard.upperId());
+        while (stats.urlCount() > props.getMaxUrlsPerFile()) {
+            // хвост диапазона уходит в новый шард с прежней верхней границей — он сгенерируется следующим
+            UUID boundary = repository.idAt(lower, shard.upperId(), props.getSplitTargetUrls());
+            repository.updateUpper(shard.id(), boundary);
+            queue.addFirst(repository.insertShard(shard.upperId()).id());
+            shard = new Shard(shard.id(), boundary, shard.urlCount(), shard.maxUpdatedAt(), shard.generatedAt());
+            stats = repository.stats(lower, boundary);
+        }
+        if (shard.generatedAt() != null && stats.urlCount() == shard.urlCount()
+                && Objects.equals(stats.maxUpdatedAt(), shard.maxUpdatedAt())) {
+            return false;
+        }
+        generate(shard, lower);
+        return true;
+    }
+
+    private void generate(Shard shard, UUID lower) {
+        String prefix = props.getSiteUrl() + props.getListingPath();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        int[] urls = {0};
+        Instant[] maxUpdatedAt = {null};
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer, GZIP_BUFFER_SIZE);
+             SitemapWriter writer = SitemapWriter.urlset(gzip)) {
+            repository.streamUrls(lower, shard.upperId(), props.getMaxUrlsPerFile(), rs -> {
+                Instant updatedAt = toInstant(rs.getTimestamp("updated_at"));
+                try {
+                    writer.entry(prefix + rs.getString("id"), updatedAt);
+                } catch (XMLStreamException e) {
+                    throw new IllegalStateException("Failed to write sitemap entry", e);
+                }
+                urls[0]++;
+                if (updatedAt != null && (maxUpdatedAt[0] == null || updatedAt.isAfter(maxUpdatedAt[0]))) {
+                    maxUpdatedAt[0] = updatedAt;
+                }
+            });
+            writer.finish();
+            gzip.finish();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Failed to write sitemap shard " + shard.id(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // сохраняем то, что реально записано: следующий проход сравнит с этим состоянием
+        repository.saveContent(shard.id(), buffer.toByteArray(), urls[0], maxUpdatedAt[0], clock.instant());
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+}
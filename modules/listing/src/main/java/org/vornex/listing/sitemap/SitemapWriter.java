@@ -0,0 +1,73 @@
+package org.vornex.listing.sitemap;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Потоковая запись sitemap (sitemaps.org 0.9) через StAX: элементы уходят в поток по мере записи,
+ * документ целиком в памяти не строится. Экранирование &lt;loc&gt; делает XMLStreamWriter.
+ * <p>
+ * Один экземпляр — один документ: start -> entry* -> finish.
+ */
+public final class SitemapWriter implements AutoCloseable {
+
+    private static final String NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newFactory();
+
+    private final XMLStreamWriter xml;
+    private final String entryElement;
+
+    private SitemapWriter(OutputStream out, String rootElement, String entryElement) throws XMLStreamException {
+        this.xml = FACTORY.createXMLStreamWriter(out, StandardCharsets.UTF_8.name());
+        this.entryElement = entryElement;
+        xml.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+        xml.writeStartElement(rootElement);
+        xml.writeDefaultNamespace(NS);
+    }
+
+    /**
+     * &lt;urlset&gt; — страницы объявлений одного шарда.
+     */
+    public static SitemapWriter urlset(OutputStream out) throws XMLStreamException {
+        return new SitemapWriter(out, "urlset", "url");
+    }
+
+    /**
+     * &lt;sitemapindex&gt; — список файлов шардов.
+     */
+    public static SitemapWriter index(OutputStream out) throws XMLStreamException {
+        return new SitemapWriter(out, "sitemapindex", "sitemap");
+    }
+
+    public void entry(String loc, Instant lastmod) throws XMLStreamException {
+        xml.writeStartElement(entryElement);
+        xml.writeStartElement("loc");
+        xml.writeCharacters(loc);
+        xml.writeEndElement();
+        if (lastmod != null) {
+            xml.writeStartElement("lastmod");
+            xml.writeCharacters(lastmod.truncatedTo(ChronoUnit.SECONDS).toString()); // W3C Datetime, UTC
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    /**
+     * Закрывает корневой элемент и сбрасывает буфер; сам поток не закрывает.
+     */
+    public void finish() throws XMLStreamException {
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        xml.close();
+    }
+}
@@ -0,0 +1,53 @@
+package org.vornex.listing.sync;
+
+import org.vornex.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Курсор синхронизации, выданный сервером: позиция (ts, id) в порядке (updated_at, id).
+ * <p>
+ * exact = true — продолжение страниц одной синхронизации: следующая страница строго после позиции.
+ * exact = false — водяной знак законченной синхронизации: следующая начнётся на overlap раньше ts
+ * (см. ListingSyncProperties.overlap), клиент сверяет повторы по version.
+ * started — начало синхронизации (первой страницы): продолжения несут его до последней страницы,
+ * и он же становится водяным знаком. У водяного знака started = ts.
+ * Для клиента токен непрозрачен: base64url("v2|e|&lt;micros&gt;|&lt;id&gt;|&lt;started micros&gt;").
+ */
+public record SyncToken(Instant ts, UUID id, boolean exact, Instant started) {
+
+    private static final String VERSION = "v2";
+
+    public static SyncToken watermark(Instant started) {
+        return new SyncToken(started, new UUID(0L, 0L), false, started);
+    }
+
+    public String encode() {
+        String raw = VERSION + "|" + (exact ? "e" : "w") + "|" + micros(ts) + "|" + id + "|" + micros(started);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SyncToken decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 5 || !VERSION.equals(parts[0]) || !(parts[1].equals("e") || parts[1].equals("w"))) {
+                throw new BadRequestException("Invalid sync token");
+            }
+            return new SyncToken(fromMicros(parts[2]), UUID.fromString(parts[3]), parts[1].equals("e"), fromMicros(parts[4]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid sync token");
+        }
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static Instant fromMicros(String value) {
+        return Instant.EPOCH.plus(Long.parseLong(value), ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,30 @@
+package org.vornex.listing.sync;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.vornex.listing.repository.ListingSyncJdbcRepository;
+import org.vornex.listing.util.ListingSyncProperties;
+
+import java.time.Clock;
+
+/**
+ * Удаляет надгробия старше tombstoneTtl. Клиент с более старым токеном получит reset (см. ListingSyncServiceImpl).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TombstonePruner {
+
+    private final ListingSyncJdbcRepository syncRepository;
+    private final ListingSyncProperties props;
+    private final Clock clock;
+
+    @Scheduled(initialDelayString = "${app.listings.sync.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${app.listings.sync.cleanup-interval-ms:3600000}")
+    public void prune() {
+        int deleted = syncRepository.deleteTombstonesBefore(clock.instant().minus(props.getTombstoneTtl()));
+        if (deleted > 0) log.debug("Deleted {} expired listing tombstones", deleted);
+    }
+}
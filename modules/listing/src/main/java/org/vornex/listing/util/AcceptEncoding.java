@@ -0,0 +1,48 @@
+package org.vornex.listing.util;
+
+import java.util.Locale;
+
+/**
+ * Разбор Accept-Encoding с q-значениями (RFC 9110, 12.5.3).
+ */
+public final class AcceptEncoding {
+
+    private AcceptEncoding() {
+    }
+
+    /**
+     * gzip допустим, если он (или x-gzip) указан с q > 0, либо не указан, а "*" — с q > 0.
+     * "gzip;q=0" — явный отказ, даже при "*".
+     */
+    public static boolean acceptsGzip(String header) {
+        if (header == null || header.isBlank()) return false;
+        Double gzip = null;
+        Double any = null;
+        for (String part : header.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = quality(params);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = gzip == null ? q : Math.max(gzip, q);
+            } else if (coding.equals("*")) {
+                any = q;
+            }
+        }
+        if (gzip != null) return gzip > 0;
+        return any != null && any > 0;
+    }
+
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.length() > 2 && (param.charAt(0) == 'q' || param.charAt(0) == 'Q') && param.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0; // битый q — считаем кодировку неприемлемой
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,22 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.currency")
+public class CurrencyProperties {
+    private String base = "RUB";                          // валюта listings.price_base (фильтры и сортировка по цене)
+    private long reloadIntervalMs = 300_000;              // кеш курсов: подтягивает изменения с других инстансов
+    private long recomputeIntervalMs = 60_000;
+    private int recomputeBatchSize = 5_000;               // строк listings на один UPDATE пересчёта
+    // после смены курса пересчёт повторяется, пока все инстансы не перечитают кеш (> reloadInterval):
+    // объявления, записанные по старому курсу из кеша, тоже будут исправлены
+    private Duration settleWindow = Duration.ofMinutes(6);
+}
@@ -0,0 +1,15 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.latest")
+public class LatestListingsProperties {
+    private int capacity = 50;                 // карточек в кольце на (категория, город); он же максимальный limit
+    private long rebuildIntervalMs = 300_000;  // полная пересборка из БД: публикации с других инстансов
+}
@@ -0,0 +1,17 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.cache")
+public class ListingCacheProperties {
+    private long maxSize = 50_000;                           // кол-во карточек в памяти (W-TinyLFU вытесняет редкие)
+    private Duration expireAfterWrite = Duration.ofMinutes(10); // страховка: viewsCount и т.п. не висят вечно
+}
@@ -0,0 +1,17 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.counters")
+public class ListingCounterProperties {
+    private Duration cacheTtl = Duration.ofSeconds(30);   // изменения с других инстансов видны не позже
+    private long reconcileIntervalMs = 3_600_000;         // сверка с count(*) по listings
+}
@@ -0,0 +1,54 @@
+package org.vornex.listing.util;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Строгие ETag'и карточки объявления из id + Listing.version: "{id}-{version}".
+ * <p>
+ * Версия растёт при любом изменении карточки (поля, набор attachments — его изменения поднимают версию явно
+ * через ListingRepository.incrementVersion), поэтому ETag можно сравнивать без загрузки и сериализации самой карточки.
+ */
+public final class ListingETags {
+
+    private ListingETags() {
+    }
+
+    public static String of(UUID id, long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    /**
+     * If-None-Match: список тегов через запятую или "*". Сравнение слабое (W/ игнорируется), как требует RFC 9110.
+     */
+    public static boolean noneMatchHits(String ifNoneMatch, String currentETag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            String t = tag.trim();
+            if (t.equals("*")) return true;
+            if (t.startsWith("W/")) t = t.substring(2);
+            if (t.equals(currentETag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Версия из If-Match (один строгий тег этого объявления).
+     *
+     * @return empty для "*" (любая версия)
+     * @throws IllegalArgumentException если тег слабый, чужой или не разбирается
+     */
+    public static Optional<Long> versionFromIfMatch(UUID id, String ifMatch) {
+        String t = ifMatch.trim();
+        if (t.equals("*")) return Optional.empty();
+        String prefix = "\"" + id + "-";
+        if (!t.startsWith(prefix) || !t.endsWith("\"") || t.length() <= prefix.length() + 1) {
+            throw new IllegalArgumentException("If-Match does not match listing " + id);
+        }
+        try {
+            return Optional.of(Long.parseLong(t.substring(prefix.length(), t.length() - 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed If-Match: " + ifMatch, e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.export")
+public class ListingExportProperties {
+    private int fetchSize = 1000;   // строк, которые драйвер держит в памяти за один round-trip курсора
+}
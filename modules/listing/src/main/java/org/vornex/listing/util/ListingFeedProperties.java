@@ -0,0 +1,20 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.feed")
+public class ListingFeedProperties {
+    private int bufferSize = 10_000;                        // событий для replay по Last-Event-ID
+    private int maxSubscribers = 8_000;                     // SSE держит соединение: ниже maxConnections Tomcat (8192)
+    private int maxListingIds = 100;                        // фильтр ids в одной подписке
+    private Duration emitterTimeout = Duration.ofMinutes(30); // потом клиент переподключается с Last-Event-ID
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
@@ -0,0 +1,16 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.import")
+public class ListingImportProperties {
+    private int batchSize = 500;    // строк в одной транзакции / JDBC batch
+    private int maxErrors = 100;    // сколько ошибок по строкам возвращаем в отчёте
+    private int maxRowChars = 100_000; // строка NDJSON длиннее — ошибка строки, без буферизации в память
+}
@@ -0,0 +1,21 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.sync")
+public class ListingSyncProperties {
+    private int maxLimit = 1000;
+    // updated_at проставляется при flush, а виден после коммита: следующая синхронизация перечитывает
+    // последние overlap — чтобы не потерять строки долгих транзакций и расхождение часов инстансов
+    private Duration overlap = Duration.ofMinutes(1);
+    private Duration tombstoneTtl = Duration.ofDays(90);     // токен старше — полная пересинхронизация
+    private long cleanupIntervalMs = 3_600_000;
+}
@@ -0,0 +1,26 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.views")
+public class ListingViewProperties {
+    private long flushIntervalMs = 5_000;       // окно потери при падении процесса
+    private int flushBatchSize = 500;           // строк в одном UPDATE ... FROM (VALUES ...)
+    private int maxPendingListings = 200_000;   // защита памяти от мусорных id
+    private int sketchMaxPendingListings = 20_000; // ячеек HLL между flush-ами: худший случай (все dense) ≈ 80 MB
+    private long sketchFlushIntervalMs = 60_000; // HLL-скетчи пишем реже, чем счётчики
+    private int statsMaxDays = 90;
+    private Duration trendingWindow = Duration.ofHours(1);
+    private int trendingBuckets = 12;           // окно режется на бакеты по window / buckets
+    private int trendingCapacity = 256;         // счётчиков SpaceSaving на бакет и категорию
+    private int trendingStripes = 8;            // полос общего фида (см. TrendingTracker)
+    private int trendingMaxLimit = 100;
+}
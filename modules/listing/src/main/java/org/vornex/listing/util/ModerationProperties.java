@@ -0,0 +1,25 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.moderation")
+public class ModerationProperties {
+    private int workers = 2;                                   // потоков автопроверок на инстанс
+    private int batchSize = 50;                                // задач, забираемых одним SKIP LOCKED claim
+    private int maxAttempts = 5;                               // после стольких сбоев проверок — к модератору
+    private Duration autoLease = Duration.ofMinutes(5);        // взятая пачка скрыта от других воркеров; при падении вернётся
+    private Duration retryBackoff = Duration.ofSeconds(30);    // базовая задержка, растёт линейно с attempts
+    private Duration reviewLease = Duration.ofMinutes(30);     // аренда задачи модератором, потом вернётся в общий пул
+    private int maxAssignedPerModerator = 20;                  // справедливость: больше не выдаём, пока не разберёт
+    private List<String> bannedWords = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.duplicates")
+public class NearDuplicateProperties {
+    private int shingleSize = 5;                        // символьные k-граммы нормализованного текста
+    private double similarityThreshold = 0.8;           // оценка Jaccard, с которой объявление считается почти-дублем
+    private int maxCandidates = 200;                    // сравнений сигнатур на один запрос (горячие банды коротких текстов)
+    private long pollIntervalMs = 10_000;               // догрузка сигнатур, записанных другими инстансами
+    private Duration pollOverlap = Duration.ofMinutes(1); // updated_at = now() начала транзакции — длинные транзакции коммитятся "в прошлое"
+}
@@ -0,0 +1,23 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.popularity")
+public class PopularityProperties {
+    private Duration halfLife = Duration.ofDays(3);   // за это время вклад любого события падает вдвое
+    private double publishWeight = 10;                // "свежесть": вклад самой публикации
+    private double viewWeight = 1;                    // за уникального зрителя (за день, оценка HLL)
+    private double favoriteWeight = 5;                // за добавление в избранное
+    private double priceWeight = 0.3;                 // log-буст цены относительно медианы категории, в пределах ±priceWeight
+    private int initBatchSize = 1000;                 // опубликованных без score за один проход обслуживания
+    private long maintenanceIntervalMs = 300_000;     // избранное, инициализация
+    private Duration priceMedianRefreshInterval = Duration.ofHours(1); // медианы цен и буст всех опубликованных
+}
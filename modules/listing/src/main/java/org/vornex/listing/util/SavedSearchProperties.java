@@ -0,0 +1,21 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.saved-searches")
+public class SavedSearchProperties {
+    private int maxPerUser = 20;                         // ограничивает и веер уведомлений по одному объявлению
+    private int maxTerms = 8;
+    private int batchSize = 100;                         // объявлений на одну SKIP LOCKED пачку сопоставления
+    private long pollIntervalMs = 2000;
+    private Duration alertTtl = Duration.ofDays(30);     // старые уведомления удаляются
+    private long cleanupIntervalMs = 3_600_000;
+}
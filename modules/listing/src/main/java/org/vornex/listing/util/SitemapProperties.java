@@ -0,0 +1,23 @@
+package org.vornex.listing.util;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.listings.sitemap")
+public class SitemapProperties {
+    private String siteUrl = "http://localhost:8080";   // публичный адрес сайта для <loc>
+    private String listingPath = "/listings/";           // страница объявления: siteUrl + listingPath + id
+    private String filesPath = "/public/sitemaps/";      // где отдаются файлы шардов (SitemapController)
+    private int maxUrlsPerFile = 50_000;                 // лимит протокола sitemaps.org
+    private int splitTargetUrls = 45_000;                // при делении шарда — запас под объявления, опубликованные в старом диапазоне id
+    private int fetchSize = 1000;
+    private long intervalMs = 3_600_000;
+    private Duration fullCheckInterval = Duration.ofHours(24); // сверка всех шардов — страховка от изменений в обход updated_at
+}
@@ -0,0 +1,109 @@
+package org.vornex.listing.validation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.Money;
+import org.vornex.listing.attribute.AttributeSchemaRegistry;
+import org.vornex.listing.attribute.TypedAttributeValue;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.category.CategoryNode;
+import org.vornex.listing.dto.CreateListingDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Общие правила валидации объявления.
+ * <p>
+ * Используются и при создании через API (ListingServiceImpl), и при массовом импорте,
+ * чтобы объявление, отклонённое одним путём, не проходило другим.
+ * Ошибки — BadRequestException с сообщением для клиента (в импорте оно уходит в отчёт по строке).
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingValidator {
+
+    public static final int MIN_TITLE_LENGTH = 3;
+    public static final int MAX_TITLE_LENGTH = 120;
+    public static final int MAX_ATTRIBUTE_KEY_LENGTH = 64;
+    public static final int MAX_CITY_LENGTH = 255;
+    private static final Pattern CURRENCY_CODE = Pattern.compile("[A-Z]{3}");
+
+    private final AttributeSchemaRegistry attributeSchemas;
+    private final CategoryCatalog categoryCatalog;
+
+    /**
+     * Проверки CreateListingDto: title, category, price и атрибуты по схеме категории.
+     *
+     * @return узел категории и типизированные атрибуты для индексной таблицы listing_attribute_values
+     */
+    public ValidatedListing validateCreate(CreateListingDto dto) {
+        validateTitle(dto.title());
+        CategoryNode category = validateCategory(dto.category());
+        validatePrice(dto.price());
+        return new ValidatedListing(category, validateAttributes(category.slug(), dto.attributes()));
+    }
+
+    public void validateTitle(String title) {
+        if (title == null || title.isBlank()) throw new BadRequestException("title is required");
+        int len = title.trim().length();
+        if (len < MIN_TITLE_LENGTH || len > MAX_TITLE_LENGTH) {
+            throw new BadRequestException("title length must be between " + MIN_TITLE_LENGTH + " and " + MAX_TITLE_LENGTH);
+        }
+    }
+
+    /**
+     * Категория должна быть листом каталога (снапшот CategoryCatalog, без обращения к БД):
+     * объявления живут в конечных категориях, ветки — только для навигации и поиска по поддереву.
+     */
+    public CategoryNode validateCategory(String category) {
+        if (category == null || category.isBlank()) {
+            throw new BadRequestException("category is required");
+        }
+        CategoryNode node = categoryCatalog.find(category.trim())
+                .orElseThrow(() -> new BadRequestException("unknown category: " + category.trim()));
+        if (!node.isLeaf()) {
+            throw new BadRequestException("category " + node.slug() + " has subcategories, choose one of them");
+        }
+        return node;
+    }
+
+    /**
+     * Город необязателен: trim, пустая строка — null.
+     */
+    public String normalizeCity(String city) {
+        if (city == null || city.isBlank()) return null;
+        String trimmed = city.trim();
+        if (trimmed.length() > MAX_CITY_LENGTH) {
+            throw new BadRequestException("city is too long (max " + MAX_CITY_LENGTH + ")");
+        }
+        return trimmed;
+    }
+
+    /**
+     * Цена необязательна, но если передана — целиком: сумма >= 0 и код валюты (обе колонки NOT NULL).
+     */
+    public void validatePrice(Money price) {
+        if (price == null) return;
+        if (price.getAmount() == null) throw new BadRequestException("price.amount is required");
+        if (price.getAmount().signum() < 0) throw new BadRequestException("price must be >= 0");
+        if (price.getCurrency() == null || !CURRENCY_CODE.matcher(price.getCurrency()).matches()) {
+            throw new BadRequestException("price.currency must be a 3-letter ISO code, got: " + price.getCurrency());
+        }
+    }
+
+    public void validateAttributeKey(String key) {
+        if (key == null || key.isBlank() || key.length() > MAX_ATTRIBUTE_KEY_LENGTH) {
+            throw new BadRequestException("invalid attribute name: " + key);
+        }
+    }
+
+    /**
+     * Валидация атрибутов по схеме категории (см. AttributeSchemaRegistry).
+     */
+    public List<TypedAttributeValue> validateAttributes(String category, Map<String, String> attributes) {
+        return attributeSchemas.extractTyped(category, attributes);
+    }
+}
@@ -0,0 +1,13 @@
+package org.vornex.listing.validation;
+
+import org.vornex.listing.attribute.TypedAttributeValue;
+import org.vornex.listing.category.CategoryNode;
+
+import java.util.List;
+
+/**
+ * Результат ListingValidator.validateCreate: узел каталога (для category_path)
+ * и типизированные атрибуты для listing_attribute_values.
+ */
+public record ValidatedListing(CategoryNode category, List<TypedAttributeValue> typedAttributes) {
+}
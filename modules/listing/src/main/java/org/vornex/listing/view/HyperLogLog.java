@@ -0,0 +1,153 @@
+package org.vornex.listing.view;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Минимальный HyperLogLog: разреженный, пока заполнено мало регистров, затем dense (1 байт на регистр).
+ * <p>
+ * - p = 12 -> 4096 регистров ≈ 4 KB на dense-скетч, стандартная ошибка ≈ 1.6%.
+ * - Sparse: пары (idx, rank) в int[] — десятки байт у объявления с парой зрителей; переход в dense,
+ * когда пар больше m/16 (≈1 KB), — дальше dense компактнее. Оценка в обоих режимах одинаковая.
+ * - merge — поэлементный max регистров: операция идемпотентна, повторный merge того же скетча ничего не меняет.
+ * - Формат сериализации: [p][registers...] (всегда dense) — хранится в bytea как есть.
+ * <p>
+ * Потокобезопасность: offer/merge/estimate синхронизированы на экземпляре (скетч — на одно объявление в день,
+ * конкуренция за один монитор минимальна).
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 12;
+
+    private final int p;
+    private byte[] registers; // null, пока скетч разреженный
+    private int[] sparse;     // (idx << 8) | rank, idx без повторов
+    private int sparseSize;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) throw new IllegalArgumentException("precision must be in [4, 16]");
+        this.p = precision;
+        this.sparse = new int[8];
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.p = precision;
+        this.registers = registers;
+    }
+
+    public static HyperLogLog fromBytes(byte[] data) {
+        if (data == null || data.length < 1) throw new IllegalArgumentException("empty sketch");
+        int precision = data[0];
+        if (precision < 4 || precision > 16 || data.length != (1 << precision) + 1) {
+            throw new IllegalArgumentException("corrupted sketch");
+        }
+        return new HyperLogLog(precision, Arrays.copyOfRange(data, 1, data.length));
+    }
+
+    public synchronized byte[] toBytes() {
+        byte[] out = new byte[(1 << p) + 1];
+        out[0] = (byte) p;
+        if (registers != null) {
+            System.arraycopy(registers, 0, out, 1, registers.length);
+        } else {
+            for (int i = 0; i < sparseSize; i++) out[(sparse[i] >>> 8) + 1] = (byte) (sparse[i] & 0xff);
+        }
+        return out;
+    }
+
+    public synchronized boolean isSparse() {
+        return registers == null;
+    }
+
+    public void offer(String value) {
+        offerHash(hash64(value));
+    }
+
+    public synchronized void offerHash(long hash) {
+        int idx = (int) (hash >>> (64 - p));
+        // ведущие нули оставшихся 64-p бит (+1); единичный бит-"стоппер" ограничивает результат
+        long rest = (hash << p) | (1L << (p - 1));
+        update(idx, Long.numberOfLeadingZeros(rest) + 1);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.p != p) throw new IllegalArgumentException("precision mismatch: " + p + " vs " + other.p);
+        byte[] snapshot = other.toBytes(); // копия под монитором other — без вложенных блокировок
+        synchronized (this) {
+            for (int i = 0; i < snapshot.length - 1; i++) {
+                if (snapshot[i + 1] != 0) update(i, snapshot[i + 1]);
+            }
+        }
+    }
+
+    public synchronized long estimate() {
+        int m = 1 << p;
+        double sum = 0;
+        int zeros = 0;
+        if (registers != null) {
+            for (byte r : registers) {
+                sum += 1.0 / (1L << r);
+                if (r == 0) zeros++;
+            }
+        } else {
+            zeros = m - sparseSize;
+            sum = zeros;
+            for (int i = 0; i < sparseSize; i++) sum += 1.0 / (1L << (sparse[i] & 0xff));
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros); // linear counting на малых кардинальностях
+        }
+        return Math.round(estimate);
+    }
+
+    private void update(int idx, int rank) {
+        if (registers != null) {
+            if (rank > registers[idx]) registers[idx] = (byte) rank;
+            return;
+        }
+        for (int i = 0; i < sparseSize; i++) {
+            if (sparse[i] >>> 8 == idx) {
+                if (rank > (sparse[i] & 0xff)) sparse[i] = idx << 8 | rank;
+                return;
+            }
+        }
+        if (sparseSize >= (1 << p) >> 4) {
+            toDense();
+            registers[idx] = (byte) rank;
+            return;
+        }
+        if (sparseSize == sparse.length) sparse = Arrays.copyOf(sparse, sparse.length * 2);
+        sparse[sparseSize++] = idx << 8 | rank;
+    }
+
+    private void toDense() {
+        byte[] dense = new byte[1 << p];
+        for (int i = 0; i < sparseSize; i++) dense[sparse[i] >>> 8] = (byte) (sparse[i] & 0xff);
+        registers = dense;
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    /**
+     * 64-битный хеш: FNV-1a по UTF-8 байтам + финализатор murmur3 (fmix64) для равномерного распределения старших бит.
+     */
+    static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,146 @@
+package org.vornex.listing.view;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.vornex.listing.repository.ListingViewsJdbcRepository;
+import org.vornex.listing.util.ListingViewProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind счётчик просмотров.
+ * <p>
+ * - record() только инкрементирует LongAdder в памяти (striped, без блокировок на горячих id) — БД не трогаем.
+ * - flush() периодически пишет накопленные дельты пачками UPDATE ... FROM (VALUES ...).
+ * - Дельта = adder.sum() - flushed: сам adder не сбрасываем, поэтому конкурентные инкременты во время flush не теряются,
+ * а при ошибке БД дельта просто уйдёт в следующий flush.
+ * - Простаивающие ячейки выводятся из map с отсрочкой на интервал (см. flush) — без потерь гонки с record().
+ * - Потеря при падении процесса ограничена одним интервалом flush; при штатной остановке — flush в @PreDestroy.
+ * - В popularity_score идут не эти сырые просмотры, а уникальные зрители (UniqueViewerTracker).
+ */
+@Component
+@Slf4j
+public class ListingViewCounter {
+
+    private final ListingViewsJdbcRepository viewsRepository;
+    private final ListingViewProperties props;
+    private final Map<UUID, ViewCell> cells = new ConcurrentHashMap<>();
+    private final Map<ViewCell, UUID> retired = new IdentityHashMap<>(); // только под synchronized flush()
+
+    private final Counter droppedViews;
+    private final Timer flushTimer;
+
+    public ListingViewCounter(ListingViewsJdbcRepository viewsRepository,
+                              ListingViewProperties props,
+                              MeterRegistry meterRegistry) {
+        this.viewsRepository = viewsRepository;
+        this.props = props;
+        this.droppedViews = meterRegistry.counter("listing.views.dropped");
+        this.flushTimer = meterRegistry.timer("listing.views.flush");
+        meterRegistry.gaugeMapSize("listing.views.pending", Tags.empty(), cells);
+    }
+
+    public void record(UUID listingId) {
+        ViewCell cell = cells.get(listingId);
+        if (cell == null) {
+            if (cells.size() >= props.getMaxPendingListings()) {
+                // слишком много разных id между flush'ами — скорее всего мусор/бот, не раздуваем heap
+                droppedViews.increment();
+                return;
+            }
+            cell = cells.computeIfAbsent(listingId, id -> new ViewCell());
+        }
+        cell.views.increment();
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.views.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing pending listing views on shutdown ({} listings)", cells.size());
+        flush();
+    }
+
+    /**
+     * synchronized — flush по расписанию и flush при остановке не должны пересекаться (иначе дельта запишется дважды).
+     * <p>
+     * Ячейку, простоявшую целый интервал, убираем из map, но не выбрасываем: record() мог взять ссылку на неё
+     * до удаления и инкрементировать уже после. Такая ячейка лежит ещё интервал в retired —
+     * следующий flush дописывает её поздние инкременты. Новые record() после удаления создают новую ячейку.
+     */
+    public synchronized void flush() {
+        if (cells.isEmpty() && retired.isEmpty()) return;
+        flushTimer.record(() -> {
+            Batch batch = new Batch();
+            retired.forEach((cell, id) -> batch.add(id, cell));
+
+            List<Map.Entry<ViewCell, UUID>> retiredNow = new ArrayList<>();
+            for (Map.Entry<UUID, ViewCell> e : cells.entrySet()) {
+                if (!batch.add(e.getKey(), e.getValue()) && cells.remove(e.getKey(), e.getValue())) {
+                    retiredNow.add(Map.entry(e.getValue(), e.getKey()));
+                }
+                if (batch.deltas.size() >= props.getFlushBatchSize()) writeBatch(batch);
+            }
+            writeBatch(batch);
+
+            // отлежавшие интервал и полностью записанные — больше никому не нужны
+            retired.keySet().removeIf(cell -> cell.views.sum() == cell.flushed);
+            retiredNow.forEach(e -> retired.put(e.getKey(), e.getValue()));
+        });
+    }
+
+    private void writeBatch(Batch batch) {
+        if (batch.deltas.isEmpty()) return;
+        try {
+            viewsRepository.addViews(batch.deltas);
+            // фиксируем записанное только после успешного UPDATE
+            batch.totals.forEach((cell, total) -> cell.flushed = total);
+        } catch (Exception ex) {
+            log.warn("Failed to flush views for {} listings, will retry: {}", batch.deltas.size(), ex.getMessage());
+        } finally {
+            batch.deltas.clear();
+            batch.totals.clear();
+        }
+    }
+
+    /**
+     * Дельты одного UPDATE. Одна и та же id может прийти дважды (выведенная ячейка + новая) — дельты суммируются.
+     */
+    private static final class Batch {
+        private final Map<UUID, Long> deltas = new HashMap<>();
+        private final Map<ViewCell, Long> totals = new IdentityHashMap<>();
+
+        /**
+         * @return false, если у ячейки нет незаписанных просмотров
+         */
+        boolean add(UUID id, ViewCell cell) {
+            long total = cell.views.sum();
+            long delta = total - cell.flushed;
+            if (delta <= 0) return false;
+            deltas.merge(id, delta, Long::sum);
+            totals.put(cell, total);
+            return true;
+        }
+    }
+
+    private static final class ViewCell {
+        private final LongAdder views = new LongAdder();
+        private volatile long flushed; // пишет только flush() под synchronized
+    }
+}
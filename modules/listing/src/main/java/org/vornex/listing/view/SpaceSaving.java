@@ -0,0 +1,99 @@
+package org.vornex.listing.view;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Space-Saving (Metwally et al.) — приблизительный top-K по потоку с фиксированной памятью.
+ * <p>
+ * Держит не более capacity счётчиков. Новый элемент при заполненной таблице вытесняет элемент
+ * с минимальным счётчиком и наследует его значение (+1) — поэтому count — оценка сверху,
+ * а настоящие heavy hitters (частота > N / capacity) гарантированно остаются в таблице.
+ * <p>
+ * Счётчики лежат в min-куче на массивах (позиция ключа — в map): минимум всегда в корне,
+ * инкремент и вытеснение — O(log capacity) вместо линейного поиска минимума.
+ * <p>
+ * Не потокобезопасен: синхронизацию обеспечивает владелец (см. TrendingTracker).
+ */
+public final class SpaceSaving<K> {
+
+    private final int capacity;
+    private final Object[] keys;
+    private final long[] counts;
+    private final Map<K, Integer> positions; // ключ -> индекс в куче
+    private int size;
+
+    public SpaceSaving(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be > 0");
+        this.capacity = capacity;
+        this.keys = new Object[capacity];
+        this.counts = new long[capacity];
+        this.positions = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(K key) {
+        Integer pos = positions.get(key);
+        if (pos != null) {
+            counts[pos]++;
+            siftDown(pos);
+            return;
+        }
+        if (size < capacity) {
+            keys[size] = key;
+            counts[size] = 1;
+            positions.put(key, size);
+            siftUp(size++);
+            return;
+        }
+        // вытесняем минимум (корень) и наследуем его счётчик
+        positions.remove(keys[0]);
+        keys[0] = key;
+        counts[0]++;
+        positions.put(key, 0);
+        siftDown(0);
+    }
+
+    /**
+     * Прибавляет текущие оценки к target (для объединения нескольких окон).
+     */
+    @SuppressWarnings("unchecked")
+    public void addTo(Map<K, Long> target) {
+        for (int i = 0; i < size; i++) {
+            target.merge((K) keys[i], counts[i], Long::sum);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < size && counts[left] < counts[smallest]) smallest = left;
+            if (right < size && counts[right] < counts[smallest]) smallest = right;
+            if (smallest == i) return;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void swap(int a, int b) {
+        Object k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        long c = counts[a];
+        counts[a] = counts[b];
+        counts[b] = c;
+        positions.put((K) keys[a], a);
+        positions.put((K) keys[b], b);
+    }
+}
@@ -0,0 +1,130 @@
+package org.vornex.listing.view;
+
+import org.springframework.stereotype.Component;
+import org.vornex.listing.util.ListingViewProperties;
+
+import java.time.Clock;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Trending now": top-K объявлений по просмотрам за скользящее окно (по умолчанию час) по категориям.
+ * <p>
+ * Окно разбито на бакеты (по умолчанию 12 x 5 минут), в каждом — свой SpaceSaving.
+ * Бакет, вышедший за окно, переиспользуется под новый интервал, поэтому память на категорию
+ * ограничена buckets * capacity счётчиков. Запрос объединяет бакеты окна и выбирает top-K
+ * через частичную сортировку (heap на limit элементов) — без SQL и без полной сортировки таблицы.
+ * <p>
+ * Помимо категорий ведётся общий фид (ALL_CATEGORIES). Его видит каждый просмотр, поэтому он разбит
+ * на trendingStripes независимых колец (полосу выбирает поток): запись не сериализуется на одном мониторе,
+ * а запрос суммирует полосы — оценки Space-Saving при объединении складываются.
+ */
+@Component
+public class TrendingTracker {
+
+    public static final String ALL_CATEGORIES = "*";
+
+    private final ListingViewProperties props;
+    private final Clock clock;
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    public TrendingTracker(ListingViewProperties props, Clock clock) {
+        this.props = props;
+        this.clock = clock;
+    }
+
+    /**
+     * @param category категория объявления; null — если неизвестна (тогда учитываем только в общем фиде)
+     */
+    public void record(UUID listingId, String category) {
+        long slot = currentSlot();
+        windows.computeIfAbsent(ALL_CATEGORIES, c -> new Window(props.getTrendingStripes(), props.getTrendingBuckets(),
+                props.getTrendingCapacity())).offer(slot, listingId);
+        if (category != null) {
+            window(category).offer(slot, listingId);
+        }
+    }
+
+    public List<Map.Entry<UUID, Long>> top(String category, int limit) {
+        Window window = windows.get(category == null ? ALL_CATEGORIES : category);
+        if (window == null || limit <= 0) return List.of();
+
+        Map<UUID, Long> totals = window.collect(currentSlot());
+        PriorityQueue<Map.Entry<UUID, Long>> heap = new PriorityQueue<>(limit + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Long> e : totals.entrySet()) {
+            heap.offer(e);
+            if (heap.size() > limit) heap.poll();
+        }
+        List<Map.Entry<UUID, Long>> result = new ArrayList<>(heap);
+        result.sort(Map.Entry.<UUID, Long>comparingByValue().reversed());
+        return result;
+    }
+
+    private Window window(String category) {
+        return windows.computeIfAbsent(category, c -> new Window(1, props.getTrendingBuckets(), props.getTrendingCapacity()));
+    }
+
+    private long currentSlot() {
+        long bucketMillis = props.getTrendingWindow().toMillis() / props.getTrendingBuckets();
+        return clock.millis() / bucketMillis;
+    }
+
+    /**
+     * Окно категории: одна или несколько полос-колец, полоса выбирается по id потока.
+     */
+    private static final class Window {
+        private final Ring[] stripes;
+
+        Window(int stripes, int size, int capacity) {
+            this.stripes = new Ring[stripes];
+            for (int i = 0; i < stripes; i++) this.stripes[i] = new Ring(size, capacity);
+        }
+
+        void offer(long slot, UUID listingId) {
+            int idx = stripes.length == 1 ? 0 : (int) (Thread.currentThread().threadId() % stripes.length);
+            stripes[idx].offer(slot, listingId);
+        }
+
+        Map<UUID, Long> collect(long currentSlot) {
+            Map<UUID, Long> totals = new HashMap<>();
+            for (Ring ring : stripes) ring.addTo(currentSlot, totals);
+            return totals;
+        }
+    }
+
+    /**
+     * Кольцо бакетов: slots[i] — номер интервала, которому сейчас принадлежит buckets[i].
+     * Один монитор на кольцо — и на ротацию бакета, и на SpaceSaving внутри.
+     */
+    private static final class Ring {
+        private final int capacity;
+        private final long[] slots;
+        private final SpaceSaving<UUID>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        Ring(int size, int capacity) {
+            this.capacity = capacity;
+            this.slots = new long[size];
+            this.buckets = new SpaceSaving[size];
+            Arrays.fill(slots, -1);
+        }
+
+        synchronized void offer(long slot, UUID listingId) {
+            int idx = (int) (slot % buckets.length);
+            if (slots[idx] != slot) {
+                // бакет протух (вышел за окно) — начинаем интервал заново
+                buckets[idx] = new SpaceSaving<>(capacity);
+                slots[idx] = slot;
+            }
+            buckets[idx].offer(listingId);
+        }
+
+        synchronized void addTo(long currentSlot, Map<UUID, Long> totals) {
+            for (int i = 0; i < buckets.length; i++) {
+                if (buckets[i] != null && currentSlot - slots[i] < buckets.length) {
+                    buckets[i].addTo(totals);
+                }
+            }
+        }
+    }
+}
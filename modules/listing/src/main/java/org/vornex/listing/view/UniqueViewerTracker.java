@@ -0,0 +1,172 @@
+package org.vornex.listing.view;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.vornex.listing.repository.ListingPopularityJdbcRepository;
+import org.vornex.listing.repository.ListingViewerSketchJdbcRepository;
+import org.vornex.listing.repository.ListingViewerSketchJdbcRepository.SketchKey;
+import org.vornex.listing.util.ListingViewProperties;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Приблизительный подсчёт уникальных зрителей объявления по дням (HyperLogLog).
+ * <p>
+ * - В памяти — скетч на (listingId, day); record() только обновляет регистры. Скетч разреженный,
+ * пока зрителей мало (см. HyperLogLog), — большинство объявлений занимают десятки байт, а не 4 KB.
+ * - flush() мержит изменившиеся скетчи в listing_daily_viewers. Merge HLL идемпотентен,
+ * поэтому при ошибке БД следующий flush просто повторит попытку.
+ * - Записанные скетчи выгружаются из памяти: merge — объединение, и новый пустой скетч того же дня
+ * при следующем flush корректно домержится к сохранённому. Выгруженная ячейка ещё интервал лежит в retired:
+ * record() мог взять ссылку на неё до удаления из map (как и в ListingViewCounter).
+ * - Свой лимит ячеек (sketchMaxPendingListings); отброшенные просмотры — в метрике listing.viewers.dropped.
+ * - Прирост оценки при слиянии (новые уникальные зрители дня) в той же транзакции идёт вкладом
+ * в popularity_score: строка скетча заблокирована, поэтому инстансы не засчитают одних зрителей дважды.
+ */
+@Component
+@Slf4j
+public class UniqueViewerTracker {
+
+    private static final int FLUSH_CHUNK = 200;
+
+    private final ListingViewerSketchJdbcRepository sketchRepository;
+    private final ListingPopularityJdbcRepository popularityRepository;
+    private final ListingViewProperties props;
+    private final TransactionTemplate tx;
+    private final Clock clock;
+    private final Map<SketchKey, SketchCell> cells = new ConcurrentHashMap<>();
+    private final Map<SketchCell, SketchKey> retired = new IdentityHashMap<>(); // только под synchronized flush()
+    private final Counter droppedViews;
+
+    public UniqueViewerTracker(ListingViewerSketchJdbcRepository sketchRepository,
+                               ListingPopularityJdbcRepository popularityRepository,
+                               ListingViewProperties props,
+                               PlatformTransactionManager transactionManager,
+                               Clock clock,
+                               MeterRegistry meterRegistry) {
+        this.sketchRepository = sketchRepository;
+        this.popularityRepository = popularityRepository;
+        this.props = props;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.droppedViews = meterRegistry.counter("listing.viewers.dropped");
+        meterRegistry.gaugeMapSize("listing.viewers.pending", Tags.empty(), cells);
+    }
+
+    /**
+     * @param viewerKey стабильный идентификатор зрителя (userId или отпечаток клиента)
+     */
+    public void record(UUID listingId, String viewerKey) {
+        SketchKey key = new SketchKey(listingId, LocalDate.now(clock));
+        SketchCell cell = cells.get(key);
+        if (cell == null) {
+            if (cells.size() >= props.getSketchMaxPendingListings()) {
+                droppedViews.increment();
+                return;
+            }
+            cell = cells.computeIfAbsent(key, k -> new SketchCell());
+        }
+        cell.sketch.offer(viewerKey);
+        cell.dirty = true;
+    }
+
+    /**
+     * Оценка уникальных зрителей за период [from, to] (объединение дневных скетчей) + разбивка по дням.
+     * Учитывает ещё не сброшенные в БД скетчи из памяти.
+     */
+    public UniqueViewers estimate(UUID listingId, LocalDate from, LocalDate to) {
+        Map<LocalDate, HyperLogLog> perDay = new TreeMap<>();
+        sketchRepository.findByListing(listingId, from, to)
+                .forEach((day, bytes) -> perDay.put(day, HyperLogLog.fromBytes(bytes)));
+        cells.forEach((key, cell) -> {
+            if (key.listingId().equals(listingId) && !key.day().isBefore(from) && !key.day().isAfter(to)) {
+                perDay.computeIfAbsent(key.day(), d -> new HyperLogLog()).merge(cell.sketch);
+            }
+        });
+
+        HyperLogLog total = new HyperLogLog();
+        Map<LocalDate, Long> daily = new LinkedHashMap<>();
+        perDay.forEach((day, sketch) -> {
+            total.merge(sketch);
+            daily.put(day, sketch.estimate());
+        });
+        return new UniqueViewers(total.estimate(), daily);
+    }
+
+    public record UniqueViewers(long total, Map<LocalDate, Long> daily) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.listings.views.sketch-flush-interval-ms:60000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public synchronized void flush() {
+        List<Map.Entry<SketchKey, SketchCell>> dirty = new ArrayList<>();
+        retired.forEach((cell, key) -> {
+            if (cell.dirty) dirty.add(Map.entry(key, cell));
+        });
+        cells.forEach((key, cell) -> {
+            if (cell.dirty) dirty.add(Map.entry(key, cell));
+        });
+
+        for (int i = 0; i < dirty.size(); i += FLUSH_CHUNK) {
+            List<Map.Entry<SketchKey, SketchCell>> chunk = dirty.subList(i, Math.min(i + FLUSH_CHUNK, dirty.size()));
+            // снимаем dirty ДО снятия снапшота: offer после этого момента снова пометит ячейку
+            chunk.forEach(e -> e.getValue().dirty = false);
+            try {
+                tx.executeWithoutResult(status -> mergeChunk(chunk));
+            } catch (Exception ex) {
+                chunk.forEach(e -> e.getValue().dirty = true);
+                log.warn("Failed to flush {} viewer sketches, will retry: {}", chunk.size(), ex.getMessage());
+            }
+        }
+
+        // записанное в БД выгружаем: отлежавшие интервал в retired — насовсем, остальные — в retired
+        retired.keySet().removeIf(cell -> !cell.dirty);
+        cells.forEach((key, cell) -> {
+            if (!cell.dirty && cells.remove(key, cell)) retired.put(cell, key);
+        });
+    }
+
+    private void mergeChunk(List<Map.Entry<SketchKey, SketchCell>> chunk) {
+        // один ключ может прийти дважды: выгруженная ячейка и новая того же дня
+        Map<SketchKey, List<HyperLogLog>> byKey = new LinkedHashMap<>();
+        chunk.forEach(e -> byKey.computeIfAbsent(e.getKey(), k -> new ArrayList<>(1)).add(e.getValue().sketch));
+
+        sketchRepository.insertMissing(byKey.keySet(), new HyperLogLog().toBytes());
+        Map<SketchKey, byte[]> stored = sketchRepository.findForUpdate(byKey.keySet());
+        Map<SketchKey, byte[]> merged = new HashMap<>();
+        Map<UUID, Long> newViewers = new HashMap<>();
+        byKey.forEach((key, sketches) -> {
+            HyperLogLog sketch = HyperLogLog.fromBytes(stored.get(key));
+            long before = sketch.estimate();
+            sketches.forEach(sketch::merge);
+            merged.put(key, sketch.toBytes());
+            long added = sketch.estimate() - before;
+            if (added > 0) newViewers.merge(key.listingId(), added, Long::sum);
+        });
+        sketchRepository.updateAll(merged);
+        popularityRepository.addUniqueViewers(newViewers);
+    }
+
+    private static final class SketchCell {
+        private final HyperLogLog sketch = new HyperLogLog();
+        private volatile boolean dirty;
+    }
+}
@@ -0,0 +1,21 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.util.AcceptEncoding;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AcceptEncodingTest {
+
+    @Test
+    void acceptsGzip_respectsQualityValues() {
+        assertThat(AcceptEncoding.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("br;q=1.0, GZIP;q=0.5")).isTrue();
+        assertThat(AcceptEncoding.acceptsGzip("*")).isTrue();
+
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("gzip;q=0.0, *;q=1")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip("identity, br")).isFalse();
+        assertThat(AcceptEncoding.acceptsGzip(null)).isFalse();
+    }
+}
@@ -0,0 +1,199 @@
+package org.vornex.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.events.repository.OutboxEventRepository;
+import org.vornex.listing.attribute.AttributeSchemaRegistry;
+import org.vornex.listing.cache.ListingCache;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.category.CategoryNode;
+import org.vornex.listing.counter.ListingCounters;
+import org.vornex.listing.currency.ExchangeRates;
+import org.vornex.listing.dto.CreateListingDto;
+import org.vornex.listing.dto.attachmentDto.AttachmentRequestDto;
+import org.vornex.listing.duplicate.NearDuplicateIndex;
+import org.vornex.listing.entity.Attachment;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.latest.LatestListings;
+import org.vornex.listing.mapper.ListingMapper;
+import org.vornex.listing.repository.AttachmentRepository;
+import org.vornex.listing.repository.ListingAttributeIndexRepository;
+import org.vornex.listing.repository.ListingReadRepository;
+import org.vornex.listing.repository.ListingRepository;
+import org.vornex.listing.repository.ListingSearchRepository;
+import org.vornex.listing.repository.ListingSyncJdbcRepository;
+import org.vornex.listing.service.ModerationService;
+import org.vornex.listing.service.StorageService;
+import org.vornex.listing.service.impl.AttachmentServiceImpl;
+import org.vornex.listing.service.impl.ListingServiceImpl;
+import org.vornex.listing.util.AttachmentProperties;
+import org.vornex.listing.util.LatestListingsProperties;
+import org.vornex.listing.util.ListingViewProperties;
+import org.vornex.listing.validation.ListingValidator;
+import org.vornex.listing.validation.ValidatedListing;
+import org.vornex.listing.view.ListingViewCounter;
+import org.vornex.listing.view.TrendingTracker;
+import org.vornex.listing.view.UniqueViewerTracker;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Число SQL-выражений при создании объявления с 10 вложениями: настоящие AttachmentServiceImpl.presignUrls и
+ * ListingServiceImpl.createListing (storage и прочие зависимости — заглушки).
+ * Sequence с pooled-оптимизатором + hibernate.jdbc.batch_size: INSERT'ы и UPDATE'ы вложений уходят
+ * одним batch'ем, а не по выражению на вложение. Нужен Docker.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.vornex.listing.AttachmentBatchInsertTest$RecordingInspector"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class AttachmentBatchInsertTest {
+
+    private static final int ATTACHMENTS = 10;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Listing.class)
+    @EnableJpaRepositories(basePackageClasses = ListingRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+                    classes = {ListingRepository.class, AttachmentRepository.class}))
+    static class Config {
+    }
+
+    /**
+     * Hibernate вызывает inspector при каждой подготовке выражения; строки batch'а переиспользуют одно выражение.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql.toLowerCase());
+            return sql;
+        }
+    }
+
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private AttachmentRepository attachmentRepository;
+    @Autowired
+    private TestEntityManager em;
+
+    private AttachmentServiceImpl attachmentService;
+    private ListingServiceImpl listingService;
+
+    @BeforeEach
+    void services() {
+        RecordingInspector.statements.clear();
+        StorageService storage = mock(StorageService.class);
+        when(storage.presignPut(anyString(), anyString(), any()))
+                .thenReturn(new StorageService.PresignResult("https://storage/upload", Instant.now()));
+        attachmentService = new AttachmentServiceImpl(attachmentRepository, storage, new AttachmentProperties(),
+                mock(OutboxEventRepository.class), new ObjectMapper(), em.getEntityManager(),
+                mock(ApplicationEventPublisher.class), listingRepository);
+
+        ListingValidator validator = mock(ListingValidator.class);
+        when(validator.validateCreate(any())).thenReturn(new ValidatedListing(
+                new CategoryNode(UUID.randomUUID(), "bikes", "Велосипеды", null, "/bikes/", 1, 0, List.of()), List.of()));
+        ExchangeRates exchangeRates = mock(ExchangeRates.class);
+        when(exchangeRates.toBase(any())).thenAnswer(inv -> inv.<Money>getArgument(0).getAmount());
+        SecurityContextUtils security = mock(SecurityContextUtils.class);
+        when(security.getCurrentUserIdRequired()).thenReturn(UUID.randomUUID());
+        // всё, кроме репозиториев объявлений и вложений, — заглушки: считаем только SQL через JPA
+        listingService = new ListingServiceImpl(listingRepository, mock(ListingSearchRepository.class),
+                mock(ListingReadRepository.class), mock(ListingAttributeIndexRepository.class),
+                mock(AttributeSchemaRegistry.class), validator, mock(CategoryCatalog.class), attachmentRepository,
+                attachmentService, mock(ModerationService.class), security, mock(ListingMapper.class),
+                mock(ListingCache.class), mock(ApplicationEventPublisher.class), mock(ListingViewCounter.class),
+                mock(UniqueViewerTracker.class), mock(TrendingTracker.class), new ListingViewProperties(),
+                mock(ListingCounters.class), mock(LatestListings.class), new LatestListingsProperties(),
+                mock(NearDuplicateIndex.class), exchangeRates, mock(ListingSyncJdbcRepository.class), Clock.systemUTC());
+    }
+
+    @Test
+    void tenAttachmentListing_insertsAndLinksAttachmentsInSingleBatches() {
+        // 1) presign пачкой: 10 черновых вложений на уже созданное объявление
+        listingService.createListing(listing(null));
+        em.flush();
+        UUID draftId = listingRepository.findAll().get(0).getId();
+        RecordingInspector.statements.clear();
+
+        attachmentService.presignUrls(IntStream.range(0, ATTACHMENTS)
+                .mapToObj(i -> new AttachmentRequestDto("photo" + i + ".jpg", "image/jpeg", 1024L, draftId))
+                .toList());
+        em.flush();
+
+        assertThat(count("nextval")).isLessThanOrEqualTo(1); // pooled: один nextval на 50 id
+        assertThat(count("insert into attachments")).isEqualTo(1);
+        assertThat(count("update listings")).isEqualTo(1); // версия карточки (ETag) — один раз на пачку
+
+        // 2) создание объявления с этими вложениями: confirm ходит в storage, поэтому загрузку отмечаем напрямую
+        List<Attachment> attachments = attachmentRepository.findAll();
+        attachments.forEach(a -> a.setProcessed(true));
+        em.flush();
+        RecordingInspector.statements.clear();
+
+        listingService.createListing(listing(attachments.stream().map(Attachment::getId).toList()));
+        em.flush();
+
+        assertThat(count("insert into listings")).isEqualTo(1);
+        assertThat(count("update attachments")).isEqualTo(1);
+        assertThat(count("insert into attachments")).isZero();
+    }
+
+    private static CreateListingDto listing(List<Long> attachmentIds) {
+        return new CreateListingDto("Велосипед", null, new Money(new BigDecimal("1000.00"), "RUB"), "bikes",
+                null, null, Map.of("brand", "Merida"), attachmentIds);
+    }
+
+    private static long count(String fragment) {
+        return RecordingInspector.statements.stream().filter(sql -> sql.contains(fragment)).count();
+    }
+}
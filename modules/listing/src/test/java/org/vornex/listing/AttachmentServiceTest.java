@@ -0,0 +1,74 @@
+package org.vornex.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.vornex.events.repository.OutboxEventRepository;
+import org.vornex.listing.dto.attachmentDto.AttachmentRequestDto;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.repository.AttachmentRepository;
+import org.vornex.listing.repository.ListingRepository;
+import org.vornex.listing.service.StorageService;
+import org.vornex.listing.service.impl.AttachmentServiceImpl;
+import org.vornex.listing.util.AttachmentProperties;
+import org.vornex.listing.util.ListingETags;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AttachmentServiceTest {
+
+    private final Map<UUID, Long> versions = new HashMap<>();
+    private final ListingRepository listings = mock(ListingRepository.class);
+    private final AttachmentServiceImpl service;
+
+    AttachmentServiceTest() {
+        when(listings.incrementVersion(any())).thenAnswer(inv -> {
+            versions.merge(inv.getArgument(0), 1L, Long::sum);
+            return 1;
+        });
+        EntityManager em = mock(EntityManager.class);
+        when(em.getReference(eq(Listing.class), any())).thenAnswer(inv -> Listing.builder().id(inv.getArgument(1)).build());
+        StorageService storage = mock(StorageService.class);
+        when(storage.presignPut(anyString(), anyString(), any()))
+                .thenReturn(new StorageService.PresignResult("https://storage/upload", Instant.now()));
+        service = new AttachmentServiceImpl(mock(AttachmentRepository.class), storage, new AttachmentProperties(),
+                mock(OutboxEventRepository.class), new ObjectMapper(), em, mock(ApplicationEventPublisher.class), listings);
+    }
+
+    @Test
+    void presign_changesListingETag() {
+        UUID id = UUID.randomUUID();
+        versions.put(id, 3L);
+        String before = ListingETags.of(id, versions.get(id));
+
+        service.presignUrl(photo(id));
+
+        assertThat(ListingETags.of(id, versions.get(id))).isNotEqualTo(before);
+    }
+
+    @Test
+    void presignBatch_bumpsEachListingOnce() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        service.presignUrls(List.of(photo(first), photo(first), photo(second)));
+
+        verify(listings, times(1)).incrementVersion(first);
+        verify(listings, times(1)).incrementVersion(second);
+    }
+
+    private static AttachmentRequestDto photo(UUID listingId) {
+        return new AttachmentRequestDto("photo.jpg", "image/jpeg", 1024L, listingId);
+    }
+}
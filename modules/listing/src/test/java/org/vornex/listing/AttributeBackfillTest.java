@@ -0,0 +1,50 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vornex.listing.attribute.AttributeBackfill;
+import org.vornex.listing.attribute.AttributeSchemaChangedEvent;
+import org.vornex.listing.attribute.TypedAttributeValue;
+import org.vornex.listing.enums.AttributeType;
+import org.vornex.listing.repository.ListingAttributeIndexRepository;
+import org.vornex.listing.repository.ListingAttributeIndexRepository.RawAttribute;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AttributeBackfillTest {
+
+    private final ListingAttributeIndexRepository repository = mock(ListingAttributeIndexRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AttributeBackfill backfill = new AttributeBackfill(repository, transactionManager);
+
+    @Test
+    void onSchemaChanged_reindexesPageByPage_andDropsValuesInvalidForNewType() {
+        UUID first = new UUID(0L, 1L);
+        UUID second = new UUID(0L, 2L);
+        when(repository.findRawValues(eq("cars"), eq("mileage"), any(), anyInt())).thenReturn(List.of());
+        when(repository.findRawValues(eq("cars"), eq("mileage"), eq(new UUID(0L, 0L)), anyInt()))
+                .thenReturn(List.of(new RawAttribute(first, "150 000 km"), new RawAttribute(second, "a lot")));
+
+        backfill.onSchemaChanged(new AttributeSchemaChangedEvent("cars", "mileage", AttributeType.NUMBER, "km"));
+
+        verify(repository).deleteValues("mileage", List.of(second));
+        verify(repository).upsertAll(Map.of(first, new TypedAttributeValue("mileage", new BigDecimal("150000"), null)));
+        verify(repository).findRawValues(eq("cars"), eq("mileage"), eq(second), anyInt()); // следующая пачка — после последнего id
+        verify(transactionManager, times(2)).commit(any()); // пачка — своя транзакция
+    }
+
+    @Test
+    void onSchemaChanged_ignoresDeletedAttribute() {
+        backfill.onSchemaChanged(new AttributeSchemaChangedEvent("cars", "mileage", null, null));
+
+        verifyNoInteractions(repository);
+    }
+}
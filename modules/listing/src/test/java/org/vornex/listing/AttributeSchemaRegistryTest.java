@@ -0,0 +1,60 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.attribute.AttributeSchemaRegistry;
+import org.vornex.listing.attribute.TypedAttributeValue;
+import org.vornex.listing.entity.CategoryAttributeSchema;
+import org.vornex.listing.enums.AttributeType;
+import org.vornex.listing.repository.CategoryAttributeSchemaRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AttributeSchemaRegistryTest {
+
+    private AttributeSchemaRegistry registry;
+
+    @BeforeEach
+    void init() {
+        CategoryAttributeSchemaRepository repository = mock(CategoryAttributeSchemaRepository.class);
+        when(repository.findAll()).thenReturn(List.of(
+                schema("cars", "mileage", AttributeType.NUMBER, "km"),
+                schema("cars", "color", AttributeType.TEXT, null)));
+        registry = new AttributeSchemaRegistry(repository);
+        registry.reload();
+    }
+
+    @Test
+    void extractTyped_parsesNumbersWithUnitAndSkipsUnknownAttributes() {
+        List<TypedAttributeValue> values = registry.extractTyped("cars",
+                Map.of("mileage", "150 000 km", "color", " red ", "tuning", "yes"));
+
+        assertThat(values).containsExactlyInAnyOrder(
+                new TypedAttributeValue("mileage", new BigDecimal("150000"), null),
+                new TypedAttributeValue("color", null, "red"));
+        assertThat(registry.extractTyped("phones", Map.of("mileage", "abc"))).isEmpty();
+    }
+
+    @Test
+    void extractTyped_rejectsNonNumericValue() {
+        assertThatThrownBy(() -> registry.extractTyped("cars", Map.of("mileage", "a lot")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private CategoryAttributeSchema schema(String category, String name, AttributeType type, String unit) {
+        CategoryAttributeSchema s = new CategoryAttributeSchema();
+        s.setCategory(category);
+        s.setName(name);
+        s.setType(type);
+        s.setUnit(unit);
+        return s;
+    }
+}
@@ -0,0 +1,154 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Атрибуты объявлений в text (как было до jsonb) против jsonb + GIN (jsonb_path_ops) на настоящем PostgreSQL:
+ * запись, чтение карточек по id и фильтр "brand=Apple, storage=256GB".
+ * <p>
+ * Для text фильтр возможен только разбором каждой строки (attributes::jsonb @> ...), для jsonb — по GIN-индексу.
+ * Нужен Docker и явное включение, в обычной сборке не запускается:
+ * mvn -pl modules/listing test -Dtest=AttributeStorageBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=200000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+class AttributeStorageBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AttributeStorageBenchmarkTest.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 200_000);
+    private static final int BATCH = 1_000;
+    private static final int READ_IDS = 1_000;
+    private static final int RUNS = 5;
+    private static final String FILTER = "{\"brand\":\"Apple\",\"storage\":\"256GB\"}";
+
+    private static final String[] BRANDS = {"Apple", "Samsung", "Xiaomi", "Google", "OnePlus", "Sony", "Nokia", "Huawei",
+            "Honor", "Realme", "Oppo", "Vivo", "Motorola", "Asus", "ZTE", "Meizu", "Lenovo", "LG", "HTC", "Tecno"};
+    private static final String[] STORAGE = {"64GB", "128GB", "256GB", "512GB", "1TB"};
+    private static final String[] COLORS = {"black", "white", "blue", "red", "green", "gold", "silver", "purple"};
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    private record Result(String name, long writeMillis, long readMillis, long filterMillis, long matches, long indexBytes) {
+        @Override
+        public String toString() {
+            return String.format("%s: write %,d rows in %,d ms, read %,d cards by id %,d ms, filter %,d ms (%,d rows), index %,d KB",
+                    name, ROWS, writeMillis, READ_IDS, readMillis, filterMillis, matches, indexBytes / 1024);
+        }
+    }
+
+    @Test
+    void jsonbContainmentUsesIndexInsteadOfParsingEveryRow() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl() + "&reWriteBatchedInserts=true", postgres.getUsername(), postgres.getPassword())) {
+            Result text = run(connection, "attrs_text", "text", null,
+                    "select count(*) from attrs_text where attributes::jsonb @> ?::jsonb");
+            Result jsonb = run(connection, "attrs_jsonb", "jsonb",
+                    "create index attrs_jsonb_gin on attrs_jsonb using gin (attributes jsonb_path_ops)",
+                    "select count(*) from attrs_jsonb where attributes @> ?::jsonb");
+            log.info("{}", text);
+            log.info("{}", jsonb);
+
+            assertThat(jsonb.matches()).isEqualTo(text.matches());
+            assertThat(jsonb.filterMillis()).as("%s vs %s", jsonb, text).isLessThan(text.filterMillis());
+        }
+    }
+
+    private static Result run(Connection connection, String table, String type, String indexDdl, String filterSql)
+            throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("create table " + table + " (id uuid primary key, attributes " + type + " not null)");
+            if (indexDdl != null) ddl.execute(indexDdl);
+        }
+        List<UUID> ids = new ArrayList<>(ROWS);
+        SplittableRandom random = new SplittableRandom(42); // одинаковые данные для обеих таблиц
+
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into " + table + " (id, attributes) values (?, ?::" + type + ")")) {
+            for (int i = 1; i <= ROWS; i++) {
+                UUID id = UUID.randomUUID();
+                ids.add(id);
+                insert.setObject(1, id);
+                insert.setString(2, attributes(random));
+                insert.addBatch();
+                if (i % BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        long writeMillis = millisSince(started);
+        try (Statement analyze = connection.createStatement()) {
+            analyze.execute("analyze " + table);
+        }
+
+        long readMillis = Long.MAX_VALUE;
+        long filterMillis = Long.MAX_VALUE;
+        long matches = 0;
+        try (PreparedStatement read = connection.prepareStatement("select attributes from " + table + " where id = any (?)");
+             PreparedStatement filter = connection.prepareStatement(filterSql)) {
+            read.setArray(1, connection.createArrayOf("uuid", ids.subList(0, READ_IDS).toArray()));
+            filter.setString(1, FILTER);
+            for (int run = 0; run < RUNS; run++) { // лучший из прогонов — без шума прогрева кеша
+                started = System.nanoTime();
+                try (ResultSet rs = read.executeQuery()) {
+                    while (rs.next()) rs.getString(1);
+                }
+                readMillis = Math.min(readMillis, millisSince(started));
+
+                started = System.nanoTime();
+                try (ResultSet rs = filter.executeQuery()) {
+                    rs.next();
+                    matches = rs.getLong(1);
+                }
+                filterMillis = Math.min(filterMillis, millisSince(started));
+            }
+        }
+        long indexBytes = indexDdl == null ? 0 : scalar(connection, "select pg_relation_size('attrs_jsonb_gin')");
+        return new Result(table, writeMillis, readMillis, filterMillis, matches, indexBytes);
+    }
+
+    private static String attributes(SplittableRandom random) {
+        return "{\"brand\":\"" + BRANDS[random.nextInt(BRANDS.length)]
+                + "\",\"storage\":\"" + STORAGE[random.nextInt(STORAGE.length)]
+                + "\",\"color\":\"" + COLORS[random.nextInt(COLORS.length)]
+                + "\",\"year\":\"" + (2015 + random.nextInt(10)) + "\"}";
+    }
+
+    private static long millisSince(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private static long scalar(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.attribute.AttributeSchemaRegistry;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.category.CategoryNode;
+import org.vornex.listing.entity.Category;
+import org.vornex.listing.repository.CategoryRepository;
+import org.vornex.listing.validation.ListingValidator;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CategoryCatalogTest {
+
+    private CategoryCatalog catalog;
+
+    @BeforeEach
+    void init() {
+        Category electronics = category("electronics", null, 1);
+        Category cars = category("cars", null, 0);
+        Category phones = category("phones", electronics, 0);
+        Category laptops = category("laptops", electronics, 0);
+        Category gaming = category("gaming-laptops", laptops, 0);
+
+        CategoryRepository repository = mock(CategoryRepository.class);
+        when(repository.findAll()).thenReturn(List.of(gaming, phones, electronics, laptops, cars));
+        catalog = new CategoryCatalog(repository);
+        catalog.reload();
+    }
+
+    @Test
+    void reload_buildsTreeOrderedByPositionThenSlug() {
+        assertThat(catalog.roots()).extracting(CategoryNode::slug).containsExactly("cars", "electronics");
+
+        CategoryNode electronics = catalog.roots().get(1);
+        assertThat(electronics.children()).extracting(CategoryNode::slug).containsExactly("laptops", "phones");
+
+        CategoryNode gaming = catalog.find("gaming-laptops").orElseThrow();
+        assertThat(gaming.path()).isEqualTo("/electronics/laptops/gaming-laptops/");
+        assertThat(gaming.depth()).isEqualTo(2);
+        assertThat(gaming.parentSlug()).isEqualTo("laptops");
+        assertThat(gaming.isLeaf()).isTrue();
+        assertThat(catalog.find("unknown")).isEmpty();
+    }
+
+    @Test
+    void validator_acceptsOnlyKnownLeafCategories() {
+        ListingValidator validator = new ListingValidator(mock(AttributeSchemaRegistry.class), catalog);
+
+        assertThat(validator.validateCategory(" phones ").path()).isEqualTo("/electronics/phones/");
+        assertThatThrownBy(() -> validator.validateCategory("laptops"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("subcategories");
+        assertThatThrownBy(() -> validator.validateCategory("boats"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("unknown category");
+    }
+
+    private static Category category(String slug, Category parent, int position) {
+        Category c = new Category();
+        c.setId(UUID.randomUUID());
+        c.setSlug(slug);
+        c.setName(slug);
+        c.setParentId(parent == null ? null : parent.getId());
+        c.setPath((parent == null ? "/" : parent.getPath()) + slug + "/");
+        c.setPosition(position);
+        return c;
+    }
+}
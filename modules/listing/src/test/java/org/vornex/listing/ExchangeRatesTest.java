@@ -0,0 +1,44 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.currency.ExchangeRates;
+import org.vornex.listing.repository.ExchangeRateJdbcRepository;
+import org.vornex.listing.repository.ExchangeRateJdbcRepository.Rate;
+import org.vornex.listing.util.CurrencyProperties;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ExchangeRatesTest {
+
+    private final ExchangeRateJdbcRepository repository = mock(ExchangeRateJdbcRepository.class);
+    private final ExchangeRates rates = new ExchangeRates(repository, new CurrencyProperties());
+
+    @Test
+    void toBase_convertsWithCachedRateAndRoundsLikeSql() {
+        when(repository.findAll()).thenReturn(List.of(
+                new Rate("USD", new BigDecimal("92.4537000000"), Instant.EPOCH)));
+        rates.reload();
+
+        assertThat(rates.toBase(new Money(new BigDecimal("10.01"), "USD"))).isEqualByComparingTo("925.46");
+        assertThat(rates.toBase(new Money(new BigDecimal("1500.00"), "RUB"))).isEqualByComparingTo("1500.00");
+        assertThat(rates.toBase(new Money(new BigDecimal("10"), "GBP"))).isNull();
+        assertThat(rates.toBase(null)).isNull();
+    }
+
+    @Test
+    void reload_picksUpChangedRates() {
+        when(repository.findAll()).thenReturn(List.of(new Rate("EUR", new BigDecimal("100"), Instant.EPOCH)));
+        rates.reload();
+        when(repository.findAll()).thenReturn(List.of(new Rate("EUR", new BigDecimal("101"), Instant.EPOCH)));
+        rates.reload();
+
+        assertThat(rates.toBase(new Money(BigDecimal.ONE, "EUR"))).isEqualByComparingTo("101");
+        assertThat(rates.rates()).containsKeys("RUB", "EUR");
+    }
+}
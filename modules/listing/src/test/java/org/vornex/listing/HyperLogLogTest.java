@@ -0,0 +1,51 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.view.HyperLogLog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimate_isWithinFewPercent_andIgnoresRepeats() {
+        HyperLogLog hll = new HyperLogLog();
+        for (int i = 0; i < 100_000; i++) {
+            hll.offer("u:" + i);
+            hll.offer("u:" + i); // повторный просмотр того же зрителя
+        }
+        assertThat((double) hll.estimate()).isCloseTo(100_000, within(5_000.0));
+    }
+
+    @Test
+    void merge_givesUnion_andSurvivesSerialization() {
+        HyperLogLog a = new HyperLogLog();
+        HyperLogLog b = new HyperLogLog();
+        for (int i = 0; i < 1_000; i++) a.offer("u:" + i);
+        for (int i = 500; i < 1_500; i++) b.offer("u:" + i);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(a.toBytes());
+        restored.merge(b);
+        restored.merge(b); // merge идемпотентен
+
+        assertThat((double) restored.estimate()).isCloseTo(1_500, within(60.0));
+        assertThat(a.toBytes()).hasSize(4097);
+    }
+
+    @Test
+    void sparseSketch_turnsDense_withSameRegistersAndEstimate() {
+        HyperLogLog sparse = new HyperLogLog();
+        for (int i = 0; i < 100; i++) sparse.offer("u:" + i);
+        assertThat(sparse.isSparse()).isTrue();
+
+        HyperLogLog dense = HyperLogLog.fromBytes(sparse.toBytes());
+        assertThat(dense.isSparse()).isFalse();
+        assertThat(dense.estimate()).isEqualTo(sparse.estimate());
+        assertThat((double) sparse.estimate()).isCloseTo(100, within(5.0));
+
+        for (int i = 100; i < 2_000; i++) sparse.offer("u:" + i);
+        assertThat(sparse.isSparse()).isFalse();
+        assertThat((double) sparse.estimate()).isCloseTo(2_000, within(100.0));
+    }
+}
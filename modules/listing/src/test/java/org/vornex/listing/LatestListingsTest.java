@@ -0,0 +1,93 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.dto.LatestListingDto;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.latest.LatestListings;
+import org.vornex.listing.repository.LatestListingsJdbcRepository;
+import org.vornex.listing.util.LatestListingsProperties;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LatestListingsTest {
+
+    private LatestListingsJdbcRepository repository;
+    private LatestListings latest;
+
+    @BeforeEach
+    void init() {
+        repository = mock(LatestListingsJdbcRepository.class);
+        LatestListingsProperties props = new LatestListingsProperties();
+        props.setCapacity(3);
+        latest = new LatestListings(repository, props);
+    }
+
+    @Test
+    void publish_feedsAllCategoryPathNodesAndCities_newestFirst() {
+        LatestListingDto phone = publish(summary("phone", "/electronics/phones/", "Berlin", 1L));
+        LatestListingDto laptop = publish(summary("laptop", "/electronics/laptops/", null, 1L));
+
+        assertThat(latest.latest("electronics", null, 10)).containsExactly(laptop, phone);
+        assertThat(latest.latest("phones", "berlin", 10)).containsExactly(phone);
+        assertThat(latest.latest(null, " BERLIN ", 10)).containsExactly(phone);
+        assertThat(latest.latest("laptops", "berlin", 10)).isEmpty();
+    }
+
+    @Test
+    void ringIsBounded_andStaleEntriesAreFilteredByVersion() {
+        LatestListingDto first = publish(summary("a", "/phones/", null, 1L));
+        LatestListingDto second = publish(summary("b", "/phones/", null, 1L));
+        LatestListingDto third = publish(summary("c", "/phones/", null, 1L));
+        LatestListingDto fourth = publish(summary("d", "/phones/", null, 1L));
+        assertThat(latest.latest("phones", null, 10)).containsExactly(fourth, third, second);
+
+        // правка: карточка обновляется на месте, порядок не меняется
+        LatestListingDto edited = new LatestListingDto(third.id(), "c (edited)", null, "phones", "/phones/", null,
+                null, third.publishedAt(), 2L);
+        when(repository.findPublished(third.id())).thenReturn(Optional.of(edited));
+        latest.onListingChanged(event(third.id(), ListingChangeType.UPDATED, ListingStatus.PUBLISHED));
+        assertThat(latest.latest("phones", null, 10)).containsExactly(fourth, edited, second);
+
+        latest.onListingChanged(event(fourth.id(), ListingChangeType.DELETED, ListingStatus.PUBLISHED));
+        assertThat(latest.latest("phones", null, 2)).containsExactly(edited, second);
+        assertThat(first).isNotIn(latest.latest("phones", null, 10));
+    }
+
+    @Test
+    void rebuild_replacesStateFromDatabase() {
+        LatestListingDto old = publish(summary("old", "/phones/", null, 1L));
+        LatestListingDto fromDb = summary("db", "/phones/", null, 5L);
+        when(repository.findLatestPerBucket(3)).thenReturn(List.of(fromDb));
+
+        latest.rebuild();
+
+        assertThat(latest.latest("phones", null, 10)).containsExactly(fromDb);
+        assertThat(old).isNotIn(latest.latest(null, null, 10));
+    }
+
+    private LatestListingDto publish(LatestListingDto summary) {
+        when(repository.findPublished(summary.id())).thenReturn(Optional.of(summary));
+        latest.onListingChanged(event(summary.id(), ListingChangeType.PUBLISHED, ListingStatus.PUBLISHED));
+        return summary;
+    }
+
+    private static ListingChangedEvent event(UUID id, ListingChangeType type, ListingStatus status) {
+        return new ListingChangedEvent(id, type, null, status, null, Set.of(), null, null);
+    }
+
+    private static LatestListingDto summary(String title, String path, String city, long version) {
+        String category = path.substring(path.lastIndexOf('/', path.length() - 2) + 1, path.length() - 1);
+        return new LatestListingDto(UUID.randomUUID(), title, null, category, path, city, null, Instant.now(), version);
+    }
+}
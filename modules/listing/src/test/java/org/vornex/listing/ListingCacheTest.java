@@ -0,0 +1,61 @@
+package org.vornex.listing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.cache.ListingCache;
+import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.util.ListingCacheProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingCacheTest {
+
+    private final ListingCache cache = new ListingCache(new ListingCacheProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void getAll_loadsOnlyMissesInOneCall_andSkipsUnknownIds() {
+        UUID cached = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID unknown = UUID.randomUUID();
+        cache.get(cached, ListingCacheTest::card);
+
+        List<Set<? extends UUID>> loaderCalls = new ArrayList<>();
+        Map<UUID, ListingResponseDto> result = cache.getAll(List.of(cached, missing, unknown), ids -> {
+            loaderCalls.add(Set.copyOf(ids));
+            Map<UUID, ListingResponseDto> loaded = new HashMap<>();
+            if (ids.contains(missing)) loaded.put(missing, card(missing));
+            return loaded;
+        });
+
+        assertThat(loaderCalls).containsExactly(Set.of(missing, unknown));
+        assertThat(result).containsOnlyKeys(cached, missing);
+        assertThat(cache.peek(missing)).isPresent();
+        assertThat(cache.peek(unknown)).isEmpty();
+    }
+
+    @Test
+    void getAll_doesNotCacheCardInvalidatedWhileLoading() {
+        UUID id = UUID.randomUUID();
+
+        Map<UUID, ListingResponseDto> result = cache.getAll(List.of(id), ids -> {
+            Map<UUID, ListingResponseDto> loaded = Map.of(id, card(id)); // прочитано до коммита
+            cache.evict(id);                                            // коммит изменения + инвалидация
+            return loaded;
+        });
+
+        assertThat(result).containsOnlyKeys(id);
+        assertThat(cache.peek(id)).isEmpty();
+    }
+
+    private static ListingResponseDto card(UUID id) {
+        return new ListingResponseDto(id, "title", null, null, "phones", null, null, null, null, null,
+                null, null, null, 0, List.of(), 0L);
+    }
+}
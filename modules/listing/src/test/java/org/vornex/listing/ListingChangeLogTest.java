@@ -0,0 +1,77 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.dto.ListingChangeDto;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.feed.ListingChangeLog;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListingChangeLogTest {
+
+    @Test
+    void readAfter_returnsEventsAfterCursorInOrder() {
+        ListingChangeLog log = new ListingChangeLog(8, 100);
+        long first = log.append(change());
+        log.append(change());
+        log.append(change());
+
+        ListingChangeLog.Slice slice = log.readAfter(first, 10);
+
+        assertThat(slice.gap()).isFalse();
+        assertThat(slice.entries()).extracting(ListingChangeLog.Entry::seq).containsExactly(101L, 102L);
+        assertThat(slice.lastSeq()).isEqualTo(102);
+        assertThat(log.readAfter(102, 10).entries()).isEmpty();
+    }
+
+    @Test
+    void readAfter_reportsGapWhenCursorWasOverwritten() {
+        ListingChangeLog log = new ListingChangeLog(2, 0);
+        for (int i = 0; i < 5; i++) log.append(change()); // 0..4, в буфере 3 и 4
+
+        ListingChangeLog.Slice slice = log.readAfter(0, 10);
+
+        assertThat(slice.gap()).isTrue();
+        assertThat(slice.entries()).extracting(ListingChangeLog.Entry::seq).containsExactly(3L, 4L);
+    }
+
+    @Test
+    void readAfter_cursorFromAnotherRunIsAGap() {
+        ListingChangeLog log = new ListingChangeLog(4, 1_000);
+        log.append(change());
+
+        assertThat(log.readAfter(5_000, 10).gap()).isTrue();   // "будущий" id
+        assertThat(log.readAfter(10, 10).gap()).isTrue();      // id прошлого запуска
+        assertThat(log.readAfter(999, 10).gap()).isFalse();    // подписка до первого события
+    }
+
+    @Test
+    void awaitAfter_wakesUpOnAppend() throws Exception {
+        ListingChangeLog log = new ListingChangeLog(4, 0);
+        long cursor = log.lastSeq();
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return log.awaitAfter(cursor, TimeUnit.SECONDS.toNanos(5));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        log.append(change());
+
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(log.awaitAfter(log.lastSeq(), 1_000)).isFalse();
+    }
+
+    private static ListingChangeDto change() {
+        return new ListingChangeDto(UUID.randomUUID(), ListingChangeType.UPDATED, 1L, ListingStatus.PUBLISHED,
+                "phones", "/electronics/phones/", Set.of("price"), Instant.now());
+    }
+}
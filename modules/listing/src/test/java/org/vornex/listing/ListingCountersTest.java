@@ -0,0 +1,96 @@
+package org.vornex.listing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.vornex.listing.counter.ListingCounters;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.repository.ListingCountersJdbcRepository;
+import org.vornex.listing.repository.ListingCountersJdbcRepository.CounterRow;
+import org.vornex.listing.util.ListingCounterProperties;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ListingCountersTest {
+
+    private final ListingCountersJdbcRepository repository = mock(ListingCountersJdbcRepository.class);
+    private final ListingCounters counters = new ListingCounters(repository, new ListingCounterProperties(),
+            Clock.systemUTC(), mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static ListingChangedEvent event(ListingChangeType type, ListingStatus status, String category,
+                                             ListingStatus previousStatus, String previousCategory) {
+        return new ListingChangedEvent(UUID.randomUUID(), type, 1L, status, category, Set.of(), previousStatus, previousCategory);
+    }
+
+    @Test
+    void deltasOfOneTransactionAreMergedAndWrittenSortedBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        counters.onListingChanged(event(ListingChangeType.CREATED, ListingStatus.DRAFT, "phones", null, null));
+        counters.onListingChanged(event(ListingChangeType.CREATED, ListingStatus.DRAFT, "bikes", null, null));
+        counters.onListingChanged(event(ListingChangeType.PUBLISHED, ListingStatus.PUBLISHED, "phones", ListingStatus.DRAFT, "phones"));
+        counters.onListingChanged(event(ListingChangeType.UPDATED, ListingStatus.PUBLISHED, "phones", ListingStatus.PUBLISHED, "phones"));
+        counters.onListingChanged(new ListingChangedEvent(UUID.randomUUID(), ListingChangeType.ATTACHMENTS_CHANGED));
+        verifyNoInteractions(repository);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertThat(synchronizations).hasSize(1);
+        synchronizations.get(0).beforeCommit(false);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        // phones/DRAFT: +1 -1 = 0 — не пишется
+        verify(repository).addDeltas(List.of(
+                new CounterRow("bikes", "DRAFT", 1),
+                new CounterRow("phones", "PUBLISHED", 1)));
+        assertThat(TransactionSynchronizationManager.getResource(counters)).isNull();
+    }
+
+    @Test
+    void categoryMoveAndDeleteOutsideTransaction() {
+        counters.onListingChanged(event(ListingChangeType.UPDATED, ListingStatus.PUBLISHED, "cars", ListingStatus.PUBLISHED, "bikes"));
+        verify(repository).addDeltas(List.of(
+                new CounterRow("bikes", "PUBLISHED", -1),
+                new CounterRow("cars", "PUBLISHED", 1)));
+
+        counters.onListingChanged(event(ListingChangeType.DELETED, ListingStatus.PUBLISHED, "cars", ListingStatus.PUBLISHED, "cars"));
+        verify(repository).addDeltas(List.of(new CounterRow("cars", "PUBLISHED", -1)));
+    }
+
+    @Test
+    void readsComeFromCachedSnapshotUntilInvalidated() {
+        when(repository.findAll()).thenReturn(List.of(
+                new CounterRow("phones", "PUBLISHED", 5),
+                new CounterRow("phones", "DRAFT", 2),
+                new CounterRow("bikes", "PUBLISHED", 3)));
+
+        assertThat(counters.countByCategory(ListingStatus.PUBLISHED)).containsExactly(
+                Map.entry("bikes", 3L), Map.entry("phones", 5L));
+        assertThat(counters.countByCategory(ListingStatus.DRAFT)).containsOnlyKeys("phones");
+        verify(repository, times(1)).findAll();
+
+        counters.invalidate();
+        counters.countByCategory(ListingStatus.PUBLISHED);
+        verify(repository, times(2)).findAll();
+        verify(repository, never()).addDeltas(anyList());
+    }
+}
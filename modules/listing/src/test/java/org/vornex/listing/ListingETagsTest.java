@@ -0,0 +1,39 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.util.ListingETags;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListingETagsTest {
+
+    private final UUID id = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+
+    @Test
+    void etagIsStrongAndQuoted() {
+        assertThat(ListingETags.of(id, 3)).isEqualTo("\"0f8fad5b-d9cb-469f-a165-70867728950e-3\"");
+    }
+
+    @Test
+    void ifNoneMatch_matchesListsWeakTagsAndWildcard() {
+        String current = ListingETags.of(id, 3);
+
+        assertThat(ListingETags.noneMatchHits("\"other\", " + current, current)).isTrue();
+        assertThat(ListingETags.noneMatchHits("W/" + current, current)).isTrue();
+        assertThat(ListingETags.noneMatchHits("*", current)).isTrue();
+        assertThat(ListingETags.noneMatchHits(ListingETags.of(id, 2), current)).isFalse();
+    }
+
+    @Test
+    void ifMatch_yieldsVersionOnlyForThisListing() {
+        assertThat(ListingETags.versionFromIfMatch(id, ListingETags.of(id, 7))).contains(7L);
+        assertThat(ListingETags.versionFromIfMatch(id, "*")).isEmpty();
+        assertThatThrownBy(() -> ListingETags.versionFromIfMatch(id, ListingETags.of(UUID.randomUUID(), 7)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ListingETags.versionFromIfMatch(id, "\"" + id + "-x\""))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
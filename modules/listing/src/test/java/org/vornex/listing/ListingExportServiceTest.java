@@ -0,0 +1,118 @@
+package org.vornex.listing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.listing.dto.ListingExportFilterDto;
+import org.vornex.listing.enums.ListingFileFormat;
+import org.vornex.listing.repository.ListingExportJdbcRepository;
+import org.vornex.listing.service.impl.ListingExportServiceImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ListingExportServiceTest {
+
+    private final ListingExportFilterDto noFilter = new ListingExportFilterDto(null, null, null);
+    private ListingExportJdbcRepository repository;
+    private SecurityContextUtils securityUtils;
+    private ListingExportServiceImpl service;
+
+    @BeforeEach
+    void init() throws Exception {
+        repository = mock(ListingExportJdbcRepository.class);
+        securityUtils = mock(SecurityContextUtils.class);
+        when(securityUtils.isAdmin()).thenReturn(true);
+        when(securityUtils.getCurrentUserIdRequired()).thenReturn(UUID.randomUUID());
+        service = new ListingExportServiceImpl(repository, securityUtils, new ObjectMapper(),
+                mock(PlatformTransactionManager.class));
+
+        ResultSet rs = resultSet();
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(repository).streamAll(any(), any());
+    }
+
+    @Test
+    void ndjson_gzip_writesOneObjectPerLineWithRawAttributes() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(noFilter, ListingFileFormat.NDJSON, true).writeTo(out);
+
+        String text = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        String[] lines = text.split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode row = new ObjectMapper().readTree(lines[0]);
+        assertThat(row.get("title").asText()).isEqualTo("iPhone, 13");
+        assertThat(row.get("price").get("amount").decimalValue()).isEqualByComparingTo("500.00");
+        assertThat(row.get("attributes").get("brand").asText()).isEqualTo("Apple");
+        assertThat(row.get("createdAt").asText()).isEqualTo("2024-01-01T00:00:00Z");
+    }
+
+    @Test
+    void csv_writesHeaderAndQuotedRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(noFilter, ListingFileFormat.CSV, false).writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("id,title,description,price_amount");
+        assertThat(lines[1]).contains("\"iPhone, 13\"").contains(",500.00,EUR,");
+    }
+
+    @Test
+    void export_requiresAdmin() {
+        when(securityUtils.isAdmin()).thenReturn(false);
+
+        assertThatThrownBy(() -> service.export(noFilter, ListingFileFormat.CSV, false))
+                .isInstanceOf(ForbiddenException.class);
+        verifyNoInteractions(repository);
+    }
+
+    private static ResultSet resultSet() throws Exception {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", UUID.randomUUID().toString());
+        row.put("title", "iPhone, 13");
+        row.put("price_amount", new BigDecimal("500.00"));
+        row.put("price_currency", "EUR");
+        row.put("category", "phones");
+        row.put("status", "PUBLISHED");
+        row.put("attributes", "{\"brand\": \"Apple\"}");
+        row.put("views_count", 7L);
+        row.put("created_at", Timestamp.from(Instant.parse("2024-01-01T00:00:00Z")));
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(anyString())).thenAnswer(inv -> row.get(inv.<String>getArgument(0)));
+        when(rs.getString(anyString())).thenAnswer(inv -> {
+            Object v = row.get(inv.<String>getArgument(0));
+            return v == null ? null : v.toString();
+        });
+        when(rs.getBigDecimal(anyString())).thenAnswer(inv -> row.get(inv.<String>getArgument(0)));
+        when(rs.getLong(anyString())).thenAnswer(inv -> row.getOrDefault(inv.<String>getArgument(0), 0L));
+        when(rs.getTimestamp(anyString())).thenAnswer(inv -> row.get(inv.<String>getArgument(0)));
+        return rs;
+    }
+}
@@ -0,0 +1,186 @@
+package org.vornex.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.exception.ForbiddenException;
+import org.vornex.listing.attribute.AttributeSchemaRegistry;
+import org.vornex.listing.category.CategoryCatalog;
+import org.vornex.listing.currency.ExchangeRates;
+import org.vornex.listing.duplicate.NearDuplicateIndex;
+import org.vornex.listing.dto.ListingImportResultDto;
+import org.vornex.listing.entity.Category;
+import org.vornex.listing.enums.ListingFileFormat;
+import org.vornex.listing.enums.ItemCondition;
+import org.vornex.listing.repository.CategoryRepository;
+import org.vornex.listing.repository.ListingAttributeIndexRepository;
+import org.vornex.listing.repository.ListingImportJdbcRepository;
+import org.vornex.listing.repository.ListingImportJdbcRepository.NewListing;
+import org.vornex.listing.service.impl.ListingImportServiceImpl;
+import org.vornex.listing.util.ListingImportProperties;
+import org.vornex.listing.validation.ListingValidator;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class ListingImportServiceTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private ListingImportJdbcRepository importRepository;
+    private SecurityContextUtils securityUtils;
+    private ListingImportServiceImpl service;
+
+    @BeforeEach
+    void init() {
+        importRepository = mock(ListingImportJdbcRepository.class);
+        securityUtils = mock(SecurityContextUtils.class);
+        when(securityUtils.getCurrentUserIdRequired()).thenReturn(userId);
+
+        ListingImportProperties properties = new ListingImportProperties();
+        properties.setBatchSize(2);
+        properties.setMaxErrors(1);
+
+        CategoryRepository categoryRepository = mock(CategoryRepository.class);
+        when(categoryRepository.findAll()).thenReturn(List.of(category("phones"), category("laptops")));
+        CategoryCatalog catalog = new CategoryCatalog(categoryRepository);
+        catalog.reload();
+
+        service = new ListingImportServiceImpl(
+                importRepository,
+                mock(ListingAttributeIndexRepository.class),
+                mock(NearDuplicateIndex.class),
+                mock(ExchangeRates.class),
+                new ListingValidator(mock(AttributeSchemaRegistry.class), catalog),
+                securityUtils,
+                mock(ApplicationEventPublisher.class),
+                properties,
+                Clock.systemUTC(),
+                new ObjectMapper(),
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void ndjson_invalidRowsAreReportedAndValidOnesInsertedInBatches() {
+        String body = """
+                {"title":"iPhone 13","category":"phones","price":{"amount":500,"currency":"EUR"}}
+                {"title":"x","category":"phones"}
+                not json
+
+                {"title":"Pixel 8","category":"phones","attributes":{"brand":"Google"}}
+                {"title":"Galaxy S23","category":"phones"}
+                """;
+
+        ListingImportResultDto result = service.importListings(stream(body), ListingFileFormat.NDJSON, null);
+
+        assertThat(result.totalRows()).isEqualTo(5);
+        assertThat(result.imported()).isEqualTo(3);
+        assertThat(result.failed()).isEqualTo(2);
+        assertThat(result.errors()).singleElement()
+                .satisfies(e -> assertThat(e.row()).isEqualTo(2));
+        assertThat(result.errorsTruncated()).isTrue();
+
+        ArgumentCaptor<List<NewListing>> captor = ArgumentCaptor.forClass(List.class);
+        verify(importRepository, times(2)).insertAll(captor.capture());
+        assertThat(captor.getAllValues().get(0)).hasSize(2);
+        assertThat(captor.getAllValues().get(0).get(0).ownerId()).isEqualTo(userId);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void csv_mapsColumnsAndAttributePrefix() {
+        String body = """
+                title,price_amount,price_currency,category,item_condition,attr.brand,attr.color
+                MacBook Air,999.90,EUR,laptops,new,Apple,
+                """;
+
+        ListingImportResultDto result = service.importListings(stream(body), ListingFileFormat.CSV, null);
+
+        assertThat(result.imported()).isEqualTo(1);
+        ArgumentCaptor<List<NewListing>> captor = ArgumentCaptor.forClass(List.class);
+        verify(importRepository).insertAll(captor.capture());
+        NewListing listing = captor.getValue().get(0);
+        assertThat(listing.price().getAmount()).isEqualByComparingTo(new BigDecimal("999.90"));
+        assertThat(listing.itemCondition()).isEqualTo(ItemCondition.NEW);
+        assertThat(listing.attributes()).containsOnlyKeys("brand");
+    }
+
+    @Test
+    void failedBatchIsRetriedRowByRow() {
+        doThrow(new DataIntegrityViolationException("price_amount is null"))
+                .when(importRepository).insertAll(argThat(list -> list.size() > 1 || list.get(0).price() == null));
+
+        String body = """
+                {"title":"No price","category":"phones"}
+                {"title":"With price","category":"phones","price":{"amount":1,"currency":"EUR"}}
+                """;
+
+        ListingImportResultDto result = service.importListings(stream(body), ListingFileFormat.NDJSON, null);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(e -> assertThat(e.row()).isEqualTo(1));
+        verify(importRepository, times(3)).insertAll(anyList());
+    }
+
+    @Test
+    void ndjson_oversizedRowIsRejectedWithoutStoppingImport() {
+        String body = "{\"title\":\"" + "x".repeat(200_000) + "\",\"category\":\"phones\"}\r\n"
+                + "{\"title\":\"Pixel 8\",\"category\":\"phones\"}";
+
+        ListingImportResultDto result = service.importListings(stream(body), ListingFileFormat.NDJSON, null);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.errors()).singleElement().satisfies(e -> {
+            assertThat(e.row()).isEqualTo(1);
+            assertThat(e.message()).contains("too long");
+        });
+    }
+
+    @Test
+    void csv_priceWithoutCurrencyIsRowError() {
+        String body = """
+                title,price_amount,price_currency,category
+                MacBook Air,999.90,,laptops
+                """;
+
+        ListingImportResultDto result = service.importListings(stream(body), ListingFileFormat.CSV, null);
+
+        assertThat(result.imported()).isZero();
+        assertThat(result.errors()).singleElement().satisfies(e -> assertThat(e.message()).contains("currency"));
+        verifyNoInteractions(importRepository);
+    }
+
+    @Test
+    void importForAnotherOwner_requiresAdmin() {
+        assertThatThrownBy(() -> service.importListings(stream(""), ListingFileFormat.NDJSON, UUID.randomUUID()))
+                .isInstanceOf(ForbiddenException.class);
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Category category(String slug) {
+        Category c = new Category();
+        c.setId(UUID.randomUUID());
+        c.setSlug(slug);
+        c.setName(slug);
+        c.setPath("/" + slug + "/");
+        return c;
+    }
+}
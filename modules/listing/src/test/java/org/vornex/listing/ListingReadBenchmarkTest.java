@@ -0,0 +1,186 @@
+package org.vornex.listing;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.entity.Attachment;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.mapper.ListingMapper;
+import org.vornex.listing.mapper.ListingMapperImpl;
+import org.vornex.listing.repository.ListingReadRepository;
+import org.vornex.listing.repository.ListingRepository;
+import org.vornex.listing.service.StorageService;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Чтение страницы карточек (20 объявлений по 5 вложений) на настоящем PostgreSQL:
+ * прежний путь (fetch join сущностей + ListingMapper) против DTO-проекции ListingReadRepository.
+ * Для каждого варианта — время и аллоцированные байты (ThreadMXBean) на страницу.
+ * <p>
+ * Нужен Docker и явное включение, в обычной сборке не запускается:
+ * mvn -pl modules/listing test -Dtest=ListingReadBenchmarkTest -Dbenchmark=true [-Dbenchmark.pages=2000]
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) // транзакция на страницу, как в сервисе
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+class ListingReadBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ListingReadBenchmarkTest.class);
+
+    private static final int LISTINGS = 2_000;
+    private static final int ATTACHMENTS = 5;
+    private static final int PAGE = 20;
+    private static final int PAGES = Integer.getInteger("benchmark.pages", 2_000);
+    private static final int WARMUP_PAGES = 500;
+
+    private static final String ENTITY_SQL =
+            "select distinct l from Listing l left join fetch l.attachments a where l.id in :ids";
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @SpringBootConfiguration
+    @EntityScan(basePackageClasses = Listing.class)
+    @EnableJpaRepositories(basePackageClasses = ListingRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ListingRepository.class))
+    @Import({ListingReadRepository.class, ListingMapperImpl.class})
+    static class Config {
+        @Bean
+        StorageService storageService() {
+            StorageService storage = mock(StorageService.class);
+            when(storage.publicUrl(anyString())).thenAnswer(inv -> "https://cdn.example.com/" + inv.getArgument(0));
+            return storage;
+        }
+    }
+
+    private record Result(String name, long microsPerPage, long allocatedBytesPerPage) {
+        @Override
+        public String toString() {
+            return String.format("%s: %,d pages of %d cards, %,d us/page, allocated %,d KB/page",
+                    name, PAGES, PAGE, microsPerPage, allocatedBytesPerPage / 1024);
+        }
+    }
+
+    @Autowired
+    private ListingRepository listingRepository;
+    @Autowired
+    private ListingReadRepository readRepository;
+    @Autowired
+    private ListingMapper mapper;
+    @Autowired
+    private EntityManager em;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void projectionAllocatesLessThanEntities() {
+        List<UUID> ids = insertListings();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Result entities = measure("entity fetch join + ListingMapper", ids, page -> readOnly.execute(status ->
+                em.createQuery(ENTITY_SQL, Listing.class).setParameter("ids", page).getResultList()
+                        .stream().map(mapper::toDto).toList()));
+        Result projection = measure("ListingReadRepository", ids, readRepository::findAllById);
+        log.info("{}", entities);
+        log.info("{}", projection);
+
+        assertThat(projection.allocatedBytesPerPage()).as("%s vs %s", projection, entities)
+                .isLessThan(entities.allocatedBytesPerPage());
+    }
+
+    private static Result measure(String name, List<UUID> ids, Function<List<UUID>, List<ListingResponseDto>> load) {
+        for (int i = 0; i < WARMUP_PAGES; i++) assertThat(load.apply(page(ids, i))).hasSize(PAGE);
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (int i = 0; i < PAGES; i++) load.apply(page(ids, i));
+        long nanos = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        return new Result(name, nanos / PAGES / 1_000, allocated / PAGES);
+    }
+
+    private static List<UUID> page(List<UUID> ids, int i) {
+        int from = (i * PAGE) % (ids.size() - PAGE);
+        return ids.subList(from, from + PAGE);
+    }
+
+    private List<UUID> insertListings() {
+        List<Listing> listings = new ArrayList<>(LISTINGS);
+        for (int i = 0; i < LISTINGS; i++) {
+            Listing listing = Listing.builder()
+                    .title("Велосипед " + i)
+                    .description("Горный велосипед, пробег небольшой, торг уместен. ".repeat(10))
+                    .price(new Money(new BigDecimal("1000.00"), "RUB"))
+                    .category("bikes")
+                    .categoryPath("/sport/bikes/")
+                    .city("Москва")
+                    .status(ListingStatus.PUBLISHED)
+                    .ownerId(UUID.randomUUID())
+                    .attributes(Map.of("brand", "Merida", "frame", "M", "year", "2021"))
+                    .build();
+            for (int a = 0; a < ATTACHMENTS; a++) {
+                Attachment attachment = new Attachment();
+                attachment.setStorageKey("attachments/" + UUID.randomUUID() + ".jpg");
+                attachment.setContentType("image/jpeg");
+                attachment.setPosition(a + 1);
+                attachment.setProcessed(true);
+                attachment.setListing(listing);
+                listing.getAttachments().add(attachment);
+            }
+            listings.add(listing);
+        }
+        return listingRepository.saveAll(listings).stream().map(Listing::getId).toList();
+    }
+}
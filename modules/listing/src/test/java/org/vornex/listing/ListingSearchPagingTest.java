@@ -0,0 +1,84 @@
+package org.vornex.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.vornex.listing.dto.ListingFilterDto;
+import org.vornex.listing.enums.ListingSort;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.repository.ListingSearchRepository;
+import org.vornex.listing.repository.ListingSearchRepository.SearchResult;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset-пагинация поиска на настоящем PostgreSQL: обход курсорами даёт ту же выдачу, что и одна страница
+ * по OFFSET, — с одинаковыми значениями сортировки и объявлениями без popularity_score (nulls last).
+ * Таблица listings — только нужные колонки (changelog'и этого модуля listings не создают). Нужен Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ListingSearchPagingTest {
+
+    private static final Instant T0 = Instant.parse("2026-06-01T12:00:00Z");
+    private static final int LISTINGS = 23;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    private ListingSearchRepository repository;
+
+    @BeforeEach
+    void schema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("drop table if exists listings");
+        jdbc.execute("create table listings (id uuid primary key, status varchar(16) not null, " +
+                "created_at timestamp with time zone not null, popularity_score double precision, price_base numeric(19,2))");
+        for (int i = 0; i < LISTINGS; i++) {
+            // повторы значений сортировки — порядок внутри них решает id
+            jdbc.update("insert into listings values (?, ?, ?, ?, ?)",
+                    UUID.randomUUID(), i % 7 == 0 ? "DRAFT" : "PUBLISHED", Timestamp.from(T0.plusSeconds(i / 3)),
+                    i % 4 == 0 ? null : (double) (i % 5), new BigDecimal(100 * (i % 6)));
+        }
+        repository = new ListingSearchRepository(new NamedParameterJdbcTemplate(dataSource), new ObjectMapper());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ListingSort.class)
+    void cursorPagesMatchOffsetOrder(ListingSort sort) {
+        ListingFilterDto filter = new ListingFilterDto();
+        filter.setStatus(ListingStatus.PUBLISHED);
+        filter.setSort(sort);
+        List<UUID> expected = repository.search(filter, 0, 100, null).ids();
+
+        List<UUID> paged = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            SearchResult page = repository.search(filter, 0, 4, cursor);
+            paged.addAll(page.ids());
+            cursor = page.nextCursor();
+            assertThat(page.hasNext()).isEqualTo(cursor != null);
+            pages++;
+        } while (cursor != null);
+
+        assertThat(expected).hasSize(LISTINGS - 4); // 4 черновика: i = 0, 7, 14, 21
+        assertThat(paged).containsExactlyElementsOf(expected);
+        assertThat(pages).isEqualTo((expected.size() + 3) / 4);
+    }
+}
@@ -0,0 +1,158 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.listing.dto.ListingResponseDto;
+import org.vornex.listing.dto.ListingSyncDto;
+import org.vornex.listing.repository.ListingReadRepository;
+import org.vornex.listing.repository.ListingSyncJdbcRepository;
+import org.vornex.listing.repository.ListingSyncJdbcRepository.SyncEntry;
+import org.vornex.listing.service.impl.ListingSyncServiceImpl;
+import org.vornex.listing.sync.SyncToken;
+import org.vornex.listing.util.ListingSyncProperties;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Дельта-синхронизация на настоящем PostgreSQL: union изменений и надгробий, keyset по (ts, id),
+ * водяной знак и reset. Таблицы listings / listing_tombstones — только нужные колонки и индексы
+ * (changelog'и этого модуля listings не создают). Нужен Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ListingSyncTest {
+
+    private static final Instant T0 = Instant.parse("2026-06-01T12:00:00Z");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    private final UUID owner = UUID.randomUUID();
+    private final ListingSyncProperties props = new ListingSyncProperties();
+    private final Clock clock = mock(Clock.class);
+    private JdbcTemplate jdbc;
+    private ListingSyncJdbcRepository repository;
+    private ListingSyncServiceImpl service;
+
+    @BeforeEach
+    void schema() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        jdbc.execute("drop table if exists listings, listing_tombstones");
+        jdbc.execute("create table listings (id uuid primary key, owner_id uuid not null, " +
+                "updated_at timestamp with time zone not null)");
+        jdbc.execute("create index idx_listing_owner_updated on listings (owner_id, updated_at, id)");
+        jdbc.execute("create table listing_tombstones (listing_id uuid primary key, owner_id uuid not null, " +
+                "version bigint, deleted_at timestamp with time zone not null)");
+        jdbc.execute("create index idx_listing_tombstone_owner_deleted on listing_tombstones (owner_id, deleted_at, listing_id)");
+
+        repository = new ListingSyncJdbcRepository(jdbc);
+        ListingReadRepository readRepository = mock(ListingReadRepository.class);
+        when(readRepository.findAllById(anyCollection())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            return ids.stream().map(ListingSyncTest::card).toList();
+        });
+        SecurityContextUtils security = mock(SecurityContextUtils.class);
+        when(security.getCurrentUserIdRequired()).thenReturn(owner);
+        service = new ListingSyncServiceImpl(repository, readRepository, security, props, clock);
+    }
+
+    @Test
+    void findChanges_mergesChangesAndTombstonesInKeysetOrder() {
+        UUID a = new UUID(0L, 1L);
+        UUID b = new UUID(0L, 2L);
+        UUID c = new UUID(0L, 3L);
+        UUID gone = new UUID(0L, 4L);
+        listing(b, T0);
+        listing(a, T0); // тот же ts — порядок по id
+        tombstone(gone, T0.plusSeconds(1));
+        listing(c, T0.plusSeconds(2));
+        listing(UUID.randomUUID(), UUID.randomUUID(), T0); // чужое объявление
+
+        List<SyncEntry> firstPage = repository.findChanges(owner, Instant.EPOCH, new UUID(0L, 0L), 2);
+        SyncEntry last = firstPage.get(firstPage.size() - 1);
+        List<SyncEntry> rest = repository.findChanges(owner, last.ts(), last.id(), 10);
+
+        assertThat(firstPage).extracting(SyncEntry::id).containsExactly(a, b);
+        assertThat(rest).extracting(SyncEntry::id).containsExactly(gone, c);
+        assertThat(rest).extracting(SyncEntry::deleted).containsExactly(true, false);
+    }
+
+    @Test
+    void sync_pagesThenHandsOutSessionStartAsWatermark() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        listing(first, T0.minusSeconds(30));
+        listing(second, T0.minusSeconds(20));
+        Instant secondPageAt = T0.plus(Duration.ofMinutes(10)); // листание дольше overlap
+        when(clock.instant()).thenReturn(T0, secondPageAt, secondPageAt);
+
+        ListingSyncDto page1 = service.sync(null, 1);
+        // закоммичено во время листания, но updated_at позади курсора (долгая транзакция)
+        UUID late = UUID.randomUUID();
+        listing(late, T0.minusSeconds(40));
+        ListingSyncDto page2 = service.sync(page1.syncToken(), 1);
+
+        assertThat(page1.hasMore()).isTrue();
+        assertThat(page1.changed()).extracting(ListingResponseDto::id).containsExactly(first);
+        assertThat(page2.hasMore()).isFalse();
+        assertThat(page2.changed()).extracting(ListingResponseDto::id).containsExactly(second);
+        assertThat(SyncToken.decode(page2.syncToken())).isEqualTo(SyncToken.watermark(T0));
+
+        ListingSyncDto next = service.sync(page2.syncToken(), 10);
+        assertThat(next.changed()).extracting(ListingResponseDto::id).contains(late);
+    }
+
+    @Test
+    void sync_reportsDeletionsAndResetsStaleWatermark() {
+        UUID kept = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        listing(kept, T0.minus(Duration.ofDays(200)));
+        tombstone(deleted, T0.minusSeconds(5));
+        when(clock.instant()).thenReturn(T0);
+
+        ListingSyncDto delta = service.sync(SyncToken.watermark(T0.minus(Duration.ofDays(1))).encode(), 10);
+        ListingSyncDto stale = service.sync(SyncToken.watermark(T0.minus(props.getTombstoneTtl()).minusSeconds(1)).encode(), 10);
+
+        assertThat(delta.reset()).isFalse();
+        assertThat(delta.changed()).isEmpty();
+        assertThat(delta.deleted()).containsExactly(deleted);
+        assertThat(stale.reset()).isTrue();
+        assertThat(stale.changed()).extracting(ListingResponseDto::id).containsExactly(kept);
+        assertThat(stale.deleted()).containsExactly(deleted);
+    }
+
+    private void listing(UUID id, Instant updatedAt) {
+        listing(id, owner, updatedAt);
+    }
+
+    private void listing(UUID id, UUID ownerId, Instant updatedAt) {
+        jdbc.update("insert into listings (id, owner_id, updated_at) values (?, ?, ?)", id, ownerId, Timestamp.from(updatedAt));
+    }
+
+    private void tombstone(UUID id, Instant deletedAt) {
+        jdbc.update("insert into listing_tombstones (listing_id, owner_id, version, deleted_at) values (?, ?, 1, ?)",
+                id, owner, Timestamp.from(deletedAt));
+    }
+
+    private static ListingResponseDto card(UUID id) {
+        return new ListingResponseDto(id, null, null, null, null, null, null, null, null, null,
+                null, null, null, 0, List.of(), 1L);
+    }
+}
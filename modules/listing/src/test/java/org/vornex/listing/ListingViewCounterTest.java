@@ -0,0 +1,83 @@
+package org.vornex.listing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.vornex.listing.repository.ListingViewsJdbcRepository;
+import org.vornex.listing.util.ListingViewProperties;
+import org.vornex.listing.view.ListingViewCounter;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+class ListingViewCounterTest {
+
+    private ListingViewsJdbcRepository repository;
+    private ListingViewCounter counter;
+
+    @BeforeEach
+    void init() {
+        repository = mock(ListingViewsJdbcRepository.class);
+        counter = new ListingViewCounter(repository, new ListingViewProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_writesAccumulatedDeltasOnce() {
+        UUID id = UUID.randomUUID();
+        for (int i = 0; i < 3; i++) counter.record(id);
+
+        ArgumentCaptor<Map<UUID, Long>> captor = ArgumentCaptor.forClass(Map.class);
+        doAnswer(inv -> {
+            assertThat((Map<UUID, Long>) inv.getArgument(0)).containsEntry(id, 3L);
+            return 1;
+        }).when(repository).addViews(anyMap());
+
+        counter.flush();
+        counter.flush(); // нового ничего — второй UPDATE не нужен
+
+        verify(repository, times(1)).addViews(captor.capture());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_whenDbFails_retriesDeltaOnNextFlush() {
+        UUID id = UUID.randomUUID();
+        counter.record(id);
+        counter.record(id);
+
+        doThrow(new RuntimeException("db down")).doAnswer(inv -> {
+            assertThat((Map<UUID, Long>) inv.getArgument(0)).containsEntry(id, 3L);
+            return 1;
+        }).when(repository).addViews(anyMap());
+
+        counter.flush();
+        counter.record(id);
+        counter.flush();
+
+        verify(repository, times(2)).addViews(anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_afterIdleCellRetired_newViewsAreStillWritten() {
+        UUID id = UUID.randomUUID();
+        counter.record(id);
+        counter.flush();
+        counter.flush(); // простой — ячейка выведена из map
+
+        doAnswer(inv -> {
+            assertThat((Map<UUID, Long>) inv.getArgument(0)).containsEntry(id, 1L);
+            return 1;
+        }).when(repository).addViews(anyMap());
+        counter.record(id);
+        counter.flush();
+
+        verify(repository, times(2)).addViews(anyMap());
+    }
+}
@@ -0,0 +1,105 @@
+package org.vornex.listing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Загрузка атрибутов 100k объявлений: прежний ObjectMapper.readValue(json, Map.class) против MapToJsonConverter.
+ * Для каждого варианта — время на строку, аллоцированные байты (ThreadMXBean) и удерживаемый heap
+ * после полной сборки мусора, пока все Map живы (как у страницы/пачки загруженных сущностей).
+ * <p>
+ * JMH в сборке нет — это такой же opt-in тест, как UuidInsertBenchmarkTest, Docker не нужен:
+ * mvn -pl modules/listing test -Dtest=MapToJsonConverterBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=100000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MapToJsonConverterBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MapToJsonConverterBenchmarkTest.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static final String[] BRANDS = {"Apple", "Samsung", "Xiaomi", "Google", "Sony", "Huawei", "Honor", "Nokia"};
+    private static final String[] STORAGE = {"64GB", "128GB", "256GB", "512GB"};
+    private static final String[] COLORS = {"black", "white", "blue", "red", "green", "gold"};
+
+    private record Result(String name, long nanosPerRow, long allocatedBytesPerRow, long retainedBytes) {
+        @Override
+        public String toString() {
+            return String.format("%s: %,d ns/row, allocated %,d B/row, retained %,d KB for %,d rows",
+                    name, nanosPerRow, allocatedBytesPerRow, retainedBytes / 1024, ROWS);
+        }
+    }
+
+    @Test
+    void streamingConverterRetainsLessHeapThanObjectMapper() {
+        List<String> rows = rows();
+        ObjectMapper mapper = new ObjectMapper();
+        MapToJsonConverter converter = new MapToJsonConverter();
+
+        Result objectMapper = measure("ObjectMapper.readValue", rows, json -> {
+            try {
+                return mapper.readValue(json, Map.class);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Result streaming = measure("MapToJsonConverter", rows, converter::convertToEntityAttribute);
+        log.info("{}", objectMapper);
+        log.info("{}", streaming);
+
+        assertThat(streaming.retainedBytes()).as("%s vs %s", streaming, objectMapper)
+                .isLessThan(objectMapper.retainedBytes());
+    }
+
+    private static Result measure(String name, List<String> rows, Function<String, Map<?, ?>> parse) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) rows.forEach(parse::apply);
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        List<Map<?, ?>> loaded = new ArrayList<>(ROWS);
+        long heapBefore = usedHeapAfterGc(memory);
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long started = System.nanoTime();
+        for (String row : rows) loaded.add(parse.apply(row));
+        long nanos = System.nanoTime() - started;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        long retained = usedHeapAfterGc(memory) - heapBefore;
+
+        assertThat(loaded).hasSize(ROWS); // держим ссылки до замера retained
+        return new Result(name, nanos / ROWS, allocated / ROWS, retained);
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memory) {
+        for (int i = 0; i < 3; i++) System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static List<String> rows() {
+        SplittableRandom random = new SplittableRandom(42);
+        List<String> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            // новые экземпляры строк на каждую строку — как у значений, прочитанных из ResultSet
+            rows.add(new String("{\"brand\":\"" + BRANDS[random.nextInt(BRANDS.length)]
+                    + "\",\"storage\":\"" + STORAGE[random.nextInt(STORAGE.length)]
+                    + "\",\"color\":\"" + COLORS[random.nextInt(COLORS.length)]
+                    + "\",\"year\":\"" + (2015 + random.nextInt(10)) + "\"}"));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,79 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MapToJsonConverterTest {
+
+    private final MapToJsonConverter converter = new MapToJsonConverter();
+
+    @Test
+    void roundTripPreservesEntries() {
+        Map<String, String> attrs = new LinkedHashMap<>();
+        attrs.put("brand", "Apple");
+        attrs.put("storage", "256GB");
+        attrs.put("note", "with \"quotes\" and юникод");
+
+        Map<String, String> restored = converter.convertToEntityAttribute(converter.convertToDatabaseColumn(attrs));
+
+        assertThat(restored).isEqualTo(attrs);
+    }
+
+    @Test
+    void nullAndEmptyBecomeEmptyMap() {
+        assertThat(converter.convertToDatabaseColumn(null)).isEqualTo("{}");
+        assertThat(converter.convertToEntityAttribute(null)).isEmpty();
+        assertThat(converter.convertToEntityAttribute("{}")).isEmpty();
+    }
+
+    @Test
+    void scalarValuesAreReadAsTextAndNullsSkipped() {
+        Map<String, String> restored = converter.convertToEntityAttribute("{\"year\":2020,\"used\":true,\"x\":null}");
+
+        assertThat(restored).containsExactlyInAnyOrderEntriesOf(Map.of("year", "2020", "used", "true"));
+    }
+
+    @Test
+    void resultIsImmutable() {
+        Map<String, String> restored = converter.convertToEntityAttribute("{\"brand\":\"Apple\"}");
+
+        assertThatThrownBy(() -> restored.put("brand", "Samsung"))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void repeatedKeysAndShortValuesShareInstances() {
+        Map<String, String> a = converter.convertToEntityAttribute("{\"brand\":\"Apple\"}");
+        Map<String, String> b = converter.convertToEntityAttribute("{\"brand\":\"Apple\"}");
+
+        String keyA = a.keySet().iterator().next();
+        String keyB = b.keySet().iterator().next();
+        assertThat(keyA).isSameAs(keyB);
+        assertThat(a.get("brand")).isSameAs(b.get("brand"));
+    }
+
+    @Test
+    void nestedValuesAreRejected() {
+        assertThatThrownBy(() -> converter.convertToEntityAttribute("{\"a\":{\"b\":\"c\"}}"))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> converter.convertToEntityAttribute("[1,2]"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void poolStopsGrowingAtCapacity() {
+        StringPool pool = new StringPool(2, 8);
+        pool.canonical("a");
+        pool.canonical("b");
+        String c = new String("c");
+
+        assertThat(pool.canonical(c)).isSameAs(c);
+        assertThat(pool.size()).isEqualTo(2);
+        assertThat(pool.canonical("too-long-string")).isEqualTo("too-long-string");
+    }
+}
@@ -0,0 +1,38 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.moderation.BannedWordsCheck;
+import org.vornex.listing.moderation.CheckResult.Verdict;
+import org.vornex.listing.moderation.SuspiciousContentCheck;
+import org.vornex.listing.util.ModerationProperties;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ModerationChecksTest {
+
+    private static Listing listing(String title, String description) {
+        return Listing.builder().title(title).description(description).build();
+    }
+
+    @Test
+    void bannedWords_matchWholeWordsIgnoringCase() {
+        ModerationProperties properties = new ModerationProperties();
+        properties.setBannedWords(List.of("Оружие", " "));
+        BannedWordsCheck check = new BannedWordsCheck(properties);
+
+        assertThat(check.check(listing("Продам ОРУЖИЕ!", null)).verdict()).isEqualTo(Verdict.REJECT);
+        assertThat(check.check(listing("Велосипед", "без оружия, безоружие")).verdict()).isEqualTo(Verdict.PASS);
+    }
+
+    @Test
+    void suspiciousContent_escalatesLinksAndPhones() {
+        SuspiciousContentCheck check = new SuspiciousContentCheck();
+
+        assertThat(check.check(listing("Диван", "пишите в t.me/seller")).verdict()).isEqualTo(Verdict.ESCALATE);
+        assertThat(check.check(listing("Диван", "звоните +7 (999) 123-45-67")).verdict()).isEqualTo(Verdict.ESCALATE);
+        assertThat(check.check(listing("Диван 200x90", "2019 года, 3 подушки")).verdict()).isEqualTo(Verdict.PASS);
+    }
+}
@@ -0,0 +1,100 @@
+package org.vornex.listing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vornex.authapi.SecurityContextUtils;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.enums.ModerationStatus;
+import org.vornex.listing.repository.ListingRepository;
+import org.vornex.listing.repository.ModerationQueueRepository;
+import org.vornex.listing.repository.ModerationQueueRepository.AutoTask;
+import org.vornex.listing.repository.ModerationQueueRepository.TaskLock;
+import org.vornex.listing.service.impl.ModerationServiceImpl;
+import org.vornex.listing.util.ModerationProperties;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class ModerationServiceTest {
+
+    @Test
+    void autoBatch_versionConflictSkipsOnlyItsOwnTask() {
+        UUID conflicting = UUID.randomUUID();
+        UUID clean = UUID.randomUUID();
+        ModerationQueueRepository queue = mock(ModerationQueueRepository.class);
+        when(queue.claimAuto(any(), any(), anyInt()))
+                .thenReturn(List.of(new AutoTask(conflicting, 0), new AutoTask(clean, 0)));
+        when(queue.lock(any())).thenReturn(Optional.of(new TaskLock(ModerationQueueRepository.STAGE_AUTO, null, null)));
+
+        ListingRepository listings = mock(ListingRepository.class);
+        when(listings.findById(conflicting)).thenReturn(Optional.of(pending(conflicting)));
+        when(listings.findById(clean)).thenReturn(Optional.of(pending(clean)));
+        when(listings.saveAndFlush(any())).thenAnswer(inv -> {
+            Listing listing = inv.getArgument(0);
+            if (listing.getId().equals(conflicting)) {
+                throw new ObjectOptimisticLockingFailureException(Listing.class, conflicting); // правка владельцем
+            }
+            return listing;
+        });
+
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        ModerationServiceImpl service = new ModerationServiceImpl(queue, listings, List.of(),
+                mock(SecurityContextUtils.class), mock(ApplicationEventPublisher.class), new ModerationProperties(),
+                meters, Clock.systemUTC(), mock(PlatformTransactionManager.class));
+
+        assertThat(service.processAutoBatch()).isEqualTo(2);
+
+        verify(queue).remove(clean);
+        verify(queue, never()).remove(conflicting); // останется в очереди, вернётся после аренды
+        assertThat(meters.counter("listing.moderation.task.failures").count()).isEqualTo(1);
+    }
+
+    @Test
+    void reapprovalAfterEdit_keepsOriginalPublishedAt() {
+        UUID id = UUID.randomUUID();
+        Instant firstPublished = Instant.parse("2026-05-01T10:00:00Z");
+        Listing edited = pending(id); // правка опубликованного: снова DRAFT + PENDING
+        edited.setPublishedAt(firstPublished);
+        ModerationQueueRepository queue = mock(ModerationQueueRepository.class);
+        when(queue.claimAuto(any(), any(), anyInt())).thenReturn(List.of(new AutoTask(id, 0)));
+        when(queue.lock(any())).thenReturn(Optional.of(new TaskLock(ModerationQueueRepository.STAGE_AUTO, null, null)));
+        ListingRepository listings = mock(ListingRepository.class);
+        when(listings.findById(id)).thenReturn(Optional.of(edited));
+        when(listings.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        ModerationServiceImpl service = new ModerationServiceImpl(queue, listings, List.of(),
+                mock(SecurityContextUtils.class), mock(ApplicationEventPublisher.class), new ModerationProperties(),
+                new SimpleMeterRegistry(), Clock.fixed(Instant.parse("2026-06-01T12:00:00Z"), ZoneOffset.UTC),
+                mock(PlatformTransactionManager.class));
+        service.processAutoBatch();
+
+        assertThat(edited.getStatus()).isEqualTo(ListingStatus.PUBLISHED);
+        assertThat(edited.getModerationStatus()).isEqualTo(ModerationStatus.APPROVED);
+        assertThat(edited.getPublishedAt()).isEqualTo(firstPublished);
+    }
+
+    private static Listing pending(UUID id) {
+        return Listing.builder()
+                .id(id)
+                .title("Велосипед")
+                .category("bikes")
+                .categoryPath("/bikes/")
+                .ownerId(UUID.randomUUID())
+                .status(ListingStatus.DRAFT)
+                .moderationStatus(ModerationStatus.PENDING)
+                .build();
+    }
+}
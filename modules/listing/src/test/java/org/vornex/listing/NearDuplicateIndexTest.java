@@ -0,0 +1,120 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.duplicate.MinHash;
+import org.vornex.listing.duplicate.NearDuplicateIndex;
+import org.vornex.listing.entity.Listing;
+import org.vornex.listing.enums.ListingChangeType;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.event.ListingChangedEvent;
+import org.vornex.listing.moderation.CheckResult.Verdict;
+import org.vornex.listing.moderation.NearDuplicateCheck;
+import org.vornex.listing.repository.ListingSignatureJdbcRepository;
+import org.vornex.listing.repository.ListingSignatureJdbcRepository.CandidateState;
+import org.vornex.listing.repository.ListingSignatureJdbcRepository.StoredSignature;
+import org.vornex.listing.util.NearDuplicateProperties;
+
+import java.time.Instant;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NearDuplicateIndexTest {
+
+    private static final String TITLE = "iPhone 13 Pro 256 ГБ графитовый";
+    private static final String DESCRIPTION = "Отличное состояние, без царапин, полный комплект, аккумулятор 91%. "
+            + "Покупался в официальном магазине, есть чек и коробка. Торг уместен.";
+
+    private final ListingSignatureJdbcRepository repository = mock(ListingSignatureJdbcRepository.class);
+    private final NearDuplicateIndex index = new NearDuplicateIndex(repository, new NearDuplicateProperties());
+    private final Map<UUID, int[]> stored = new HashMap<>();
+    private final Set<UUID> drafts = new HashSet<>();
+
+    @BeforeEach
+    void fakeRepository() {
+        doAnswer(inv -> {
+            stored.putAll(inv.getArgument(0));
+            return null;
+        }).when(repository).upsertAll(any());
+        when(repository.findAllById(any())).thenAnswer(inv -> {
+            Collection<UUID> ids = inv.getArgument(0);
+            return ids.stream().filter(stored::containsKey)
+                    .map(id -> new StoredSignature(id, stored.get(id), Instant.now(), !drafts.contains(id)))
+                    .toList();
+        });
+    }
+
+    @Test
+    void minHash_estimatesSimilarity() {
+        int[] original = MinHash.signature(TITLE, DESCRIPTION, 5);
+        int[] reworded = MinHash.signature("IPHONE 13 PRO, 256гб, графит!", DESCRIPTION, 5);
+        int[] other = MinHash.signature("Диван угловой", "Раскладной, ткань велюр, 2019 года, самовывоз", 5);
+
+        assertThat(MinHash.similarity(original, MinHash.signature(TITLE, DESCRIPTION, 5))).isEqualTo(1.0);
+        assertThat(MinHash.similarity(original, reworded)).isGreaterThan(0.8);
+        assertThat(MinHash.similarity(original, other)).isLessThan(0.2);
+    }
+
+    @Test
+    void candidates_findSimilarListingsAndSkipSelf() {
+        UUID self = UUID.randomUUID();
+        UUID copy = UUID.randomUUID();
+        UUID unrelated = UUID.randomUUID();
+        index.register(self, TITLE, DESCRIPTION);
+        index.register(copy, "iPhone 13 Pro 256GB графитовый", DESCRIPTION);
+        index.register(unrelated, "Диван угловой", "Раскладной, ткань велюр, 2019 года, самовывоз");
+
+        List<NearDuplicateIndex.Candidate> candidates = index.candidates(self, index.signatureOf(TITLE, DESCRIPTION));
+
+        assertThat(candidates).extracting(NearDuplicateIndex.Candidate::listingId).containsExactly(copy);
+
+        index.remove(copy);
+        assertThat(index.candidates(self, index.signatureOf(TITLE, DESCRIPTION))).isEmpty();
+    }
+
+    @Test
+    void candidates_indexOnlyLiveListings() {
+        UUID self = UUID.randomUUID();
+        UUID draft = UUID.randomUUID();
+        drafts.add(draft);
+        index.register(draft, TITLE, DESCRIPTION);
+        List<UUID> copies = new ArrayList<>();
+        for (int i = 0; i < 5; i++) { // одни и те же банды — корзины из нескольких слотов
+            UUID copy = UUID.randomUUID();
+            copies.add(copy);
+            index.register(copy, TITLE, DESCRIPTION);
+        }
+
+        assertThat(index.candidates(self, index.signatureOf(TITLE, DESCRIPTION)))
+                .extracting(NearDuplicateIndex.Candidate::listingId).containsExactlyInAnyOrderElementsOf(copies);
+
+        drafts.remove(draft); // опубликован
+        index.onListingChanged(new ListingChangedEvent(draft, ListingChangeType.UPDATED, 1L, ListingStatus.DRAFT,
+                "phones", Set.of("moderationStatus"), ListingStatus.DRAFT, "phones"));
+        copies.forEach(index::remove);
+
+        assertThat(index.candidates(self, index.signatureOf(TITLE, DESCRIPTION)))
+                .extracting(NearDuplicateIndex.Candidate::listingId).containsExactly(draft);
+    }
+
+    @Test
+    void check_escalatesLiveDuplicatesAndPrunesDeleted() {
+        UUID owner = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        index.register(live, TITLE, DESCRIPTION);
+        index.register(deleted, TITLE + " срочно", DESCRIPTION);
+        when(repository.findCandidateStates(any())).thenReturn(List.of(new CandidateState(live, owner, true)));
+        NearDuplicateCheck check = new NearDuplicateCheck(index, repository);
+
+        Listing listing = Listing.builder().id(UUID.randomUUID()).ownerId(owner).title(TITLE).description(DESCRIPTION).build();
+
+        assertThat(check.check(listing).verdict()).isEqualTo(Verdict.ESCALATE);
+        assertThat(check.check(listing).reason()).contains(live.toString(), "тот же продавец").doesNotContain(deleted.toString());
+        assertThat(index.candidates(listing.getId(), index.signatureOf(TITLE, DESCRIPTION)))
+                .extracting(NearDuplicateIndex.Candidate::listingId).containsExactly(live);
+    }
+}
@@ -0,0 +1,54 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.popularity.PopularityScore;
+import org.vornex.listing.util.PopularityProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class PopularityScoreTest {
+
+    private final Instant now = Instant.parse("2026-06-01T12:00:00Z");
+    private final PopularityProperties props = new PopularityProperties();
+    private final PopularityScore score = new PopularityScore(props, Clock.fixed(now, ZoneOffset.UTC));
+
+    @Test
+    void storedScoreMinusEpochShiftEqualsDecayedSum() {
+        // публикация 3 дня назад (один half-life) + 4 просмотра сейчас
+        Instant published = now.minus(props.getHalfLife());
+        double stored = logAddExp(
+                score.logContribution(props.getPublishWeight(), published),
+                Math.log(4) + score.viewOffset());
+
+        double decayed = Math.exp(stored - score.lambda() * (now.getEpochSecond() - PopularityScore.EPOCH.getEpochSecond()));
+        assertThat(decayed).isCloseTo(props.getPublishWeight() / 2 + 4 * props.getViewWeight(), within(1e-6));
+    }
+
+    @Test
+    void orderingByStoredScoreMatchesOrderingByDecayedPopularity() {
+        // старое объявление с 30 просмотрами неделю назад против свежего с 5 просмотрами сейчас
+        Instant weekAgo = now.minus(Duration.ofDays(7));
+        double old = logAddExp(score.logContribution(props.getPublishWeight(), weekAgo),
+                score.logContribution(30 * props.getViewWeight(), weekAgo));
+        double fresh = logAddExp(score.logContribution(props.getPublishWeight(), now),
+                Math.log(5) + score.viewOffset());
+
+        double decay = Math.pow(0.5, 7.0 / 3.0);
+        double oldDecayed = (props.getPublishWeight() + 30 * props.getViewWeight()) * decay;
+        double freshDecayed = props.getPublishWeight() + 5 * props.getViewWeight();
+
+        assertThat(fresh > old).isEqualTo(freshDecayed > oldDecayed);
+        assertThat(fresh).isGreaterThan(old);
+    }
+
+    // та же формула, что у SQL-функции logaddexp
+    private static double logAddExp(double a, double b) {
+        return Math.max(a, b) + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+}
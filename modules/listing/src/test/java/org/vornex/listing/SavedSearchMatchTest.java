@@ -0,0 +1,148 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.vornex.listing.enums.ListingStatus;
+import org.vornex.listing.repository.SavedSearchJdbcRepository;
+import org.vornex.listing.repository.SavedSearchJdbcRepository.MatchedListing;
+import org.vornex.listing.repository.SavedSearchJdbcRepository.NewSavedSearch;
+import org.vornex.listing.repository.SavedSearchMatchQueueRepository;
+import org.vornex.listing.savedsearch.SavedSearchMatcher;
+import org.vornex.listing.savedsearch.SearchTerms;
+import org.vornex.listing.util.SavedSearchProperties;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Сопоставление сохранённых поисков на настоящем PostgreSQL: MATCH_SQL ("" — любое значение в anchor / path / city,
+ * terms <@, цена по price_base, без поисков автора) и разбор очереди SavedSearchMatcher. Таблицы — только нужные
+ * колонки и ключи (changelog'и этого модуля listings не создают). Нужен Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SavedSearchMatchTest {
+
+    private static final Instant T0 = Instant.parse("2026-06-01T12:00:00Z");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16");
+
+    private final UUID seller = UUID.randomUUID();
+    private final UUID buyer = UUID.randomUUID();
+    private JdbcTemplate jdbc;
+    private SavedSearchJdbcRepository repository;
+    private SavedSearchMatcher matcher;
+
+    @BeforeEach
+    void schema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("drop table if exists saved_search_alerts, saved_search_match_queue, saved_searches, listings");
+        jdbc.execute("create table listings (id uuid primary key, owner_id uuid not null, title varchar(255) not null, " +
+                "category_path varchar(1024) not null, city varchar(100), price_base numeric(19,2), status varchar(16) not null)");
+        jdbc.execute("create table saved_searches (id uuid primary key, owner_id uuid not null, query varchar(255), " +
+                "category varchar(64), category_path varchar(512) not null default '', city varchar(100), " +
+                "city_key varchar(100) not null default '', min_price numeric(19,2), max_price numeric(19,2), " +
+                "terms text[] not null, anchor_term varchar(100) not null default '', created_at timestamp with time zone not null)");
+        jdbc.execute("create index idx_saved_search_match on saved_searches (anchor_term, category_path, city_key)");
+        jdbc.execute("create table saved_search_match_queue (listing_id uuid primary key references listings(id) on delete cascade, " +
+                "enqueued_at timestamp with time zone not null)");
+        jdbc.execute("create table saved_search_alerts (saved_search_id uuid not null references saved_searches(id) on delete cascade, " +
+                "listing_id uuid not null references listings(id) on delete cascade, owner_id uuid not null, " +
+                "created_at timestamp with time zone not null, primary key (saved_search_id, listing_id))");
+
+        repository = new SavedSearchJdbcRepository(new NamedParameterJdbcTemplate(dataSource));
+        matcher = new SavedSearchMatcher(new SavedSearchMatchQueueRepository(jdbc), repository,
+                new SavedSearchProperties(), Clock.fixed(T0, ZoneOffset.UTC), new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void match_alertsOnlySearchesTheListingSatisfies() {
+        UUID listing = listing("Велосипед Merida Big.Nine", "/sport/bikes/", "Москва", "1000.00", ListingStatus.PUBLISHED);
+        UUID exact = search(buyer, "велосипед merida", "/sport/", " москва ", "500", "2000");
+        UUID anything = search(buyer, null, null, null, null, null); // "" во всех колонках индекса
+        UUID subcategory = search(buyer, "merida", "/sport/bikes/", null, null, "1000");
+        search(buyer, "велосипед trek", "/sport/", "Москва", null, null);   // нет слова в заголовке
+        search(buyer, "велосипед", "/sport/", "Казань", null, null);        // другой город
+        search(buyer, "велосипед", "/auto/", null, null, null);             // другая ветка каталога
+        search(buyer, "велосипед", null, null, "1000.01", null);            // дешевле нижней границы
+        search(buyer, "велосипед", null, null, null, "999.99");             // дороже верхней границы
+        search(seller, "велосипед merida", "/sport/", "Москва", null, null); // собственный поиск продавца
+
+        int created = repository.match(matched(listing), T0);
+
+        assertThat(created).isEqualTo(3);
+        assertThat(alertSearches(listing)).containsExactlyInAnyOrder(exact, anything, subcategory);
+        assertThat(jdbc.queryForList("select distinct owner_id from saved_search_alerts", UUID.class)).containsExactly(buyer);
+    }
+
+    @Test
+    void matchBatch_drainsQueueAndRerunDoesNotDuplicateAlerts() {
+        UUID published = listing("Велосипед Merida", "/sport/bikes/", null, "1000.00", ListingStatus.PUBLISHED);
+        UUID withdrawn = listing("Велосипед Trek", "/sport/bikes/", null, "1000.00", ListingStatus.DRAFT);
+        UUID search = search(buyer, "велосипед", "/sport/", null, null, null);
+        enqueue(published, withdrawn);
+
+        int taken = matcher.matchBatch();
+
+        assertThat(taken).isEqualTo(2);
+        assertThat(queueSize()).isZero();
+        assertThat(alertSearches(published)).containsExactly(search);
+        assertThat(alertSearches(withdrawn)).isEmpty(); // сняли с публикации, пока ждали в очереди
+
+        enqueue(published); // повторная публикация
+        assertThat(matcher.matchBatch()).isEqualTo(1);
+        assertThat(matcher.matchBatch()).isZero();
+        assertThat(queueSize()).isZero();
+        assertThat(jdbc.queryForObject("select count(*) from saved_search_alerts", Integer.class)).isEqualTo(1);
+    }
+
+    private UUID listing(String title, String categoryPath, String city, String priceBase, ListingStatus status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("insert into listings values (?, ?, ?, ?, ?, ?, ?)",
+                id, seller, title, categoryPath, city, new BigDecimal(priceBase), status.name());
+        return id;
+    }
+
+    private MatchedListing matched(UUID id) {
+        return jdbc.queryForObject("select * from listings where id = ?", (rs, i) -> new MatchedListing(id,
+                rs.getObject("owner_id", UUID.class), rs.getString("title"), rs.getString("category_path"),
+                rs.getString("city"), rs.getBigDecimal("price_base"), ListingStatus.valueOf(rs.getString("status"))), id);
+    }
+
+    private UUID search(UUID owner, String query, String categoryPath, String city, String minPrice, String maxPrice) {
+        UUID id = UUID.randomUUID();
+        repository.insert(new NewSavedSearch(id, owner, query, null, categoryPath, city,
+                minPrice == null ? null : new BigDecimal(minPrice), maxPrice == null ? null : new BigDecimal(maxPrice),
+                SearchTerms.tokenize(query), T0));
+        return id;
+    }
+
+    private void enqueue(UUID... listingIds) {
+        SavedSearchMatchQueueRepository queue = new SavedSearchMatchQueueRepository(jdbc);
+        for (int i = 0; i < listingIds.length; i++) queue.enqueue(listingIds[i], T0.plusSeconds(i));
+    }
+
+    private List<UUID> alertSearches(UUID listingId) {
+        return jdbc.queryForList("select saved_search_id from saved_search_alerts where listing_id = ?", UUID.class, listingId);
+    }
+
+    private int queueSize() {
+        Integer size = jdbc.queryForObject("select count(*) from saved_search_match_queue", Integer.class);
+        return size == null ? 0 : size;
+    }
+}
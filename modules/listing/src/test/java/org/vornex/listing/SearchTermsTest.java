@@ -0,0 +1,39 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.savedsearch.SearchTerms;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTermsTest {
+
+    @Test
+    void tokenize_normalizesCaseAndPunctuation() {
+        assertThat(SearchTerms.tokenize("iPhone 13, ПРО-макс (ёмкий)"))
+                .containsExactly("iphone", "13", "про", "макс", "емкий");
+        assertThat(SearchTerms.tokenize("  ")).isEmpty();
+        assertThat(SearchTerms.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void anchor_isLongestTerm() {
+        assertThat(SearchTerms.anchor(SearchTerms.tokenize("iphone 13 pro"))).isEqualTo("iphone");
+        assertThat(SearchTerms.anchor(List.of("ab", "cd"))).isEqualTo(SearchTerms.anchor(List.of("cd", "ab")));
+        assertThat(SearchTerms.anchor(List.of())).isEmpty();
+    }
+
+    @Test
+    void categoryAncestors_includeSelf() {
+        assertThat(SearchTerms.categoryAncestors("/electronics/phones/smartphones/"))
+                .containsExactly("/electronics/", "/electronics/phones/", "/electronics/phones/smartphones/");
+        assertThat(SearchTerms.categoryAncestors("/auto/")).containsExactly("/auto/");
+    }
+
+    @Test
+    void cityKey_ignoresCase() {
+        assertThat(SearchTerms.cityKey(" Москва ")).isEqualTo(SearchTerms.cityKey("москва"));
+        assertThat(SearchTerms.cityKey(null)).isEmpty();
+    }
+}
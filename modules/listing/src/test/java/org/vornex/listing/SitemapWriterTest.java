@@ -0,0 +1,53 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.sitemap.SitemapWriter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SitemapWriterTest {
+
+    @Test
+    void urlset_isStreamedThroughGzip() throws Exception {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer);
+             SitemapWriter writer = SitemapWriter.urlset(gzip)) {
+            writer.entry("https://example.com/listings/1?a=1&b=2", Instant.parse("2024-05-01T10:15:30.123456Z"));
+            writer.entry("https://example.com/listings/2", null);
+            writer.finish();
+            gzip.finish();
+        }
+
+        String xml;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(buffer.toByteArray()))) {
+            xml = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        assertThat(xml)
+                .startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+                .contains("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">")
+                .contains("<url><loc>https://example.com/listings/1?a=1&amp;b=2</loc><lastmod>2024-05-01T10:15:30Z</lastmod></url>")
+                .contains("<url><loc>https://example.com/listings/2</loc></url>")
+                .endsWith("</urlset>");
+    }
+
+    @Test
+    void index_listsSitemaps() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SitemapWriter writer = SitemapWriter.index(out)) {
+            writer.entry("https://example.com/public/sitemaps/listings-1.xml.gz", Instant.parse("2024-05-01T00:00:00Z"));
+            writer.finish();
+        }
+
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .contains("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">")
+                .contains("<sitemap><loc>https://example.com/public/sitemaps/listings-1.xml.gz</loc>"
+                        + "<lastmod>2024-05-01T00:00:00Z</lastmod></sitemap>");
+    }
+}
@@ -0,0 +1,37 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.exception.BadRequestException;
+import org.vornex.listing.sync.SyncToken;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncTokenTest {
+
+    @Test
+    void roundTripKeepsMicrosecondPosition() {
+        SyncToken token = new SyncToken(Instant.parse("2024-05-01T10:15:30.123456Z"), UUID.randomUUID(), true,
+                Instant.parse("2024-05-01T10:14:00.000001Z"));
+
+        SyncToken decoded = SyncToken.decode(token.encode());
+
+        assertThat(decoded).isEqualTo(token);
+    }
+
+    @Test
+    void watermarkFlagSurvivesRoundTrip() {
+        SyncToken token = SyncToken.watermark(Instant.parse("2024-05-01T10:15:30Z"));
+
+        assertThat(SyncToken.decode(token.encode()).exact()).isFalse();
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThatThrownBy(() -> SyncToken.decode("not a token!")).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SyncToken.decode("djJ8eHwxfDI")).isInstanceOf(BadRequestException.class);
+    }
+}
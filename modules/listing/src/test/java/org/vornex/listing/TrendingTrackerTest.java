@@ -0,0 +1,74 @@
+package org.vornex.listing;
+
+import org.junit.jupiter.api.Test;
+import org.vornex.listing.util.ListingViewProperties;
+import org.vornex.listing.view.TrendingTracker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TrendingTrackerTest {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-09-01T10:00:00Z"));
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    @Test
+    void top_returnsHeavyHittersPerCategory_andForgetsOldWindow() {
+        ListingViewProperties props = new ListingViewProperties();
+        props.setTrendingCapacity(8);
+        TrendingTracker tracker = new TrendingTracker(props, clock);
+
+        UUID hot = UUID.randomUUID();
+        UUID warm = UUID.randomUUID();
+        for (int i = 0; i < 50; i++) tracker.record(hot, "phones");
+        for (int i = 0; i < 20; i++) tracker.record(warm, "phones");
+        for (int i = 0; i < 100; i++) tracker.record(UUID.randomUUID(), "phones"); // шум из одиночных просмотров
+
+        var top = tracker.top("phones", 2);
+        assertThat(top).extracting(Map.Entry::getKey).containsExactly(hot, warm);
+        assertThat(tracker.top("cars", 5)).isEmpty();
+
+        now.set(now.get().plus(Duration.ofMinutes(61)));
+        assertThat(tracker.top("phones", 2)).isEmpty();
+    }
+
+    @Test
+    void allCategoriesFeed_sumsStripesWrittenFromManyThreads() throws Exception {
+        TrendingTracker tracker = new TrendingTracker(new ListingViewProperties(), clock);
+        UUID hot = UUID.randomUUID();
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1_000; i++) tracker.record(hot, null);
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertThat(tracker.top(null, 1)).containsExactly(Map.entry(hot, 8_000L));
+    }
+}
@@ -0,0 +1,51 @@
+package org.vornex.listing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.vornex.listing.repository.ListingPopularityJdbcRepository;
+import org.vornex.listing.repository.ListingViewerSketchJdbcRepository;
+import org.vornex.listing.repository.ListingViewerSketchJdbcRepository.SketchKey;
+import org.vornex.listing.util.ListingViewProperties;
+import org.vornex.listing.view.HyperLogLog;
+import org.vornex.listing.view.UniqueViewerTracker;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UniqueViewerTrackerTest {
+
+    @Test
+    void flush_scoresOnlyViewersNewToTheStoredSketch() {
+        Clock clock = Clock.fixed(Instant.parse("2026-06-01T12:00:00Z"), ZoneOffset.UTC);
+        UUID id = UUID.randomUUID();
+        SketchKey key = new SketchKey(id, LocalDate.now(clock));
+
+        HyperLogLog stored = new HyperLogLog(); // эти двое уже засчитаны другим инстансом
+        stored.offer("u:0");
+        stored.offer("u:1");
+        ListingViewerSketchJdbcRepository sketches = mock(ListingViewerSketchJdbcRepository.class);
+        when(sketches.findForUpdate(anyCollection())).thenReturn(Map.of(key, stored.toBytes()));
+        ListingPopularityJdbcRepository popularity = mock(ListingPopularityJdbcRepository.class);
+
+        UniqueViewerTracker tracker = new UniqueViewerTracker(sketches, popularity, new ListingViewProperties(),
+                mock(PlatformTransactionManager.class), clock, new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) {
+            tracker.record(id, "u:" + i);
+            tracker.record(id, "u:" + i); // обновление страницы — не новый зритель
+        }
+        tracker.flush();
+        tracker.flush(); // нового ничего — score не трогаем
+
+        verify(popularity).addUniqueViewers(Map.of(id, 3L));
+        verify(popularity, times(1)).addUniqueViewers(any());
+    }
+}
@@ -0,0 +1,23 @@
+package org.vornex.persistence;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Идентификатор сущности — UUIDv7 (RFC 9562), генерируется до INSERT.
+ * Ставится вместо @GeneratedValue рядом с @Id:
+ * <pre>
+ * &#64;Id
+ * &#64;UuidV7
+ * private UUID id;
+ * </pre>
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,74 @@
+package org.vornex.persistence;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.security.SecureRandom;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * Генератор UUIDv7: старшие 48 бит — unix-время в миллисекундах, остальное — версия, вариант и 74 случайных бита.
+ * <p>
+ * Зачем: случайный v4 (GenerationType.UUID) раскидывает вставки по всему B-tree первичного ключа —
+ * страницы делятся и заполнены наполовину, индекс и WAL (full-page writes) раздуваются, горячий набор
+ * страниц индекса не помещается в shared_buffers. v7 растёт со временем, поэтому новые ключи
+ * дописываются в правый край индекса, как у bigserial, но id по-прежнему не угадать перебором.
+ * <p>
+ * Миграция: тип колонок (uuid) не меняется, старые v4-значения остаются — новые строки просто начинают
+ * ложиться в конец индекса. Сортировать по id как по времени можно только для строк после перехода.
+ * Порядок внутри одной миллисекунды случайный — для локальности индекса этого достаточно.
+ * <p>
+ * Время в id видно клиентам (как и createdAt в карточке) — для сущностей, где это секрет, v7 не подходит.
+ */
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public UuidV7Generator(UuidV7 config, Member member, CustomIdGeneratorCreationContext context) {
+    }
+
+    /**
+     * Новый UUIDv7 для кода вне Hibernate (JDBC-вставки, импорт).
+     */
+    public static UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    static UUID next(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long msb = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L                                              // version 7
+                | (random[0] & 0x0FL) << 8 | (random[1] & 0xFFL);       // rand_a, 12 бит
+        long lsb = 0L;
+        for (int i = 2; i < 10; i++) {
+            lsb = lsb << 8 | (random[i] & 0xFFL);
+        }
+        lsb = lsb & 0x3FFF_FFFF_FFFF_FFFFL | 0x8000_0000_0000_0000L;  // variant 10, rand_b 62 бита
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * Миллисекунды unix-времени, зашитые в UUIDv7.
+     */
+    public static long timestampOf(UUID uuid) {
+        if (uuid.version() != 7) throw new IllegalArgumentException("Not a UUIDv7: " + uuid);
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
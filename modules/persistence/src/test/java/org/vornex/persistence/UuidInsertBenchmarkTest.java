@@ -0,0 +1,101 @@
+package org.vornex.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Вставки с первичным ключом UUIDv4 против UUIDv7 на настоящем PostgreSQL: время, размер PK-индекса и объём WAL.
+ * <p>
+ * Нужен Docker и явное включение, в обычной сборке не запускается:
+ * mvn -pl modules/persistence test -Dtest=UuidInsertBenchmarkTest -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+class UuidInsertBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidInsertBenchmarkTest.class);
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int BATCH = 1_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16")
+            // маленький shared_buffers — как на проде, где индекс больше кеша
+            .withCommand("postgres", "-c", "shared_buffers=32MB");
+
+    private record Result(String name, long millis, long indexBytes, long walBytes) {
+        @Override
+        public String toString() {
+            return String.format("%s: %,d rows in %,d ms (%,.0f rows/s), pk index %,d KB, WAL %,d KB",
+                    name, ROWS, millis, ROWS * 1000.0 / Math.max(1, millis), indexBytes / 1024, walBytes / 1024);
+        }
+    }
+
+    @Test
+    void v7KeepsPrimaryKeyIndexCompact() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl() + "&reWriteBatchedInserts=true", postgres.getUsername(), postgres.getPassword())) {
+            Result v4 = run(connection, "uuid_v4", UUID::randomUUID);
+            Result v7 = run(connection, "uuid_v7", UuidV7Generator::next);
+            log.info("{}", v4);
+            log.info("{}", v7);
+
+            assertThat(v7.indexBytes()).as("%s vs %s", v7, v4).isLessThan(v4.indexBytes());
+        }
+    }
+
+    private static Result run(Connection connection, String table, Supplier<UUID> ids) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("create table " + table + " (id uuid primary key, payload varchar(64) not null)");
+            ddl.execute("checkpoint");
+        }
+        long walBefore = walPosition(connection);
+        long started = System.nanoTime();
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement("insert into " + table + " (id, payload) values (?, ?)")) {
+            for (int i = 1; i <= ROWS; i++) {
+                insert.setObject(1, ids.get());
+                insert.setString(2, "listing " + i);
+                insert.addBatch();
+                if (i % BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        long millis = (System.nanoTime() - started) / 1_000_000;
+        long walBytes = walPosition(connection) - walBefore;
+        return new Result(table, millis, scalar(connection, "select pg_relation_size('" + table + "_pkey')"), walBytes);
+    }
+
+    private static long walPosition(Connection connection) throws SQLException {
+        return scalar(connection, "select pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint");
+    }
+
+    private static long scalar(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
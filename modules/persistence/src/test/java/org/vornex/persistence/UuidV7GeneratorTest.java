@@ -0,0 +1,38 @@
+package org.vornex.persistence;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void layoutFollowsRfc9562() {
+        long millis = 1_760_000_000_123L;
+        UUID uuid = UuidV7Generator.next(millis);
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(UuidV7Generator.timestampOf(uuid)).isEqualTo(millis);
+        assertThat(UUID.fromString(uuid.toString())).isEqualTo(uuid);
+    }
+
+    @Test
+    void laterMillisecondSortsAfterInTextAndInPostgresOrder() {
+        UUID earlier = UuidV7Generator.next(1_760_000_000_000L);
+        UUID later = UuidV7Generator.next(1_760_000_000_001L);
+
+        // PostgreSQL сравнивает uuid побайтово (беззнаково) — как строки в hex
+        assertThat(earlier.toString()).isLessThan(later.toString());
+        assertThat(earlier).isNotEqualTo(UuidV7Generator.next(1_760_000_000_000L));
+    }
+
+    @Test
+    void timestampOf_rejectsOtherVersions() {
+        assertThatThrownBy(() -> UuidV7Generator.timestampOf(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
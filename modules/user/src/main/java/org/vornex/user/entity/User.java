@@ -23,7 +23,7 @@ import java.util.*;
 @Entity
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedValue(strategy = GenerationType.UUID) // v4, не v7: id пользователя публичен, а v7 раскрывает время регистрации
     @Column(nullable = false, updatable = false)
     UUID id;
     @Column(nullable = false, unique = true)